@@ -402,6 +402,15 @@ public class JfxApplication extends Application {
         var config = EditorConfig.getInstance();
         config.save();
 
+        var imageManager = JavaFxImageManager.getInstance();
+        imageManager.save();
+
+        var iconManager = FileIconManager.getInstance();
+        iconManager.save();
+
+        var resourceManager = ResourceManager.getInstance();
+        resourceManager.saveFileIndex();
+
         var waiter = new CountDownLatch(1);
 
         var executor = JmeThreadExecutor.getInstance();
@@ -34,12 +34,14 @@ import com.ss.editor.asset.locator.FileSystemAssetLocator;
 import com.ss.editor.asset.locator.FolderAssetLocator;
 import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.executor.impl.JmeThreadExecutor;
 import com.ss.editor.extension.loader.SceneLoader;
 import com.ss.editor.filter.EditorFxaaFilter;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.manager.InitializationManager;
 import com.ss.editor.manager.WorkspaceManager;
+import com.ss.editor.part3d.preview.ThumbnailRenderState;
 import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.WindowChangeFocusEvent;
 import com.ss.editor.util.EditorUtil;
@@ -138,6 +140,12 @@ public class JmeApplication extends JmeToJfxApplication {
     @Nullable
     private Camera previewCamera;
 
+    /**
+     * The state to render thumbnails of models and materials.
+     */
+    @NotNull
+    private final ThumbnailRenderState thumbnailRenderState;
+
     /**
      * The environment camera.
      */
@@ -184,6 +192,7 @@ public class JmeApplication extends JmeToJfxApplication {
         EditorUtil.setJmeApplication(this);
         this.lock = new StampedLock();
         this.previewNode = new Node("Preview Node");
+        this.thumbnailRenderState = new ThumbnailRenderState(256, 4);
     }
 
     /**
@@ -236,6 +245,9 @@ public class JmeApplication extends JmeToJfxApplication {
         var editorConfig = EditorConfig.getInstance();
         var system = new OperatingSystem();
 
+        JmeThreadExecutor.getInstance()
+                .setFrameBudget(editorConfig.getInteger(PREF_JME_TASK_FRAME_BUDGET, PREF_DEFAULT_JME_TASK_FRAME_BUDGET));
+
         LOGGER.debug(this, "OS: " + system.getDistribution());
 
         var assetManager = getAssetManager();
@@ -296,6 +308,7 @@ public class JmeApplication extends JmeToJfxApplication {
         }
 
         createLightProbes();
+        stateManager.attach(thumbnailRenderState);
         stateManager.detach(stateManager.getState(DebugKeysAppState.class));
 
         var initializationManager = InitializationManager.getInstance();
@@ -434,7 +447,7 @@ public class JmeApplication extends JmeToJfxApplication {
 
         if (environmentCamera.getApplication() == null) {
             final JmeThreadExecutor gameThreadExecutor = JmeThreadExecutor.getInstance();
-            gameThreadExecutor.addToExecute(this::createLightProbes);
+            gameThreadExecutor.addToExecute(this::createLightProbes, TaskPriority.BULK);
             return;
         }
 
@@ -586,6 +599,16 @@ public class JmeApplication extends JmeToJfxApplication {
         return previewEnvironmentCamera;
     }
 
+    /**
+     * Get the state to render thumbnails of models and materials.
+     *
+     * @return the state to render thumbnails.
+     */
+    @FromAnyThread
+    public @NotNull ThumbnailRenderState getThumbnailRenderState() {
+        return thumbnailRenderState;
+    }
+
     /**
      * Get the preview node.
      *
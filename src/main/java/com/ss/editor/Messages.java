@@ -41,6 +41,7 @@ public class Messages {
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE_QUESTION;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILES_QUESTION;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FILE;
+    public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_BATCH_CONVERT;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_EXTERNAL_EDITOR;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_SYSTEM_EXPLORER;
     public static final String ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_RENAME_FILE;
@@ -491,6 +492,7 @@ public class Messages {
     public static final String MODEL_PROPERTY_SHININESS;
     public static final String MODEL_PROPERTY_MODEL;
     public static final String MODEL_PROPERTY_METHOD;
+    public static final String MODEL_PROPERTY_PLACEMENT;
 
 
     public static final String MATERIAL_MODEL_PROPERTY_CONTROL_NO_TEXTURE;
@@ -587,6 +589,17 @@ public class Messages {
     public static final String GENERATE_LOD_DIALOG_TITLE;
     public static final String GENERATE_LOD_DIALOG_METHOD;
 
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_TITLE;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_BATCH_MODE;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_CELL_SIZE;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_KEEP_TANGENTS;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_MAX_VERTICES;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_GEOMETRIES;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_DRAW_CALLS;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_VERTEX_MEMORY;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_INDEX_MEMORY;
+    public static final String OPTIMIZE_GEOMETRY_DIALOG_BOUNDS;
+
     public static final String BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_NAME;
     public static final String BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_SPHERE;
     public static final String BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_SPHERE_RADIUS;
@@ -643,6 +656,8 @@ public class Messages {
     public static final String CREATE_TERRAIN_DIALOG_FLATTENING;
     public static final String CREATE_TERRAIN_DIALOG_MIN_RADIUS;
     public static final String CREATE_TERRAIN_DIALOG_MAX_RADIUS;
+    public static final String CREATE_TERRAIN_DIALOG_CHUNKS;
+    public static final String CREATE_TERRAIN_DIALOG_ALPHA_MAP_FORMAT;
 
     public static final String CREATE_PARTICLE_EMITTER_POINT_SHAPE_DIALOG_TITLE;
     public static final String CREATE_PARTICLE_EMITTER_BOX_SHAPE_DIALOG_TITLE;
@@ -660,6 +675,14 @@ public class Messages {
     public static final String MODEL_CONVERTER_DIALOG_MATERIAL_FOLDER;
     public static final String MODEL_CONVERTER_DIALOG_OVERWRITE_MATERIALS;
 
+    public static final String BATCH_CONVERT_DIALOG_TITLE;
+    public static final String BATCH_CONVERT_DIALOG_SKIP_UNCHANGED;
+    public static final String BATCH_CONVERT_DIALOG_PROGRESS;
+    public static final String BATCH_CONVERT_DIALOG_CONVERTED;
+    public static final String BATCH_CONVERT_DIALOG_SKIPPED;
+    public static final String BATCH_CONVERT_DIALOG_FAILED;
+    public static final String BATCH_CONVERT_DIALOG_THROUGHPUT;
+
     public static final String IMPORT_MODEL_DIALOG_TITLE;
     public static final String IMPORT_MODEL_DIALOG_EXTERNAL_FILE;
     public static final String IMPORT_MODEL_DIALOG_TEXTURES_FOLDER;
@@ -698,7 +721,10 @@ public class Messages {
     public static final String PAINTING_COMPONENT_SPAWN_MODELS;
     public static final String PAINTING_COMPONENT_SPAWN_MODELS_METHOD_AS_IS;
     public static final String PAINTING_COMPONENT_SPAWN_MODELS_METHOD_LINK;
+    public static final String PAINTING_COMPONENT_SPAWN_MODELS_METHOD_INSTANCED;
     public static final String PAINTING_COMPONENT_SPAWN_MODELS_METHOD_BATCH;
+    public static final String PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_RANDOM;
+    public static final String PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_POISSON_DISK;
 
     static {
 
@@ -731,6 +757,7 @@ public class Messages {
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILE_QUESTION = bundle.getString("AssetComponentResourceTreeContextMenuDeleteFileQuestion");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_DELETE_FILES_QUESTION = bundle.getString("AssetComponentResourceTreeContextMenuDeleteFilesQuestion");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_CONVERT_FILE = bundle.getString("AssetComponentResourceTreeContextMenuConvertFile");
+        ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_BATCH_CONVERT = bundle.getString("AssetComponentResourceTreeContextMenuBatchConvert");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_EXTERNAL_EDITOR = bundle.getString("AssetComponentResourceTreeContextMenuOpenFileByExternalEditor");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_OPEN_FILE_BY_SYSTEM_EXPLORER = bundle.getString("AssetComponentResourceTreeContextMenuOpenFileBySystemExplorer");
         ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_RENAME_FILE = bundle.getString("AssetComponentResourceTreeContextMenuRenameFile");
@@ -1180,6 +1207,7 @@ public class Messages {
         MODEL_PROPERTY_SHININESS = bundle.getString("ModelPropertyShininess");
         MODEL_PROPERTY_MODEL = bundle.getString("ModelPropertyModel");
         MODEL_PROPERTY_METHOD = bundle.getString("ModelPropertyMethod");
+        MODEL_PROPERTY_PLACEMENT = bundle.getString("ModelPropertyPlacement");
 
         MATERIAL_MODEL_PROPERTY_CONTROL_NO_TEXTURE = bundle.getString("MaterialModelPropertyControlNoTexture");
         MATERIAL_MODEL_PROPERTY_CONTROL_TEXTURE_SETTINGS = bundle.getString("MaterialModelPropertyControlTextureSettings");
@@ -1275,6 +1303,17 @@ public class Messages {
         GENERATE_LOD_DIALOG_TITLE = bundle.getString("GenerateLoDDialogTitle");
         GENERATE_LOD_DIALOG_METHOD = bundle.getString("GenerateLoDDialogMethod");
 
+        OPTIMIZE_GEOMETRY_DIALOG_TITLE = bundle.getString("OptimizeGeometryDialogTitle");
+        OPTIMIZE_GEOMETRY_DIALOG_BATCH_MODE = bundle.getString("OptimizeGeometryDialogBatchMode");
+        OPTIMIZE_GEOMETRY_DIALOG_CELL_SIZE = bundle.getString("OptimizeGeometryDialogCellSize");
+        OPTIMIZE_GEOMETRY_DIALOG_KEEP_TANGENTS = bundle.getString("OptimizeGeometryDialogKeepTangents");
+        OPTIMIZE_GEOMETRY_DIALOG_MAX_VERTICES = bundle.getString("OptimizeGeometryDialogMaxVertices");
+        OPTIMIZE_GEOMETRY_DIALOG_GEOMETRIES = bundle.getString("OptimizeGeometryDialogGeometries");
+        OPTIMIZE_GEOMETRY_DIALOG_DRAW_CALLS = bundle.getString("OptimizeGeometryDialogDrawCalls");
+        OPTIMIZE_GEOMETRY_DIALOG_VERTEX_MEMORY = bundle.getString("OptimizeGeometryDialogVertexMemory");
+        OPTIMIZE_GEOMETRY_DIALOG_INDEX_MEMORY = bundle.getString("OptimizeGeometryDialogIndexMemory");
+        OPTIMIZE_GEOMETRY_DIALOG_BOUNDS = bundle.getString("OptimizeGeometryDialogBounds");
+
         BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_NAME = bundle.getString("BoundingVolumeModelPropertyControlName");
         BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_SPHERE = bundle.getString("BoundingVolumeModelPropertyControlSphere");
         BOUNDING_VOLUME_MODEL_PROPERTY_CONTROL_SPHERE_RADIUS = bundle.getString("BoundingVolumeModelPropertyControlSphereRadius");
@@ -1332,6 +1371,8 @@ public class Messages {
         CREATE_TERRAIN_DIALOG_FLATTENING = bundle.getString("CreateTerrainDialogFlattening");
         CREATE_TERRAIN_DIALOG_MIN_RADIUS = bundle.getString("CreateTerrainDialogMinRadius");
         CREATE_TERRAIN_DIALOG_MAX_RADIUS = bundle.getString("CreateTerrainDialogMaxRadius");
+        CREATE_TERRAIN_DIALOG_CHUNKS = bundle.getString("CreateTerrainDialogChunks");
+        CREATE_TERRAIN_DIALOG_ALPHA_MAP_FORMAT = bundle.getString("CreateTerrainDialogAlphaMapFormat");
 
         CREATE_PARTICLE_EMITTER_POINT_SHAPE_DIALOG_TITLE = bundle.getString("CreateParticleEmitterPointShapeDialogTitle");
         CREATE_PARTICLE_EMITTER_BOX_SHAPE_DIALOG_TITLE = bundle.getString("CreateParticleEmitterBoxShapeDialogTitle");
@@ -1349,6 +1390,14 @@ public class Messages {
         MODEL_CONVERTER_DIALOG_MATERIAL_FOLDER = bundle.getString("ModelConverterDialogMaterialsFolder");
         MODEL_CONVERTER_DIALOG_OVERWRITE_MATERIALS = bundle.getString("ModelConverterDialogOverwriteMaterials");
 
+        BATCH_CONVERT_DIALOG_TITLE = bundle.getString("BatchConvertDialogTitle");
+        BATCH_CONVERT_DIALOG_SKIP_UNCHANGED = bundle.getString("BatchConvertDialogSkipUnchanged");
+        BATCH_CONVERT_DIALOG_PROGRESS = bundle.getString("BatchConvertDialogProgress");
+        BATCH_CONVERT_DIALOG_CONVERTED = bundle.getString("BatchConvertDialogConverted");
+        BATCH_CONVERT_DIALOG_SKIPPED = bundle.getString("BatchConvertDialogSkipped");
+        BATCH_CONVERT_DIALOG_FAILED = bundle.getString("BatchConvertDialogFailed");
+        BATCH_CONVERT_DIALOG_THROUGHPUT = bundle.getString("BatchConvertDialogThroughput");
+
         IMPORT_MODEL_DIALOG_TITLE = bundle.getString("ImportModelDialogTitle");
         IMPORT_MODEL_DIALOG_EXTERNAL_FILE = bundle.getString("ImportModelDialogExternalFile");
         IMPORT_MODEL_DIALOG_TEXTURES_FOLDER = bundle.getString("ImportModelDialogTexturesFolder");
@@ -1387,6 +1436,9 @@ public class Messages {
         PAINTING_COMPONENT_SPAWN_MODELS = bundle.getString("PaintingComponentSpawnModels");
         PAINTING_COMPONENT_SPAWN_MODELS_METHOD_AS_IS = bundle.getString("PaintingComponentSpawnModelsMethodAsIs");
         PAINTING_COMPONENT_SPAWN_MODELS_METHOD_LINK = bundle.getString("PaintingComponentSpawnModelsMethodLink");
+        PAINTING_COMPONENT_SPAWN_MODELS_METHOD_INSTANCED = bundle.getString("PaintingComponentSpawnModelsMethodInstanced");
         PAINTING_COMPONENT_SPAWN_MODELS_METHOD_BATCH = bundle.getString("PaintingComponentSpawnModelsMethodBatch");
+        PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_RANDOM = bundle.getString("PaintingComponentSpawnModelsPlacementRandom");
+        PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_POISSON_DISK = bundle.getString("PaintingComponentSpawnModelsPlacementPoissonDisk");
     }
 }
\ No newline at end of file
@@ -0,0 +1,355 @@
+package com.ss.editor.asset.cache;
+
+import com.jme3.asset.AssetKey;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.file.watch.FileChangesCollector;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The index of cached assets to invalidate them by file events. Each located asset key is mapped to its file and
+ * each requested asset key is mapped to the keys which were loading when it was requested, so when a file is changed
+ * its keys and all their dependents are marked as stale in bulk, a stale key is removed from the cache on the next
+ * request. Files outside of an asset folder aren't watched, so their keys are still checked by last modified time.
+ *
+ * @author JavaSaBr
+ */
+public class AssetCacheIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(AssetCacheIndex.class);
+
+    @NotNull
+    private static final AssetCacheIndex INSTANCE = new AssetCacheIndex();
+
+    /**
+     * The max depth of loading assets, deeper stacks are left by failed loadings and are dropped.
+     */
+    private static final int MAX_LOADING_DEPTH = 64;
+
+    @FromAnyThread
+    public static @NotNull AssetCacheIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The asset which was located outside of an asset folder.
+     */
+    private static class ExternalAsset {
+
+        /**
+         * The file of the asset.
+         */
+        @NotNull
+        private final Path file;
+
+        /**
+         * The time when the asset was loaded in ms.
+         */
+        private volatile long loadedTime;
+
+        private ExternalAsset(@NotNull Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * The located asset keys by their files.
+     */
+    @NotNull
+    private final ConcurrentHashMap<Path, Set<AssetKey<?>>> keysByFile;
+
+    /**
+     * The asset keys which were loading when an asset key was requested by the asset key.
+     */
+    @NotNull
+    private final ConcurrentHashMap<AssetKey<?>, Set<AssetKey<?>>> dependents;
+
+    /**
+     * The assets located outside of an asset folder by their keys.
+     */
+    @NotNull
+    private final ConcurrentHashMap<AssetKey<?>, ExternalAsset> externalAssets;
+
+    /**
+     * The asset keys which should be removed from the cache on the next request.
+     */
+    @NotNull
+    private final Set<AssetKey<?>> staleKeys;
+
+    /**
+     * The stack of loading asset keys in the current thread.
+     */
+    @NotNull
+    private final ThreadLocal<Deque<AssetKey<?>>> loadingKeys;
+
+    private AssetCacheIndex() {
+        this.keysByFile = new ConcurrentHashMap<>();
+        this.dependents = new ConcurrentHashMap<>();
+        this.externalAssets = new ConcurrentHashMap<>();
+        this.staleKeys = ConcurrentHashMap.newKeySet();
+        this.loadingKeys = ThreadLocal.withInitial(ArrayDeque::new);
+    }
+
+    /**
+     * Register the asset key which was located in a watched asset folder and is going to be loaded.
+     *
+     * @param key  the asset key.
+     * @param file the file of the asset.
+     */
+    @FromAnyThread
+    public void onLocated(@NotNull AssetKey<?> key, @NotNull Path file) {
+        keysByFile.computeIfAbsent(file, path -> ConcurrentHashMap.newKeySet()).add(key);
+        pushLoading(key);
+    }
+
+    /**
+     * Register the asset key which was located outside of an asset folder and is going to be loaded.
+     *
+     * @param key  the asset key.
+     * @param file the file of the asset.
+     */
+    @FromAnyThread
+    public void onLocatedExternal(@NotNull AssetKey<?> key, @NotNull Path file) {
+        externalAssets.put(key, new ExternalAsset(file));
+        pushLoading(key);
+    }
+
+    /**
+     * Handle the requested asset key, the key is mapped to the currently loading asset key of this thread.
+     *
+     * @param key the asset key.
+     * @return true if the cached asset of the key is stale and should be removed from the cache.
+     */
+    @FromAnyThread
+    public boolean onRequested(@NotNull AssetKey<?> key) {
+
+        var parent = loadingKeys.get().peek();
+
+        if (parent != null && !parent.equals(key)) {
+            dependents.computeIfAbsent(key, assetKey -> ConcurrentHashMap.newKeySet()).add(parent);
+        }
+
+        if (!staleKeys.isEmpty() && staleKeys.remove(key)) {
+            return true;
+        }
+
+        var externalAsset = externalAssets.get(key);
+
+        if (externalAsset == null || !isModified(externalAsset)) {
+            return false;
+        }
+
+        markStale(key);
+        staleKeys.remove(key);
+
+        return true;
+    }
+
+    /**
+     * Handle the loaded asset key.
+     *
+     * @param key the asset key.
+     */
+    @FromAnyThread
+    public void onLoaded(@NotNull AssetKey<?> key) {
+
+        var externalAsset = externalAssets.get(key);
+
+        if (externalAsset != null) {
+            externalAsset.loadedTime = System.currentTimeMillis();
+        }
+
+        var loading = loadingKeys.get();
+
+        if (!loading.contains(key)) {
+            return;
+        }
+
+        // keys above the loaded key were left by failed loadings
+        for (var loadingKey = loading.pop(); !key.equals(loadingKey); loadingKey = loading.pop()) {
+            LOGGER.debug(this, loadingKey, toRemove -> "Drop the failed loading of " + toRemove);
+        }
+    }
+
+    /**
+     * Mark asset keys of the changed or deleted file and all their dependents as stale.
+     *
+     * @param file the file.
+     */
+    @FromAnyThread
+    public void invalidate(@NotNull Path file) {
+
+        var keys = keysByFile.remove(file);
+
+        if (keys != null) {
+            keys.forEach(this::markStale);
+        }
+    }
+
+    /**
+     * Mark asset keys of all files in the deleted folder and all their dependents as stale.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    public void invalidateFolder(@NotNull Path folder) {
+
+        for (var file : keysByFile.keySet()) {
+            if (file.startsWith(folder)) {
+                invalidate(file);
+            }
+        }
+    }
+
+    /**
+     * Mark asset keys of all files which were changed by the collected events as stale. Created files are
+     * invalidated too, because replacing a file by renaming another file over it produces only a create event.
+     *
+     * @param collector the finished collector of events.
+     * @param isFolder  the function to check that a deleted or moved path was a folder.
+     */
+    @FromAnyThread
+    public void invalidate(@NotNull FileChangesCollector collector, @NotNull Predicate<Path> isFolder) {
+
+        for (var file : collector.getDeletedFiles()) {
+            invalidate(file, isFolder.test(file));
+        }
+
+        for (var file : collector.getMovedFiles().keySet()) {
+            invalidate(file, isFolder.test(file));
+        }
+
+        collector.getChangedFiles().forEach(this::invalidate);
+        collector.getCreatedFiles().forEach(this::invalidate);
+    }
+
+    /**
+     * Mark asset keys of the deleted file or of all files in the deleted folder as stale.
+     *
+     * @param file   the file or folder.
+     * @param folder true if the file was a folder.
+     */
+    @FromAnyThread
+    private void invalidate(@NotNull Path file, boolean folder) {
+        if (folder) {
+            invalidateFolder(file);
+        } else {
+            invalidate(file);
+        }
+    }
+
+    /**
+     * Remove all asset keys which were located outside of an asset folder from this index.
+     *
+     * @return the removed asset keys.
+     */
+    @FromAnyThread
+    public @NotNull Array<AssetKey<?>> removeExternalKeys() {
+
+        Array<AssetKey<?>> result = ArrayFactory.newArray(AssetKey.class, externalAssets.size());
+
+        for (var key : externalAssets.keySet()) {
+            if (externalAssets.remove(key) != null) {
+                dependents.remove(key);
+                result.add(key);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Clear this index after clearing the asset cache.
+     */
+    @FromAnyThread
+    public void clear() {
+        keysByFile.clear();
+        dependents.clear();
+        externalAssets.clear();
+        staleKeys.clear();
+    }
+
+    /**
+     * Mark the asset key and all its dependents as stale.
+     *
+     * @param key the asset key.
+     */
+    @FromAnyThread
+    private void markStale(@NotNull AssetKey<?> key) {
+
+        var visited = new HashSet<AssetKey<?>>();
+        var queue = new ArrayDeque<AssetKey<?>>();
+        queue.add(key);
+
+        for (var next = queue.poll(); next != null; next = queue.poll()) {
+
+            if (!visited.add(next)) {
+                continue;
+            }
+
+            staleKeys.add(next);
+
+            var parents = dependents.remove(next);
+
+            if (parents != null) {
+                queue.addAll(parents);
+            }
+        }
+    }
+
+    /**
+     * Push the asset key to the stack of loading asset keys of this thread.
+     *
+     * @param key the asset key.
+     */
+    @FromAnyThread
+    private void pushLoading(@NotNull AssetKey<?> key) {
+
+        var loading = loadingKeys.get();
+
+        if (loading.size() >= MAX_LOADING_DEPTH) {
+            loading.clear();
+        }
+
+        loading.push(key);
+    }
+
+    /**
+     * Check the file of the external asset was modified after loading.
+     *
+     * @param externalAsset the external asset.
+     * @return true if the file was modified.
+     */
+    @FromAnyThread
+    private boolean isModified(@NotNull ExternalAsset externalAsset) {
+
+        var loadedTime = externalAsset.loadedTime;
+
+        if (loadedTime == 0 || !Files.exists(externalAsset.file)) {
+            return false;
+        }
+
+        try {
+            var lastModifiedTime = Files.getLastModifiedTime(externalAsset.file);
+            return lastModifiedTime.to(TimeUnit.MILLISECONDS) > loadedTime;
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+            return false;
+        }
+    }
+}
@@ -6,15 +6,12 @@ import com.jme3.asset.AssetKey;
 import com.jme3.asset.AssetLocator;
 import com.jme3.asset.AssetManager;
 import com.ss.editor.annotation.FromAnyThread;
-import com.ss.rlib.common.util.ArrayUtils;
-import com.ss.rlib.common.util.array.ArrayFactory;
-import com.ss.rlib.common.util.array.ConcurrentArray;
+import com.ss.editor.asset.cache.AssetCacheIndex;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
 
 /**
  * The implementation of asset locator to use file system as asset folder.
@@ -23,20 +20,14 @@ import java.util.Collection;
  */
 public class FileSystemAssetLocator implements AssetLocator {
 
-    @NotNull
-    private static final ConcurrentArray<AssetKey<?>> LOCATED_KEYS = ArrayFactory.newConcurrentStampedLockArray(AssetKey.class);
-
     /**
      * Clear all located objects from this locator.
      */
     @FromAnyThread
     public static void clear() {
-        final long stamp = LOCATED_KEYS.writeLock();
-        try {
-            LOCATED_KEYS.forEach(getAssetManager(), (assetKey, manager) -> manager.deleteFromCache(assetKey));
-        } finally {
-            LOCATED_KEYS.writeUnlock(stamp);
-        }
+        final AssetCacheIndex cacheIndex = AssetCacheIndex.getInstance();
+        cacheIndex.removeExternalKeys()
+                .forEach(getAssetManager(), (assetKey, manager) -> manager.deleteFromCache(assetKey));
     }
 
     @Override
@@ -51,7 +42,7 @@ public class FileSystemAssetLocator implements AssetLocator {
             return null;
         }
 
-        ArrayUtils.runInWriteLock(LOCATED_KEYS, key, Collection::add);
+        AssetCacheIndex.getInstance().onLocatedExternal(key, absoluteFile);
 
         return new FolderAssetLocator.PathAssetInfo(manager, key, absoluteFile);
     }
@@ -5,6 +5,7 @@ import com.jme3.asset.AssetKey;
 import com.jme3.asset.AssetLocator;
 import com.jme3.asset.AssetManager;
 import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.asset.cache.AssetCacheIndex;
 import com.ss.editor.config.EditorConfig;
 import org.jetbrains.annotations.NotNull;
 
@@ -63,6 +64,8 @@ public class FolderAssetLocator implements AssetLocator {
             return null;
         }
 
+        AssetCacheIndex.getInstance().onLocated(key, resolve);
+
         return new PathAssetInfo(manager, key, resolve);
     }
 
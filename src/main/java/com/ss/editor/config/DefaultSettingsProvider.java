@@ -47,6 +47,7 @@ public class DefaultSettingsProvider implements SettingsProvider {
         @NotNull String PREF_FILTER_TONEMAP = "core.graphics.filter.toneMap";
         @NotNull String PREF_FILTER_TONEMAP_WHITE_POINT = "core.graphics.filter.toneMap.whitePoint";
         @NotNull String PREF_STOP_RENDER_ON_LOST_FOCUS = "core.graphics.render.stopOnLostFocus";
+        @NotNull String PREF_JME_TASK_FRAME_BUDGET = "core.graphics.render.taskFrameBudget";
 
         @NotNull String PREF_USER_LIBRARY_FOLDER = "core.classpath.library.folder";
         @NotNull String PREF_USER_CLASSES_FOLDER = "core.classpath.classes.folder";
@@ -59,6 +60,8 @@ public class DefaultSettingsProvider implements SettingsProvider {
         @NotNull String PREF_TANGENT_GENERATION = "core.editor.tangent.generation";
         @NotNull String PREF_FLIPPED_TEXTURES = "core.editor.texture.flipped";
         @NotNull String PREF_CAMERA_LAMP = "core.editor.camera.lamp";
+        @NotNull String PREF_PREVIEW_MEMORY_CACHE_SIZE = "core.editor.preview.cache.memory.size";
+        @NotNull String PREF_PREVIEW_DISK_CACHE_SIZE = "core.editor.preview.cache.disk.size";
     }
 
     public interface Defaults {
@@ -71,6 +74,9 @@ public class DefaultSettingsProvider implements SettingsProvider {
         int PREF_DEFAULT_ANISOTROPY = 16;
         int PREF_DEFAULT_FRAME_RATE = 60;
         int PREF_DEFAULT_CAMERA_ANGLE = 75;
+        int PREF_DEFAULT_JME_TASK_FRAME_BUDGET = 8;
+        int PREF_DEFAULT_PREVIEW_MEMORY_CACHE_SIZE = 64;
+        int PREF_DEFAULT_PREVIEW_DISK_CACHE_SIZE = 512;
 
         boolean PREF_DEFAULT_TONEMAP_FILTER = true;
         boolean PREF_DEFAULT_GAMMA_CORRECTION = true;
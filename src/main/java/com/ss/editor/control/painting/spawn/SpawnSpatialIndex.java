@@ -0,0 +1,369 @@
+package com.ss.editor.control.painting.spawn;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.collision.CollisionResults;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.common.util.dictionary.DictionaryFactory;
+import com.ss.rlib.common.util.dictionary.LongDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The uniform grid of bounds of spawned models and scene geometries in the XZ plane to test overlaps of new models
+ * only against nearby objects.
+ *
+ * @author JavaSaBr
+ */
+public class SpawnSpatialIndex {
+
+    /**
+     * The max count of cells which can be covered by an entry or a query, larger entries are tested always and
+     * larger queries test all entries.
+     */
+    private static final int MAX_CELLS_PER_ENTRY = 1024;
+
+    /**
+     * The indexed object.
+     */
+    private static class Entry {
+
+        /**
+         * The world bound of the object.
+         */
+        @NotNull
+        private final BoundingBox bound;
+
+        /**
+         * The geometry to test precise collisions or null if the bound is enough.
+         */
+        @Nullable
+        private final Geometry geometry;
+
+        /**
+         * The last query which tested this entry.
+         */
+        private int lastQuery;
+
+        private Entry(@NotNull BoundingBox bound, @Nullable Geometry geometry) {
+            this.bound = bound;
+            this.geometry = geometry;
+        }
+    }
+
+    /**
+     * The entries by cells.
+     */
+    @NotNull
+    private final LongDictionary<Array<Entry>> cells;
+
+    /**
+     * The entries which cover too many cells.
+     */
+    @NotNull
+    private final Array<Entry> oversized;
+
+    /**
+     * The collision results to test precise collisions.
+     */
+    @NotNull
+    private final CollisionResults collisions;
+
+    /**
+     * The size of a cell.
+     */
+    private float cellSize;
+
+    /**
+     * The id of the current query.
+     */
+    private int query;
+
+    public SpawnSpatialIndex() {
+        this.cells = DictionaryFactory.newLongDictionary();
+        this.oversized = ArrayFactory.newArray(Entry.class);
+        this.collisions = new CollisionResults();
+        this.cellSize = 1F;
+    }
+
+    /**
+     * Remove all entries and set the new size of cells.
+     *
+     * @param cellSize the size of cells.
+     */
+    @JmeThread
+    public void reset(float cellSize) {
+        this.cells.clear();
+        this.oversized.clear();
+        this.cellSize = Math.max(cellSize, 0.01F);
+    }
+
+    /**
+     * Add the bound of a spawned model.
+     *
+     * @param bound the world bound.
+     */
+    @JmeThread
+    public void add(@NotNull BoundingVolume bound) {
+        add(new Entry(toBox(bound), null));
+    }
+
+    /**
+     * Add an existing geometry, overlaps with it will be checked by precise collisions.
+     *
+     * @param geometry the geometry.
+     */
+    @JmeThread
+    public void add(@NotNull Geometry geometry) {
+
+        var bound = geometry.getWorldBound();
+
+        if (bound == null) {
+            return;
+        }
+
+        var entry = new Entry(toBox(bound), geometry);
+
+        // never culled geometries like skies usually have infinite bounds
+        if (geometry.getCullHint() == Spatial.CullHint.Never) {
+            oversized.add(entry);
+        } else {
+            add(entry);
+        }
+    }
+
+    @JmeThread
+    private void add(@NotNull Entry entry) {
+
+        var bound = entry.bound;
+        var center = bound.getCenter();
+
+        if (!isFinite(bound)) {
+            oversized.add(entry);
+            return;
+        }
+
+        var minX = cell(center.getX() - bound.getXExtent());
+        var maxX = cell(center.getX() + bound.getXExtent());
+        var minZ = cell(center.getZ() - bound.getZExtent());
+        var maxZ = cell(center.getZ() + bound.getZExtent());
+
+        if (getCellCount(minX, maxX, minZ, maxZ) > MAX_CELLS_PER_ENTRY) {
+            oversized.add(entry);
+            return;
+        }
+
+        for (var x = minX; x <= maxX; x++) {
+            for (var z = minZ; z <= maxZ; z++) {
+                cells.get(key(x, z), () -> ArrayFactory.newArray(Entry.class))
+                        .add(entry);
+            }
+        }
+    }
+
+    /**
+     * Check that the bound overlaps any indexed object.
+     *
+     * @param bound the world bound.
+     * @return true if the bound overlaps an indexed object.
+     */
+    @JmeThread
+    public boolean intersects(@NotNull BoundingVolume bound) {
+
+        var box = toBox(bound);
+        var center = box.getCenter();
+        var currentQuery = ++query;
+
+        for (var entry : oversized) {
+            if (intersects(entry, box)) {
+                return true;
+            }
+        }
+
+        var minX = cell(center.getX() - box.getXExtent());
+        var maxX = cell(center.getX() + box.getXExtent());
+        var minZ = cell(center.getZ() - box.getZExtent());
+        var maxZ = cell(center.getZ() + box.getZExtent());
+
+        if (!isFinite(box) || getCellCount(minX, maxX, minZ, maxZ) > MAX_CELLS_PER_ENTRY) {
+            return intersectsAny(box, currentQuery);
+        }
+
+        for (var x = minX; x <= maxX; x++) {
+            for (var z = minZ; z <= maxZ; z++) {
+
+                var entries = cells.get(key(x, z));
+
+                if (entries == null) {
+                    continue;
+                }
+
+                for (var entry : entries) {
+
+                    if (entry.lastQuery == currentQuery) {
+                        continue;
+                    }
+
+                    entry.lastQuery = currentQuery;
+
+                    if (intersects(entry, box)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check that there is a spawned model closer than the distance to the point in the XZ plane.
+     *
+     * @param x        the X coordinate of the point.
+     * @param z        the Z coordinate of the point.
+     * @param distance the distance.
+     * @return true if there is a closer spawned model.
+     */
+    @JmeThread
+    public boolean hasCloser(float x, float z, float distance) {
+
+        var minX = cell(x - distance);
+        var maxX = cell(x + distance);
+        var minZ = cell(z - distance);
+        var maxZ = cell(z + distance);
+        var sqrDistance = distance * distance;
+
+        if (!Float.isFinite(sqrDistance) || getCellCount(minX, maxX, minZ, maxZ) > MAX_CELLS_PER_ENTRY) {
+
+            for (var entries : cells) {
+                if (hasCloser(entries, x, z, sqrDistance)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        for (var cellX = minX; cellX <= maxX; cellX++) {
+            for (var cellZ = minZ; cellZ <= maxZ; cellZ++) {
+
+                var entries = cells.get(key(cellX, cellZ));
+
+                if (entries != null && hasCloser(entries, x, z, sqrDistance)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @JmeThread
+    private boolean hasCloser(@NotNull Array<Entry> entries, float x, float z, float sqrDistance) {
+
+        for (var entry : entries) {
+
+            if (entry.geometry != null) {
+                continue;
+            }
+
+            var center = entry.bound.getCenter();
+            var diffX = center.getX() - x;
+            var diffZ = center.getZ() - z;
+
+            if (diffX * diffX + diffZ * diffZ < sqrDistance) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check that the box overlaps any indexed object without using cells.
+     *
+     * @param box          the box.
+     * @param currentQuery the id of the current query.
+     * @return true if the box overlaps an indexed object.
+     */
+    @JmeThread
+    private boolean intersectsAny(@NotNull BoundingBox box, int currentQuery) {
+
+        for (var entries : cells) {
+            for (var entry : entries) {
+
+                if (entry.lastQuery == currentQuery) {
+                    continue;
+                }
+
+                entry.lastQuery = currentQuery;
+
+                if (intersects(entry, box)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @JmeThread
+    private boolean intersects(@NotNull Entry entry, @NotNull BoundingBox box) {
+
+        if (!entry.bound.intersects(box)) {
+            return false;
+        } else if (entry.geometry == null) {
+            return true;
+        }
+
+        collisions.clear();
+
+        return entry.geometry.collideWith(box, collisions) > 0;
+    }
+
+    @JmeThread
+    private int cell(float coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long getCellCount(int minX, int maxX, int minZ, int maxZ) {
+
+        var countX = (long) maxX - minX + 1;
+        var countZ = (long) maxZ - minZ + 1;
+
+        // the product of spans of huge bounds can overflow long
+        if (countX > MAX_CELLS_PER_ENTRY || countZ > MAX_CELLS_PER_ENTRY) {
+            return Long.MAX_VALUE;
+        }
+
+        return countX * countZ;
+    }
+
+    private static boolean isFinite(@NotNull BoundingBox box) {
+        var center = box.getCenter();
+        return Float.isFinite(center.getX()) && Float.isFinite(center.getZ())
+                && Float.isFinite(box.getXExtent()) && Float.isFinite(box.getZExtent());
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    @JmeThread
+    private static @NotNull BoundingBox toBox(@NotNull BoundingVolume bound) {
+
+        if (bound instanceof BoundingBox) {
+            return (BoundingBox) bound.clone();
+        } else if (bound instanceof BoundingSphere) {
+            var radius = ((BoundingSphere) bound).getRadius();
+            return new BoundingBox(bound.getCenter().clone(), radius, radius, radius);
+        }
+
+        return new BoundingBox(bound.getCenter().clone(), 0F, 0F, 0F);
+    }
+}
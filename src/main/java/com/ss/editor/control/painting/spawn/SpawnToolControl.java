@@ -6,14 +6,20 @@ import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static com.ss.rlib.common.util.array.ArrayCollectors.toArray;
 import com.jme3.asset.ModelKey;
 import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
 import com.jme3.bounding.BoundingVolume;
+import com.jme3.material.Material;
 import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
 import com.jme3.math.Quaternion;
+import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.AssetLinkNode;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
+import com.jme3.scene.instancing.InstancedGeometry;
+import com.jme3.scene.instancing.InstancedNode;
 import com.jme3.terrain.Terrain;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FromAnyThread;
@@ -22,8 +28,10 @@ import com.ss.editor.control.painting.PaintingInput;
 import com.ss.editor.control.painting.impl.AbstractPaintingControl;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AddChildOperation;
+import com.ss.editor.model.undo.impl.AddInstancesOperation;
 import com.ss.editor.ui.component.painting.spawn.SpawnPaintingComponent;
 import com.ss.editor.util.GeomUtils;
+import com.ss.editor.util.InstancingUtils;
 import com.ss.editor.util.NodeUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
@@ -44,7 +52,8 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
     public enum SpawnMethod {
         AS_IS(Messages.PAINTING_COMPONENT_SPAWN_MODELS_METHOD_AS_IS),
         BATCH(Messages.PAINTING_COMPONENT_SPAWN_MODELS_METHOD_BATCH),
-        LINK(Messages.PAINTING_COMPONENT_SPAWN_MODELS_METHOD_LINK);
+        LINK(Messages.PAINTING_COMPONENT_SPAWN_MODELS_METHOD_LINK),
+        INSTANCED(Messages.PAINTING_COMPONENT_SPAWN_MODELS_METHOD_INSTANCED);
 
         private static final SpawnMethod[] SPAWN_METHODS = values();
 
@@ -65,6 +74,40 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
         }
     }
 
+    public enum SpawnPlacement {
+        RANDOM(Messages.PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_RANDOM),
+        POISSON_DISK(Messages.PAINTING_COMPONENT_SPAWN_MODELS_PLACEMENT_POISSON_DISK);
+
+        private static final SpawnPlacement[] SPAWN_PLACEMENTS = values();
+
+        public static @NotNull SpawnPlacement valueOf(int index) {
+            return SPAWN_PLACEMENTS[index];
+        }
+
+        @NotNull
+        private final String label;
+
+        SpawnPlacement(@NotNull String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * The name of the node to keep instances of spawned models.
+     */
+    @NotNull
+    private static final String INSTANCED_NODE_NAME = "Spawned Instances";
+
+    /**
+     * The max count of attempts to find a free place for a model.
+     */
+    private static final int MAX_ATTEMPTS = 10;
+
     /**
      * The list of spawned models.
      */
@@ -95,12 +138,35 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
     @NotNull
     private final Vector3f padding;
 
+    /**
+     * The spatial index of spawned models and scene geometries.
+     */
+    @NotNull
+    private final SpawnSpatialIndex spatialIndex;
+
+    /**
+     * The terrains to query heights.
+     */
+    @NotNull
+    private final Array<Terrain> terrains;
+
     /**
      * The spawn method.
      */
     @NotNull
     private SpawnMethod method;
 
+    /**
+     * The placement of models.
+     */
+    @NotNull
+    private SpawnPlacement placement;
+
+    /**
+     * The min distance between spawned models in the XZ plane.
+     */
+    private float minDistance;
+
     /**
      * The painting time.
      */
@@ -110,7 +176,10 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
         super(component);
         this.spawnedModels = ArrayFactory.newArray(Spatial.class);
         this.examples = ArrayFactory.newArray(Spatial.class);
+        this.spatialIndex = new SpawnSpatialIndex();
+        this.terrains = ArrayFactory.newArray(Terrain.class);
         this.method = SpawnMethod.BATCH;
+        this.placement = SpawnPlacement.POISSON_DISK;
         this.minScale = Vector3f.UNIT_XYZ.clone();
         this.maxScale = Vector3f.UNIT_XYZ.clone();
         this.padding = Vector3f.ZERO.clone();
@@ -136,6 +205,26 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
         this.method = method;
     }
 
+    /**
+     * Get the placement of models.
+     *
+     * @return the placement of models.
+     */
+    @JmeThread
+    public @NotNull SpawnPlacement getPlacement() {
+        return placement;
+    }
+
+    /**
+     * Set the placement of models.
+     *
+     * @param placement the placement of models.
+     */
+    @JmeThread
+    public void setPlacement(@NotNull SpawnPlacement placement) {
+        this.placement = placement;
+    }
+
     /**
      * Get the models min scale.
      *
@@ -163,7 +252,7 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
      */
     @JmeThread
     private @NotNull Vector3f getPadding() {
-        return minScale;
+        return padding;
     }
 
     /**
@@ -265,6 +354,55 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
 
         getSpawnedModels().clear();
         time = 0;
+
+        if (getPlacement() == SpawnPlacement.POISSON_DISK) {
+            prepareIndex();
+        }
+    }
+
+    /**
+     * Prepare the spatial index and the terrains to place models in the current stroke.
+     */
+    @JmeThread
+    protected void prepareIndex() {
+
+        var paintedModel = notNull(getPaintedModel());
+        var maxScale = getMaxScale();
+        var padding = getPadding();
+
+        var footprint = 0F;
+
+        for (var example : getExamples()) {
+
+            var bound = example.getWorldBound();
+
+            if (bound instanceof BoundingBox) {
+                var box = (BoundingBox) bound;
+                footprint = Math.max(footprint, Math.max(box.getXExtent() * maxScale.getX(),
+                        box.getZExtent() * maxScale.getZ()));
+            } else if (bound instanceof BoundingSphere) {
+                var radius = ((BoundingSphere) bound).getRadius();
+                footprint = Math.max(footprint, radius * Math.max(maxScale.getX(), maxScale.getZ()));
+            }
+        }
+
+        footprint += Math.max(padding.getX(), padding.getZ());
+
+        minDistance = footprint * 2F;
+        spatialIndex.reset(Math.max(minDistance, getBrushSize() / 8F));
+        terrains.clear();
+
+        NodeUtils.visitSpatial(paintedModel, spatial -> {
+
+            if (spatial instanceof Terrain) {
+                terrains.add((Terrain) spatial);
+                return false;
+            } else if (spatial instanceof Geometry) {
+                spatialIndex.add((Geometry) spatial);
+            }
+
+            return true;
+        });
     }
 
     @Override
@@ -282,7 +420,11 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
 
         switch (currentInput) {
             case MOUSE_PRIMARY: {
-                spawn(brushRotation, contactPoint);
+                if (getPlacement() == SpawnPlacement.POISSON_DISK) {
+                    spawnIndexed(brushRotation, contactPoint);
+                } else {
+                    spawn(brushRotation, contactPoint);
+                }
                 break;
             }
         }
@@ -381,6 +523,148 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
         }
     }
 
+    /**
+     * Spawn models at Poisson-disk distributed points of the brush, heights are queried from terrains and overlaps are
+     * tested against the spatial index.
+     *
+     * @param brushRotation the brush rotation.
+     * @param contactPoint  the contact point.
+     */
+    @JmeThread
+    protected void spawnIndexed(@NotNull Quaternion brushRotation, @NotNull Vector3f contactPoint) {
+
+        var brushRadius = getBrushSize() / 2F;
+
+        var random = ThreadLocalRandom.current();
+        var local = getLocalObjects();
+        var paintedModel = notNull(getPaintedModel());
+
+        var direction = GeomUtils.getDirection(brushRotation, local.nextVector())
+                .negateLocal()
+                .multLocal(10);
+
+        var sourcePoint = contactPoint.subtract(direction, local.nextVector());
+        var ray = local.nextRay();
+        ray.setOrigin(sourcePoint);
+
+        var minScale = getMinScale();
+        var maxScale = getMaxScale();
+        var padding = getPadding();
+        var examples = getExamples();
+
+        var candidate = local.nextVector();
+        var resultScale = local.nextVector();
+        var collisions = local.nextCollisionResults();
+        var terrainPoint = local.nextVector2f();
+        var needCalculateScale = !minScale.equals(maxScale);
+
+        var maxCount = (int) Math.max(getBrushPower() / 2F, 1F);
+        var spawnedModels = getSpawnedModels();
+
+        for (var count = 0; count < maxCount; count++) {
+            for (var attempts = 0; attempts < MAX_ATTEMPTS; attempts++) {
+
+                // uniform point in the brush circle
+                var distance = brushRadius * (float) Math.sqrt(random.nextFloat());
+                var angle = random.nextFloat() * FastMath.TWO_PI;
+                var x = contactPoint.getX() + distance * FastMath.cos(angle);
+                var z = contactPoint.getZ() + distance * FastMath.sin(angle);
+
+                if (spatialIndex.hasCloser(x, z, minDistance)) {
+                    continue;
+                }
+
+                terrainPoint.set(x, z);
+
+                if (!findHeight(terrainPoint, contactPoint.getY(), candidate)) {
+
+                    collisions.clear();
+
+                    candidate.set(x, contactPoint.getY(), z)
+                            .subtractLocal(sourcePoint)
+                            .normalizeLocal();
+
+                    ray.setDirection(candidate);
+                    paintedModel.collideWith(ray, collisions);
+
+                    var closest = collisions.getClosestCollision();
+                    if (closest == null || contactPoint.distance(closest.getContactPoint()) > brushRadius) {
+                        continue;
+                    }
+
+                    candidate.set(closest.getContactPoint());
+                }
+
+                var clone = examples.get(random.nextInt(0, examples.size())).clone();
+                clone.setUserData(KEY_IGNORE_RAY_CAST, Boolean.TRUE);
+                clone.setLocalTranslation(candidate);
+
+                if (needCalculateScale) {
+                    clone.setLocalScale(nextScale(minScale, maxScale, resultScale, random));
+                } else {
+                    clone.setLocalScale(minScale);
+                }
+
+                clone.updateGeometricState();
+
+                var worldBound = clone.getWorldBound().clone();
+
+                if (!Vector3f.ZERO.equals(padding)) {
+                    worldBound = addPadding(worldBound, padding);
+                }
+
+                if (spatialIndex.intersects(worldBound)) {
+                    continue;
+                }
+
+                spatialIndex.add(worldBound);
+
+                clone.setLocalTranslation(candidate.subtractLocal(paintedModel.getWorldTranslation()));
+
+                spawnedModels.add(clone);
+                paintedModel.attachChild(clone);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Find a height of terrains in the point.
+     *
+     * @param point       the point in the XZ plane.
+     * @param nearHeight  the height to select the nearest terrain.
+     * @param result      the result point.
+     * @return true if the height was found.
+     */
+    @JmeThread
+    protected boolean findHeight(@NotNull Vector2f point, float nearHeight, @NotNull Vector3f result) {
+
+        var found = false;
+        var resultHeight = 0F;
+
+        for (var terrain : terrains) {
+
+            var height = terrain.getHeight(point);
+
+            if (Float.isNaN(height)) {
+                continue;
+            }
+
+            height += ((Spatial) terrain).getWorldTranslation().getY();
+
+            if (!found || Math.abs(height - nearHeight) < Math.abs(resultHeight - nearHeight)) {
+                resultHeight = height;
+                found = true;
+            }
+        }
+
+        if (found) {
+            result.set(point.getX(), resultHeight, point.getY());
+        }
+
+        return found;
+    }
+
     protected BoundingVolume addPadding(@NotNull BoundingVolume boundingVolume, @NotNull Vector3f padding) {
 
         if (boundingVolume instanceof BoundingBox) {
@@ -443,6 +727,9 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
     public void finishPainting(@NotNull Quaternion brushRotation, @NotNull Vector3f contactPoint) {
         super.finishPainting(brushRotation, contactPoint);
 
+        spatialIndex.reset(1F);
+        terrains.clear();
+
         var spawnedModels = getSpawnedModels();
         if (spawnedModels.isEmpty()) {
             return;
@@ -514,7 +801,122 @@ public class SpawnToolControl extends AbstractPaintingControl<SpawnPaintingCompo
                 changeConsumer.execute(new AddChildOperation(spawnedNode, parent, false));
                 break;
             }
+            case INSTANCED: {
+
+                var parentOffset = local.nextVector()
+                        .set(parent.getWorldTranslation())
+                        .subtractLocal(paintedModel.getWorldTranslation());
+
+                var instancedNode = findInstancedNode(parent);
+                var instances = toInstances(spawnedModels, parentOffset, instancedNode);
+
+                if (instancedNode != null) {
+                    changeConsumer.execute(new AddInstancesOperation(instancedNode, instances));
+                    break;
+                }
+
+                instancedNode = new InstancedNode(INSTANCED_NODE_NAME);
+
+                InstancingUtils.addInstances(instancedNode, instances);
+
+                instancedNode.updateModelBound();
+
+                changeConsumer.execute(new AddChildOperation(instancedNode, parent, false));
+                break;
+            }
+        }
+    }
+
+    /**
+     * Find the same material in the list or add the material to the list.
+     *
+     * @param materials the list of materials.
+     * @param material  the material.
+     * @return the same material from the list or the material itself.
+     */
+    @JmeThread
+    private @NotNull Material findSameMaterial(@NotNull Array<Material> materials, @NotNull Material material) {
+
+        for (var other : materials) {
+            if (other.contentEquals(material)) {
+                return other;
+            }
+        }
+
+        materials.add(material);
+        return material;
+    }
+
+    /**
+     * Find an existing node with instances of spawned models in the parent.
+     *
+     * @param parent the parent.
+     * @return the instanced node or null.
+     */
+    @JmeThread
+    protected @Nullable InstancedNode findInstancedNode(@NotNull Node parent) {
+
+        for (var child : parent.getChildren()) {
+            if (child instanceof InstancedNode && INSTANCED_NODE_NAME.equals(child.getName())) {
+                return (InstancedNode) child;
+            }
         }
+
+        return null;
+    }
+
+    /**
+     * Convert spawned models to geometries which can be instanced, geometries of the same mesh get the same material
+     * with enabled instancing.
+     *
+     * @param spawnedModels the spawned models.
+     * @param parentOffset  the offset of the parent from the painted model.
+     * @param existingNode  the existing node with instances or null.
+     * @return the geometries.
+     */
+    @JmeThread
+    protected @NotNull Array<Geometry> toInstances(
+            @NotNull Array<Spatial> spawnedModels,
+            @NotNull Vector3f parentOffset,
+            @Nullable InstancedNode existingNode
+    ) {
+
+        var materials = ArrayFactory.<Material>newArray(Material.class);
+        var instances = ArrayFactory.<Geometry>newArray(Geometry.class, spawnedModels.size());
+
+        if (existingNode != null) {
+            NodeUtils.visitSpatial(existingNode, Geometry.class, geometry -> {
+                if (!(geometry instanceof InstancedGeometry) && !materials.contains(geometry.getMaterial())) {
+                    materials.add(geometry.getMaterial());
+                }
+            });
+        }
+
+        for (var spawned : spawnedModels) {
+
+            spawned.setLocalTranslation(spawned.getLocalTranslation().subtract(parentOffset));
+            spawned.updateGeometricState();
+
+            NodeUtils.visitSpatial(spawned, Geometry.class, instances::add);
+        }
+
+        for (var geometry : instances) {
+
+            var material = geometry.getMaterial();
+
+            if (!InstancingUtils.isSupportInstancing(material)) {
+                // such geometries are rendered as is
+                geometry.setBatchHint(Spatial.BatchHint.Never);
+            } else {
+                material.setBoolean(InstancingUtils.USE_INSTANCING, true);
+                geometry.setMaterial(findSameMaterial(materials, material));
+            }
+
+            geometry.setLocalTransform(geometry.getWorldTransform().clone());
+            geometry.removeFromParent();
+        }
+
+        return instances;
     }
 
     @JmeThread
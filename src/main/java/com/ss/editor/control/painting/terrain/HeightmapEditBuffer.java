@@ -0,0 +1,555 @@
+package com.ss.editor.control.painting.terrain;
+
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import com.jme3.math.Vector2f;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.terrain.Terrain;
+import com.jme3.terrain.geomipmap.TerrainPatch;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.model.undo.CompactableData;
+import com.ss.editor.model.undo.UndoHistoryStorage;
+import com.ss.editor.model.undo.UndoHistoryStorage.StoredData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The buffer of heightmap changes of a terrain. Changes are stored in primitive arrays keyed by the index of
+ * the point in the heightmap and are written by one bulk update per affected terrain patch. The buffer also keeps
+ * original heights of all changed points to build an undo operation.
+ *
+ * @author JavaSaBr
+ */
+public class HeightmapEditBuffer {
+
+    /**
+     * The heights of points of a heightmap.
+     */
+    public static class Heights implements CompactableData {
+
+        /**
+         * The count of points.
+         */
+        private final int size;
+
+        /**
+         * The indexes of points in the heightmap or null if they were compacted.
+         */
+        @Nullable
+        private int[] keys;
+
+        /**
+         * The heights of the points or null if they were compacted.
+         */
+        @Nullable
+        private float[] heights;
+
+        /**
+         * The compacted points.
+         */
+        @Nullable
+        private StoredData storedData;
+
+        public Heights(@NotNull final int[] keys, @NotNull final float[] heights) {
+            this.size = keys.length;
+            this.keys = keys;
+            this.heights = heights;
+        }
+
+        /**
+         * Get the count of points.
+         *
+         * @return the count of points.
+         */
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @FromAnyThread
+        public synchronized long getEstimatedSize() {
+            if (keys != null || storedData == null) {
+                return 32L + size * 8L;
+            } else {
+                return storedData.getEstimatedSize();
+            }
+        }
+
+        @Override
+        @FromAnyThread
+        public synchronized void compact(@NotNull final UndoHistoryStorage storage) {
+
+            if (keys == null || heights == null) {
+                return;
+            }
+
+            if (storedData == null) {
+
+                final ByteBuffer buffer = ByteBuffer.allocate(size * 8);
+                buffer.asIntBuffer().put(keys);
+                buffer.position(size * 4);
+                buffer.asFloatBuffer().put(heights);
+
+                storedData = storage.store(buffer.array());
+            }
+
+            keys = null;
+            heights = null;
+        }
+
+        /**
+         * Load the compacted points if need.
+         */
+        @FromAnyThread
+        private synchronized void load() {
+
+            if (keys != null || storedData == null) {
+                return;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.wrap(storedData.load());
+            final int[] keys = new int[size];
+            final float[] heights = new float[size];
+
+            buffer.asIntBuffer().get(keys);
+            buffer.position(size * 4);
+            buffer.asFloatBuffer().get(heights);
+
+            this.keys = keys;
+            this.heights = heights;
+        }
+    }
+
+    @NotNull
+    private static final List<Float> ZERO_DELTAS = Arrays.asList(0F, 0F);
+
+    private static final int EMPTY_KEY = -1;
+
+    /**
+     * The terrain.
+     */
+    @NotNull
+    private final Terrain terrain;
+
+    /**
+     * The terrain patches by their cells in the heightmap or null if the terrain isn't a terrain quad.
+     */
+    @Nullable
+    private final TerrainPatch[] patches;
+
+    /**
+     * The corners of the last changed area to notify the terrain about changed normals.
+     */
+    @NotNull
+    private final List<Vector2f> corners;
+
+    /**
+     * The size of the heightmap.
+     */
+    private final int totalSize;
+
+    /**
+     * The count of cells in a row of the heightmap.
+     */
+    private final int cells;
+
+    /**
+     * The size of a cell in heightmap points.
+     */
+    private final int cellSize;
+
+    /**
+     * The hash table of original heights.
+     */
+    @NotNull
+    private int[] originalKeys;
+
+    @NotNull
+    private float[] originalHeights;
+
+    private int originalCount;
+
+    /**
+     * The pending changes.
+     */
+    @NotNull
+    private int[] pendingKeys;
+
+    @NotNull
+    private float[] pendingHeights;
+
+    private int pendingCount;
+
+    public HeightmapEditBuffer(@NotNull final Terrain terrain) {
+        this.terrain = terrain;
+        this.totalSize = terrain.getTerrainSize();
+        this.corners = Arrays.asList(new Vector2f(), new Vector2f());
+        this.originalKeys = new int[1024];
+        this.originalHeights = new float[1024];
+        this.pendingKeys = new int[256];
+        this.pendingHeights = new float[256];
+
+        Arrays.fill(originalKeys, EMPTY_KEY);
+
+        final List<TerrainPatch> patches = new ArrayList<>();
+        final List<int[]> origins = new ArrayList<>();
+
+        if (terrain instanceof TerrainQuad) {
+            collectPatches((TerrainQuad) terrain, totalSize, 0, 0, patches, origins);
+        }
+
+        if (patches.isEmpty()) {
+            this.patches = null;
+            this.cellSize = 0;
+            this.cells = 0;
+            return;
+        }
+
+        this.cellSize = patches.get(0).getSize() - 1;
+        this.cells = (totalSize - 1) / cellSize;
+        this.patches = new TerrainPatch[cells * cells];
+
+        for (int i = 0; i < patches.size(); i++) {
+            final int[] origin = origins.get(i);
+            this.patches[(origin[1] / cellSize) * cells + origin[0] / cellSize] = patches.get(i);
+        }
+    }
+
+    @JmeThread
+    private static void collectPatches(@NotNull final TerrainQuad quad, final int size, final int originX,
+                                       final int originZ, @NotNull final List<TerrainPatch> patches,
+                                       @NotNull final List<int[]> origins) {
+
+        final int split = (size + 1) >> 1;
+
+        for (final Spatial child : quad.getChildren()) {
+
+            final int quadrant;
+
+            if (child instanceof TerrainQuad) {
+                quadrant = ((TerrainQuad) child).getQuadrant();
+            } else if (child instanceof TerrainPatch) {
+                quadrant = ((TerrainPatch) child).getQuadrant();
+            } else {
+                continue;
+            }
+
+            final int x = originX + (quadrant == 3 || quadrant == 4 ? split - 1 : 0);
+            final int z = originZ + (quadrant == 2 || quadrant == 4 ? split - 1 : 0);
+
+            if (child instanceof TerrainQuad) {
+                collectPatches((TerrainQuad) child, split, x, z, patches, origins);
+            } else {
+                patches.add((TerrainPatch) child);
+                origins.add(new int[] {x, z});
+            }
+        }
+    }
+
+    /**
+     * Get the terrain.
+     *
+     * @return the terrain.
+     */
+    @JmeThread
+    public @NotNull Terrain getTerrain() {
+        return terrain;
+    }
+
+    /**
+     * Convert the location in the terrain to the index of the point in the heightmap.
+     *
+     * @param location the location.
+     * @return the index or -1 if the location is outside the heightmap.
+     */
+    @JmeThread
+    public int toKey(@NotNull final Vector2f location) {
+
+        final Vector3f scale = ((Spatial) terrain).getWorldScale();
+        final int halfSize = totalSize / 2;
+        final int x = Math.round((location.x / scale.x) + halfSize);
+        final int z = Math.round((location.y / scale.z) + halfSize);
+
+        if (x < 0 || z < 0 || x >= totalSize || z >= totalSize) {
+            return EMPTY_KEY;
+        }
+
+        return z * totalSize + x;
+    }
+
+    /**
+     * Add a new height of the point by the location in the terrain.
+     *
+     * @param location the location.
+     * @param height   the new height.
+     */
+    @JmeThread
+    public void add(@NotNull final Vector2f location, final float height) {
+
+        final int key = toKey(location);
+
+        if (key == EMPTY_KEY) {
+            return;
+        }
+
+        if (pendingCount == pendingKeys.length) {
+            pendingKeys = Arrays.copyOf(pendingKeys, pendingCount * 2);
+            pendingHeights = Arrays.copyOf(pendingHeights, pendingCount * 2);
+        }
+
+        pendingKeys[pendingCount] = key;
+        pendingHeights[pendingCount] = height;
+        pendingCount++;
+
+        if (findOriginal(key) < 0) {
+            putOriginal(key, terrain.getHeightmapHeight(location));
+        }
+    }
+
+    /**
+     * Apply all pending changes to the terrain.
+     */
+    @JmeThread
+    public void apply() {
+
+        if (pendingCount == 0) {
+            return;
+        }
+
+        write(pendingKeys, pendingHeights, pendingCount);
+        pendingCount = 0;
+    }
+
+    /**
+     * Write the heights to the terrain.
+     *
+     * @param heights the heights.
+     */
+    @JmeThread
+    public void write(@NotNull final Heights heights) {
+        synchronized (heights) {
+            heights.load();
+            write(notNull(heights.keys), notNull(heights.heights), heights.size());
+        }
+    }
+
+    /**
+     * Get original heights of all changed points.
+     *
+     * @return the original heights.
+     */
+    @JmeThread
+    public @NotNull Heights getOriginalHeights() {
+
+        final int[] keys = new int[originalCount];
+        final float[] heights = new float[originalCount];
+
+        for (int i = 0, index = 0; i < originalKeys.length; i++) {
+            if (originalKeys[i] != EMPTY_KEY) {
+                keys[index] = originalKeys[i];
+                heights[index++] = originalHeights[i];
+            }
+        }
+
+        return new Heights(keys, heights);
+    }
+
+    /**
+     * Get current heights of all changed points.
+     *
+     * @return the current heights.
+     */
+    @JmeThread
+    public @NotNull Heights getCurrentHeights() {
+
+        final Heights original = getOriginalHeights();
+        final float[] heights = new float[original.size()];
+        final Vector2f location = new Vector2f();
+
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = terrain.getHeightmapHeight(toLocation(notNull(original.keys)[i], location));
+        }
+
+        return new Heights(notNull(original.keys), heights);
+    }
+
+    /**
+     * Return true if this buffer has changes.
+     *
+     * @return true if this buffer has changes.
+     */
+    @JmeThread
+    public boolean isChanged() {
+        return originalCount > 0;
+    }
+
+    @JmeThread
+    private @NotNull Vector2f toLocation(final int key, @NotNull final Vector2f store) {
+        final Vector3f scale = ((Spatial) terrain).getWorldScale();
+        final int halfSize = totalSize / 2;
+        return store.set((key % totalSize - halfSize) * scale.x, (key / totalSize - halfSize) * scale.z);
+    }
+
+    @JmeThread
+    private void write(@NotNull final int[] keys, @NotNull final float[] heights, final int count) {
+
+        final TerrainPatch[] patches = this.patches;
+
+        if (patches == null) {
+            writeByTerrain(keys, heights, count);
+            return;
+        }
+
+        final boolean[] changedPatches = new boolean[patches.length];
+
+        int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+        for (int i = 0; i < count; i++) {
+
+            final int x = keys[i] % totalSize;
+            final int z = keys[i] / totalSize;
+            final float height = heights[i];
+
+            // a point on an edge of a cell is shared with neighbour patches
+            final int firstCellX = Math.min(x / cellSize, cells - 1);
+            final int firstCellZ = Math.min(z / cellSize, cells - 1);
+            final int lastCellX = x % cellSize == 0 && x > 0 ? x / cellSize - 1 : firstCellX;
+            final int lastCellZ = z % cellSize == 0 && z > 0 ? z / cellSize - 1 : firstCellZ;
+
+            for (int cellZ = Math.min(firstCellZ, lastCellZ); cellZ <= Math.max(firstCellZ, lastCellZ); cellZ++) {
+                for (int cellX = Math.min(firstCellX, lastCellX); cellX <= Math.max(firstCellX, lastCellX); cellX++) {
+
+                    final int cell = cellZ * cells + cellX;
+                    final TerrainPatch patch = patches[cell];
+
+                    if (patch == null) {
+                        continue;
+                    }
+
+                    final int size = patch.getSize();
+                    final int index = (z - cellZ * cellSize) * size + (x - cellX * cellSize);
+                    final float[] heightMap = patch.getHeightMap();
+                    final FloatBuffer positions = patch.getMesh().getFloatBuffer(VertexBuffer.Type.Position);
+
+                    heightMap[index] = height;
+                    positions.put(index * 3 + 1, height * patch.getStepScale().getY());
+                    changedPatches[cell] = true;
+                }
+            }
+
+            minX = Math.min(minX, x);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxZ = Math.max(maxZ, z);
+        }
+
+        for (int i = 0; i < changedPatches.length; i++) {
+
+            if (!changedPatches[i]) {
+                continue;
+            }
+
+            final Mesh mesh = patches[i].getMesh();
+            mesh.getBuffer(VertexBuffer.Type.Position).setUpdateNeeded();
+            mesh.updateBound();
+            patches[i].updateModelBound();
+        }
+
+        if (count == 0) {
+            return;
+        }
+
+        // the terrain recalculates normals only in the areas which were changed by its own API,
+        // so an empty adjusting of the corners of the changed area marks the whole area
+        toLocation(minZ * totalSize + minX, corners.get(0));
+        toLocation(maxZ * totalSize + maxX, corners.get(1));
+
+        terrain.adjustHeight(corners, ZERO_DELTAS);
+    }
+
+    @JmeThread
+    private void writeByTerrain(@NotNull final int[] keys, @NotNull final float[] heights, final int count) {
+
+        final List<Vector2f> locations = new ArrayList<>(count);
+        final List<Float> values = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            locations.add(toLocation(keys[i], new Vector2f()));
+            values.add(heights[i]);
+        }
+
+        terrain.setHeight(locations, values);
+    }
+
+    @JmeThread
+    private int findOriginal(final int key) {
+
+        final int mask = originalKeys.length - 1;
+
+        for (int index = mix(key) & mask; ; index = (index + 1) & mask) {
+
+            final int current = originalKeys[index];
+
+            if (current == key) {
+                return index;
+            } else if (current == EMPTY_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    @JmeThread
+    private void putOriginal(final int key, final float height) {
+
+        if ((originalCount + 1) * 2 > originalKeys.length) {
+            rehash(originalKeys.length * 2);
+        }
+
+        final int mask = originalKeys.length - 1;
+
+        int index = mix(key) & mask;
+
+        while (originalKeys[index] != EMPTY_KEY) {
+            index = (index + 1) & mask;
+        }
+
+        originalKeys[index] = key;
+        originalHeights[index] = height;
+        originalCount++;
+    }
+
+    @JmeThread
+    private void rehash(final int capacity) {
+
+        final int[] prevKeys = originalKeys;
+        final float[] prevHeights = originalHeights;
+
+        originalKeys = new int[capacity];
+        originalHeights = new float[capacity];
+        originalCount = 0;
+
+        Arrays.fill(originalKeys, EMPTY_KEY);
+
+        for (int i = 0; i < prevKeys.length; i++) {
+            if (prevKeys[i] != EMPTY_KEY) {
+                putOriginal(prevKeys[i], prevHeights[i]);
+            }
+        }
+    }
+
+    private static int mix(final int key) {
+        final int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
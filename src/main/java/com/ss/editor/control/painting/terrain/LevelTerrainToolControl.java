@@ -18,8 +18,6 @@ import com.ss.editor.util.PaintingUtils;
 import com.ss.rlib.common.util.ExtMath;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-
 /**
  * The implementation of terrain tool to change height by level.
  *
@@ -163,9 +161,6 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
         var brushSize = getBrushSize();
         var brushPower = getBrushPower();
 
-        var locs = new ArrayList<Vector2f>();
-        var heights = new ArrayList<Float>();
-
         for (var terrain : getTerrains()) {
 
             var terrainNode = (Node) terrain;
@@ -186,9 +181,6 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
             var xStepAmount = localScale.getX();
             var zStepAmount = localScale.getZ();
 
-            locs.clear();
-            heights.clear();
-
             for (int z = -radiusStepsZ; z < radiusStepsZ; z++) {
                 for (int x = -radiusStepsX; x < radiusStepsX; x++) {
 
@@ -207,8 +199,7 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
                     var currentHeight = terrain.getHeightmapHeight(terrainLoc) * localScale.getY();
 
                     if (isPrecision()) {
-                        locs.add(terrainLoc.clone());
-                        heights.add(desiredHeight / localScale.getY());
+                        addHeight(terrain, terrainLoc, desiredHeight / localScale.getY());
                     } else {
 
                         var epsilon = 0.0001f * brushPower; // rounding error for snapping
@@ -231,17 +222,14 @@ public class LevelTerrainToolControl extends ChangeHeightTerrainToolControl {
                         }
 
                         if (!ExtMath.equals(adj, 0, 0.001f)) {
-                            locs.add(terrainLoc.clone());
-                            heights.add(currentHeight + adj);
+                            addHeight(terrain, terrainLoc, currentHeight + adj);
                         }
                     }
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain);
         }
 
         // or else we won't collide with it where we just edited
@@ -5,6 +5,7 @@ import com.jme3.math.ColorRGBA;
 import com.jme3.math.Quaternion;
 import com.jme3.math.Vector2f;
 import com.jme3.math.Vector3f;
+import com.jme3.renderer.Renderer;
 import com.jme3.scene.Spatial;
 import com.jme3.terrain.Terrain;
 import com.jme3.texture.Image;
@@ -13,14 +14,19 @@ import com.jme3.util.BufferUtils;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.painting.PaintingInput;
+import com.ss.editor.model.undo.CompactableData;
+import com.ss.editor.model.undo.UndoHistoryStorage;
+import com.ss.editor.model.undo.UndoHistoryStorage.StoredData;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.ui.control.property.operation.PropertyOperation;
+import com.ss.editor.util.EditorUtil;
 import com.ss.editor.util.LocalObjects;
-import com.ss.rlib.common.function.ObjectFloatObjectConsumer;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.common.util.dictionary.DictionaryFactory;
+import com.ss.rlib.common.util.dictionary.IntegerDictionary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,82 +39,100 @@ import java.nio.ByteBuffer;
  */
 public class PaintTerrainToolControl extends TerrainToolControl {
 
-    private static class ColorPoint {
+    /**
+     * The snapshot of a tile of the alpha texture.
+     */
+    private static class TileSnapshot implements CompactableData {
+
+        /**
+         * The position of the tile in pixels.
+         */
+        private final int x, y;
+
+        /**
+         * The size of the tile in pixels.
+         */
+        private final int width, height;
+
+        /**
+         * The pixels of the tile or null if they were compacted.
+         */
+        @Nullable
+        private byte[] data;
+
+        /**
+         * The compacted pixels of the tile.
+         */
+        @Nullable
+        private StoredData storedData;
+
+        private TileSnapshot(final int x, final int y, final int width, final int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.data = new byte[width * height * BYTES_PER_PIXEL];
+        }
 
-        private final int index;
+        /**
+         * Get the pixels of the tile.
+         *
+         * @return the pixels of the tile.
+         */
+        @FromAnyThread
+        private synchronized @NotNull byte[] getData() {
 
-        private float red;
-        private float green;
-        private float blue;
-        private float alpha;
+            if (data == null) {
+                data = notNull(storedData).load();
+            }
 
-        public ColorPoint(final int index, final float red, final float green, final float blue, final float alpha) {
-            this.index = index;
-            this.red = red;
-            this.green = green;
-            this.blue = blue;
-            this.alpha = alpha;
+            return data;
         }
 
         @Override
-        public boolean equals(final Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            final ColorPoint that = (ColorPoint) o;
-            return index == that.index;
+        @FromAnyThread
+        public synchronized long getEstimatedSize() {
+            if (data != null || storedData == null) {
+                return 32L + width * height * BYTES_PER_PIXEL;
+            } else {
+                return storedData.getEstimatedSize();
+            }
         }
 
         @Override
-        public int hashCode() {
-            return index;
-        }
-    }
+        @FromAnyThread
+        public synchronized void compact(@NotNull final UndoHistoryStorage storage) {
 
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> RED_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.r -= value;
-        } else {
-            color.r += value;
-        }
-    };
+            if (data == null) {
+                return;
+            }
 
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> GREEN_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.g -= value;
-        } else {
-            color.g += value;
-        }
-    };
+            if (storedData == null) {
+                storedData = storage.store(data);
+            }
 
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> BLUE_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.b -= value;
-        } else {
-            color.b += value;
+            data = null;
         }
-    };
+    }
 
-    @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean> ALPHA_FUNCTION = (color, value, erase) -> {
-        if (erase) {
-            color.a -= value;
-        } else {
-            color.a += value;
-        }
-    };
+    /**
+     * The size of tiles of the alpha texture to track changes.
+     */
+    private static final int TILE_SIZE = 64;
+
+    private static final int BYTES_PER_PIXEL = 4;
 
+    /**
+     * The snapshots of tiles before changing by the current stroke.
+     */
     @NotNull
-    private static final ObjectFloatObjectConsumer<ColorRGBA, Boolean>[] COLOR_FUNCTIONS =
-            ArrayFactory.toArray(RED_FUNCTION, GREEN_FUNCTION, BLUE_FUNCTION, ALPHA_FUNCTION);
+    private final IntegerDictionary<TileSnapshot> prevTiles;
 
     /**
-     * The list of color points.
+     * The image to upload changed tiles to GPU.
      */
     @NotNull
-    private final Array<ColorPoint> colorPoints;
+    private final Image tileImage;
 
     /**
      * The alpha texture to paint.
@@ -117,19 +141,19 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     private Texture alphaTexture;
 
     /**
-     * Previous image buffer.
+     * The edited layer.
      */
-    @Nullable
-    private ByteBuffer prevBuffer;
+    private int layer;
 
     /**
-     * The edited layer.
+     * The changed region of the alpha texture by the last paint action.
      */
-    private int layer;
+    private int changedMinX, changedMinY, changedMaxX, changedMaxY;
 
     public PaintTerrainToolControl(@NotNull final TerrainPaintingComponent component) {
         super(component);
-        this.colorPoints = ArrayFactory.newArray(ColorPoint.class);
+        this.prevTiles = DictionaryFactory.newIntegerDictionary();
+        this.tileImage = new Image();
     }
 
     @Override
@@ -195,181 +219,208 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     }
 
     /**
-     * Get the list of color points.
-     *
-     * @return the list of color points.
+     * Start making changes.
      */
     @JmeThread
-    private @NotNull Array<ColorPoint> getColorPoints() {
-        return colorPoints;
+    private void startChange() {
+        prevTiles.clear();
     }
 
     /**
-     * Start making changes.
+     * Commit all changes.
      */
     @JmeThread
-    private void startChange() {
-
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        colorPoints.clear();
+    private void commitChanges() {
 
         final Texture alphaTexture = notNull(getAlphaTexture());
         final Image image = alphaTexture.getImage();
-        final ByteBuffer data = image.getData(0);
+        final ByteBuffer buffer = image.getData(0);
+        final int imageWidth = image.getWidth();
 
-        if (prevBuffer == null) {
-            prevBuffer = BufferUtils.createByteBuffer(data.capacity());
-        } else if (prevBuffer.capacity() < data.capacity()) {
-            BufferUtils.destroyDirectBuffer(prevBuffer);
-            prevBuffer = BufferUtils.createByteBuffer(data.capacity());
-        }
+        final Array<TileSnapshot> prevTiles = ArrayFactory.newArray(TileSnapshot.class, this.prevTiles.size());
+        final Array<TileSnapshot> newTiles = ArrayFactory.newArray(TileSnapshot.class, this.prevTiles.size());
+
+        this.prevTiles.forEach(prevTile -> {
+            final TileSnapshot newTile = new TileSnapshot(prevTile.x, prevTile.y, prevTile.width, prevTile.height);
+            readTile(buffer, imageWidth, newTile);
+            prevTiles.add(prevTile);
+            newTiles.add(newTile);
+        });
 
-        final int position = data.position();
-        data.position(0);
-        prevBuffer.clear();
-        prevBuffer.put(data);
-        prevBuffer.flip();
-        data.position(position);
+        this.prevTiles.clear();
+
+        final PropertyOperation<ChangeConsumer, Image, Array<TileSnapshot>> operation =
+                new PropertyOperation<>(image, "AlphaMap", newTiles, prevTiles);
+        operation.setApplyHandler((img, toApply) -> applyTiles(img, toApply, toApply == newTiles));
+
+        final ModelChangeConsumer changeConsumer = getChangeConsumer();
+        changeConsumer.execute(operation);
     }
 
     /**
-     * Notify about wanting to change color of a point.
-     *
-     * @param index the index
-     * @param color the color
+     * Apply snapshots of tiles to an image.
      */
     @JmeThread
-    protected void change(final int index, @NotNull final ColorRGBA color) {
+    private static void applyTiles(@NotNull final Image image, @NotNull final Array<TileSnapshot> tiles,
+                                   final boolean isRedo) {
 
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        final ColorPoint search = colorPoints.search(index, (point, toCheck) -> point.index == toCheck);
+        final ByteBuffer buffer = image.getData(0);
+        final int imageWidth = image.getWidth();
 
-        if (search != null) {
-            search.red = color.r;
-            search.green = color.g;
-            search.blue = color.b;
-            search.alpha = color.a;
-            return;
+        for (final TileSnapshot tile : tiles) {
+            writeTile(buffer, imageWidth, tile);
         }
 
-        colorPoints.add(new ColorPoint(index, color.r, color.g, color.b, color.a));
+        if (isRedo) {
+            image.incrementChange();
+        } else {
+            image.decrementChanges();
+        }
+
+        // sub-image uploads during a stroke don't update mipmaps, so the whole image is uploaded here
+        image.setUpdateNeeded();
     }
 
     /**
-     * Get the previous image buffer.
+     * Read pixels of the tile from the image buffer to the snapshot.
      *
-     * @return the previous image buffer.
+     * @param buffer     the image buffer.
+     * @param imageWidth the image width.
+     * @param tile       the snapshot.
      */
     @JmeThread
-    private @NotNull ByteBuffer getPrevBuffer() {
-        return notNull(prevBuffer);
+    private static void readTile(@NotNull final ByteBuffer buffer, final int imageWidth,
+                                 @NotNull final TileSnapshot tile) {
+
+        final ByteBuffer source = buffer.duplicate();
+        final int rowLength = tile.width * BYTES_PER_PIXEL;
+        final byte[] data = tile.getData();
+
+        for (int row = 0; row < tile.height; row++) {
+            source.position(((tile.y + row) * imageWidth + tile.x) * BYTES_PER_PIXEL);
+            source.get(data, row * rowLength, rowLength);
+        }
     }
 
     /**
-     * Commit all changes.
+     * Write pixels of the snapshot to the image buffer.
+     *
+     * @param buffer     the image buffer.
+     * @param imageWidth the image width.
+     * @param tile       the snapshot.
      */
     @JmeThread
-    private void commitChanges() {
-
-        final ByteBuffer prevBuffer = getPrevBuffer();
-        final Texture alphaTexture = notNull(getAlphaTexture());
-        final Image image = alphaTexture.getImage();
+    private static void writeTile(@NotNull final ByteBuffer buffer, final int imageWidth,
+                                  @NotNull final TileSnapshot tile) {
 
-        final Array<ColorPoint> colorPoints = getColorPoints();
-        final Array<ColorPoint> prevColorPoints = ArrayFactory.newArray(ColorPoint.class, colorPoints.size());
-        final Array<ColorPoint> newColorPoints = ArrayFactory.newArray(ColorPoint.class, colorPoints.size());
-        newColorPoints.addAll(colorPoints);
+        final ByteBuffer target = buffer.duplicate();
+        final int rowLength = tile.width * BYTES_PER_PIXEL;
+        final byte[] data = tile.getData();
 
-        fillPrevColorPoints(prevBuffer, image, colorPoints, prevColorPoints);
-
-        final PropertyOperation<ChangeConsumer, Image, Array<ColorPoint>> operation =
-                new PropertyOperation<>(image, "AlphaMap", newColorPoints, prevColorPoints);
-        operation.setApplyHandler((img, toApply) -> applyColorPoints(img, toApply, toApply == newColorPoints));
-
-        colorPoints.clear();
-
-        final ModelChangeConsumer changeConsumer = getChangeConsumer();
-        changeConsumer.execute(operation);
+        for (int row = 0; row < tile.height; row++) {
+            target.position(((tile.y + row) * imageWidth + tile.x) * BYTES_PER_PIXEL);
+            target.put(data, row * rowLength, rowLength);
+        }
     }
 
     /**
-     * Apply color points to an image.
+     * Take snapshots of all not yet changed tiles of the region.
+     *
+     * @param image the image.
+     * @param minX  the min X of the region.
+     * @param minY  the min Y of the region.
+     * @param maxX  the max X of the region (exclusive).
+     * @param maxY  the max Y of the region (exclusive).
      */
     @JmeThread
-    private static void applyColorPoints(@NotNull final Image image, @NotNull final Array<ColorPoint> colorPoints,
-                                         final boolean isRedo) {
+    private void snapshotTiles(@NotNull final Image image, final int minX, final int minY, final int maxX,
+                               final int maxY) {
 
         final ByteBuffer buffer = image.getData(0);
+        final int imageWidth = image.getWidth();
+        final int imageHeight = image.getHeight();
+        final int tilesX = (imageWidth + TILE_SIZE - 1) / TILE_SIZE;
 
-        switch (image.getFormat()) {
-            case RGBA8: {
-                for (final ColorPoint targetPoint : colorPoints) {
-                    buffer.position(targetPoint.index);
-                    buffer.put(float2byte(targetPoint.red));
-                    buffer.put(float2byte(targetPoint.green));
-                    buffer.put(float2byte(targetPoint.blue));
-                    buffer.put(float2byte(targetPoint.alpha));
-                }
-                break;
-            }
-            case ABGR8: {
-                for (final ColorPoint targetPoint : colorPoints) {
-                    buffer.position(targetPoint.index);
-                    buffer.put(float2byte(targetPoint.alpha));
-                    buffer.put(float2byte(targetPoint.blue));
-                    buffer.put(float2byte(targetPoint.green));
-                    buffer.put(float2byte(targetPoint.red));
+        for (int tileY = minY / TILE_SIZE, lastY = (maxY - 1) / TILE_SIZE; tileY <= lastY; tileY++) {
+            for (int tileX = minX / TILE_SIZE, lastX = (maxX - 1) / TILE_SIZE; tileX <= lastX; tileX++) {
+
+                final int index = tileY * tilesX + tileX;
+
+                if (prevTiles.containsKey(index)) {
+                    continue;
                 }
-                break;
-            }
-        }
 
-        buffer.rewind();
+                final int x = tileX * TILE_SIZE;
+                final int y = tileY * TILE_SIZE;
 
-        if (isRedo) {
-            image.incrementChange();
-        } else {
-            image.decrementChanges();
-        }
+                final TileSnapshot tile = new TileSnapshot(x, y, Math.min(TILE_SIZE, imageWidth - x),
+                        Math.min(TILE_SIZE, imageHeight - y));
 
-        image.setUpdateNeeded();
+                readTile(buffer, imageWidth, tile);
+                prevTiles.put(index, tile);
+            }
+        }
     }
 
     /**
-     * Fill previous color points.
+     * Upload tiles of the changed region to GPU. If the texture isn't uploaded yet, it will be uploaded fully.
      *
-     * @param prevBuffer      the buffer of previous image.
-     * @param image           the current image.
-     * @param colorPoints     the list of changes color points.
-     * @param prevColorPoints the list to fill original color points.
+     * @param alphaTexture the alpha texture.
      */
     @JmeThread
-    private void fillPrevColorPoints(@NotNull final ByteBuffer prevBuffer, @NotNull final Image image,
-                                     @NotNull final Array<ColorPoint> colorPoints,
-                                     @NotNull final Array<ColorPoint> prevColorPoints) {
-
-        switch (image.getFormat()) {
-            case RGBA8: {
-                for (final ColorPoint colorPoint : colorPoints) {
-                    prevBuffer.position(colorPoint.index);
-                    final float r = byte2float(prevBuffer.get());
-                    final float g = byte2float(prevBuffer.get());
-                    final float b = byte2float(prevBuffer.get());
-                    final float a = byte2float(prevBuffer.get());
-                    prevColorPoints.add(new ColorPoint(colorPoint.index, r, g, b, a));
-                }
-                break;
-            }
-            case ABGR8: {
-                for (final ColorPoint colorPoint : colorPoints) {
-                    prevBuffer.position(colorPoint.index);
-                    float a = byte2float(prevBuffer.get());
-                    float b = byte2float(prevBuffer.get());
-                    float g = byte2float(prevBuffer.get());
-                    float r = byte2float(prevBuffer.get());
-                    prevColorPoints.add(new ColorPoint(colorPoint.index, r, g, b, a));
+    private void uploadChangedTiles(@NotNull final Texture alphaTexture) {
+
+        if (changedMinX >= changedMaxX || changedMinY >= changedMaxY) {
+            return;
+        }
+
+        final Image image = alphaTexture.getImage();
+
+        if (image.getId() == -1 || image.isUpdateNeeded() || image.hasMipmaps()) {
+            image.setUpdateNeeded();
+            return;
+        }
+
+        final ByteBuffer buffer = image.getData(0);
+        final int imageWidth = image.getWidth();
+        final int imageHeight = image.getHeight();
+
+        ByteBuffer tileBuffer = tileImage.getData(0);
+
+        if (tileBuffer == null) {
+            tileBuffer = BufferUtils.createByteBuffer(TILE_SIZE * TILE_SIZE * BYTES_PER_PIXEL);
+        }
+
+        final Renderer renderer = EditorUtil.getRenderer();
+
+        for (int tileY = changedMinY / TILE_SIZE, lastY = (changedMaxY - 1) / TILE_SIZE; tileY <= lastY; tileY++) {
+            for (int tileX = changedMinX / TILE_SIZE, lastX = (changedMaxX - 1) / TILE_SIZE; tileX <= lastX; tileX++) {
+
+                final int x = tileX * TILE_SIZE;
+                final int y = tileY * TILE_SIZE;
+                final int width = Math.min(TILE_SIZE, imageWidth - x);
+                final int height = Math.min(TILE_SIZE, imageHeight - y);
+                final int rowLength = width * BYTES_PER_PIXEL;
+
+                final ByteBuffer source = buffer.duplicate();
+
+                tileBuffer.clear();
+
+                for (int row = 0; row < height; row++) {
+                    final int position = ((y + row) * imageWidth + x) * BYTES_PER_PIXEL;
+                    source.limit(position + rowLength).position(position);
+                    tileBuffer.put(source);
                 }
-                break;
+
+                tileBuffer.flip();
+
+                tileImage.setFormat(image.getFormat());
+                tileImage.setColorSpace(image.getColorSpace());
+                tileImage.setWidth(width);
+                tileImage.setHeight(height);
+                tileImage.setData(0, tileBuffer);
+
+                renderer.modifyTexture(alphaTexture, tileImage, x, y);
             }
         }
     }
@@ -437,8 +488,6 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
         final Vector3f localScale = terrainNode.getLocalScale();
         final Vector2f uv = getPointPercentagePosition(terrain, localPoint, localScale, local.nextVector2f());
-        final Vector2f temp = local.nextVector2f();
-        final ColorRGBA color = local.nextColor();
 
         final int layer = getLayer();
 
@@ -451,11 +500,10 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         }
 
         // selectedTextureIndex/4 is an int floor, do not simplify the equation
-        final ObjectFloatObjectConsumer<ColorRGBA, Boolean> colorFunction = COLOR_FUNCTIONS[layer - ((layer / 4) * 4)];
+        final int channel = layer - ((layer / 4) * 4);
 
-        doPaintAction(colorFunction, image, uv, temp, color, brushSize, false, brushPower);
-
-        image.setUpdateNeeded();
+        doPaintAction(channel, image, uv, brushSize, false, brushPower);
+        uploadChangedTiles(alphaTexture);
     }
 
     @JmeThread
@@ -476,34 +524,30 @@ public class PaintTerrainToolControl extends TerrainToolControl {
     }
 
     /**
-     * Goes through each pixel in the image. At each pixel it looks to see if the UV mouse coordinate is within the
-     * of the brush. If it is in the brush radius, it gets the existing color from that pixel so it can add/subtract to/from it.
-     * Essentially it does a radius check and adds in a fade value. It does this to the color value returned by the
-     * first pixel color query.
-     * Next it sets the color of that pixel. If it was within the radius, the color will change. If it was outside
-     * the radius, then nothing will change, the color will be the same; but it will set it nonetheless. Not efficient.
+     * Goes through each pixel in the region of the brush. If the pixel is in the brush radius, it adds/subtracts
+     * a fade value to/from the channel of the pixel. Tiles of the region are saved before changing to be able to undo
+     * the stroke.
      * <p>
      * If the mouse is being dragged with the button down, then the dragged value should be set to true. This will reduce
      * the intensity of the brush to 10% of what it should be per spray. Otherwise it goes to 100% opacity within a few pixels.
      * This makes it work a little more realistically.
      *
-     * @param colorFunction the color function.
-     * @param image         to manipulate
-     * @param uv            the world x,z coordinate
-     * @param radius        in percentage so it can be translated to the image dimensions
-     * @param erase         true if the tool should remove the paint instead of add it
-     * @param fadeFalloff   the percentage of the radius when the paint begins to start fading
+     * @param channel     the index of the color channel to paint.
+     * @param image       to manipulate
+     * @param uv          the world x,z coordinate
+     * @param radius      in percentage so it can be translated to the image dimensions
+     * @param erase       true if the tool should remove the paint instead of add it
+     * @param fadeFalloff the percentage of the radius when the paint begins to start fading
      */
     @JmeThread
-    private void doPaintAction(@NotNull final ObjectFloatObjectConsumer<ColorRGBA, Boolean> colorFunction,
-                               @NotNull final Image image, @NotNull final Vector2f uv, @NotNull final Vector2f temp,
-                               @NotNull final ColorRGBA color, final float radius, final boolean erase,
-                               final float fadeFalloff) {
+    private void doPaintAction(final int channel, @NotNull final Image image, @NotNull final Vector2f uv,
+                               final float radius, final boolean erase, final float fadeFalloff) {
 
         final ByteBuffer buffer = image.getData(0);
+        final int channelOffset = getChannelOffset(image.getFormat(), channel);
 
         final int width = image.getWidth();
-        final float height = image.getHeight();
+        final int height = image.getHeight();
 
         // convert percents to pixels to limit how much we iterate
         final int minX = (int) Math.max(0, (uv.getX() * width - radius * width));
@@ -511,114 +555,67 @@ public class PaintTerrainToolControl extends TerrainToolControl {
         final int minY = (int) Math.max(0, (uv.getY() * height - radius * height));
         final int maxY = (int) Math.min(height, (uv.getY() * height + radius * height));
 
+        changedMinX = minX;
+        changedMinY = minY;
+        changedMaxX = maxX;
+        changedMaxY = maxY;
+
+        if (minX >= maxX || minY >= maxY) {
+            return;
+        }
+
+        snapshotTiles(image, minX, minY, maxX, maxY);
+
         final float radiusSquared = radius * radius;
+        final float power = erase ? -fadeFalloff : fadeFalloff;
+
+        // the step of a channel value in 0..255 per unit of the squared distance to the border of the brush
+        final float stepScale = power * 255F / radiusSquared;
 
         // go through each pixel, in the radius of the tool, in the image
         for (int y = minY; y < maxY; y++) {
-            for (int x = minX; x < maxX; x++) {
-
-                // gets the position in percentage so it can compare with the mouse UV coordinate
-                temp.set((float) x / width, (float) y / height);
 
-                float dist = temp.distanceSquared(uv);
-
-                // if the pixel is within the distance of the radius, set a color (distance times intensity)
-                if (dist < radiusSquared) {
+            // gets the position in percentage so it can compare with the mouse UV coordinate
+            final float distY = (float) y / height - uv.getY();
 
-                    final int position = (y * width + x) * 4;
-                    if (position > buffer.capacity() - 1 || position < 0) {
-                        continue;
-                    }
+            for (int x = minX; x < maxX; x++) {
 
-                    // gets the color at that location (false means don't write to the buffer)
-                    manipulatePixel(image, buffer, color, position, false);
+                final float distX = (float) x / width - uv.getX();
+                final float dist = distX * distX + distY * distY;
 
-                    // calculate the fade falloff intensity
-                    final float intensity = (1.0f - (dist / radiusSquared)) * fadeFalloff;
+                // if the pixel is within the distance of the radius, set a color (distance times intensity)
+                if (dist >= radiusSquared) {
+                    continue;
+                }
 
-                    colorFunction.accept(color, intensity, erase);
-                    color.clamp();
+                final int index = (y * width + x) * BYTES_PER_PIXEL + channelOffset;
 
-                    change(position, color);
+                // calculate the fade falloff intensity as a step of the channel value
+                final int step = Math.round((radiusSquared - dist) * stepScale);
+                final int value = Math.min(Math.max((buffer.get(index) & 0xFF) + step, 0), 255);
 
-                    // set the new color
-                    manipulatePixel(image, buffer, color, position, true);
-                }
+                buffer.put(index, (byte) value);
             }
         }
-
-        image.getData(0).rewind();
     }
 
     /**
-     * We are only using RGBA8 images for alpha textures right now.
+     * Get the offset of the color channel in a pixel of the image format. We are only using RGBA8 and ABGR8 images
+     * for alpha textures right now.
      *
-     * @param image    to get/set the color on
-     * @param buffer   the buffer of the image.
-     * @param color    color to get/set
-     * @param position position in the buffer.
-     * @param write    to write the color or not
+     * @param format  the image format.
+     * @param channel the index of the color channel in RGBA order.
+     * @return the offset of the channel in bytes.
      */
-    @JmeThread
-    private void manipulatePixel(@NotNull final Image image, @NotNull final ByteBuffer buffer,
-                                 @NotNull final ColorRGBA color, final int position, final boolean write) {
-
-        if (write) {
-            switch (image.getFormat()) {
-                case RGBA8: {
-                    buffer.position(position);
-                    buffer.put(float2byte(color.r));
-                    buffer.put(float2byte(color.g));
-                    buffer.put(float2byte(color.b));
-                    buffer.put(float2byte(color.a));
-                    return;
-                }
-                case ABGR8: {
-                    buffer.position(position);
-                    buffer.put(float2byte(color.a));
-                    buffer.put(float2byte(color.b));
-                    buffer.put(float2byte(color.g));
-                    buffer.put(float2byte(color.r));
-                    return;
-                }
-                default: {
-                    throw new UnsupportedOperationException("Image format: " + image.getFormat());
-                }
-            }
-        } else {
-            switch (image.getFormat()) {
-                case RGBA8: {
-                    buffer.position(position);
-                    final float r = byte2float(buffer.get());
-                    final float g = byte2float(buffer.get());
-                    final float b = byte2float(buffer.get());
-                    final float a = byte2float(buffer.get());
-                    color.set(r, g, b, a);
-                    return;
-                }
-                case ABGR8: {
-                    buffer.position(position);
-                    float a = byte2float(buffer.get());
-                    float b = byte2float(buffer.get());
-                    float g = byte2float(buffer.get());
-                    float r = byte2float(buffer.get());
-                    color.set(r, g, b, a);
-                    return;
-                }
-                default: {
-                    throw new UnsupportedOperationException("Image format: " + image.getFormat());
-                }
-            }
-        }
-    }
-
     @FromAnyThread
-    private static float byte2float(byte b) {
-        return ((float) (b & 0xFF)) / 255f;
-    }
-
-    @FromAnyThread
-    private static byte float2byte(float f) {
-        return (byte) (f * 255f);
+    private static int getChannelOffset(@NotNull final Image.Format format, final int channel) {
+        switch (format) {
+            case RGBA8:
+                return channel;
+            case ABGR8:
+                return 3 - channel;
+            default:
+                throw new UnsupportedOperationException("Image format: " + format);
+        }
     }
 }
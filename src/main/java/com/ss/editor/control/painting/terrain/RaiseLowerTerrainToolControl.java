@@ -18,9 +18,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The implementation of terrain tool to raise/lowe heights.
  *
@@ -100,16 +97,10 @@ public class RaiseLowerTerrainToolControl extends ChangeHeightTerrainToolControl
         final float brushSize = getBrushSize();
         final float brushPower = input == PaintingInput.MOUSE_PRIMARY ? getBrushPower() : getBrushPower() * -1F;
 
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
 
-            locs.clear();
-            heights.clear();
-
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
@@ -146,14 +137,12 @@ public class RaiseLowerTerrainToolControl extends ChangeHeightTerrainToolControl
                     final float newHeight = calculateHeight(brushSize, brushPower, effectPoint.getX(), effectPoint.getY());
 
                     // increase the height
-                    locs.add(terrainLoc.clone());
-                    heights.add(currentHeight + newHeight);
+                    addHeight(terrain, terrainLoc, currentHeight + newHeight);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain);
         }
 
         // or else we won't collide with it where we just edited
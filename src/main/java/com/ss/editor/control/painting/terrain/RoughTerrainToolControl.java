@@ -29,8 +29,6 @@ import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * The implementation of terrain tool to make rough heights.
@@ -114,16 +112,11 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
         final int twoBrushSize = (int) (brushSize * 2);
 
         final Basis fractalFilter = createFractalGenerator();
-        final List<Vector2f> locs = new ArrayList<>();
-        final List<Float> heights = new ArrayList<>();
 
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
 
-            locs.clear();
-            heights.clear();
-
             final Vector3f worldTranslation = terrainNode.getWorldTranslation();
             final Vector3f localScale = terrainNode.getLocalScale();
             final Vector3f localPoint = contactPoint.subtract(worldTranslation, local.nextVector());
@@ -163,15 +156,12 @@ public class RoughTerrainToolControl extends ChangeHeightTerrainToolControl {
                     // see if it is in the radius of the tool
                     final float newHeight = calculateHeight(brushSize, height, effectPoint);
 
-                    locs.add(terrainLoc.clone());
-                    heights.add(currentHeight + newHeight);
+                    addHeight(terrain, terrainLoc, currentHeight + newHeight);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain);
         }
 
         // or else we won't collide with it where we just edited
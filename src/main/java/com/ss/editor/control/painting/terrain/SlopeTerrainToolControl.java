@@ -19,8 +19,6 @@ import com.ss.editor.util.PaintingUtils;
 import com.ss.rlib.common.util.ExtMath;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-
 /**
  * The implementation of terrain tool to make slopes.
  *
@@ -212,16 +210,10 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
         var brushSize = getBrushSize();
         var brushPower = getBrushPower();
 
-        var locs = new ArrayList<Vector2f>();
-        var heights = new ArrayList<Float>();
-
         for (var terrain : getTerrains()) {
 
             var terrainNode = (Node) terrain;
 
-            locs.clear();
-            heights.clear();
-
             var worldTranslation = terrainNode.getWorldTranslation();
             var localScale = terrainNode.getLocalScale();
             var firstPoint = baseMarker.getLocalTranslation();
@@ -330,21 +322,17 @@ public class SlopeTerrainToolControl extends ChangeHeightTerrainToolControl {
                         }
 
                         if (!ExtMath.equals(adj, 0, 0.001f)) {
-                            locs.add(terrainLoc.clone());
-                            heights.add(currentHeight + adj);
+                            addHeight(terrain, terrainLoc, currentHeight + adj);
                         }
 
                     } else {
-                        locs.add(terrainLoc.clone());
-                        heights.add(desiredHeight / localScale.getY());
+                        addHeight(terrain, terrainLoc, desiredHeight / localScale.getY());
                     }
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
-
             // do the actual height adjustment
-            terrain.setHeight(locs, heights);
+            applyHeights(terrain);
         }
 
         // or else we won't collide with it where we just edited
@@ -19,9 +19,6 @@ import com.ss.editor.ui.component.painting.terrain.TerrainPaintingComponent;
 import com.ss.editor.util.LocalObjects;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * The implementation of terrain tool to smooth heights.
  *
@@ -97,8 +94,6 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
         final float brushSize = getBrushSize();
         final float brushPower = getBrushPower();
 
-        final List<Vector2f> locs = new ArrayList<>();
-
         for (final Terrain terrain : getTerrains()) {
 
             final Node terrainNode = (Node) terrain;
@@ -119,8 +114,6 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
             final float xStepAmount = localScale.getX();
             final float zStepAmount = localScale.getZ();
 
-            locs.clear();
-
             for (int z = -radiusStepsZ; z < radiusStepsZ; z++) {
                 for (int x = -radiusStepsX; x < radiusStepsX; x++) {
 
@@ -174,12 +167,12 @@ public class SmoothTerrainToolControl extends ChangeHeightTerrainToolControl {
                     float diff = amount - center;
                     diff *= min(brushPower, 2F);
 
-                    terrain.setHeight(terrainLoc, center + diff);
-                    locs.add(terrainLoc.clone());
+                    addHeight(terrain, terrainLoc, center + diff);
                 }
             }
 
-            locs.forEach(location -> change(terrain, location));
+            // do the actual height adjustment
+            applyHeights(terrain);
         }
 
         // or else we won't collide with it where we just edited
@@ -0,0 +1,31 @@
+package com.ss.editor.executor;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a task executor with priority queues.
+ *
+ * @author JavaSaBr
+ */
+public interface PriorityEditorTaskExecutor extends EditorTaskExecutor {
+
+    /**
+     * Add the new task with the priority.
+     *
+     * @param task     the new task.
+     * @param priority the task's priority.
+     * @return the handle of the task.
+     */
+    @FromAnyThread
+    @NotNull TaskHandle execute(@NotNull Runnable task, @NotNull TaskPriority priority);
+
+    /**
+     * Get the statistics of the queue with the priority.
+     *
+     * @param priority the priority.
+     * @return the queue's statistics.
+     */
+    @FromAnyThread
+    @NotNull TaskQueueStatistics getStatistics(@NotNull TaskPriority priority);
+}
@@ -0,0 +1,35 @@
+package com.ss.editor.executor;
+
+import com.ss.editor.annotation.FromAnyThread;
+
+/**
+ * The interface to implement a handle of a submitted editor task.
+ *
+ * @author JavaSaBr
+ */
+public interface TaskHandle {
+
+    /**
+     * Try to cancel the task, it's possible only if the task isn't started yet.
+     *
+     * @return true if the task was cancelled.
+     */
+    @FromAnyThread
+    boolean cancel();
+
+    /**
+     * Return true if the task was cancelled.
+     *
+     * @return true if the task was cancelled.
+     */
+    @FromAnyThread
+    boolean isCancelled();
+
+    /**
+     * Return true if the task was finished or cancelled.
+     *
+     * @return true if the task was finished or cancelled.
+     */
+    @FromAnyThread
+    boolean isDone();
+}
@@ -0,0 +1,30 @@
+package com.ss.editor.executor;
+
+/**
+ * The list of priorities of editor tasks.
+ *
+ * @author JavaSaBr
+ */
+public enum TaskPriority {
+
+    /**
+     * The tasks which were started by an user and he is waiting for results.
+     */
+    INTERACTIVE,
+
+    /**
+     * The long bulk tasks like importing or regenerating a lot of files.
+     */
+    BULK;
+
+    private static final TaskPriority[] VALUES = values();
+
+    /**
+     * Get all priorities ordered from the highest to the lowest.
+     *
+     * @return the all priorities.
+     */
+    public static TaskPriority[] all() {
+        return VALUES;
+    }
+}
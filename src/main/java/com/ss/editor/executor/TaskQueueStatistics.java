@@ -0,0 +1,253 @@
+package com.ss.editor.executor;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a queue of editor tasks.
+ *
+ * @author JavaSaBr
+ */
+public class TaskQueueStatistics {
+
+    /**
+     * The name of the queue.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * The count of tasks in the queue.
+     */
+    @NotNull
+    private final AtomicInteger depth;
+
+    /**
+     * The max observed count of tasks in the queue.
+     */
+    @NotNull
+    private final AtomicInteger maxDepth;
+
+    /**
+     * The counters of submitted, completed, failed and cancelled tasks.
+     */
+    @NotNull
+    private final LongAdder submitted, completed, failed, cancelled;
+
+    /**
+     * The total time of waiting and executing tasks in nanos.
+     */
+    @NotNull
+    private final LongAdder waitTime, executeTime;
+
+    /**
+     * The max time of waiting a task in the queue in nanos.
+     */
+    @NotNull
+    private final AtomicLong maxWaitTime;
+
+    public TaskQueueStatistics(@NotNull String name) {
+        this.name = name;
+        this.depth = new AtomicInteger();
+        this.maxDepth = new AtomicInteger();
+        this.submitted = new LongAdder();
+        this.completed = new LongAdder();
+        this.failed = new LongAdder();
+        this.cancelled = new LongAdder();
+        this.waitTime = new LongAdder();
+        this.executeTime = new LongAdder();
+        this.maxWaitTime = new AtomicLong();
+    }
+
+    /**
+     * Notify about a submitted task.
+     */
+    @FromAnyThread
+    public void onSubmitted() {
+        submitted.increment();
+        var current = depth.incrementAndGet();
+        maxDepth.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * Notify about a task which was removed from the queue.
+     */
+    @FromAnyThread
+    public void onPolled() {
+        depth.decrementAndGet();
+    }
+
+    /**
+     * Notify about a task which was started after waiting in the queue.
+     *
+     * @param waitTime the waiting time in nanos.
+     */
+    @FromAnyThread
+    public void onStarted(long waitTime) {
+        this.waitTime.add(waitTime);
+        this.maxWaitTime.accumulateAndGet(waitTime, Math::max);
+    }
+
+    /**
+     * Notify about a finished task.
+     *
+     * @param executeTime the executing time in nanos.
+     * @param success     true if the task was finished without errors.
+     */
+    @FromAnyThread
+    public void onFinished(long executeTime, boolean success) {
+
+        this.executeTime.add(executeTime);
+
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Notify about a cancelled task.
+     */
+    @FromAnyThread
+    public void onCancelled() {
+        cancelled.increment();
+    }
+
+    /**
+     * Get the name of the queue.
+     *
+     * @return the name of the queue.
+     */
+    @FromAnyThread
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Get the current count of tasks in the queue.
+     *
+     * @return the current count of tasks in the queue.
+     */
+    @FromAnyThread
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Get the max observed count of tasks in the queue.
+     *
+     * @return the max observed count of tasks in the queue.
+     */
+    @FromAnyThread
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Get the count of submitted tasks.
+     *
+     * @return the count of submitted tasks.
+     */
+    @FromAnyThread
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Get the count of completed tasks.
+     *
+     * @return the count of completed tasks.
+     */
+    @FromAnyThread
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the count of failed tasks.
+     *
+     * @return the count of failed tasks.
+     */
+    @FromAnyThread
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Get the count of cancelled tasks.
+     *
+     * @return the count of cancelled tasks.
+     */
+    @FromAnyThread
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    /**
+     * Get the average time of waiting a task in the queue in ms.
+     *
+     * @return the average waiting time in ms.
+     */
+    @FromAnyThread
+    public double getAverageWaitTime() {
+        return average(waitTime.sum(), getCompleted() + getFailed());
+    }
+
+    /**
+     * Get the max time of waiting a task in the queue in ms.
+     *
+     * @return the max waiting time in ms.
+     */
+    @FromAnyThread
+    public double getMaxWaitTime() {
+        return average(maxWaitTime.get(), 1);
+    }
+
+    /**
+     * Get the average time of executing a task in ms.
+     *
+     * @return the average executing time in ms.
+     */
+    @FromAnyThread
+    public double getAverageExecuteTime() {
+        return average(executeTime.sum(), getCompleted() + getFailed());
+    }
+
+    /**
+     * Get the total time of executing tasks in ms.
+     *
+     * @return the total executing time in ms.
+     */
+    @FromAnyThread
+    public double getTotalExecuteTime() {
+        return average(executeTime.sum(), 1);
+    }
+
+    @FromAnyThread
+    private static double average(long nanos, long count) {
+        return count < 1 ? 0D : (double) nanos / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return "TaskQueueStatistics{" +
+                "name='" + name + '\'' +
+                ", depth=" + getDepth() +
+                ", maxDepth=" + getMaxDepth() +
+                ", submitted=" + getSubmitted() +
+                ", completed=" + getCompleted() +
+                ", failed=" + getFailed() +
+                ", cancelled=" + getCancelled() +
+                ", averageWaitTime=" + getAverageWaitTime() +
+                ", maxWaitTime=" + getMaxWaitTime() +
+                ", averageExecuteTime=" + getAverageExecuteTime() +
+                ", totalExecuteTime=" + getTotalExecuteTime() +
+                '}';
+    }
+}
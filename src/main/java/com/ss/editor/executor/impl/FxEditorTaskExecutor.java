@@ -2,118 +2,216 @@ package com.ss.editor.executor.impl;
 
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
-import com.ss.editor.util.EditorUtil;
-import com.ss.rlib.common.concurrent.util.ConcurrentUtils;
-import com.ss.rlib.common.util.array.Array;
+import com.ss.editor.executor.PriorityEditorTaskExecutor;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.TaskQueueStatistics;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * The executor to execute tasks in the FX UI Thread.
+ * The executor to execute tasks in the FX UI Thread. Tasks are executed by slices which are limited by the frame
+ * budget, when the budget is used, the rest of tasks is executed on the next pulses, so rendering of the UI isn't
+ * blocked by a lot of tasks. Tasks with higher priorities are always executed first.
  *
  * @author JavaSaBr
  */
-public class FxEditorTaskExecutor extends AbstractEditorTaskExecutor {
+public class FxEditorTaskExecutor implements PriorityEditorTaskExecutor {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(FxEditorTaskExecutor.class);
+
+    /**
+     * The max time of executing tasks during one pulse in nanos.
+     */
+    private static final long FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(8);
 
-    private static final int EXECUTE_LIMIT = 300;
+    /**
+     * The time of one pulse in nanos, a slice which takes more time delays rendering of the UI.
+     */
+    private static final long PULSE_TIME = TimeUnit.MILLISECONDS.toNanos(16);
 
     /**
-     * The task for executing editor tasks in the FX UI Thread.
+     * The queues of waiting tasks per priority.
      */
     @NotNull
-    private final Runnable fxTask = () -> doExecute(execute, executed);
+    private final Queue<PriorityTask>[] queues;
 
+    /**
+     * The statistics of queues per priority.
+     */
+    @NotNull
+    private final TaskQueueStatistics[] statistics;
+
+    /**
+     * The timer to continue executing of tasks on next pulses.
+     */
+    @NotNull
+    private final AnimationTimer pulseTimer;
+
+    /**
+     * True if executing of tasks is scheduled.
+     */
+    @NotNull
+    private final AtomicBoolean scheduled;
+
+    /**
+     * The count of slices which took more time than one pulse.
+     */
+    @NotNull
+    private final LongAdder overruns;
+
+    @SuppressWarnings("unchecked")
     public FxEditorTaskExecutor() {
-        setName(FxEditorTaskExecutor.class.getSimpleName());
-        setPriority(NORM_PRIORITY);
+
+        var priorities = TaskPriority.all();
+
+        this.queues = new Queue[priorities.length];
+        this.statistics = new TaskQueueStatistics[priorities.length];
+
+        for (var priority : priorities) {
+            queues[priority.ordinal()] = new ConcurrentLinkedQueue<>();
+            statistics[priority.ordinal()] = new TaskQueueStatistics("FxEditorTaskExecutor_" + priority);
+        }
+
+        this.scheduled = new AtomicBoolean();
+        this.overruns = new LongAdder();
+        this.pulseTimer = new AnimationTimer() {
+
+            @Override
+            public void handle(long now) {
+                executeSlice();
+            }
+        };
+
         try {
-            Platform.startup(this::start);
+            Platform.startup(() -> {});
         } catch (IllegalStateException e) {
-            start();
+            // the FX platform is already started
         }
     }
 
     @Override
-    @FxThread
-    protected void doExecute(@NotNull Array<Runnable> execute, @NotNull Array<Runnable> executed) {
-
-        var array = execute.array();
-
-        for (int i = 0, length = execute.size(); i < length; ) {
-            try {
+    @FromAnyThread
+    public void execute(@NotNull Runnable task) {
+        execute(task, TaskPriority.INTERACTIVE);
+    }
 
-                for (int count = 0; count < EXECUTE_LIMIT && i < length; count++, i++) {
+    @Override
+    @FromAnyThread
+    public @NotNull TaskHandle execute(@NotNull Runnable task, @NotNull TaskPriority priority) {
 
-                    var task = array[i];
-                    try {
-                        task.run();
-                    } catch (Exception e) {
-                        EditorUtil.handleException(LOGGER, this, e);
-                    }
+        var queueStatistics = statistics[priority.ordinal()];
+        var priorityTask = new PriorityTask(task, queueStatistics);
 
-                    executed.add(task);
-                }
+        queues[priority.ordinal()].add(priorityTask);
+        queueStatistics.onSubmitted();
 
-            } catch (Exception e) {
-                LOGGER.warning(e);
-            }
+        if (scheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::executeSlice);
         }
 
-        ConcurrentUtils.notifyAll(fxTask);
+        return priorityTask;
     }
 
     @Override
-    public void run() {
-        while (true) {
+    @FromAnyThread
+    public @NotNull TaskQueueStatistics getStatistics(@NotNull TaskPriority priority) {
+        return statistics[priority.ordinal()];
+    }
 
-            executed.clear();
-            execute.clear();
+    /**
+     * Get the count of slices which took more time than one pulse.
+     *
+     * @return the count of slices which took more time than one pulse.
+     */
+    @FromAnyThread
+    public long getOverruns() {
+        return overruns.sum();
+    }
 
-            lock();
-            try {
+    /**
+     * Take a next waiting task with the highest priority.
+     *
+     * @return the next task or null.
+     */
+    @FromAnyThread
+    private @Nullable PriorityTask pollNext() {
 
-                if (waitTasks.isEmpty()) {
-                    wait.getAndSet(true);
-                } else {
-                    execute.addAll(waitTasks);
-                }
+        for (var queue : queues) {
 
-            } finally {
-                unlock();
-            }
+            var task = queue.poll();
 
-            if (wait.get()) {
-                synchronized (wait) {
-                    if (wait.get()) {
-                        ConcurrentUtils.waitInSynchronize(wait);
-                    }
-                }
+            if (task != null) {
+                task.getStatistics().onPolled();
+                return task;
             }
+        }
 
-            if (execute.isEmpty()) {
-                continue;
-            }
+        return null;
+    }
 
-            executeInFxUiThread();
+    /**
+     * Return true if there are waiting tasks.
+     *
+     * @return true if there are waiting tasks.
+     */
+    @FromAnyThread
+    private boolean hasTasks() {
 
-            if (executed.isEmpty()) {
-                continue;
+        for (var queue : queues) {
+            if (!queue.isEmpty()) {
+                return true;
             }
+        }
+
+        return false;
+    }
+
+    /**
+     * Execute waiting tasks until the frame budget is used and continue on the next pulse if there are still
+     * waiting tasks.
+     */
+    @FxThread
+    private void executeSlice() {
+
+        var startTime = System.nanoTime();
+        var deadline = startTime + FRAME_BUDGET;
 
-            lock();
-            try {
-                waitTasks.removeAll(executed);
-            } finally {
-                unlock();
+        for (var task = pollNext(); task != null; task = pollNext()) {
+
+            task.execute(LOGGER, this);
+
+            if (System.nanoTime() >= deadline) {
+                break;
             }
         }
-    }
 
-    @FromAnyThread
-    private void executeInFxUiThread() {
-        synchronized (fxTask) {
-            Platform.runLater(fxTask);
-            ConcurrentUtils.waitInSynchronize(fxTask);
+        if (System.nanoTime() - startTime > PULSE_TIME) {
+            overruns.increment();
+        }
+
+        if (hasTasks()) {
+            pulseTimer.start();
+            return;
+        }
+
+        pulseTimer.stop();
+        scheduled.set(false);
+
+        // a new task could be added after the check
+        if (hasTasks() && scheduled.compareAndSet(false, true)) {
+            pulseTimer.start();
         }
     }
 }
@@ -1,20 +1,25 @@
 package com.ss.editor.executor.impl;
 
-import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.annotation.FromAnyThread;
-import com.ss.editor.util.EditorUtil;
-
-import org.jetbrains.annotations.NotNull;
-
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.TaskQueueStatistics;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
-import com.ss.rlib.common.util.ArrayUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
-import com.ss.rlib.common.util.array.ConcurrentArray;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * The executor to execute tasks in the editor thread.
+ * The executor to execute tasks in the editor thread. Tasks are executed during updating of a frame until the frame
+ * budget is used, the rest of tasks is executed during the next frames. Tasks with higher priorities are always
+ * executed first, tasks which were added during executing of a frame are executed during the next frame.
  *
  * @author JavaSaBr
  */
@@ -26,26 +31,99 @@ public class JmeThreadExecutor {
     @NotNull
     private static final JmeThreadExecutor INSTANCE = new JmeThreadExecutor();
 
+    /**
+     * The default max time of executing tasks during one frame in ms.
+     */
+    public static final int DEFAULT_FRAME_BUDGET = 8;
+
     @FromAnyThread
     public static @NotNull JmeThreadExecutor getInstance() {
         return INSTANCE;
     }
 
     /**
-     * The list of waited tasks.
+     * The task which was added to this executor.
+     */
+    private class JmeTask extends PriorityTask {
+
+        /**
+         * The type of this task.
+         */
+        @NotNull
+        private final String type;
+
+        /**
+         * The frame when this task was added.
+         */
+        private final long frame;
+
+        private JmeTask(@NotNull Runnable task, @NotNull TaskQueueStatistics statistics, long frame) {
+            super(task, statistics);
+            this.type = getTaskType(task);
+            this.frame = frame;
+        }
+
+        @Override
+        @FromAnyThread
+        protected void onFinished(long executeTime, boolean success) {
+            super.onFinished(executeTime, success);
+            typeStatistics.computeIfAbsent(type, TaskQueueStatistics::new)
+                    .onFinished(executeTime, success);
+        }
+    }
+
+    /**
+     * The queues of waiting tasks per priority.
+     */
+    @NotNull
+    private final Queue<JmeTask>[] queues;
+
+    /**
+     * The statistics of queues per priority.
      */
     @NotNull
-    private final ConcurrentArray<Runnable> waitTasks;
+    private final TaskQueueStatistics[] statistics;
 
     /**
-     * The list with tasks to execute.
+     * The statistics of executing tasks per task type.
      */
     @NotNull
-    private final Array<Runnable> execute;
+    private final ConcurrentHashMap<String, TaskQueueStatistics> typeStatistics;
+
+    /**
+     * The max time of executing tasks during one frame in nanos.
+     */
+    private volatile long frameBudget;
+
+    /**
+     * The number of the current frame.
+     */
+    private volatile long frame;
 
+    @SuppressWarnings("unchecked")
     private JmeThreadExecutor() {
-        this.waitTasks = ArrayFactory.newConcurrentAtomicARSWLockArray(Runnable.class);
-        this.execute = ArrayFactory.newArray(Runnable.class);
+
+        var priorities = TaskPriority.all();
+
+        this.queues = new Queue[priorities.length];
+        this.statistics = new TaskQueueStatistics[priorities.length];
+        this.typeStatistics = new ConcurrentHashMap<>();
+        this.frameBudget = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FRAME_BUDGET);
+
+        for (var priority : priorities) {
+            queues[priority.ordinal()] = new ConcurrentLinkedQueue<>();
+            statistics[priority.ordinal()] = new TaskQueueStatistics("JmeThreadExecutor_" + priority);
+        }
+    }
+
+    /**
+     * Set the max time of executing tasks during one frame.
+     *
+     * @param frameBudget the max time of executing tasks during one frame in ms.
+     */
+    @FromAnyThread
+    public void setFrameBudget(int frameBudget) {
+        this.frameBudget = TimeUnit.MILLISECONDS.toNanos(Math.max(frameBudget, 1));
     }
 
     /**
@@ -54,34 +132,90 @@ public class JmeThreadExecutor {
      * @param task the task.
      */
     @FromAnyThread
-    public void addToExecute(@NotNull final Runnable task) {
-        ArrayUtils.runInWriteLock(waitTasks, task, (tasks, toAdd) -> tasks.add(task));
+    public void addToExecute(@NotNull Runnable task) {
+        addToExecute(task, TaskPriority.INTERACTIVE);
     }
 
     /**
-     * Execute waited tasks.
+     * Add a task to execute with the priority.
+     *
+     * @param task     the task.
+     * @param priority the priority.
+     * @return the handle of the added task.
+     */
+    @FromAnyThread
+    public @NotNull TaskHandle addToExecute(@NotNull Runnable task, @NotNull TaskPriority priority) {
+
+        var queueStatistics = statistics[priority.ordinal()];
+        var jmeTask = new JmeTask(task, queueStatistics, frame);
+
+        queues[priority.ordinal()].add(jmeTask);
+        queueStatistics.onSubmitted();
+
+        return jmeTask;
+    }
+
+    /**
+     * Get the statistics of the queue with the priority.
+     *
+     * @param priority the priority.
+     * @return the statistics of the queue.
+     */
+    @FromAnyThread
+    public @NotNull TaskQueueStatistics getStatistics(@NotNull TaskPriority priority) {
+        return statistics[priority.ordinal()];
+    }
+
+    /**
+     * Get the statistics of executing tasks per task type, a task type is a class of a task.
+     *
+     * @return the statistics of executing tasks per task type.
+     */
+    @FromAnyThread
+    public @NotNull Array<TaskQueueStatistics> getTaskTypeStatistics() {
+        var result = ArrayFactory.newArray(TaskQueueStatistics.class, typeStatistics.size());
+        typeStatistics.values().forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Execute waited tasks until the frame budget is used.
      */
     @JmeThread
     public void execute() {
 
-        if (waitTasks.isEmpty()) {
-            return;
-        }
+        var currentFrame = ++frame;
+        var deadline = System.nanoTime() + frameBudget;
+        var executed = false;
+
+        for (var queue : queues) {
+            for (var task = queue.peek(); task != null && task.frame < currentFrame; task = queue.peek()) {
+
+                if (executed && System.nanoTime() >= deadline) {
+                    return;
+                }
+
+                queue.poll();
+                task.getStatistics().onPolled();
+                task.execute(LOGGER, this);
 
-        ArrayUtils.runInWriteLock(waitTasks, execute, ArrayUtils::move);
-        try {
-            execute.forEach(JmeThreadExecutor::execute);
-        } finally {
-            execute.clear();
+                executed = true;
+            }
         }
     }
 
-    @JmeThread
-    private static void execute(@NotNull final Runnable runnable) {
-        try {
-            runnable.run();
-        } catch (final Exception e) {
-            EditorUtil.handleException(LOGGER, getInstance(), e);
-        }
+    /**
+     * Get the type of the task to collect statistics.
+     *
+     * @param task the task.
+     * @return the type of the task.
+     */
+    @FromAnyThread
+    private static @NotNull String getTaskType(@NotNull Runnable task) {
+
+        var type = task.getClass().getName();
+        var index = type.indexOf("$$Lambda");
+
+        return index == -1 ? type : type.substring(0, index);
     }
 }
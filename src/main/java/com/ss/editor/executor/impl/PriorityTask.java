@@ -0,0 +1,128 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.PriorityEditorTaskExecutor;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskQueueStatistics;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.common.logging.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The task which was submitted to a {@link PriorityEditorTaskExecutor}.
+ *
+ * @author JavaSaBr
+ */
+class PriorityTask implements TaskHandle {
+
+    private static final int STATE_WAITING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_FINISHED = 2;
+    private static final int STATE_CANCELLED = 3;
+
+    /**
+     * The task to execute.
+     */
+    @NotNull
+    private final Runnable task;
+
+    /**
+     * The statistics of the task's queue.
+     */
+    @NotNull
+    private final TaskQueueStatistics statistics;
+
+    /**
+     * The state of this task.
+     */
+    @NotNull
+    private final AtomicInteger state;
+
+    /**
+     * The time when this task was submitted in nanos.
+     */
+    private final long submitTime;
+
+    PriorityTask(@NotNull Runnable task, @NotNull TaskQueueStatistics statistics) {
+        this.task = task;
+        this.statistics = statistics;
+        this.state = new AtomicInteger(STATE_WAITING);
+        this.submitTime = System.nanoTime();
+    }
+
+    /**
+     * Get the statistics of the task's queue.
+     *
+     * @return the statistics of the task's queue.
+     */
+    @FromAnyThread
+    @NotNull TaskQueueStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Execute this task if it wasn't cancelled.
+     *
+     * @param logger the logger of the executor.
+     * @param owner  the executor.
+     */
+    @FromAnyThread
+    void execute(@NotNull Logger logger, @NotNull Object owner) {
+
+        if (!state.compareAndSet(STATE_WAITING, STATE_RUNNING)) {
+            return;
+        }
+
+        var startTime = System.nanoTime();
+        var success = false;
+
+        statistics.onStarted(startTime - submitTime);
+        try {
+            task.run();
+            success = true;
+        } catch (Exception e) {
+            EditorUtil.handleException(logger, owner, e);
+        } finally {
+            state.set(STATE_FINISHED);
+            onFinished(System.nanoTime() - startTime, success);
+        }
+    }
+
+    /**
+     * Handle finishing of this task.
+     *
+     * @param executeTime the executing time in nanos.
+     * @param success     true if the task was finished without errors.
+     */
+    @FromAnyThread
+    protected void onFinished(long executeTime, boolean success) {
+        statistics.onFinished(executeTime, success);
+    }
+
+    @Override
+    @FromAnyThread
+    public boolean cancel() {
+
+        if (!state.compareAndSet(STATE_WAITING, STATE_CANCELLED)) {
+            return false;
+        }
+
+        statistics.onCancelled();
+        return true;
+    }
+
+    @Override
+    @FromAnyThread
+    public boolean isCancelled() {
+        return state.get() == STATE_CANCELLED;
+    }
+
+    @Override
+    @FromAnyThread
+    public boolean isDone() {
+        var current = state.get();
+        return current == STATE_FINISHED || current == STATE_CANCELLED;
+    }
+}
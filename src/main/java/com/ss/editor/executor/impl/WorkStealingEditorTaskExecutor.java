@@ -0,0 +1,150 @@
+package com.ss.editor.executor.impl;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.executor.PriorityEditorTaskExecutor;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.TaskQueueStatistics;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The implementation of the {@link PriorityEditorTaskExecutor} to execute tasks in the background using a
+ * work-stealing pool. Every submitted task puts a drain token to the pool, so a free worker always takes the next
+ * task with the highest priority instead of waiting for tasks which were assigned to it.
+ *
+ * @author JavaSaBr
+ */
+public class WorkStealingEditorTaskExecutor implements PriorityEditorTaskExecutor {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(WorkStealingEditorTaskExecutor.class);
+
+    /**
+     * The worker thread of the pool.
+     */
+    private static class WorkerThread extends ForkJoinWorkerThread {
+
+        private WorkerThread(@NotNull ForkJoinPool pool) {
+            super(pool);
+            setPriority(NORM_PRIORITY - 2);
+        }
+    }
+
+    /**
+     * The pool of worker threads.
+     */
+    @NotNull
+    private final ForkJoinPool pool;
+
+    /**
+     * The queues of waiting tasks per priority.
+     */
+    @NotNull
+    private final Queue<PriorityTask>[] queues;
+
+    /**
+     * The statistics of queues per priority.
+     */
+    @NotNull
+    private final TaskQueueStatistics[] statistics;
+
+    /**
+     * The token to execute a next waiting task.
+     */
+    @NotNull
+    private final Runnable drainToken;
+
+    @SuppressWarnings("unchecked")
+    public WorkStealingEditorTaskExecutor(@NotNull String name, int parallelism) {
+
+        var priorities = TaskPriority.all();
+
+        this.queues = new Queue[priorities.length];
+        this.statistics = new TaskQueueStatistics[priorities.length];
+
+        for (var priority : priorities) {
+            queues[priority.ordinal()] = new ConcurrentLinkedQueue<>();
+            statistics[priority.ordinal()] = new TaskQueueStatistics(name + "_" + priority);
+        }
+
+        var threadIndex = new AtomicInteger();
+
+        this.drainToken = this::executeNext;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            var thread = new WorkerThread(pool);
+            thread.setName(name + "_" + threadIndex.incrementAndGet());
+            return thread;
+        }, (thread, e) -> LOGGER.warning(e), true);
+    }
+
+    @Override
+    @FromAnyThread
+    public void execute(@NotNull Runnable task) {
+        execute(task, TaskPriority.INTERACTIVE);
+    }
+
+    @Override
+    @FromAnyThread
+    public @NotNull TaskHandle execute(@NotNull Runnable task, @NotNull TaskPriority priority) {
+
+        var queueStatistics = statistics[priority.ordinal()];
+        var priorityTask = new PriorityTask(task, queueStatistics);
+
+        queues[priority.ordinal()].add(priorityTask);
+        queueStatistics.onSubmitted();
+
+        pool.execute(drainToken);
+
+        return priorityTask;
+    }
+
+    @Override
+    @FromAnyThread
+    public @NotNull TaskQueueStatistics getStatistics(@NotNull TaskPriority priority) {
+        return statistics[priority.ordinal()];
+    }
+
+    /**
+     * Take a next waiting task with the highest priority.
+     *
+     * @return the next task or null.
+     */
+    @FromAnyThread
+    private @Nullable PriorityTask pollNext() {
+
+        for (var queue : queues) {
+
+            var task = queue.poll();
+
+            if (task != null) {
+                task.getStatistics().onPolled();
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Execute a next waiting task with the highest priority. Cancelled tasks stay in queues until they are polled
+     * here and are just skipped.
+     */
+    @FromAnyThread
+    private void executeNext() {
+
+        var task = pollNext();
+
+        if (task != null) {
+            task.execute(LOGGER, this);
+        }
+    }
+}
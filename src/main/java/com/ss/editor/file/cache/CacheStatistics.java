@@ -0,0 +1,128 @@
+package com.ss.editor.file.cache;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of a cache.
+ *
+ * @author JavaSaBr
+ */
+public class CacheStatistics {
+
+    /**
+     * The name of the cache.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * The counters of hits, misses, evictions and invalidations.
+     */
+    @NotNull
+    private final LongAdder hits, misses, evictions, invalidations;
+
+    public CacheStatistics(@NotNull String name) {
+        this.name = name;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.invalidations = new LongAdder();
+    }
+
+    @FromAnyThread
+    void onHit() {
+        hits.increment();
+    }
+
+    @FromAnyThread
+    void onMiss() {
+        misses.increment();
+    }
+
+    @FromAnyThread
+    void onEvicted() {
+        evictions.increment();
+    }
+
+    @FromAnyThread
+    void onInvalidated() {
+        invalidations.increment();
+    }
+
+    /**
+     * Get the name of the cache.
+     *
+     * @return the name of the cache.
+     */
+    @FromAnyThread
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Get the count of hits.
+     *
+     * @return the count of hits.
+     */
+    @FromAnyThread
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the count of misses.
+     *
+     * @return the count of misses.
+     */
+    @FromAnyThread
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the count of entries which were evicted because of the size limit.
+     *
+     * @return the count of evicted entries.
+     */
+    @FromAnyThread
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the count of entries which were invalidated because of changed files.
+     *
+     * @return the count of invalidated entries.
+     */
+    @FromAnyThread
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Get the hit rate from 0 to 1.
+     *
+     * @return the hit rate.
+     */
+    @FromAnyThread
+    public double getHitRate() {
+        var hits = getHits();
+        var total = hits + getMisses();
+        return total < 1 ? 0D : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "name='" + name + '\'' +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", hitRate=" + getHitRate() +
+                ", evictions=" + getEvictions() +
+                ", invalidations=" + getInvalidations() +
+                '}';
+    }
+}
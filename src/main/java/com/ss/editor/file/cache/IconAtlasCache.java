@@ -0,0 +1,403 @@
+package com.ss.editor.file.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.FileUtils;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The persistent atlas of rasterized icons. Pixels of all icons are packed one after another to the data file as
+ * premultiplied BGRA and the index file keeps their positions, so icons which were rasterized once are read from
+ * the memory mapped data file on the next starts. The atlas also keeps probed content types of file extensions.
+ * All the atlas is removed when it was written by another version of the editor.
+ *
+ * @author JavaSaBr
+ */
+public class IconAtlasCache {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(IconAtlasCache.class);
+
+    @NotNull
+    private static final String INDEX_FILE = "index";
+
+    @NotNull
+    private static final String DATA_FILE = "atlas";
+
+    @NotNull
+    private static final String SEPARATOR = "\t";
+
+    @NotNull
+    private static final String VERSION = "version";
+
+    @NotNull
+    private static final String ICON = "icon";
+
+    @NotNull
+    private static final String CONTENT_TYPE = "type";
+
+    /**
+     * The icon in the atlas.
+     */
+    private static class Entry {
+
+        /**
+         * The offset of pixels in the data file.
+         */
+        private final long offset;
+
+        /**
+         * The width of the icon.
+         */
+        private final int width;
+
+        /**
+         * The height of the icon.
+         */
+        private final int height;
+
+        private Entry(long offset, int width, int height) {
+            this.offset = offset;
+            this.width = width;
+            this.height = height;
+        }
+
+        private int getLength() {
+            return width * height * 4;
+        }
+    }
+
+    /**
+     * The atlas folder.
+     */
+    @NotNull
+    private final Path folder;
+
+    /**
+     * The version of the editor.
+     */
+    @NotNull
+    private final String version;
+
+    /**
+     * The icons by their keys.
+     */
+    @NotNull
+    private final Map<String, Entry> entries;
+
+    /**
+     * The pixels of icons which aren't written to the data file yet in the order of offsets.
+     */
+    @NotNull
+    private final LinkedHashMap<String, byte[]> pending;
+
+    /**
+     * The content types by file extensions.
+     */
+    @NotNull
+    private final Map<String, String> contentTypes;
+
+    /**
+     * The mapped data file.
+     */
+    @Nullable
+    private MappedByteBuffer data;
+
+    /**
+     * The size of the written data file.
+     */
+    private long dataSize;
+
+    /**
+     * True if the index was changed after the last saving.
+     */
+    private boolean dirty;
+
+    public IconAtlasCache(@NotNull Path folder, @NotNull String version) {
+        this.folder = folder;
+        this.version = version;
+        this.entries = new HashMap<>();
+        this.pending = new LinkedHashMap<>();
+        this.contentTypes = new HashMap<>();
+    }
+
+    /**
+     * Load the index of this atlas. The atlas is removed if it has another version or it's broken.
+     */
+    @FromAnyThread
+    public synchronized void load() {
+
+        var indexFile = folder.resolve(INDEX_FILE);
+        var dataFile = folder.resolve(DATA_FILE);
+
+        if (!Files.exists(indexFile) || !Files.exists(dataFile)) {
+            clear();
+            return;
+        }
+
+        try {
+
+            var lines = Files.readAllLines(indexFile, UTF_8);
+
+            if (lines.isEmpty() || !lines.get(0).equals(VERSION + SEPARATOR + version)) {
+                clear();
+                return;
+            }
+
+            dataSize = Files.size(dataFile);
+
+            for (int i = 1; i < lines.size(); i++) {
+
+                var values = lines.get(i).split(SEPARATOR);
+
+                if (values.length == 3 && CONTENT_TYPE.equals(values[0])) {
+                    contentTypes.put(values[1], values[2]);
+                    continue;
+                } else if (values.length != 5 || !ICON.equals(values[0])) {
+                    dirty = true;
+                    continue;
+                }
+
+                var entry = new Entry(Long.parseLong(values[2]), Integer.parseInt(values[3]),
+                        Integer.parseInt(values[4]));
+
+                if (entry.offset + entry.getLength() > dataSize) {
+                    dirty = true;
+                    continue;
+                }
+
+                entries.put(values[1], entry);
+            }
+
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warning(e);
+            clear();
+        }
+    }
+
+    /**
+     * Remove all icons of this atlas.
+     */
+    @FromAnyThread
+    private void clear() {
+
+        entries.clear();
+        pending.clear();
+        contentTypes.clear();
+
+        data = null;
+        dataSize = 0;
+        dirty = false;
+
+        if (Files.exists(folder)) {
+            FileUtils.delete(folder);
+        }
+    }
+
+    /**
+     * Get an icon from this atlas.
+     *
+     * @param key the key of the icon.
+     * @return the icon or null.
+     */
+    @FromAnyThread
+    public synchronized @Nullable Image get(@NotNull String key) {
+
+        var entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        ByteBuffer pixels;
+
+        var bytes = pending.get(key);
+
+        if (bytes != null) {
+            pixels = ByteBuffer.wrap(bytes);
+        } else {
+
+            var data = getData();
+
+            if (data == null) {
+                return null;
+            }
+
+            pixels = data.duplicate();
+            pixels.position((int) entry.offset);
+            pixels.limit((int) entry.offset + entry.getLength());
+            pixels = pixels.slice();
+        }
+
+        var image = new WritableImage(entry.width, entry.height);
+        image.getPixelWriter().setPixels(0, 0, entry.width, entry.height, PixelFormat.getByteBgraPreInstance(),
+                pixels, entry.width * 4);
+
+        return image;
+    }
+
+    /**
+     * Get the mapped data file.
+     *
+     * @return the mapped data file or null.
+     */
+    @FromAnyThread
+    private @Nullable MappedByteBuffer getData() {
+
+        if (data != null || dataSize == 0) {
+            return data;
+        }
+
+        try (var channel = FileChannel.open(folder.resolve(DATA_FILE), StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, dataSize);
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+
+        return data;
+    }
+
+    /**
+     * Put a rasterized icon to this atlas.
+     *
+     * @param key   the key of the icon.
+     * @param image the icon.
+     */
+    @FromAnyThread
+    public synchronized void put(@NotNull String key, @NotNull Image image) {
+
+        var reader = image.getPixelReader();
+
+        if (image.isError() || reader == null || entries.containsKey(key)) {
+            return;
+        }
+
+        var width = (int) image.getWidth();
+        var height = (int) image.getHeight();
+        var bytes = readPixels(reader, width, height);
+
+        var offset = dataSize;
+
+        for (var written : pending.values()) {
+            offset += written.length;
+        }
+
+        entries.put(key, new Entry(offset, width, height));
+        pending.put(key, bytes);
+        dirty = true;
+    }
+
+    @FromAnyThread
+    private static @NotNull byte[] readPixels(@NotNull PixelReader reader, int width, int height) {
+        var bytes = new byte[width * height * 4];
+        reader.getPixels(0, 0, width, height, PixelFormat.getByteBgraPreInstance(), bytes, 0, width * 4);
+        return bytes;
+    }
+
+    /**
+     * Get a probed content type of the file extension.
+     *
+     * @param extension the file extension.
+     * @return the content type or null.
+     */
+    @FromAnyThread
+    public synchronized @Nullable String getContentType(@NotNull String extension) {
+        return contentTypes.get(extension);
+    }
+
+    /**
+     * Put a probed content type of the file extension.
+     *
+     * @param extension   the file extension.
+     * @param contentType the content type.
+     */
+    @FromAnyThread
+    public synchronized void putContentType(@NotNull String extension, @NotNull String contentType) {
+        if (!contentType.equals(contentTypes.put(extension, contentType))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Write new icons and the index of this atlas if they were changed.
+     */
+    @FromAnyThread
+    public synchronized void saveIfNeed() {
+
+        if (!dirty) {
+            return;
+        }
+
+        var dataFile = folder.resolve(DATA_FILE);
+
+        try {
+
+            Files.createDirectories(folder);
+
+            try (var channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                channel.truncate(dataSize);
+                channel.position(dataSize);
+
+                for (var bytes : pending.values()) {
+                    var buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+
+                dataSize = channel.size();
+            }
+
+        } catch (IOException e) {
+            LOGGER.warning(e);
+            return;
+        }
+
+        pending.clear();
+        data = null;
+
+        var lines = new ArrayList<String>(entries.size() + contentTypes.size() + 1);
+        lines.add(VERSION + SEPARATOR + version);
+
+        for (var next : entries.entrySet()) {
+            var entry = next.getValue();
+            lines.add(ICON + SEPARATOR + next.getKey() + SEPARATOR + entry.offset + SEPARATOR + entry.width +
+                    SEPARATOR + entry.height);
+        }
+
+        for (var next : contentTypes.entrySet()) {
+            lines.add(CONTENT_TYPE + SEPARATOR + next.getKey() + SEPARATOR + next.getValue());
+        }
+
+        var indexFile = folder.resolve(INDEX_FILE);
+        var tempFile = folder.resolve(INDEX_FILE + ".tmp");
+        try {
+            Files.write(tempFile, lines, UTF_8);
+            Files.move(tempFile, indexFile, REPLACE_EXISTING);
+            dirty = false;
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+}
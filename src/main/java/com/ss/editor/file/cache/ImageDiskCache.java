@@ -0,0 +1,375 @@
+package com.ss.editor.file.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.FileUtils;
+import com.ss.rlib.common.util.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The disk tier of image previews. All cached files are registered in the index which is stored in the cache folder,
+ * so the cache knows the source of each file, can invalidate files of changed sources and can keep the total size
+ * of the folder under the limit by removing the least recently used files.
+ *
+ * @author JavaSaBr
+ */
+public class ImageDiskCache {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(ImageDiskCache.class);
+
+    @NotNull
+    private static final String INDEX_FILE = "index";
+
+    @NotNull
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * The cached file.
+     */
+    private static class Entry {
+
+        /**
+         * The source of the cached file.
+         */
+        @NotNull
+        private final String source;
+
+        /**
+         * The size of the cached file in bytes.
+         */
+        private final long size;
+
+        private Entry(@NotNull String source, long size) {
+            this.source = source;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The cache folder.
+     */
+    @NotNull
+    private final Path folder;
+
+    /**
+     * The index of cached files by their relative paths in access order.
+     */
+    @NotNull
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * The relative paths of cached files by their sources.
+     */
+    @NotNull
+    private final Map<String, Set<String>> sourceToKeys;
+
+    /**
+     * The statistics of this cache.
+     */
+    @NotNull
+    private final CacheStatistics statistics;
+
+    /**
+     * The max size of all cached files in bytes.
+     */
+    private final long maxSize;
+
+    /**
+     * The current size of all cached files in bytes.
+     */
+    private long currentSize;
+
+    /**
+     * True if the index was changed after the last saving.
+     */
+    private boolean dirty;
+
+    public ImageDiskCache(@NotNull String name, @NotNull Path folder, long maxSize) {
+        this.folder = folder;
+        this.entries = new LinkedHashMap<>(64, 0.75F, true);
+        this.sourceToKeys = new HashMap<>();
+        this.statistics = new CacheStatistics(name);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Load the index of this cache. If the cache folder has no index, all files in the folder are unknown and
+     * are removed.
+     */
+    @FromAnyThread
+    public synchronized void load() {
+
+        var indexFile = folder.resolve(INDEX_FILE);
+
+        if (!Files.exists(indexFile)) {
+            if (Files.exists(folder)) {
+                FileUtils.delete(folder);
+            }
+            return;
+        }
+
+        try {
+
+            for (var line : Files.readAllLines(indexFile, UTF_8)) {
+
+                var values = line.split(SEPARATOR, 3);
+
+                if (values.length != 3 || !Files.exists(folder.resolve(values[0]))) {
+                    dirty = true;
+                    continue;
+                }
+
+                register(values[0], new Entry(values[2], Long.parseLong(values[1])));
+            }
+
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warning(e);
+        }
+
+        evictIfNeed();
+    }
+
+    /**
+     * Save the index of this cache if it was changed.
+     */
+    @FromAnyThread
+    public synchronized void saveIfNeed() {
+
+        if (!dirty) {
+            return;
+        }
+
+        var lines = new ArrayList<String>(entries.size());
+
+        for (var next : entries.entrySet()) {
+            var entry = next.getValue();
+            lines.add(next.getKey() + SEPARATOR + entry.size + SEPARATOR + entry.source);
+        }
+
+        var indexFile = folder.resolve(INDEX_FILE);
+        var tempFile = folder.resolve(INDEX_FILE + ".tmp");
+        try {
+            Files.createDirectories(folder);
+            Files.write(tempFile, lines, UTF_8);
+            Files.move(tempFile, indexFile, REPLACE_EXISTING);
+            dirty = false;
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    @FromAnyThread
+    private static @NotNull String toKey(@NotNull String source, int width, int height) {
+        return width + "/" + height + "/" + StringUtils.toMD5(source) + ".png";
+    }
+
+    /**
+     * Get a cached file of the source.
+     *
+     * @param source the source.
+     * @param width  the width.
+     * @param height the height.
+     * @return the cached file or null.
+     */
+    @FromAnyThread
+    public synchronized @Nullable Path get(@NotNull String source, int width, int height) {
+
+        var key = toKey(source, width, height);
+
+        if (!entries.containsKey(key)) {
+            statistics.onMiss();
+            return null;
+        }
+
+        var cacheFile = folder.resolve(key);
+
+        if (!Files.exists(cacheFile)) {
+            remove(key);
+            statistics.onMiss();
+            return null;
+        }
+
+        statistics.onHit();
+        return cacheFile;
+    }
+
+    /**
+     * Prepare a file to write a new cached image of the source. The file should be registered using
+     * {@link #commit(String, int, int)} after writing.
+     *
+     * @param source the source.
+     * @param width  the width.
+     * @param height the height.
+     * @return the file to write.
+     */
+    @FromAnyThread
+    public @NotNull Path prepare(@NotNull String source, int width, int height) {
+
+        var cacheFile = folder.resolve(toKey(source, width, height));
+        try {
+            Files.createDirectories(cacheFile.getParent());
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+
+        return cacheFile;
+    }
+
+    /**
+     * Register a written cached image of the source and remove the least recently used files if the cache is full.
+     *
+     * @param source the source.
+     * @param width  the width.
+     * @param height the height.
+     */
+    @FromAnyThread
+    public synchronized void commit(@NotNull String source, int width, int height) {
+
+        var key = toKey(source, width, height);
+        var cacheFile = folder.resolve(key);
+
+        long size;
+        try {
+            size = Files.size(cacheFile);
+        } catch (IOException e) {
+            LOGGER.warning(e);
+            return;
+        }
+
+        remove(key);
+        register(key, new Entry(source, size));
+        evictIfNeed();
+    }
+
+    /**
+     * Remove all cached files of the source.
+     *
+     * @param source the source.
+     */
+    @FromAnyThread
+    public synchronized void invalidate(@NotNull String source) {
+
+        var keys = sourceToKeys.get(source);
+
+        if (keys == null) {
+            return;
+        }
+
+        for (var key : new ArrayList<>(keys)) {
+            delete(key);
+            statistics.onInvalidated();
+        }
+    }
+
+    /**
+     * Remove all cached files which have sources with the prefix.
+     *
+     * @param prefix the prefix of sources.
+     */
+    @FromAnyThread
+    public synchronized void invalidateAll(@NotNull String prefix) {
+        var sources = new HashSet<String>();
+        for (var source : sourceToKeys.keySet()) {
+            if (source.startsWith(prefix)) {
+                sources.add(source);
+            }
+        }
+        sources.forEach(this::invalidate);
+    }
+
+    @FromAnyThread
+    private void register(@NotNull String key, @NotNull Entry entry) {
+        entries.put(key, entry);
+        sourceToKeys.computeIfAbsent(entry.source, s -> new HashSet<>()).add(key);
+        currentSize += entry.size;
+        dirty = true;
+    }
+
+    @FromAnyThread
+    private void remove(@NotNull String key) {
+
+        var entry = entries.remove(key);
+
+        if (entry == null) {
+            return;
+        }
+
+        currentSize -= entry.size;
+        dirty = true;
+
+        var keys = sourceToKeys.get(entry.source);
+
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            sourceToKeys.remove(entry.source);
+        }
+    }
+
+    @FromAnyThread
+    private void delete(@NotNull String key) {
+        remove(key);
+        try {
+            Files.deleteIfExists(folder.resolve(key));
+        } catch (IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    @FromAnyThread
+    private void evictIfNeed() {
+
+        if (currentSize <= maxSize) {
+            return;
+        }
+
+        var toEvict = new ArrayList<String>();
+        var size = currentSize;
+
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+             iterator.hasNext() && size > maxSize; ) {
+            var next = iterator.next();
+            toEvict.add(next.getKey());
+            size -= next.getValue().size;
+        }
+
+        for (var key : toEvict) {
+            delete(key);
+            statistics.onEvicted();
+        }
+    }
+
+    /**
+     * Get the current size of all cached files in bytes.
+     *
+     * @return the current size in bytes.
+     */
+    @FromAnyThread
+    public synchronized long getCurrentSize() {
+        return currentSize;
+    }
+
+    /**
+     * Get the statistics of this cache.
+     *
+     * @return the statistics of this cache.
+     */
+    @FromAnyThread
+    public @NotNull CacheStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,238 @@
+package com.ss.editor.file.cache;
+
+import com.ss.editor.annotation.FromAnyThread;
+import javafx.scene.image.Image;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The memory tier of image previews which is bounded by the approximate size of pixel data and evicts the least
+ * recently used images.
+ *
+ * @author JavaSaBr
+ */
+public class ImageMemoryCache {
+
+    /**
+     * The cached image.
+     */
+    private static class Entry {
+
+        /**
+         * The source of the image.
+         */
+        @NotNull
+        private final String source;
+
+        /**
+         * The image.
+         */
+        @NotNull
+        private final Image image;
+
+        /**
+         * The approximate size of the image in bytes.
+         */
+        private final long size;
+
+        private Entry(@NotNull String source, @NotNull Image image, long size) {
+            this.source = source;
+            this.image = image;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The cached images in access order.
+     */
+    @NotNull
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * The keys of cached images by their sources.
+     */
+    @NotNull
+    private final Map<String, Set<String>> sourceToKeys;
+
+    /**
+     * The statistics of this cache.
+     */
+    @NotNull
+    private final CacheStatistics statistics;
+
+    /**
+     * The max size of all cached images in bytes.
+     */
+    private final long maxSize;
+
+    /**
+     * The current size of all cached images in bytes.
+     */
+    private long currentSize;
+
+    public ImageMemoryCache(@NotNull String name, long maxSize) {
+        this.entries = new LinkedHashMap<>(64, 0.75F, true);
+        this.sourceToKeys = new HashMap<>();
+        this.statistics = new CacheStatistics(name);
+        this.maxSize = maxSize;
+    }
+
+    @FromAnyThread
+    private static @NotNull String toKey(@NotNull String source, int width, int height) {
+        return source + '|' + width + 'x' + height;
+    }
+
+    /**
+     * Get a cached image.
+     *
+     * @param source the source of the image.
+     * @param width  the width.
+     * @param height the height.
+     * @return the image or null.
+     */
+    @FromAnyThread
+    public synchronized @Nullable Image get(@NotNull String source, int width, int height) {
+
+        var entry = entries.get(toKey(source, width, height));
+
+        if (entry == null) {
+            statistics.onMiss();
+            return null;
+        }
+
+        statistics.onHit();
+        return entry.image;
+    }
+
+    /**
+     * Put an image to this cache and evict the least recently used images if the cache is full.
+     *
+     * @param source the source of the image.
+     * @param width  the width.
+     * @param height the height.
+     * @param image  the image.
+     * @param size   the approximate size of the image in bytes.
+     */
+    @FromAnyThread
+    public synchronized void put(@NotNull String source, int width, int height, @NotNull Image image, long size) {
+
+        if (size > maxSize) {
+            return;
+        }
+
+        var key = toKey(source, width, height);
+        var prev = entries.put(key, new Entry(source, image, size));
+
+        if (prev != null) {
+            currentSize -= prev.size;
+        }
+
+        currentSize += size;
+        sourceToKeys.computeIfAbsent(source, s -> new HashSet<>()).add(key);
+
+        if (currentSize <= maxSize) {
+            return;
+        }
+
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+             iterator.hasNext() && currentSize > maxSize; ) {
+
+            var next = iterator.next();
+            var entry = next.getValue();
+
+            iterator.remove();
+            unlinkSource(entry.source, next.getKey());
+
+            currentSize -= entry.size;
+            statistics.onEvicted();
+        }
+    }
+
+    /**
+     * Remove all images of the source.
+     *
+     * @param source the source.
+     */
+    @FromAnyThread
+    public synchronized void invalidate(@NotNull String source) {
+
+        var keys = sourceToKeys.remove(source);
+
+        if (keys == null) {
+            return;
+        }
+
+        for (var key : keys) {
+
+            var entry = entries.remove(key);
+
+            if (entry != null) {
+                currentSize -= entry.size;
+                statistics.onInvalidated();
+            }
+        }
+    }
+
+    /**
+     * Remove all images which have sources with the prefix.
+     *
+     * @param prefix the prefix of sources.
+     */
+    @FromAnyThread
+    public synchronized void invalidateAll(@NotNull String prefix) {
+        var sources = new HashSet<String>();
+        for (var source : sourceToKeys.keySet()) {
+            if (source.startsWith(prefix)) {
+                sources.add(source);
+            }
+        }
+        sources.forEach(this::invalidate);
+    }
+
+    /**
+     * Remove all images.
+     */
+    @FromAnyThread
+    public synchronized void clear() {
+        entries.clear();
+        sourceToKeys.clear();
+        currentSize = 0;
+    }
+
+    @FromAnyThread
+    private void unlinkSource(@NotNull String source, @NotNull String key) {
+
+        var keys = sourceToKeys.get(source);
+
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            sourceToKeys.remove(source);
+        }
+    }
+
+    /**
+     * Get the current size of all cached images in bytes.
+     *
+     * @return the current size in bytes.
+     */
+    @FromAnyThread
+    public synchronized long getCurrentSize() {
+        return currentSize;
+    }
+
+    /**
+     * Get the statistics of this cache.
+     *
+     * @return the statistics of this cache.
+     */
+    @FromAnyThread
+    public @NotNull CacheStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ss.editor.file.converter;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The settings and the shared state of converting files. One context can be shared between conversions of many files,
+ * so the same materials of different files are stored only once.
+ *
+ * @author JavaSaBr
+ */
+public class ConversionContext {
+
+    /**
+     * The folder to export materials or null if materials shouldn't be exported.
+     */
+    @Nullable
+    private final Path materialsFolder;
+
+    /**
+     * The stored material files by their content.
+     */
+    @NotNull
+    private final Map<String, Path> materialFiles;
+
+    /**
+     * The material files which were already used by this context.
+     */
+    @NotNull
+    private final Set<Path> usedMaterialFiles;
+
+    /**
+     * True if existing material files can be overwritten.
+     */
+    private final boolean overwriteMaterials;
+
+    public ConversionContext(@Nullable Path materialsFolder, boolean overwriteMaterials) {
+        this.materialsFolder = materialsFolder;
+        this.overwriteMaterials = overwriteMaterials;
+        this.materialFiles = new HashMap<>();
+        this.usedMaterialFiles = new HashSet<>();
+    }
+
+    /**
+     * Get the folder to export materials.
+     *
+     * @return the folder to export materials or null if materials shouldn't be exported.
+     */
+    @FromAnyThread
+    public @Nullable Path getMaterialsFolder() {
+        return materialsFolder;
+    }
+
+    /**
+     * Return true if materials should be exported.
+     *
+     * @return true if materials should be exported.
+     */
+    @FromAnyThread
+    public boolean isExportMaterials() {
+        return materialsFolder != null;
+    }
+
+    /**
+     * Return true if existing material files can be overwritten.
+     *
+     * @return true if existing material files can be overwritten.
+     */
+    @FromAnyThread
+    public boolean isOverwriteMaterials() {
+        return overwriteMaterials;
+    }
+
+    /**
+     * Store the material content to the file. If the same content was already stored by this context, the previous
+     * file is reused. If the file was already used by this context for other content, a free name is chosen.
+     *
+     * @param content the content of the material.
+     * @param file    the preferred file.
+     * @return the file with the content.
+     * @throws IOException if the file can't be written.
+     */
+    @BackgroundThread
+    public synchronized @NotNull Path storeMaterial(@NotNull String content, @NotNull Path file) throws IOException {
+
+        var storedFile = materialFiles.get(content);
+
+        if (storedFile != null) {
+            return storedFile;
+        }
+
+        var resultFile = file;
+
+        if (usedMaterialFiles.contains(resultFile)) {
+
+            var folder = file.getParent();
+            var name = FileUtils.getNameWithoutExtension(file);
+            var extension = FileUtils.getExtension(file);
+
+            for (int i = 1; usedMaterialFiles.contains(resultFile); i++) {
+                resultFile = folder.resolve(name + "_" + i + "." + extension);
+            }
+        }
+
+        if (!Files.exists(resultFile) || overwriteMaterials) {
+            try (var out = new PrintWriter(Files.newOutputStream(resultFile, WRITE, TRUNCATE_EXISTING, CREATE))) {
+                out.println(content);
+            }
+        }
+
+        materialFiles.put(content, resultFile);
+        usedMaterialFiles.add(resultFile);
+
+        return resultFile;
+    }
+}
@@ -1,9 +1,14 @@
 package com.ss.editor.file.converter;
 
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 /**
@@ -30,6 +35,46 @@ public interface FileConverter {
     @FxThread
     void convert(@NotNull Path source, @NotNull Path destination);
 
+    /**
+     * Return true if this converter can convert files without any dialogs by
+     * {@link #convert(Path, Path, ConversionContext)}.
+     *
+     * @return true if this converter supports batch converting.
+     */
+    @FromAnyThread
+    default boolean isSupportBatch() {
+        return false;
+    }
+
+    /**
+     * Convert the source file to destination file in the current thread without any dialogs, it's supported only
+     * if {@link #isSupportBatch()} returns true.
+     *
+     * @param source      the source file.
+     * @param destination the destination file.
+     * @param context     the context of converting.
+     * @throws IOException if was problem with writing to the destination or reading from the source file.
+     * @throws UnsupportedOperationException if this converter doesn't support batch converting.
+     */
+    @BackgroundThread
+    default void convert(@NotNull Path source, @NotNull Path destination, @NotNull ConversionContext context)
+            throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Get other files which are referenced by the source file and affect the result of converting, e.g. buffers,
+     * material libraries or textures.
+     *
+     * @param source the source file.
+     * @return the referenced files, some of them can be missing.
+     * @throws IOException if was problem with reading the source file.
+     */
+    @BackgroundThread
+    default @NotNull Array<Path> getDependencies(@NotNull Path source) throws IOException {
+        return ArrayFactory.newArray(Path.class);
+    }
+
     /**
      * Get the target extension.
      *
@@ -0,0 +1,176 @@
+package com.ss.editor.file.converter.batch;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The progress and the result of batch converting.
+ *
+ * @author JavaSaBr
+ */
+public class BatchConversionReport {
+
+    /**
+     * The messages about failed sources.
+     */
+    @NotNull
+    private final List<String> failures;
+
+    /**
+     * The count of all sources.
+     */
+    private int total;
+
+    /**
+     * The count of converted sources.
+     */
+    private int converted;
+
+    /**
+     * The count of skipped unchanged sources.
+     */
+    private int skipped;
+
+    /**
+     * The size of converted sources in bytes.
+     */
+    private long convertedBytes;
+
+    /**
+     * The time of starting and finishing in nanoseconds.
+     */
+    private long startTime, finishTime;
+
+    /**
+     * True if converting was finished.
+     */
+    private boolean finished;
+
+    public BatchConversionReport() {
+        this.failures = new ArrayList<>();
+    }
+
+    @FromAnyThread
+    synchronized void addSource() {
+        total++;
+    }
+
+    @FromAnyThread
+    synchronized void start() {
+        startTime = System.nanoTime();
+    }
+
+    @FromAnyThread
+    synchronized void finish() {
+        finishTime = System.nanoTime();
+        finished = true;
+    }
+
+    @FromAnyThread
+    synchronized void addConverted(long bytes) {
+        converted++;
+        convertedBytes += bytes;
+    }
+
+    @FromAnyThread
+    synchronized void addSkipped() {
+        skipped++;
+    }
+
+    @FromAnyThread
+    synchronized void addFailed(@NotNull Path source, @NotNull Exception exception) {
+        failures.add(source + ": " + exception.getLocalizedMessage());
+    }
+
+    /**
+     * @return the count of all sources.
+     */
+    @FromAnyThread
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return the count of processed sources.
+     */
+    @FromAnyThread
+    public synchronized int getProcessed() {
+        return converted + skipped + failures.size();
+    }
+
+    /**
+     * @return the count of converted sources.
+     */
+    @FromAnyThread
+    public synchronized int getConverted() {
+        return converted;
+    }
+
+    /**
+     * @return the count of skipped unchanged sources.
+     */
+    @FromAnyThread
+    public synchronized int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return the count of failed sources.
+     */
+    @FromAnyThread
+    public synchronized int getFailed() {
+        return failures.size();
+    }
+
+    /**
+     * @return the copy of messages about failed sources.
+     */
+    @FromAnyThread
+    public synchronized @NotNull List<String> getFailures() {
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * @return the count of converted sources per second.
+     */
+    @FromAnyThread
+    public synchronized float getFilesPerSecond() {
+        var seconds = getElapsedSeconds();
+        return seconds > 0 ? converted / seconds : 0F;
+    }
+
+    /**
+     * @return the size of converted sources in megabytes per second.
+     */
+    @FromAnyThread
+    public synchronized float getMegabytesPerSecond() {
+        var seconds = getElapsedSeconds();
+        return seconds > 0 ? convertedBytes / 1024F / 1024F / seconds : 0F;
+    }
+
+    /**
+     * @return the elapsed time in seconds.
+     */
+    @FromAnyThread
+    public synchronized float getElapsedSeconds() {
+
+        if (startTime == 0) {
+            return 0F;
+        }
+
+        var endTime = finished ? finishTime : System.nanoTime();
+        return (endTime - startTime) / 1_000_000_000F;
+    }
+
+    /**
+     * @return true if converting was finished.
+     */
+    @FromAnyThread
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+}
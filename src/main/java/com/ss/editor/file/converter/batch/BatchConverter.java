@@ -0,0 +1,381 @@
+package com.ss.editor.file.converter.batch;
+
+import static com.ss.editor.config.DefaultSettingsProvider.Defaults.PREF_DEFAULT_TANGENT_GENERATION;
+import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_TANGENT_GENERATION;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.config.Config;
+import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.converter.ConversionContext;
+import com.ss.editor.file.converter.FileConverter;
+import com.ss.editor.file.converter.FileConverterRegistry;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * The queue to convert many files by {@link FileConverter}s from {@link FileConverterRegistry}. The count of
+ * parallel conversions is limited by available processors and by the memory which conversions can take.
+ *
+ * @author JavaSaBr
+ */
+public class BatchConverter {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(BatchConverter.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    @NotNull
+    private static final FileConverterRegistry FILE_CONVERTER_REGISTRY = FileConverterRegistry.getInstance();
+
+    @NotNull
+    private static final String HASH_INDEX_FILE = "converted-sources";
+
+    /**
+     * The min expected memory usage of one conversion.
+     */
+    private static final long MIN_CONVERSION_MEMORY = 32 * 1024 * 1024;
+
+    /**
+     * The expected ratio between the memory usage of a conversion and the size of its source.
+     */
+    private static final int SOURCE_MEMORY_FACTOR = 10;
+
+    /**
+     * The conversion of one source.
+     */
+    private static class Job {
+
+        /**
+         * The converter.
+         */
+        @NotNull
+        private final FileConverter converter;
+
+        /**
+         * The source file.
+         */
+        @NotNull
+        private final Path source;
+
+        /**
+         * The destination file.
+         */
+        @NotNull
+        private final Path destination;
+
+        /**
+         * The expected memory usage.
+         */
+        private final long memory;
+
+        private Job(@NotNull FileConverter converter, @NotNull Path source, @NotNull Path destination, long memory) {
+            this.converter = converter;
+            this.source = source;
+            this.destination = destination;
+            this.memory = memory;
+        }
+    }
+
+    /**
+     * The waiting conversions.
+     */
+    @NotNull
+    private final Deque<Job> queue;
+
+    /**
+     * The context shared between all conversions.
+     */
+    @NotNull
+    private final ConversionContext context;
+
+    /**
+     * The report of converting.
+     */
+    @NotNull
+    private final BatchConversionReport report;
+
+    /**
+     * The handler of progress.
+     */
+    @NotNull
+    private final Runnable progressHandler;
+
+    /**
+     * The index of hashes of converted sources or null if unchanged sources shouldn't be skipped.
+     */
+    @Nullable
+    private final SourceHashIndex hashIndex;
+
+    /**
+     * The max count of parallel conversions.
+     */
+    private final int maxConversions;
+
+    /**
+     * The settings of converting which affect results.
+     */
+    @NotNull
+    private final String settings;
+
+    /**
+     * The count of running conversions.
+     */
+    private int runningConversions;
+
+    /**
+     * The expected memory usage of running conversions.
+     */
+    private long reservedMemory;
+
+    /**
+     * True if converting was started.
+     */
+    private boolean started;
+
+    /**
+     * True if converting was cancelled.
+     */
+    private boolean cancelled;
+
+    /**
+     * @param context         the context shared between all conversions.
+     * @param skipUnchanged   true if sources which weren't changed since the last converting should be skipped.
+     * @param progressHandler the handler which is called from any thread after each processed source.
+     */
+    public BatchConverter(
+            @NotNull ConversionContext context,
+            boolean skipUnchanged,
+            @NotNull Runnable progressHandler
+    ) {
+        this.context = context;
+        this.progressHandler = progressHandler;
+        this.queue = new ArrayDeque<>();
+        this.report = new BatchConversionReport();
+        this.hashIndex = skipUnchanged ? new SourceHashIndex(Config.getAppFolderInUserHome()
+                .resolve(HASH_INDEX_FILE)) : null;
+        this.maxConversions = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        var editorConfig = EditorConfig.getInstance();
+        var generateTangents = editorConfig.getBoolean(PREF_TANGENT_GENERATION, PREF_DEFAULT_TANGENT_GENERATION);
+
+        // sources should be converted again if they were converted with other settings
+        this.settings = "tangents=" + generateTangents + ", materials=" + context.getMaterialsFolder() +
+                ", overwrite=" + context.isOverwriteMaterials();
+    }
+
+    /**
+     * Add the source to convert it to a file with the target extension in the same folder by the first available
+     * converter which supports batch converting.
+     *
+     * @param source the source file.
+     * @return true if the source can be converted.
+     */
+    @BackgroundThread
+    public synchronized boolean add(@NotNull Path source) {
+
+        if (started) {
+            throw new IllegalStateException("The converting was already started.");
+        }
+
+        var converter = cancelled ? null : findConverter(source);
+
+        if (converter == null) {
+            return false;
+        }
+
+        var targetFileName = FileUtils.getNameWithoutExtension(source) + "." + converter.getTargetExtension();
+        var destination = source.resolveSibling(targetFileName);
+
+        long size;
+        try {
+            size = Files.size(source);
+        } catch (IOException e) {
+            size = 0;
+        }
+
+        queue.add(new Job(converter, source, destination, Math.max(MIN_CONVERSION_MEMORY, size * SOURCE_MEMORY_FACTOR)));
+        report.addSource();
+
+        return true;
+    }
+
+    /**
+     * Find the first available converter of the source which supports batch converting.
+     *
+     * @param source the source file.
+     * @return the converter or null if the source can't be converted in batch.
+     */
+    @FromAnyThread
+    private @Nullable FileConverter findConverter(@NotNull Path source) {
+
+        for (var description : FILE_CONVERTER_REGISTRY.getDescriptions(source)) {
+
+            var converter = FILE_CONVERTER_REGISTRY.newCreator(description, source);
+
+            if (converter.isSupportBatch()) {
+                return converter;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Start converting of added sources.
+     */
+    @BackgroundThread
+    public void start() {
+
+        if (hashIndex != null) {
+            hashIndex.load();
+        }
+
+        synchronized (this) {
+            started = true;
+            report.start();
+        }
+
+        schedule();
+    }
+
+    /**
+     * Cancel converting of waiting sources, running conversions will be finished.
+     */
+    @FromAnyThread
+    public void cancel() {
+
+        synchronized (this) {
+            cancelled = true;
+            queue.clear();
+        }
+
+        schedule();
+    }
+
+    /**
+     * Get the report of converting.
+     *
+     * @return the report of converting.
+     */
+    @FromAnyThread
+    public @NotNull BatchConversionReport getReport() {
+        return report;
+    }
+
+    /**
+     * Start waiting conversions while there are free processors and memory.
+     */
+    @FromAnyThread
+    private void schedule() {
+
+        synchronized (this) {
+
+            if (!started || report.isFinished()) {
+                return;
+            }
+
+            while (!queue.isEmpty() && runningConversions < maxConversions) {
+
+                var job = queue.peek();
+
+                // at least one conversion should be running to not stop the queue
+                if (runningConversions > 0 && !hasMemoryFor(job.memory)) {
+                    break;
+                }
+
+                queue.poll();
+                runningConversions++;
+                reservedMemory += job.memory;
+
+                EXECUTOR_MANAGER.addBackgroundTask(() -> convert(job), TaskPriority.BULK);
+            }
+
+            if (!queue.isEmpty() || runningConversions > 0) {
+                return;
+            }
+
+            report.finish();
+        }
+
+        if (hashIndex != null) {
+            hashIndex.save();
+        }
+
+        progressHandler.run();
+    }
+
+    /**
+     * Check that a new conversion can take the memory.
+     *
+     * @param memory the expected memory usage of the conversion.
+     * @return true if the conversion can be started.
+     */
+    @FromAnyThread
+    private boolean hasMemoryFor(long memory) {
+
+        var runtime = Runtime.getRuntime();
+        var maxMemory = runtime.maxMemory();
+        var freeMemory = maxMemory - runtime.totalMemory() + runtime.freeMemory();
+
+        // conversions shouldn't take more than half of heap to keep the editor responsive
+        return reservedMemory + memory <= maxMemory / 2 && memory <= freeMemory;
+    }
+
+    /**
+     * Convert the source.
+     *
+     * @param job the conversion.
+     */
+    @BackgroundThread
+    private void convert(@NotNull Job job) {
+        try {
+
+            String hash = null;
+
+            if (hashIndex != null) {
+
+                var dependencies = job.converter.getDependencies(job.source);
+                hash = SourceHashIndex.hash(job.source, dependencies, settings);
+
+                if (hashIndex.isUnchanged(job.source, job.destination, hash)) {
+                    report.addSkipped();
+                    return;
+                }
+            }
+
+            job.converter.convert(job.source, job.destination, context);
+
+            if (hashIndex != null) {
+                hashIndex.put(job.source, job.destination, hash);
+            }
+
+            report.addConverted(Files.size(job.source));
+
+        } catch (Exception e) {
+            LOGGER.warning(this, e);
+            report.addFailed(job.source, e);
+        } finally {
+
+            synchronized (this) {
+                runningConversions--;
+                reservedMemory -= job.memory;
+            }
+
+            progressHandler.run();
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ss.editor.file.converter.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The index of content hashes of converted source files, it's used to skip converting of unchanged sources. A hash
+ * covers the source, the files which the source refers to and the settings of converting.
+ *
+ * @author JavaSaBr
+ */
+public class SourceHashIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(SourceHashIndex.class);
+
+    @NotNull
+    private static final String SEPARATOR = "\t";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The index file.
+     */
+    @NotNull
+    private final Path file;
+
+    /**
+     * The content hashes by source and destination files.
+     */
+    @NotNull
+    private final Map<String, String> hashes;
+
+    /**
+     * True if the index was changed after the last saving.
+     */
+    private boolean dirty;
+
+    public SourceHashIndex(@NotNull Path file) {
+        this.file = file;
+        this.hashes = new HashMap<>();
+    }
+
+    /**
+     * Load this index from the file.
+     */
+    @BackgroundThread
+    public synchronized void load() {
+
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try {
+
+            for (var line : Files.readAllLines(file, UTF_8)) {
+
+                var values = line.split(SEPARATOR, 3);
+
+                if (values.length == 3) {
+                    hashes.put(values[0] + SEPARATOR + values[1], values[2]);
+                }
+            }
+
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Save this index to the file if it was changed.
+     */
+    @BackgroundThread
+    public synchronized void save() {
+
+        if (!dirty) {
+            return;
+        }
+
+        var lines = new ArrayList<String>(hashes.size());
+        hashes.forEach((key, hash) -> lines.add(key + SEPARATOR + hash));
+
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, UTF_8);
+            dirty = false;
+        } catch (IOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
+    /**
+     * Return true if the source with the hash was already converted to the existing destination.
+     *
+     * @param source      the source file.
+     * @param destination the destination file.
+     * @param hash        the current content hash of the source file.
+     * @return true if the source wasn't changed.
+     */
+    @FromAnyThread
+    public synchronized boolean isUnchanged(@NotNull Path source, @NotNull Path destination, @NotNull String hash) {
+        return hash.equals(hashes.get(toKey(source, destination))) && Files.exists(destination);
+    }
+
+    /**
+     * Remember the content hash of the converted source.
+     *
+     * @param source      the source file.
+     * @param destination the destination file.
+     * @param hash        the content hash of the source file.
+     */
+    @FromAnyThread
+    public synchronized void put(@NotNull Path source, @NotNull Path destination, @NotNull String hash) {
+        hashes.put(toKey(source, destination), hash);
+        dirty = true;
+    }
+
+    @FromAnyThread
+    private static @NotNull String toKey(@NotNull Path source, @NotNull Path destination) {
+        return source.toAbsolutePath() + SEPARATOR + destination.toAbsolutePath();
+    }
+
+    /**
+     * Calculate a content hash of the file together with its dependencies and the settings of converting.
+     *
+     * @param file         the file.
+     * @param dependencies the files which the file refers to, missing files are hashed only by their paths.
+     * @param settings     the settings of converting.
+     * @return the hex string of the hash.
+     * @throws IOException if the file or its dependency can't be read.
+     */
+    @BackgroundThread
+    public static @NotNull String hash(
+            @NotNull Path file,
+            @NotNull Array<Path> dependencies,
+            @NotNull String settings
+    ) throws IOException {
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        var buffer = new byte[BUFFER_SIZE];
+
+        digest.update(settings.getBytes(UTF_8));
+        update(digest, file, buffer);
+
+        for (var dependency : dependencies) {
+
+            digest.update((byte) 0);
+            digest.update(dependency.toAbsolutePath().toString().getBytes(UTF_8));
+
+            if (Files.exists(dependency)) {
+                update(digest, dependency, buffer);
+            }
+        }
+
+        var result = new StringBuilder();
+
+        for (var value : digest.digest()) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16))
+                    .append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Update the digest by the content of the file.
+     *
+     * @param digest the digest.
+     * @param file   the file.
+     * @param buffer the buffer to read the file.
+     * @throws IOException if the file can't be read.
+     */
+    @BackgroundThread
+    private static void update(
+            @NotNull MessageDigest digest,
+            @NotNull Path file,
+            @NotNull byte[] buffer
+    ) throws IOException {
+
+        digest.update((byte) 0);
+
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.ss.editor.file.converter.impl;
 
 import static com.ss.rlib.common.util.FileUtils.containsExtensions;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.converter.ConversionContext;
 import com.ss.editor.file.converter.FileConverter;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.ui.event.FxEventManager;
@@ -97,7 +100,23 @@ public abstract class AbstractFileConverter implements FileConverter {
                 EditorUtil.handleException(LOGGER, this, e);
                 EXECUTOR_MANAGER.addFxTask(() -> notifyFileCreatedImpl(null));
             }
-        });
+        }, TaskPriority.BULK);
+    }
+
+    @Override
+    @FromAnyThread
+    public boolean isSupportBatch() {
+        return true;
+    }
+
+    @Override
+    @BackgroundThread
+    public void convert(
+            @NotNull final Path source,
+            @NotNull final Path destination,
+            @NotNull final ConversionContext context
+    ) throws IOException {
+        convertImpl(source, destination, Files.exists(destination));
     }
 
     /**
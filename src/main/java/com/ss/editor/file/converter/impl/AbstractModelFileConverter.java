@@ -19,6 +19,7 @@ import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.file.converter.ConversionContext;
 import com.ss.editor.ui.util.UiUtils;
 import com.ss.editor.util.TangentGenerator;
 import com.ss.editor.plugin.api.dialog.GenericFactoryDialog;
@@ -38,7 +39,6 @@ import org.jetbrains.annotations.NotNull;
 import java.awt.*;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -139,6 +139,27 @@ public abstract class AbstractModelFileConverter extends AbstractFileConverter {
         final Path destination = destinationFolder.resolve(filename + "." + FileExtensions.JME_OBJECT);
         final boolean isOverwrite = Files.exists(destination);
 
+        final Path materialsFolder = vars.getBoolean(PROP_EXPORT_MATERIALS) ?
+                getRealFile(vars.get(PROP_MATERIALS_FOLDER, Path.class)) : null;
+        final boolean canOverwrite = vars.getBoolean(PROP_OVERWRITE_MATERIALS);
+
+        convert(source, destination, new ConversionContext(materialsFolder, canOverwrite));
+
+        if (isOverwrite) {
+            notifyFileChanged(destination);
+        } else {
+            notifyFileCreated(destination);
+        }
+    }
+
+    @Override
+    @BackgroundThread
+    public void convert(
+            @NotNull final Path source,
+            @NotNull final Path destination,
+            @NotNull final ConversionContext context
+    ) throws IOException {
+
         final Path assetFile = notNull(getAssetFile(source), "Not found asset file for " + source);
         final ModelKey modelKey = new ModelKey(toAssetPath(assetFile));
 
@@ -149,17 +170,16 @@ public abstract class AbstractModelFileConverter extends AbstractFileConverter {
             TangentGenerator.useMikktspaceGenerator(model);
         }
 
-        if (vars.getBoolean(PROP_EXPORT_MATERIALS)) {
+        if (context.isExportMaterials()) {
 
             final Array<Geometry> geometries = ArrayFactory.newArray(Geometry.class);
             final ObjectDictionary<String, Geometry> mapping = DictionaryFactory.newObjectDictionary();
 
-            final Path materialsFolder = vars.get(PROP_MATERIALS_FOLDER);
-            final boolean canOverwrite = vars.getBoolean(PROP_OVERWRITE_MATERIALS);
-
             NodeUtils.visitGeometry(model, geometry -> checkAndAdd(geometries, geometry));
             geometries.forEach(geometry -> generateNames(mapping, geometry));
-            mapping.forEach((materialName, geometry) -> storeMaterials(materialsFolder, canOverwrite, materialName, geometry));
+            for (final String materialName : mapping.keyArray(String.class)) {
+                storeMaterials(context, materialName, notNull(mapping.get(materialName)));
+            }
         }
 
         final BinaryExporter exporter = BinaryExporter.getInstance();
@@ -167,26 +187,24 @@ public abstract class AbstractModelFileConverter extends AbstractFileConverter {
         try (final OutputStream out = Files.newOutputStream(destination, WRITE, TRUNCATE_EXISTING, CREATE)) {
             exporter.save(model, out);
         }
-
-        if (isOverwrite) {
-            notifyFileChanged(destination);
-        } else {
-            notifyFileCreated(destination);
-        }
     }
 
     /**
      * Store the embedded materials.
      *
-     * @param materialsFolder the materials destination folder.
-     * @param canOverwrite    can we overwrite exists materials.
-     * @param materialName    the material name.
-     * @param geometry        the geometry.
+     * @param context      the context of converting.
+     * @param materialName the material name.
+     * @param geometry     the geometry.
+     * @throws IOException if was problem with writing the material.
      */
-    private void storeMaterials(@NotNull final Path materialsFolder, final boolean canOverwrite,
-                                @NotNull final String materialName, @NotNull final Geometry geometry) {
+    private void storeMaterials(@NotNull final ConversionContext context, @NotNull final String materialName,
+                                @NotNull final Geometry geometry) throws IOException {
+
+        final Path materialsFolder = notNull(context.getMaterialsFolder());
+        final Path file = materialsFolder.resolve(normalizeName(materialName) + "." + FileExtensions.JME_MATERIAL);
+        final Material currentMaterial = geometry.getMaterial();
+        final Path resultFile = context.storeMaterial(MaterialSerializer.serializeToString(currentMaterial), file);
 
-        final Path resultFile = materialsFolder.resolve(normalizeName(materialName) + "." + FileExtensions.JME_MATERIAL);
         final Path assetFile = getAssetFile(resultFile);
 
         if (assetFile == null) {
@@ -194,16 +212,6 @@ public abstract class AbstractModelFileConverter extends AbstractFileConverter {
             return;
         }
 
-        final Material currentMaterial = geometry.getMaterial();
-
-        if (!Files.exists(resultFile) || canOverwrite) {
-            try (PrintWriter pout = new PrintWriter(Files.newOutputStream(resultFile, WRITE, TRUNCATE_EXISTING, CREATE))) {
-                pout.println(MaterialSerializer.serializeToString(currentMaterial));
-            } catch (final IOException e) {
-                EditorUtil.handleException(LOGGER, this, e);
-            }
-        }
-
         final String assetPath = toAssetPath(assetFile);
 
         final AssetManager assetManager = EditorUtil.getAssetManager();
@@ -1,12 +1,22 @@
 package com.ss.editor.file.converter.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.file.converter.FileConverterDescription;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * The implementation of {@link AbstractFileConverter} to convert .glft file to .j3o.
  *
@@ -17,6 +27,12 @@ public class GltfToJ3oFileConverter extends AbstractModelFileConverter {
     @NotNull
     private static final Array<String> EXTENSIONS = ArrayFactory.newArray(String.class);
 
+    /**
+     * The pattern to find URIs of buffers and images.
+     */
+    @NotNull
+    private static final Pattern URI_PATTERN = Pattern.compile("\"uri\"\\s*:\\s*\"([^\"]+)\"");
+
     static {
         EXTENSIONS.add(FileExtensions.MODEL_GLTF);
         EXTENSIONS.asUnsafe().trimToSize();
@@ -46,4 +62,37 @@ public class GltfToJ3oFileConverter extends AbstractModelFileConverter {
     public @NotNull String getTargetExtension() {
         return FileExtensions.JME_OBJECT;
     }
+
+    @Override
+    @BackgroundThread
+    public @NotNull Array<Path> getDependencies(@NotNull final Path source) throws IOException {
+
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+        final Matcher matcher = URI_PATTERN.matcher(new String(Files.readAllBytes(source), UTF_8));
+
+        while (matcher.find()) {
+
+            final String uri = matcher.group(1);
+
+            String path;
+            try {
+
+                final URI parsed = new URI(uri);
+
+                // embedded data and remote files aren't files of the asset
+                if (parsed.getScheme() != null) {
+                    continue;
+                }
+
+                path = parsed.getPath();
+
+            } catch (final URISyntaxException e) {
+                path = uri;
+            }
+
+            result.add(source.resolveSibling(path));
+        }
+
+        return result;
+    }
 }
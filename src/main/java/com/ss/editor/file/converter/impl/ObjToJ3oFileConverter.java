@@ -1,14 +1,24 @@
 package com.ss.editor.file.converter.impl;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
 import com.ss.editor.file.converter.FileConverterDescription;
 
 import org.jetbrains.annotations.NotNull;
 
+import com.ss.rlib.common.util.ArrayUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
 /**
  * The implementation of {@link AbstractFileConverter} to convert .obj file to .j3o.
  *
@@ -19,6 +29,18 @@ public class ObjToJ3oFileConverter extends AbstractModelFileConverter {
     @NotNull
     private static final Array<String> EXTENSIONS = ArrayFactory.newArray(String.class);
 
+    /**
+     * The keyword of material libraries.
+     */
+    @NotNull
+    private static final String MATERIAL_LIBRARY = "mtllib";
+
+    /**
+     * The keywords of textures in material libraries besides keywords with the "map_" prefix.
+     */
+    @NotNull
+    private static final String[] TEXTURES = { "bump", "disp", "decal", "norm", "refl" };
+
     static {
         EXTENSIONS.add(FileExtensions.MODEL_OBJ);
         EXTENSIONS.asUnsafe().trimToSize();
@@ -48,4 +70,83 @@ public class ObjToJ3oFileConverter extends AbstractModelFileConverter {
     public @NotNull String getTargetExtension() {
         return FileExtensions.JME_OBJECT;
     }
+
+    @Override
+    @BackgroundThread
+    public @NotNull Array<Path> getDependencies(@NotNull final Path source) throws IOException {
+
+        final Array<Path> result = ArrayFactory.newArray(Path.class);
+
+        for (final String[] values : readStatements(source, MATERIAL_LIBRARY::equals)) {
+            for (int i = 1; i < values.length; i++) {
+
+                final Path library = source.resolveSibling(values[i]);
+                result.add(library);
+
+                if (Files.exists(library)) {
+                    addTextures(library, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Add textures of the material library to the result.
+     *
+     * @param library the material library.
+     * @param result  the result.
+     * @throws IOException if was problem with reading the material library.
+     */
+    @BackgroundThread
+    private void addTextures(@NotNull final Path library, @NotNull final Array<Path> result) throws IOException {
+
+        final Array<String[]> statements = readStatements(library, keyword ->
+                keyword.startsWith("map_") || ArrayUtils.contains(TEXTURES, keyword));
+
+        // options of a texture are before its file name
+        for (final String[] values : statements) {
+            result.add(library.resolveSibling(values[values.length - 1]));
+        }
+    }
+
+    /**
+     * Read statements with arguments of the file.
+     *
+     * @param file    the file.
+     * @param keyword the filter of keywords of statements to read.
+     * @return the keywords with their arguments.
+     * @throws IOException if was problem with reading the file.
+     */
+    @BackgroundThread
+    private @NotNull Array<String[]> readStatements(
+            @NotNull final Path file,
+            @NotNull final Predicate<String> keyword
+    ) throws IOException {
+
+        final Array<String[]> result = ArrayFactory.newArray(String[].class);
+
+        final InputStreamReader in = new InputStreamReader(Files.newInputStream(file), UTF_8);
+
+        try (final BufferedReader reader = new BufferedReader(in)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+
+                final String statement = line.trim();
+
+                int end = 0;
+
+                while (end < statement.length() && !Character.isWhitespace(statement.charAt(end))) {
+                    end++;
+                }
+
+                // only statements with arguments are read, geometry data is skipped without splitting
+                if (end < statement.length() && keyword.test(statement.substring(0, end))) {
+                    result.add(statement.split("\\s+"));
+                }
+            }
+        }
+
+        return result;
+    }
 }
@@ -0,0 +1,412 @@
+package com.ss.editor.file.index;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The persistent index of files in an asset folder. Each file is described by its asset path, size, last modified
+ * time and extension. The index is loaded from the editor folder of the asset, reconciled with the disk in parallel
+ * and then kept up to date by file events, so files with an extension can be got without walking the asset folder.
+ *
+ * @author JavaSaBr
+ */
+public class AssetFileIndex {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(AssetFileIndex.class);
+
+    @NotNull
+    private static final String SEPARATOR = "\t";
+
+    /**
+     * The indexed file.
+     */
+    private static class Entry {
+
+        /**
+         * The extension of the file.
+         */
+        @NotNull
+        private final String extension;
+
+        /**
+         * The size of the file in bytes.
+         */
+        private final long size;
+
+        /**
+         * The last modified time of the file in ms.
+         */
+        private final long lastModified;
+
+        private Entry(@NotNull String extension, long size, long lastModified) {
+            this.extension = extension;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * The task to scan a folder and its sub-folders.
+     */
+    private class ScanTask extends RecursiveAction {
+
+        /**
+         * The folder to scan.
+         */
+        @NotNull
+        private final Path folder;
+
+        /**
+         * The asset paths of all found files.
+         */
+        @NotNull
+        private final Set<String> found;
+
+        /**
+         * All found folders.
+         */
+        @NotNull
+        private final Collection<Path> folders;
+
+        private ScanTask(@NotNull Path folder, @NotNull Set<String> found, @NotNull Collection<Path> folders) {
+            this.folder = folder;
+            this.found = found;
+            this.folders = folders;
+        }
+
+        @Override
+        protected void compute() {
+
+            var subTasks = new ArrayList<ScanTask>();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+                for (var file : stream) {
+
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    }
+
+                    if (attributes.isDirectory()) {
+
+                        if (file.equals(ignoredFolder)) {
+                            continue;
+                        }
+
+                        folders.add(file);
+                        subTasks.add(new ScanTask(file, found, folders));
+
+                    } else if (attributes.isRegularFile()) {
+                        found.add(update(file, attributes));
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warning(e);
+            }
+
+            invokeAll(subTasks);
+        }
+    }
+
+    /**
+     * The asset folder.
+     */
+    @NotNull
+    private final Path assetFolder;
+
+    /**
+     * The file to store this index.
+     */
+    @NotNull
+    private final Path indexFile;
+
+    /**
+     * The folder which shouldn't be indexed.
+     */
+    @Nullable
+    private final Path ignoredFolder;
+
+    /**
+     * The indexed files by their asset paths sorted to get files of a folder by a range.
+     */
+    @NotNull
+    private final ConcurrentSkipListMap<String, Entry> entries;
+
+    /**
+     * The asset paths of indexed files by their extensions.
+     */
+    @NotNull
+    private final ConcurrentHashMap<String, Set<String>> extensionToFiles;
+
+    /**
+     * True if the index was changed after the last saving.
+     */
+    private volatile boolean dirty;
+
+    public AssetFileIndex(@NotNull Path assetFolder, @NotNull Path indexFile) {
+        this.assetFolder = assetFolder;
+        this.indexFile = indexFile;
+        this.ignoredFolder = indexFile.getParent();
+        this.entries = new ConcurrentSkipListMap<>();
+        this.extensionToFiles = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the asset folder.
+     *
+     * @return the asset folder.
+     */
+    @FromAnyThread
+    public @NotNull Path getAssetFolder() {
+        return assetFolder;
+    }
+
+    /**
+     * Load the stored state of this index.
+     */
+    @FromAnyThread
+    public void load() {
+
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+
+        try {
+
+            for (var line : Files.readAllLines(indexFile, UTF_8)) {
+
+                var values = line.split(SEPARATOR, 3);
+
+                if (values.length != 3) {
+                    dirty = true;
+                    continue;
+                }
+
+                var extension = FileUtils.getExtension(values[0]);
+                register(values[0], new Entry(extension, Long.parseLong(values[1]), Long.parseLong(values[2])));
+            }
+
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Save this index if it was changed.
+     */
+    @FromAnyThread
+    public synchronized void saveIfNeed() {
+
+        if (!dirty) {
+            return;
+        }
+
+        dirty = false;
+
+        var lines = new ArrayList<String>(entries.size());
+
+        entries.forEach((assetPath, entry) ->
+                lines.add(assetPath + SEPARATOR + entry.size + SEPARATOR + entry.lastModified));
+
+        var tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Files.write(tempFile, lines, UTF_8);
+            Files.move(tempFile, indexFile, REPLACE_EXISTING);
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Reconcile this index with the disk in parallel.
+     *
+     * @return all folders of the asset folder including itself.
+     */
+    @FromAnyThread
+    public @NotNull List<Path> reconcile() {
+
+        var found = ConcurrentHashMap.<String>newKeySet();
+        var folders = new ConcurrentLinkedQueue<Path>();
+        folders.add(assetFolder);
+
+        ForkJoinPool.commonPool()
+                .invoke(new ScanTask(assetFolder, found, folders));
+
+        for (var assetPath : entries.keySet()) {
+            if (!found.contains(assetPath)) {
+                remove(assetPath);
+            }
+        }
+
+        return new ArrayList<>(folders);
+    }
+
+    /**
+     * Add all files from the folder and its sub-folders to this index.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    public void scan(@NotNull Path folder) {
+        ForkJoinPool.commonPool()
+                .invoke(new ScanTask(folder, ConcurrentHashMap.newKeySet(), new ConcurrentLinkedQueue<>()));
+    }
+
+    /**
+     * Update the state of the file in this index.
+     *
+     * @param file the file.
+     */
+    @FromAnyThread
+    public void update(@NotNull Path file) {
+
+        if (!file.startsWith(assetFolder) || ignoredFolder != null && file.startsWith(ignoredFolder)) {
+            return;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            remove(file, false);
+            return;
+        } catch (IOException e) {
+            LOGGER.warning(e);
+            return;
+        }
+
+        if (attributes.isDirectory()) {
+            scan(file);
+        } else if (attributes.isRegularFile()) {
+            update(file, attributes);
+        }
+    }
+
+    /**
+     * Remove the file or the folder with all its files from this index.
+     *
+     * @param file      the file.
+     * @param directory true if the file is a folder.
+     */
+    @FromAnyThread
+    public void remove(@NotNull Path file, boolean directory) {
+
+        if (!file.startsWith(assetFolder)) {
+            return;
+        }
+
+        var assetPath = toAssetPath(file);
+
+        // a deleted file can't be checked, so a folder could be reported as a file
+        if (!directory && remove(assetPath)) {
+            return;
+        }
+
+        var prefix = assetPath + "/";
+        var folderFiles = entries.subMap(prefix, prefix + '\uffff');
+
+        for (var key : new ArrayList<>(folderFiles.keySet())) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Get asset paths of all indexed files with the extension.
+     *
+     * @param extension the extension.
+     * @return the live view of the asset paths.
+     */
+    @FromAnyThread
+    public @NotNull Set<String> getFiles(@NotNull String extension) {
+        var files = extensionToFiles.get(extension);
+        return files == null ? Collections.emptySet() : Collections.unmodifiableSet(files);
+    }
+
+    /**
+     * Get the count of indexed files.
+     *
+     * @return the count of indexed files.
+     */
+    @FromAnyThread
+    public int size() {
+        return entries.size();
+    }
+
+    @FromAnyThread
+    private @NotNull String toAssetPath(@NotNull Path file) {
+        return EditorUtil.toAssetPath(assetFolder.relativize(file));
+    }
+
+    @FromAnyThread
+    private @NotNull String update(@NotNull Path file, @NotNull BasicFileAttributes attributes) {
+
+        var assetPath = toAssetPath(file);
+        var size = attributes.size();
+        var lastModified = attributes.lastModifiedTime().toMillis();
+
+        var current = entries.get(assetPath);
+
+        if (current == null || current.size != size || current.lastModified != lastModified) {
+            register(assetPath, new Entry(FileUtils.getExtension(assetPath), size, lastModified));
+        }
+
+        return assetPath;
+    }
+
+    @FromAnyThread
+    private void register(@NotNull String assetPath, @NotNull Entry entry) {
+        entries.put(assetPath, entry);
+        extensionToFiles.computeIfAbsent(entry.extension, ext -> ConcurrentHashMap.newKeySet())
+                .add(assetPath);
+        dirty = true;
+    }
+
+    @FromAnyThread
+    private boolean remove(@NotNull String assetPath) {
+
+        var entry = entries.remove(assetPath);
+
+        if (entry == null) {
+            return false;
+        }
+
+        var files = extensionToFiles.get(entry.extension);
+
+        if (files != null) {
+            files.remove(assetPath);
+        }
+
+        dirty = true;
+        return true;
+    }
+}
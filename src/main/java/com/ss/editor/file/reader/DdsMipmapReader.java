@@ -0,0 +1,890 @@
+package com.ss.editor.file.reader;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The reader of separated mipmap levels of DDS files. It maps to memory only the byte range of the required mipmap
+ * level and decodes blocks directly to a caller-supplied ARGB buffer. Supported formats are BC1-BC5 (including the DX10
+ * header variants), BC7 and 24/32 bit uncompressed RGB(A).
+ *
+ * @author JavaSaBr
+ */
+public class DdsMipmapReader implements Closeable {
+
+    private static final int MAGIC = fourCC("DDS ");
+
+    private static final int HEADER_SIZE = 128;
+    private static final int DX10_HEADER_SIZE = 20;
+
+    private static final int DDPF_ALPHA_PIXELS = 0x01;
+    private static final int DDPF_FOUR_CC = 0x04;
+    private static final int DDPF_RGB = 0x40;
+
+    private static final int DXGI_R8G8B8A8_UNORM = 28;
+    private static final int DXGI_R8G8B8A8_UNORM_SRGB = 29;
+    private static final int DXGI_BC1_UNORM = 71;
+    private static final int DXGI_BC1_UNORM_SRGB = 72;
+    private static final int DXGI_BC2_UNORM = 74;
+    private static final int DXGI_BC2_UNORM_SRGB = 75;
+    private static final int DXGI_BC3_UNORM = 77;
+    private static final int DXGI_BC3_UNORM_SRGB = 78;
+    private static final int DXGI_BC4_UNORM = 80;
+    private static final int DXGI_BC4_SNORM = 81;
+    private static final int DXGI_BC5_UNORM = 83;
+    private static final int DXGI_BC5_SNORM = 84;
+    private static final int DXGI_B8G8R8A8_UNORM = 87;
+    private static final int DXGI_B8G8R8X8_UNORM = 88;
+    private static final int DXGI_B8G8R8A8_UNORM_SRGB = 91;
+    private static final int DXGI_B8G8R8X8_UNORM_SRGB = 93;
+    private static final int DXGI_BC7_UNORM = 98;
+    private static final int DXGI_BC7_UNORM_SRGB = 99;
+
+    /**
+     * The list of supported formats.
+     */
+    private enum Format {
+        BC1(8, 0),
+        BC2(16, 0),
+        BC3(16, 0),
+        BC4(8, 0),
+        BC4S(8, 0),
+        BC5(16, 0),
+        BC5S(16, 0),
+        BC7(16, 0),
+        RGBA8(0, 4),
+        RGBX8(0, 4),
+        BGRA8(0, 4),
+        BGRX8(0, 4),
+        BGR8(0, 3);
+
+        /**
+         * The size of a 4x4 block in bytes or 0 for uncompressed formats.
+         */
+        private final int blockSize;
+
+        /**
+         * The size of a pixel in bytes for uncompressed formats.
+         */
+        private final int pixelSize;
+
+        Format(int blockSize, int pixelSize) {
+            this.blockSize = blockSize;
+            this.pixelSize = pixelSize;
+        }
+    }
+
+    // BC7 mode properties: subsets, partition bits, rotation bits, index selection bits, color bits, alpha bits,
+    // endpoint p-bits, shared p-bits, index bits, secondary index bits
+    private static final int[] BC7_SUBSETS = {3, 2, 3, 2, 1, 1, 1, 2};
+    private static final int[] BC7_PARTITION_BITS = {4, 6, 6, 6, 0, 0, 0, 6};
+    private static final int[] BC7_ROTATION_BITS = {0, 0, 0, 0, 2, 2, 0, 0};
+    private static final int[] BC7_INDEX_SELECTION_BITS = {0, 0, 0, 0, 1, 0, 0, 0};
+    private static final int[] BC7_COLOR_BITS = {4, 6, 5, 7, 5, 7, 7, 5};
+    private static final int[] BC7_ALPHA_BITS = {0, 0, 0, 0, 6, 8, 7, 5};
+    private static final int[] BC7_ENDPOINT_P_BITS = {1, 0, 0, 1, 0, 0, 1, 1};
+    private static final int[] BC7_SHARED_P_BITS = {0, 1, 0, 0, 0, 0, 0, 0};
+    private static final int[] BC7_INDEX_BITS = {3, 3, 2, 2, 2, 2, 4, 2};
+    private static final int[] BC7_SECONDARY_INDEX_BITS = {0, 0, 0, 0, 3, 2, 0, 0};
+
+    private static final int[] BC7_WEIGHTS_2 = {0, 21, 43, 64};
+    private static final int[] BC7_WEIGHTS_3 = {0, 9, 18, 27, 37, 46, 55, 64};
+    private static final int[] BC7_WEIGHTS_4 = {0, 4, 9, 13, 17, 21, 26, 30, 34, 38, 43, 47, 51, 55, 60, 64};
+
+    private static final int[][] BC7_PARTITIONS_2 = {
+            {0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1}, {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+            {0, 1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1}, {0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 1, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 1, 1}, {0, 0, 1, 1, 0, 1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1},
+            {0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1}, {0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1}, {0, 0, 1, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 1}, {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1, 1},
+            {0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1},
+            {0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1},
+            {0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0, 1, 1, 1, 1}, {0, 1, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0}, {0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0},
+            {0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0}, {0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0}, {0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 1},
+            {0, 0, 1, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0}, {0, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 0, 0},
+            {0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0}, {0, 0, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 1, 1, 0, 0},
+            {0, 0, 0, 1, 0, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 0}, {0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0},
+            {0, 1, 1, 1, 0, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0}, {0, 0, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 0},
+            {0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1}, {0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 0, 0, 1, 1, 1, 1},
+            {0, 1, 0, 1, 1, 0, 1, 0, 0, 1, 0, 1, 1, 0, 1, 0}, {0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0},
+            {0, 0, 1, 1, 1, 1, 0, 0, 0, 0, 1, 1, 1, 1, 0, 0}, {0, 1, 0, 1, 0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1, 0},
+            {0, 1, 1, 0, 1, 0, 0, 1, 0, 1, 1, 0, 1, 0, 0, 1}, {0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1, 0, 0, 1, 0, 1},
+            {0, 1, 1, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 1, 0}, {0, 0, 0, 1, 0, 0, 1, 1, 1, 1, 0, 0, 1, 0, 0, 0},
+            {0, 0, 1, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1, 1, 0, 0}, {0, 0, 1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1, 1, 0, 0},
+            {0, 1, 1, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0, 1, 1, 0}, {0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, 1, 1},
+            {0, 1, 1, 0, 0, 1, 1, 0, 1, 0, 0, 1, 1, 0, 0, 1}, {0, 0, 0, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, 0},
+            {0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0}, {0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0}, {0, 0, 0, 0, 0, 1, 0, 0, 1, 1, 1, 0, 0, 1, 0, 0},
+            {0, 1, 1, 0, 1, 1, 0, 0, 1, 0, 0, 1, 0, 0, 1, 1}, {0, 0, 1, 1, 0, 1, 1, 0, 1, 1, 0, 0, 1, 0, 0, 1},
+            {0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 1, 1, 1, 0, 0}, {0, 0, 1, 1, 1, 0, 0, 1, 1, 1, 0, 0, 0, 1, 1, 0},
+            {0, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 0, 0, 1}, {0, 1, 1, 0, 0, 0, 1, 1, 0, 0, 1, 1, 1, 0, 0, 1},
+            {0, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 0, 0, 0, 0, 1}, {0, 0, 0, 1, 1, 0, 0, 0, 1, 1, 1, 0, 0, 1, 1, 1},
+            {0, 0, 0, 0, 1, 1, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1}, {0, 0, 1, 1, 0, 0, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0},
+            {0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 1, 0, 1, 1, 1, 0}, {0, 1, 0, 0, 0, 1, 0, 0, 0, 1, 1, 1, 0, 1, 1, 1}
+    };
+
+    private static final int[][] BC7_PARTITIONS_3 = {
+            {0, 0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 1, 2, 2, 2, 2}, {0, 0, 0, 1, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 2, 1},
+            {0, 0, 0, 0, 2, 0, 0, 1, 2, 2, 1, 1, 2, 2, 1, 1}, {0, 2, 2, 2, 0, 0, 2, 2, 0, 0, 1, 1, 0, 1, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2}, {0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 2, 2, 0, 0, 2, 2},
+            {0, 0, 2, 2, 0, 0, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1}, {0, 0, 1, 1, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1},
+            {0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2}, {0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2},
+            {0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 2}, {0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2},
+            {0, 1, 1, 2, 0, 1, 1, 2, 0, 1, 1, 2, 0, 1, 1, 2}, {0, 1, 2, 2, 0, 1, 2, 2, 0, 1, 2, 2, 0, 1, 2, 2},
+            {0, 0, 1, 1, 0, 1, 1, 2, 1, 1, 2, 2, 1, 2, 2, 2}, {0, 0, 1, 1, 2, 0, 0, 1, 2, 2, 0, 0, 2, 2, 2, 0},
+            {0, 0, 0, 1, 0, 0, 1, 1, 0, 1, 1, 2, 1, 1, 2, 2}, {0, 1, 1, 1, 0, 0, 1, 1, 2, 0, 0, 1, 2, 2, 0, 0},
+            {0, 0, 0, 0, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1, 2, 2}, {0, 0, 2, 2, 0, 0, 2, 2, 0, 0, 2, 2, 1, 1, 1, 1},
+            {0, 1, 1, 1, 0, 1, 1, 1, 0, 2, 2, 2, 0, 2, 2, 2}, {0, 0, 0, 1, 0, 0, 0, 1, 2, 2, 2, 1, 2, 2, 2, 1},
+            {0, 0, 0, 0, 0, 0, 1, 1, 0, 1, 2, 2, 0, 1, 2, 2}, {0, 0, 0, 0, 1, 1, 0, 0, 2, 2, 1, 0, 2, 2, 1, 0},
+            {0, 1, 2, 2, 0, 1, 2, 2, 0, 0, 1, 1, 0, 0, 0, 0}, {0, 0, 1, 2, 0, 0, 1, 2, 1, 1, 2, 2, 2, 2, 2, 2},
+            {0, 1, 1, 0, 1, 2, 2, 1, 1, 2, 2, 1, 0, 1, 1, 0}, {0, 0, 0, 0, 0, 1, 1, 0, 1, 2, 2, 1, 1, 2, 2, 1},
+            {0, 0, 2, 2, 1, 1, 0, 2, 1, 1, 0, 2, 0, 0, 2, 2}, {0, 1, 1, 0, 0, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2, 2},
+            {0, 0, 1, 1, 0, 1, 2, 2, 0, 1, 2, 2, 0, 0, 1, 1}, {0, 0, 0, 0, 2, 0, 0, 0, 2, 2, 1, 1, 2, 2, 2, 1},
+            {0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 2, 2, 2}, {0, 2, 2, 2, 0, 0, 2, 2, 0, 0, 1, 2, 0, 0, 1, 1},
+            {0, 0, 1, 1, 0, 0, 1, 2, 0, 0, 2, 2, 0, 2, 2, 2}, {0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0, 0, 1, 2, 0},
+            {0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 0, 0, 0, 0}, {0, 1, 2, 0, 1, 2, 0, 1, 2, 0, 1, 2, 0, 1, 2, 0},
+            {0, 1, 2, 0, 2, 0, 1, 2, 1, 2, 0, 1, 0, 1, 2, 0}, {0, 0, 1, 1, 2, 2, 0, 0, 1, 1, 2, 2, 0, 0, 1, 1},
+            {0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 0, 0, 0, 0, 1, 1}, {0, 1, 0, 1, 0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2},
+            {0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 2, 1, 2, 1, 2, 1}, {0, 0, 2, 2, 1, 1, 2, 2, 0, 0, 2, 2, 1, 1, 2, 2},
+            {0, 0, 2, 2, 0, 0, 1, 1, 0, 0, 2, 2, 0, 0, 1, 1}, {0, 2, 2, 0, 1, 2, 2, 1, 0, 2, 2, 0, 1, 2, 2, 1},
+            {0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2, 0, 1, 0, 1}, {0, 0, 0, 0, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1, 2, 1},
+            {0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 0, 1, 2, 2, 2, 2}, {0, 2, 2, 2, 0, 1, 1, 1, 0, 2, 2, 2, 0, 1, 1, 1},
+            {0, 0, 0, 2, 1, 1, 1, 2, 0, 0, 0, 2, 1, 1, 1, 2}, {0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 1, 2, 2, 1, 1, 2},
+            {0, 2, 2, 2, 0, 1, 1, 1, 0, 1, 1, 1, 0, 2, 2, 2}, {0, 0, 0, 2, 1, 1, 1, 2, 1, 1, 1, 2, 0, 0, 0, 2},
+            {0, 1, 1, 0, 0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 2, 2}, {0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2, 2, 1, 1, 2},
+            {0, 1, 1, 0, 0, 1, 1, 0, 2, 2, 2, 2, 2, 2, 2, 2}, {0, 0, 2, 2, 0, 0, 1, 1, 0, 0, 1, 1, 0, 0, 2, 2},
+            {0, 0, 2, 2, 1, 1, 2, 2, 1, 1, 2, 2, 0, 0, 2, 2}, {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 1, 2},
+            {0, 0, 0, 2, 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 1}, {0, 2, 2, 2, 1, 2, 2, 2, 0, 2, 2, 2, 1, 2, 2, 2},
+            {0, 1, 0, 1, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2}, {0, 1, 1, 1, 2, 0, 1, 1, 2, 2, 0, 1, 2, 2, 2, 0}
+    };
+
+    private static final int[] BC7_ANCHORS_2 = {
+            15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15,
+            15, 2, 8, 2, 2, 8, 8, 15, 2, 8, 2, 2, 8, 8, 2, 2,
+            15, 15, 6, 8, 2, 8, 15, 15, 2, 8, 2, 2, 2, 15, 15, 6,
+            6, 2, 6, 8, 15, 15, 2, 2, 15, 15, 15, 15, 15, 2, 2, 15
+    };
+
+    private static final int[] BC7_ANCHORS_3_SECOND = {
+            3, 3, 15, 15, 8, 3, 15, 15, 8, 8, 6, 6, 6, 5, 3, 3,
+            3, 3, 8, 15, 3, 3, 6, 10, 5, 8, 8, 6, 8, 5, 15, 15,
+            8, 15, 3, 5, 6, 10, 8, 15, 15, 3, 15, 5, 15, 15, 15, 15,
+            3, 15, 5, 5, 5, 8, 5, 10, 5, 10, 8, 13, 15, 12, 3, 3
+    };
+
+    private static final int[] BC7_ANCHORS_3_THIRD = {
+            15, 8, 8, 3, 15, 15, 3, 8, 15, 15, 15, 15, 15, 15, 15, 8,
+            15, 8, 15, 3, 15, 8, 15, 8, 3, 15, 6, 10, 15, 15, 10, 8,
+            15, 3, 15, 10, 10, 8, 9, 10, 6, 15, 8, 15, 3, 6, 6, 8,
+            15, 3, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 3, 15, 15, 8
+    };
+
+    private static int fourCC(@NotNull String code) {
+        return code.charAt(0) | code.charAt(1) << 8 | code.charAt(2) << 16 | code.charAt(3) << 24;
+    }
+
+    private static int argb(int a, int r, int g, int b) {
+        return a << 24 | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * The channel of the file.
+     */
+    @NotNull
+    private final FileChannel channel;
+
+    /**
+     * The format of the image or null if it's not supported.
+     */
+    @Nullable
+    private Format format;
+
+    /**
+     * The size of the image.
+     */
+    private int width, height;
+
+    /**
+     * The count of mipmap levels.
+     */
+    private int mipmapCount;
+
+    /**
+     * The offset of the first mipmap level.
+     */
+    private long dataOffset;
+
+    /**
+     * The temp buffers to decode a block.
+     */
+    @NotNull
+    private final int[] colors, alphas, secondAlphas, indices, secondIndices;
+
+    /**
+     * The temp endpoints of a BC7 block.
+     */
+    @NotNull
+    private final int[][] endpoints;
+
+    /**
+     * The bits of the current BC7 block.
+     */
+    private long lowBits, highBits;
+
+    /**
+     * The position in the bits of the current BC7 block.
+     */
+    private int bitPosition;
+
+    public DdsMipmapReader(@NotNull Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.colors = new int[16];
+        this.alphas = new int[16];
+        this.secondAlphas = new int[16];
+        this.indices = new int[16];
+        this.secondIndices = new int[16];
+        this.endpoints = new int[6][4];
+        try {
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader() throws IOException {
+
+        var fileSize = channel.size();
+
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("The file is too small to be a DDS file.");
+        }
+
+        var header = channel.map(READ_ONLY, 0, Math.min(fileSize, HEADER_SIZE + DX10_HEADER_SIZE))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("The file isn't a DDS file.");
+        }
+
+        height = header.getInt(12);
+        width = header.getInt(16);
+        mipmapCount = Math.max(1, header.getInt(28));
+        dataOffset = HEADER_SIZE;
+
+        var flags = header.getInt(80);
+
+        if ((flags & DDPF_FOUR_CC) != 0) {
+
+            var code = header.getInt(84);
+
+            if (code == fourCC("DX10")) {
+
+                if (fileSize < HEADER_SIZE + DX10_HEADER_SIZE) {
+                    throw new IOException("The file doesn't have the DX10 header.");
+                }
+
+                format = fromDxgiFormat(header.getInt(HEADER_SIZE));
+                dataOffset += DX10_HEADER_SIZE;
+
+            } else {
+                format = fromFourCC(code);
+            }
+
+        } else if ((flags & DDPF_RGB) != 0) {
+            var alphaMask = (flags & DDPF_ALPHA_PIXELS) != 0 ? header.getInt(104) : 0;
+            format = fromMasks(header.getInt(88), header.getInt(92), alphaMask);
+        }
+    }
+
+    private static @Nullable Format fromFourCC(int code) {
+        if (code == fourCC("DXT1")) {
+            return Format.BC1;
+        } else if (code == fourCC("DXT2") || code == fourCC("DXT3")) {
+            return Format.BC2;
+        } else if (code == fourCC("DXT4") || code == fourCC("DXT5")) {
+            return Format.BC3;
+        } else if (code == fourCC("ATI1") || code == fourCC("BC4U")) {
+            return Format.BC4;
+        } else if (code == fourCC("BC4S")) {
+            return Format.BC4S;
+        } else if (code == fourCC("ATI2") || code == fourCC("BC5U")) {
+            return Format.BC5;
+        } else if (code == fourCC("BC5S")) {
+            return Format.BC5S;
+        }
+        return null;
+    }
+
+    private static @Nullable Format fromDxgiFormat(int dxgiFormat) {
+        switch (dxgiFormat) {
+            case DXGI_BC1_UNORM:
+            case DXGI_BC1_UNORM_SRGB:
+                return Format.BC1;
+            case DXGI_BC2_UNORM:
+            case DXGI_BC2_UNORM_SRGB:
+                return Format.BC2;
+            case DXGI_BC3_UNORM:
+            case DXGI_BC3_UNORM_SRGB:
+                return Format.BC3;
+            case DXGI_BC4_UNORM:
+                return Format.BC4;
+            case DXGI_BC4_SNORM:
+                return Format.BC4S;
+            case DXGI_BC5_UNORM:
+                return Format.BC5;
+            case DXGI_BC5_SNORM:
+                return Format.BC5S;
+            case DXGI_BC7_UNORM:
+            case DXGI_BC7_UNORM_SRGB:
+                return Format.BC7;
+            case DXGI_R8G8B8A8_UNORM:
+            case DXGI_R8G8B8A8_UNORM_SRGB:
+                return Format.RGBA8;
+            case DXGI_B8G8R8A8_UNORM:
+            case DXGI_B8G8R8A8_UNORM_SRGB:
+                return Format.BGRA8;
+            case DXGI_B8G8R8X8_UNORM:
+            case DXGI_B8G8R8X8_UNORM_SRGB:
+                return Format.BGRX8;
+            default:
+                return null;
+        }
+    }
+
+    private static @Nullable Format fromMasks(int bitCount, int redMask, int alphaMask) {
+        if (bitCount == 24 && redMask == 0x00FF0000) {
+            return Format.BGR8;
+        } else if (bitCount != 32) {
+            return null;
+        } else if (redMask == 0x00FF0000) {
+            return alphaMask == 0 ? Format.BGRX8 : Format.BGRA8;
+        } else if (redMask == 0x000000FF) {
+            return alphaMask == 0 ? Format.RGBX8 : Format.RGBA8;
+        }
+        return null;
+    }
+
+    /**
+     * Return true if the format of the image is supported by this reader.
+     *
+     * @return true if the format is supported.
+     */
+    public boolean isSupported() {
+        return format != null;
+    }
+
+    /**
+     * Get the count of mipmap levels.
+     *
+     * @return the count of mipmap levels.
+     */
+    public int getMipmapCount() {
+        return mipmapCount;
+    }
+
+    /**
+     * Get the width of the mipmap level.
+     *
+     * @param level the mipmap level.
+     * @return the width.
+     */
+    public int getWidth(int level) {
+        return Math.max(1, width >> level);
+    }
+
+    /**
+     * Get the height of the mipmap level.
+     *
+     * @param level the mipmap level.
+     * @return the height.
+     */
+    public int getHeight(int level) {
+        return Math.max(1, height >> level);
+    }
+
+    /**
+     * Find the smallest mipmap level which is still not smaller than the target size.
+     *
+     * @param targetWidth  the target width.
+     * @param targetHeight the target height.
+     * @return the mipmap level.
+     */
+    public int selectMipmap(int targetWidth, int targetHeight) {
+
+        var level = 0;
+
+        while (level + 1 < mipmapCount) {
+
+            var next = level + 1;
+
+            if (getWidth(next) < targetWidth || getHeight(next) < targetHeight) {
+                break;
+            }
+
+            level = next;
+        }
+
+        return level;
+    }
+
+    private long getLevelSize(@NotNull Format format, int level) {
+
+        long levelWidth = getWidth(level);
+        long levelHeight = getHeight(level);
+
+        if (format.blockSize > 0) {
+            return ((levelWidth + 3) / 4) * ((levelHeight + 3) / 4) * format.blockSize;
+        }
+
+        return levelWidth * levelHeight * format.pixelSize;
+    }
+
+    /**
+     * Decode the mipmap level to the buffer of ARGB pixels.
+     *
+     * @param level  the mipmap level.
+     * @param pixels the buffer with the size at least width * height of the level.
+     * @throws IOException if the format isn't supported or the file is truncated.
+     */
+    public void read(int level, @NotNull int[] pixels) throws IOException {
+
+        var format = this.format;
+
+        if (format == null) {
+            throw new IOException("The format of the DDS file isn't supported.");
+        } else if (level < 0 || level >= mipmapCount) {
+            throw new IllegalArgumentException("Incorrect mipmap level " + level);
+        }
+
+        var levelWidth = getWidth(level);
+        var levelHeight = getHeight(level);
+
+        if (pixels.length < levelWidth * levelHeight) {
+            throw new IllegalArgumentException("The buffer is too small for the mipmap level " + level);
+        }
+
+        var offset = dataOffset;
+
+        for (int i = 0; i < level; i++) {
+            offset += getLevelSize(format, i);
+        }
+
+        var size = getLevelSize(format, level);
+
+        if (offset + size > channel.size()) {
+            throw new IOException("The DDS file is truncated.");
+        }
+
+        var data = channel.map(READ_ONLY, offset, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        if (format.blockSize > 0) {
+            decodeBlocks(format, data, levelWidth, levelHeight, pixels);
+        } else {
+            decodePixels(format, data, levelWidth, levelHeight, pixels);
+        }
+    }
+
+    private void decodePixels(@NotNull Format format, @NotNull ByteBuffer data, int width, int height,
+                              @NotNull int[] pixels) {
+
+        for (int i = 0, index = 0, length = width * height; i < length; i++, index += format.pixelSize) {
+
+            var first = data.get(index) & 0xFF;
+            var second = data.get(index + 1) & 0xFF;
+            var third = data.get(index + 2) & 0xFF;
+            var fourth = format.pixelSize > 3 ? data.get(index + 3) & 0xFF : 0xFF;
+
+            switch (format) {
+                case RGBA8:
+                    pixels[i] = argb(fourth, first, second, third);
+                    break;
+                case RGBX8:
+                    pixels[i] = argb(0xFF, first, second, third);
+                    break;
+                case BGRA8:
+                    pixels[i] = argb(fourth, third, second, first);
+                    break;
+                default:
+                    pixels[i] = argb(0xFF, third, second, first);
+                    break;
+            }
+        }
+    }
+
+    private void decodeBlocks(@NotNull Format format, @NotNull ByteBuffer data, int width, int height,
+                              @NotNull int[] pixels) {
+
+        var blocksX = (width + 3) / 4;
+        var blocksY = (height + 3) / 4;
+        var offset = 0;
+
+        for (int blockY = 0; blockY < blocksY; blockY++) {
+            for (int blockX = 0; blockX < blocksX; blockX++, offset += format.blockSize) {
+
+                switch (format) {
+                    case BC1:
+                        decodeColorBlock(data, offset, true);
+                        break;
+                    case BC2:
+                        decodeExplicitAlphaBlock(data, offset);
+                        decodeColorBlock(data, offset + 8, false);
+                        applyAlpha();
+                        break;
+                    case BC3:
+                        decodeAlphaBlock(data, offset, false, alphas);
+                        decodeColorBlock(data, offset + 8, false);
+                        applyAlpha();
+                        break;
+                    case BC4:
+                    case BC4S:
+                        decodeAlphaBlock(data, offset, format == Format.BC4S, alphas);
+                        for (int i = 0; i < 16; i++) {
+                            colors[i] = argb(0xFF, alphas[i], alphas[i], alphas[i]);
+                        }
+                        break;
+                    case BC5:
+                    case BC5S:
+                        decodeAlphaBlock(data, offset, format == Format.BC5S, alphas);
+                        decodeAlphaBlock(data, offset + 8, format == Format.BC5S, secondAlphas);
+                        for (int i = 0; i < 16; i++) {
+                            colors[i] = argb(0xFF, alphas[i], secondAlphas[i], 0);
+                        }
+                        break;
+                    case BC7:
+                        decodeBc7Block(data, offset);
+                        break;
+                }
+
+                storeBlock(pixels, width, height, blockX, blockY);
+            }
+        }
+    }
+
+    private void storeBlock(@NotNull int[] pixels, int width, int height, int blockX, int blockY) {
+        for (int i = 0; i < 16; i++) {
+
+            var x = blockX * 4 + (i & 3);
+            var y = blockY * 4 + (i >> 2);
+
+            if (x < width && y < height) {
+                pixels[y * width + x] = colors[i];
+            }
+        }
+    }
+
+    private void applyAlpha() {
+        for (int i = 0; i < 16; i++) {
+            colors[i] = (colors[i] & 0x00FFFFFF) | alphas[i] << 24;
+        }
+    }
+
+    private void decodeColorBlock(@NotNull ByteBuffer data, int offset, boolean withAlpha) {
+
+        var c0 = data.getShort(offset) & 0xFFFF;
+        var c1 = data.getShort(offset + 2) & 0xFFFF;
+
+        var r0 = expand(c0 >> 11, 5);
+        var g0 = expand((c0 >> 5) & 0x3F, 6);
+        var b0 = expand(c0 & 0x1F, 5);
+        var r1 = expand(c1 >> 11, 5);
+        var g1 = expand((c1 >> 5) & 0x3F, 6);
+        var b1 = expand(c1 & 0x1F, 5);
+
+        var palette = secondIndices;
+        palette[0] = argb(0xFF, r0, g0, b0);
+        palette[1] = argb(0xFF, r1, g1, b1);
+
+        if (c0 > c1 || !withAlpha) {
+            palette[2] = argb(0xFF, (2 * r0 + r1) / 3, (2 * g0 + g1) / 3, (2 * b0 + b1) / 3);
+            palette[3] = argb(0xFF, (r0 + 2 * r1) / 3, (g0 + 2 * g1) / 3, (b0 + 2 * b1) / 3);
+        } else {
+            palette[2] = argb(0xFF, (r0 + r1) / 2, (g0 + g1) / 2, (b0 + b1) / 2);
+            palette[3] = 0;
+        }
+
+        var bits = data.getInt(offset + 4);
+
+        for (int i = 0; i < 16; i++) {
+            colors[i] = palette[(bits >>> (i * 2)) & 0x03];
+        }
+    }
+
+    private void decodeExplicitAlphaBlock(@NotNull ByteBuffer data, int offset) {
+        var bits = data.getLong(offset);
+        for (int i = 0; i < 16; i++) {
+            alphas[i] = (int) ((bits >>> (i * 4)) & 0x0F) * 17;
+        }
+    }
+
+    private void decodeAlphaBlock(@NotNull ByteBuffer data, int offset, boolean signed, @NotNull int[] result) {
+
+        int a0, a1;
+
+        if (signed) {
+            a0 = Math.max(data.get(offset), -127);
+            a1 = Math.max(data.get(offset + 1), -127);
+        } else {
+            a0 = data.get(offset) & 0xFF;
+            a1 = data.get(offset + 1) & 0xFF;
+        }
+
+        var palette = indices;
+        palette[0] = a0;
+        palette[1] = a1;
+
+        if (a0 > a1) {
+            for (int i = 1; i < 7; i++) {
+                palette[i + 1] = ((7 - i) * a0 + i * a1) / 7;
+            }
+        } else {
+            for (int i = 1; i < 5; i++) {
+                palette[i + 1] = ((5 - i) * a0 + i * a1) / 5;
+            }
+            palette[6] = signed ? -127 : 0;
+            palette[7] = signed ? 127 : 255;
+        }
+
+        if (signed) {
+            for (int i = 0; i < 8; i++) {
+                palette[i] = (palette[i] + 127) * 255 / 254;
+            }
+        }
+
+        long bits = 0;
+
+        for (int i = 0; i < 6; i++) {
+            bits |= (long) (data.get(offset + 2 + i) & 0xFF) << (i * 8);
+        }
+
+        for (int i = 0; i < 16; i++) {
+            result[i] = palette[(int) ((bits >>> (i * 3)) & 0x07)];
+        }
+    }
+
+    private void decodeBc7Block(@NotNull ByteBuffer data, int offset) {
+
+        lowBits = data.getLong(offset);
+        highBits = data.getLong(offset + 8);
+        bitPosition = 0;
+
+        var mode = 0;
+
+        while (mode < 8 && readBits(1) == 0) {
+            mode++;
+        }
+
+        if (mode == 8) {
+            for (int i = 0; i < 16; i++) {
+                colors[i] = 0;
+            }
+            return;
+        }
+
+        var subsets = BC7_SUBSETS[mode];
+        var partition = readBits(BC7_PARTITION_BITS[mode]);
+        var rotation = readBits(BC7_ROTATION_BITS[mode]);
+        var indexSelection = readBits(BC7_INDEX_SELECTION_BITS[mode]);
+        var colorBits = BC7_COLOR_BITS[mode];
+        var alphaBits = BC7_ALPHA_BITS[mode];
+        var endpointCount = subsets * 2;
+
+        for (int channel = 0; channel < 3; channel++) {
+            for (int i = 0; i < endpointCount; i++) {
+                endpoints[i][channel] = readBits(colorBits);
+            }
+        }
+
+        for (int i = 0; i < endpointCount; i++) {
+            endpoints[i][3] = alphaBits > 0 ? readBits(alphaBits) : 0xFF;
+        }
+
+        if (BC7_ENDPOINT_P_BITS[mode] != 0) {
+
+            for (int i = 0; i < endpointCount; i++) {
+                applyPBit(endpoints[i], readBits(1), alphaBits > 0);
+            }
+
+            colorBits++;
+            alphaBits = alphaBits > 0 ? alphaBits + 1 : 0;
+
+        } else if (BC7_SHARED_P_BITS[mode] != 0) {
+
+            for (int subset = 0; subset < subsets; subset++) {
+                var pBit = readBits(1);
+                applyPBit(endpoints[subset * 2], pBit, alphaBits > 0);
+                applyPBit(endpoints[subset * 2 + 1], pBit, alphaBits > 0);
+            }
+
+            colorBits++;
+            alphaBits = alphaBits > 0 ? alphaBits + 1 : 0;
+        }
+
+        for (int i = 0; i < endpointCount; i++) {
+
+            var endpoint = endpoints[i];
+
+            for (int channel = 0; channel < 3; channel++) {
+                endpoint[channel] = expand(endpoint[channel], colorBits);
+            }
+
+            if (alphaBits > 0) {
+                endpoint[3] = expand(endpoint[3], alphaBits);
+            }
+        }
+
+        var indexBits = BC7_INDEX_BITS[mode];
+        var secondIndexBits = BC7_SECONDARY_INDEX_BITS[mode];
+
+        for (int i = 0; i < 16; i++) {
+            var anchor = isBc7Anchor(subsets, partition, i);
+            indices[i] = readBits(anchor ? indexBits - 1 : indexBits);
+        }
+
+        if (secondIndexBits > 0) {
+            for (int i = 0; i < 16; i++) {
+                secondIndices[i] = readBits(i == 0 ? secondIndexBits - 1 : secondIndexBits);
+            }
+        }
+
+        for (int i = 0; i < 16; i++) {
+
+            var subset = getBc7Subset(subsets, partition, i);
+            var first = endpoints[subset * 2];
+            var second = endpoints[subset * 2 + 1];
+
+            int colorWeight, alphaWeight;
+
+            if (secondIndexBits == 0) {
+                colorWeight = alphaWeight = getBc7Weight(indexBits, indices[i]);
+            } else if (indexSelection == 0) {
+                colorWeight = getBc7Weight(indexBits, indices[i]);
+                alphaWeight = getBc7Weight(secondIndexBits, secondIndices[i]);
+            } else {
+                colorWeight = getBc7Weight(secondIndexBits, secondIndices[i]);
+                alphaWeight = getBc7Weight(indexBits, indices[i]);
+            }
+
+            var r = interpolate(first[0], second[0], colorWeight);
+            var g = interpolate(first[1], second[1], colorWeight);
+            var b = interpolate(first[2], second[2], colorWeight);
+            var a = interpolate(first[3], second[3], alphaWeight);
+
+            switch (rotation) {
+                case 1: {
+                    var temp = a;
+                    a = r;
+                    r = temp;
+                    break;
+                }
+                case 2: {
+                    var temp = a;
+                    a = g;
+                    g = temp;
+                    break;
+                }
+                case 3: {
+                    var temp = a;
+                    a = b;
+                    b = temp;
+                    break;
+                }
+            }
+
+            colors[i] = argb(a, r, g, b);
+        }
+    }
+
+    private static void applyPBit(@NotNull int[] endpoint, int pBit, boolean withAlpha) {
+        for (int channel = 0, count = withAlpha ? 4 : 3; channel < count; channel++) {
+            endpoint[channel] = endpoint[channel] << 1 | pBit;
+        }
+    }
+
+    private static int getBc7Subset(int subsets, int partition, int index) {
+        switch (subsets) {
+            case 2:
+                return BC7_PARTITIONS_2[partition][index];
+            case 3:
+                return BC7_PARTITIONS_3[partition][index];
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isBc7Anchor(int subsets, int partition, int index) {
+
+        if (index == 0) {
+            return true;
+        }
+
+        switch (subsets) {
+            case 2:
+                return BC7_ANCHORS_2[partition] == index;
+            case 3:
+                return BC7_ANCHORS_3_SECOND[partition] == index || BC7_ANCHORS_3_THIRD[partition] == index;
+            default:
+                return false;
+        }
+    }
+
+    private static int getBc7Weight(int bits, int index) {
+        switch (bits) {
+            case 2:
+                return BC7_WEIGHTS_2[index];
+            case 3:
+                return BC7_WEIGHTS_3[index];
+            default:
+                return BC7_WEIGHTS_4[index];
+        }
+    }
+
+    private static int interpolate(int first, int second, int weight) {
+        return ((64 - weight) * first + weight * second + 32) >> 6;
+    }
+
+    private static int expand(int value, int bits) {
+        value <<= 8 - bits;
+        return value | value >> bits;
+    }
+
+    private int readBits(int count) {
+
+        if (count == 0) {
+            return 0;
+        }
+
+        var mask = (1L << count) - 1;
+        long result;
+
+        if (bitPosition >= 64) {
+            result = highBits >>> (bitPosition - 64);
+        } else if (bitPosition + count <= 64) {
+            result = lowBits >>> bitPosition;
+        } else {
+            result = lowBits >>> bitPosition | highBits << (64 - bitPosition);
+        }
+
+        bitPosition += count;
+
+        return (int) (result & mask);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,242 @@
+package com.ss.editor.file.watch;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The collector of raw watch events which folds all events of each path to one change. Sequences like
+ * create+modify+delete are dropped, delete+create is a change and a deleted file with a created file with the same
+ * name in another folder is a move.
+ *
+ * @author JavaSaBr
+ */
+public class FileChangesCollector {
+
+    /**
+     * The folded state of a path.
+     */
+    private static class PathState {
+
+        /**
+         * True if the path existed before the first event.
+         */
+        private final boolean existedBefore;
+
+        /**
+         * True if the path exists after the last event.
+         */
+        private boolean existsAfter;
+
+        private PathState(boolean existedBefore) {
+            this.existedBefore = existedBefore;
+            this.existsAfter = existedBefore;
+        }
+    }
+
+    /**
+     * The folded states by paths in the order of the first events.
+     */
+    @NotNull
+    private final Map<Path, PathState> states;
+
+    /**
+     * The created files.
+     */
+    @NotNull
+    private final Array<Path> createdFiles;
+
+    /**
+     * The deleted files.
+     */
+    @NotNull
+    private final Array<Path> deletedFiles;
+
+    /**
+     * The changed files.
+     */
+    @NotNull
+    private final Array<Path> changedFiles;
+
+    /**
+     * The new files by previous files.
+     */
+    @NotNull
+    private final Map<Path, Path> movedFiles;
+
+    /**
+     * True if some events were lost.
+     */
+    private boolean overflowed;
+
+    public FileChangesCollector() {
+        this.states = new LinkedHashMap<>();
+        this.createdFiles = ArrayFactory.newArray(Path.class);
+        this.deletedFiles = ArrayFactory.newArray(Path.class);
+        this.changedFiles = ArrayFactory.newArray(Path.class);
+        this.movedFiles = new LinkedHashMap<>();
+    }
+
+    /**
+     * Add a raw watch event.
+     *
+     * @param kind the kind of the event.
+     * @param file the file of the event.
+     */
+    @FromAnyThread
+    public void add(@NotNull WatchEvent.Kind<?> kind, @NotNull Path file) {
+
+        if (kind == OVERFLOW) {
+            overflowed = true;
+            return;
+        }
+
+        var state = states.computeIfAbsent(file, path -> new PathState(kind != ENTRY_CREATE));
+
+        if (kind == ENTRY_CREATE || kind == ENTRY_MODIFY) {
+            state.existsAfter = true;
+        } else if (kind == ENTRY_DELETE) {
+            state.existsAfter = false;
+        }
+    }
+
+    /**
+     * Return true if some events were lost and all watched folders should be rescanned.
+     *
+     * @return true if some events were lost.
+     */
+    @FromAnyThread
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * Return true if there are no collected events.
+     *
+     * @return true if there are no collected events.
+     */
+    @FromAnyThread
+    public boolean isEmpty() {
+        return states.isEmpty() && !overflowed;
+    }
+
+    /**
+     * Fold all collected events to created, deleted, changed and moved files.
+     */
+    @FromAnyThread
+    public void finish() {
+
+        for (var entry : states.entrySet()) {
+
+            var file = entry.getKey();
+            var state = entry.getValue();
+
+            if (!state.existedBefore && state.existsAfter) {
+                createdFiles.add(file);
+            } else if (state.existedBefore && !state.existsAfter) {
+                deletedFiles.add(file);
+            } else if (state.existedBefore) {
+                changedFiles.add(file);
+            }
+        }
+
+        states.clear();
+
+        findMovedFiles();
+    }
+
+    /**
+     * Find pairs of deleted and created files which have the same unique name in different folders.
+     */
+    @FromAnyThread
+    private void findMovedFiles() {
+
+        if (deletedFiles.isEmpty() || createdFiles.isEmpty()) {
+            return;
+        }
+
+        var deletedByName = groupByName(deletedFiles);
+        var createdByName = groupByName(createdFiles);
+
+        for (var entry : deletedByName.entrySet()) {
+
+            var prevFile = entry.getValue();
+            var newFile = createdByName.get(entry.getKey());
+
+            if (prevFile == null || newFile == null || prevFile.getParent().equals(newFile.getParent())) {
+                continue;
+            }
+
+            movedFiles.put(prevFile, newFile);
+            deletedFiles.fastRemove(prevFile);
+            createdFiles.fastRemove(newFile);
+        }
+    }
+
+    /**
+     * Group the files by their names, names of many files are mapped to null.
+     *
+     * @param files the files.
+     * @return the table of files by their names.
+     */
+    @FromAnyThread
+    private static @NotNull Map<Path, Path> groupByName(@NotNull Array<Path> files) {
+
+        var result = new HashMap<Path, Path>();
+
+        for (var file : files) {
+            var fileName = file.getFileName();
+            result.put(fileName, result.containsKey(fileName) ? null : file);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the created files.
+     *
+     * @return the created files.
+     */
+    @FromAnyThread
+    public @NotNull Array<Path> getCreatedFiles() {
+        return createdFiles;
+    }
+
+    /**
+     * Get the deleted files.
+     *
+     * @return the deleted files.
+     */
+    @FromAnyThread
+    public @NotNull Array<Path> getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    /**
+     * Get the changed files.
+     *
+     * @return the changed files.
+     */
+    @FromAnyThread
+    public @NotNull Array<Path> getChangedFiles() {
+        return changedFiles;
+    }
+
+    /**
+     * Get the moved files.
+     *
+     * @return the table of new files by previous files.
+     */
+    @FromAnyThread
+    public @NotNull Map<Path, Path> getMovedFiles() {
+        return movedFiles;
+    }
+}
@@ -8,6 +8,7 @@ import com.ss.editor.FileExtensions;
 import com.ss.editor.JmeApplication;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.common.classpath.ClassPathScanner;
 import com.ss.rlib.common.classpath.ClassPathScannerFactory;
@@ -143,7 +144,7 @@ public class ClasspathManager {
         });
 
         final ExecutorManager executorManager = ExecutorManager.getInstance();
-        executorManager.addJmeTask(this::reload);
+        executorManager.addJmeTask(this::reload, TaskPriority.BULK);
     }
 
     /**
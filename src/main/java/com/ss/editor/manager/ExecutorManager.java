@@ -1,13 +1,16 @@
 package com.ss.editor.manager;
 
 import com.ss.editor.annotation.FromAnyThread;
-import com.ss.editor.executor.EditorTaskExecutor;
-import com.ss.editor.executor.impl.BackgroundEditorTaskExecutor;
+import com.ss.editor.executor.PriorityEditorTaskExecutor;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.TaskQueueStatistics;
 import com.ss.editor.executor.impl.FxEditorTaskExecutor;
 import com.ss.editor.executor.impl.JmeThreadExecutor;
-import com.ss.rlib.common.concurrent.atomic.AtomicInteger;
+import com.ss.editor.executor.impl.WorkStealingEditorTaskExecutor;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,10 +48,10 @@ public class ExecutorManager {
     private final ScheduledExecutorService scheduledExecutorService;
 
     /**
-     * The list of background tasks executors.
+     * The executor of background tasks.
      */
     @NotNull
-    private final EditorTaskExecutor[] backgroundTaskExecutors;
+    private final PriorityEditorTaskExecutor backgroundTaskExecutor;
 
     /**
      * The executor of editor tasks.
@@ -60,50 +63,51 @@ public class ExecutorManager {
      * The executor of javaFX tasks.
      */
     @NotNull
-    private final EditorTaskExecutor fxEditorTaskExecutor;
-
-    /**
-     * The index of a next background executor.
-     */
-    @NotNull
-    private final AtomicInteger nextBackgroundTaskExecutor;
+    private final FxEditorTaskExecutor fxEditorTaskExecutor;
 
     private ExecutorManager() {
 
         this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-        this.backgroundTaskExecutors = new EditorTaskExecutor[PROP_BACKGROUND_TASK_EXECUTORS];
-
-        for (int i = 0, length = backgroundTaskExecutors.length; i < length; i++) {
-            backgroundTaskExecutors[i] = new BackgroundEditorTaskExecutor(i + 1);
-        }
+        this.backgroundTaskExecutor = new WorkStealingEditorTaskExecutor("BackgroundEditorTaskExecutor",
+                PROP_BACKGROUND_TASK_EXECUTORS);
 
         this.jmeTasksExecutor = JmeThreadExecutor.getInstance();
         this.fxEditorTaskExecutor = new FxEditorTaskExecutor();
 
-        this.nextBackgroundTaskExecutor = new AtomicInteger(0);
-
         LOGGER.debug("initialized.");
     }
 
     /**
-     * Add a new background task.
+     * Add a new interactive background task.
      *
      * @param task the background task.
      */
     @FromAnyThread
-    public void addBackgroundTask(@NotNull final Runnable task) {
-
-        var executors = getBackgroundTaskExecutors();
-        var nextTaskExecutor = getNextBackgroundTaskExecutor();
+    public void addBackgroundTask(@NotNull Runnable task) {
+        getBackgroundTaskExecutor().execute(task);
+    }
 
-        var index = nextTaskExecutor.incrementAndGet();
+    /**
+     * Add a new background task with the priority.
+     *
+     * @param task     the background task.
+     * @param priority the task's priority.
+     * @return the handle to cancel the task.
+     */
+    @FromAnyThread
+    public @NotNull TaskHandle addBackgroundTask(@NotNull Runnable task, @NotNull TaskPriority priority) {
+        return getBackgroundTaskExecutor().execute(task, priority);
+    }
 
-        if (index < executors.length) {
-            executors[index].execute(task);
-        } else {
-            nextTaskExecutor.set(0);
-            executors[0].execute(task);
-        }
+    /**
+     * Get the statistics of the background queue with the priority.
+     *
+     * @param priority the priority.
+     * @return the queue's statistics.
+     */
+    @FromAnyThread
+    public @NotNull TaskQueueStatistics getBackgroundTaskStatistics(@NotNull TaskPriority priority) {
+        return getBackgroundTaskExecutor().getStatistics(priority);
     }
 
     /**
@@ -116,6 +120,39 @@ public class ExecutorManager {
         getFxTaskExecutor().execute(task);
     }
 
+    /**
+     * Add the new task with the priority to be executed in the JavaFX thread.
+     *
+     * @param task     the task.
+     * @param priority the task's priority.
+     * @return the handle to cancel the task.
+     */
+    @FromAnyThread
+    public @NotNull TaskHandle addFxTask(@NotNull Runnable task, @NotNull TaskPriority priority) {
+        return getFxTaskExecutor().execute(task, priority);
+    }
+
+    /**
+     * Get the statistics of the JavaFX queue with the priority.
+     *
+     * @param priority the priority.
+     * @return the queue's statistics.
+     */
+    @FromAnyThread
+    public @NotNull TaskQueueStatistics getFxTaskStatistics(@NotNull TaskPriority priority) {
+        return getFxTaskExecutor().getStatistics(priority);
+    }
+
+    /**
+     * Get the count of executions of JavaFX tasks which took more time than one pulse of the UI.
+     *
+     * @return the count of pulse overruns.
+     */
+    @FromAnyThread
+    public long getFxTaskOverruns() {
+        return getFxTaskExecutor().getOverruns();
+    }
+
     /**
      * Add a new editor task.
      *
@@ -127,33 +164,56 @@ public class ExecutorManager {
     }
 
     /**
-     * Get the list of background tasks executors.
+     * Add a new editor task with the priority.
      *
-     * @return the list of background tasks executors.
+     * @param task     the editor task.
+     * @param priority the priority.
+     * @return the handle of the added task.
      */
     @FromAnyThread
-    private @NotNull EditorTaskExecutor[] getBackgroundTaskExecutors() {
-        return backgroundTaskExecutors;
+    public @NotNull TaskHandle addJmeTask(@NotNull Runnable task, @NotNull TaskPriority priority) {
+        return getJmeTasksExecutor().addToExecute(task, priority);
     }
 
     /**
-     * Get the executor of javaFX tasks.
+     * Get the statistics of the editor tasks queue with the priority.
      *
-     * @return the executor of javaFX tasks.
+     * @param priority the priority.
+     * @return the statistics of the queue.
      */
     @FromAnyThread
-    private @NotNull EditorTaskExecutor getFxTaskExecutor() {
-        return fxEditorTaskExecutor;
+    public @NotNull TaskQueueStatistics getJmeTaskStatistics(@NotNull TaskPriority priority) {
+        return getJmeTasksExecutor().getStatistics(priority);
+    }
+
+    /**
+     * Get the statistics of executing editor tasks per task type.
+     *
+     * @return the statistics of executing editor tasks per task type.
+     */
+    @FromAnyThread
+    public @NotNull Array<TaskQueueStatistics> getJmeTaskTypeStatistics() {
+        return getJmeTasksExecutor().getTaskTypeStatistics();
     }
 
     /**
-     * Get the index of a next background executor.
+     * Get the executor of background tasks.
      *
-     * @return the index of a next background executor.
+     * @return the executor of background tasks.
      */
     @FromAnyThread
-    private @NotNull AtomicInteger getNextBackgroundTaskExecutor() {
-        return nextBackgroundTaskExecutor;
+    private @NotNull PriorityEditorTaskExecutor getBackgroundTaskExecutor() {
+        return backgroundTaskExecutor;
+    }
+
+    /**
+     * Get the executor of javaFX tasks.
+     *
+     * @return the executor of javaFX tasks.
+     */
+    @FromAnyThread
+    private @NotNull FxEditorTaskExecutor getFxTaskExecutor() {
+        return fxEditorTaskExecutor;
     }
 
     /**
@@ -7,7 +7,9 @@ import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.config.Config;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.file.cache.IconAtlasCache;
 import com.ss.editor.ui.css.CssColorTheme;
 import com.ss.editor.util.EditorUtil;
 import com.ss.editor.util.svg.SvgImageLoader;
@@ -15,6 +17,7 @@ import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.manager.InitializeManager;
 import com.ss.rlib.common.util.FileUtils;
+import com.ss.rlib.common.util.StringUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.common.util.dictionary.DictionaryFactory;
@@ -47,6 +50,9 @@ public class FileIconManager {
      */
     public static final int DEFAULT_FILE_ICON_SIZE = 16;
 
+    @NotNull
+    private static final String ICON_CACHE_FOLDER = "icon-cache";
+
     @NotNull
     private static final ObjectDictionary<String, String> EXTENSION_TO_CONTENT_TYPE = DictionaryFactory.newObjectDictionary();
 
@@ -143,12 +149,32 @@ public class FileIconManager {
     @NotNull
     private final Array<BiFunction<Path, String, String>> iconFinders;
 
+    /**
+     * The persistent atlas of rasterized icons and probed content types.
+     */
+    @NotNull
+    private final IconAtlasCache iconAtlas;
+
     private FileIconManager() {
         InitializeManager.valid(getClass());
         this.iconFinders = ArrayFactory.newArray(BiFunction.class);
         this.imageCache = DictionaryFactory.newIntegerDictionary();
         this.extensionToUrl = DictionaryFactory.newObjectDictionary();
         this.originalImageCache = DictionaryFactory.newObjectDictionary();
+        this.iconAtlas = new IconAtlasCache(Config.getAppFolderInUserHome().resolve(ICON_CACHE_FOLDER),
+                Config.STRING_VERSION);
+        this.iconAtlas.load();
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.scheduleAtFixedRate(iconAtlas::saveIfNeed, 10000);
+    }
+
+    /**
+     * Save new rasterized icons to the icon atlas.
+     */
+    @FromAnyThread
+    public void save() {
+        iconAtlas.saveIfNeed();
     }
 
     /**
@@ -218,12 +244,20 @@ public class FileIconManager {
 
             contentType = EXTENSION_TO_CONTENT_TYPE.get(extension);
 
+            if (contentType == null && tryToGetContentType) {
+                contentType = iconAtlas.getContentType(extension);
+            }
+
             if (contentType == null && tryToGetContentType) {
                 try {
                     contentType = Files.probeContentType(path);
                 } catch (final IOException e) {
                     LOGGER.warning(e);
                 }
+
+                if (contentType != null && !StringUtils.isEmpty(extension)) {
+                    iconAtlas.putContentType(extension, contentType);
+                }
             }
         }
 
@@ -341,19 +375,8 @@ public class FileIconManager {
     @FxThread
     private @NotNull Image buildImage(@NotNull final String url, @NotNull final ClassLoader classLoader,
                                       final int size) {
-        return buildImage(url, EditorUtil.getInputStream(url, classLoader), size);
-    }
-
-    @FxThread
-    private @NotNull Image buildImage(@NotNull final String url, @Nullable final InputStream in, final int size) {
-
-        final Image image;
 
-        if (in != null) {
-            image = new Image(in, size, size, false, true);
-        } else {
-            image = new Image(url, size, size, false, true);
-        }
+        final Image image = loadImage(url, classLoader, size, null);
 
         if (!url.contains("icons/svg/")) {
             originalImageCache.put(image, image);
@@ -366,21 +389,7 @@ public class FileIconManager {
         if (theme.needRepaintIcons()) {
             try {
 
-                final Color iconColor = theme.getIconColor();
-                final Image coloredImage;
-
-                SvgImageLoader.OVERRIDE_COLOR.set(iconColor);
-                try {
-
-                    if (in != null) {
-                        coloredImage = new Image(in, size, size, false, true);
-                    } else {
-                        coloredImage = new Image(url, size, size, false, true);
-                    }
-
-                } finally {
-                    SvgImageLoader.OVERRIDE_COLOR.set(null);
-                }
+                final Image coloredImage = loadImage(url, classLoader, size, theme.getIconColor());
 
                 originalImageCache.put(coloredImage, image);
 
@@ -396,6 +405,46 @@ public class FileIconManager {
         return image;
     }
 
+    /**
+     * Load an image from the icon atlas or rasterize it and put it to the icon atlas.
+     *
+     * @param url         the url.
+     * @param classLoader the class loader.
+     * @param size        the size.
+     * @param color       the color to override colors of a SVG image or null.
+     * @return the image.
+     */
+    @FxThread
+    private @NotNull Image loadImage(@NotNull final String url, @NotNull final ClassLoader classLoader,
+                                     final int size, @Nullable final Color color) {
+
+        final String key = url + '|' + size + '|' + (color == null ? "none" : color.toString());
+
+        Image image = iconAtlas.get(key);
+        if (image != null) {
+            return image;
+        }
+
+        SvgImageLoader.OVERRIDE_COLOR.set(color);
+        try (final InputStream in = EditorUtil.getInputStream(url, classLoader)) {
+
+            if (in != null) {
+                image = new Image(in, size, size, false, true);
+            } else {
+                image = new Image(url, size, size, false, true);
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        } finally {
+            SvgImageLoader.OVERRIDE_COLOR.set(null);
+        }
+
+        iconAtlas.put(key, notNull(image));
+
+        return image;
+    }
+
     /**
      * Get an original image of the image.
      *
@@ -1,35 +1,56 @@
 package com.ss.editor.manager;
 
+import static com.ss.editor.config.DefaultSettingsProvider.Defaults.PREF_DEFAULT_PREVIEW_DISK_CACHE_SIZE;
+import static com.ss.editor.config.DefaultSettingsProvider.Defaults.PREF_DEFAULT_PREVIEW_MEMORY_CACHE_SIZE;
+import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_PREVIEW_DISK_CACHE_SIZE;
+import static com.ss.editor.config.DefaultSettingsProvider.Preferences.PREF_PREVIEW_MEMORY_CACHE_SIZE;
 import static com.ss.rlib.common.util.FileUtils.getExtension;
 import static com.ss.rlib.common.util.array.ArrayFactory.asArray;
 import static java.awt.Image.SCALE_DEFAULT;
 import static java.nio.file.StandardOpenOption.*;
 import com.jme3.asset.AssetManager;
+import com.jme3.asset.AssetNotFoundException;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.shape.Box;
 import com.jme3.texture.Texture;
 import com.ss.editor.FileExtensions;
+import com.ss.editor.JmeApplication;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.config.Config;
+import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.PriorityEditorTaskExecutor;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.executor.impl.WorkStealingEditorTaskExecutor;
+import com.ss.editor.file.cache.CacheStatistics;
+import com.ss.editor.file.cache.ImageDiskCache;
+import com.ss.editor.file.cache.ImageMemoryCache;
+import com.ss.editor.file.reader.DdsMipmapReader;
 import com.ss.editor.file.reader.DdsReader;
 import com.ss.editor.file.reader.TgaReader;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.ChangedCurrentAssetFolderEvent;
 import com.ss.editor.ui.event.impl.DeletedFileEvent;
+import com.ss.editor.ui.event.impl.FileChangedEvent;
+import com.ss.editor.ui.event.impl.MovedFileEvent;
+import com.ss.editor.ui.event.impl.RenamedFileEvent;
 import com.ss.editor.util.EditorUtil;
+import com.ss.editor.util.TangentGenerator;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.manager.InitializeManager;
 import com.ss.rlib.common.util.FileUtils;
-import com.ss.rlib.common.util.StringUtils;
 import com.ss.rlib.common.util.Utils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.common.util.dictionary.DictionaryFactory;
-import com.ss.rlib.common.util.dictionary.IntegerDictionary;
 import com.ss.rlib.common.util.dictionary.ObjectDictionary;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import jme3tools.converters.ImageToAwt;
 import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
@@ -38,12 +59,20 @@ import org.jetbrains.annotations.Nullable;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
  * The class to manage previews of images to JavaFX
@@ -58,6 +87,12 @@ public class JavaFxImageManager {
     @NotNull
     private static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
 
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    @NotNull
+    private static final String PREVIEW_REQUEST = JavaFxImageManager.class.getName() + ".previewRequest";
+
     @NotNull
     private static final String PREVIEW_CACHE_FOLDER = "preview-cache";
 
@@ -80,10 +115,30 @@ public class JavaFxImageManager {
     @NotNull
     private static final Array<String> IMAGE_FORMATS = ArrayFactory.newArray(String.class);
 
+    @NotNull
+    private static final Array<String> THUMBNAIL_FORMATS = asArray(
+            FileExtensions.JME_OBJECT,
+            FileExtensions.JME_MATERIAL,
+            FileExtensions.MODEL_OBJ,
+            FileExtensions.MODEL_FBX,
+            FileExtensions.MODEL_BLENDER,
+            FileExtensions.MODEL_GLTF
+    );
+
     /**
-     * The size of cached images.
+     * The max time in seconds to wait for rendering of a thumbnail.
      */
-    private static final int CACHED_IMAGES_SIZE = 30;
+    private static final long THUMBNAIL_TIMEOUT = 10;
+
+    /**
+     * The count of bytes in one megabyte.
+     */
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * The max count of previews which can be built at the same time.
+     */
+    private static final int PREVIEW_BUILDERS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
 
     static {
         IMAGE_FORMATS.addAll(FX_FORMATS);
@@ -119,6 +174,53 @@ public class JavaFxImageManager {
         return IMAGE_FORMATS.contains(extension);
     }
 
+    /**
+     * Check the file.
+     *
+     * @param file the file
+     * @return true if a thumbnail of the file can be rendered.
+     */
+    @FromAnyThread
+    public static boolean isThumbnail(@Nullable final Path file) {
+        return file != null && THUMBNAIL_FORMATS.contains(getExtension(file));
+    }
+
+    /**
+     * The request to build a preview in the background.
+     */
+    private static class PreviewRequest {
+
+        /**
+         * The key of the requested preview.
+         */
+        @NotNull
+        private final String key;
+
+        /**
+         * The image views which wait for the preview.
+         */
+        @NotNull
+        private final Array<ImageView> targets;
+
+        /**
+         * The image to show while the preview is building or if it can't be built.
+         */
+        @NotNull
+        private final Image placeholder;
+
+        /**
+         * The handle of the background task.
+         */
+        @Nullable
+        private TaskHandle handle;
+
+        private PreviewRequest(@NotNull String key, @NotNull Image placeholder) {
+            this.key = key;
+            this.placeholder = placeholder;
+            this.targets = ArrayFactory.newArray(ImageView.class);
+        }
+    }
+
     @Nullable
     private static JavaFxImageManager instance;
 
@@ -129,40 +231,87 @@ public class JavaFxImageManager {
     }
 
     /**
-     * The cache of small images.
+     * The memory cache of loaded previews.
+     */
+    @NotNull
+    private final ImageMemoryCache memoryCache;
+
+    /**
+     * The disk cache of written previews.
+     */
+    @NotNull
+    private final ImageDiskCache diskCache;
+
+    /**
+     * The executor to build previews in the background.
      */
     @NotNull
-    private IntegerDictionary<IntegerDictionary<ObjectDictionary<String, Image>>> smallImageCache;
+    private final PriorityEditorTaskExecutor previewExecutor;
 
     /**
-     * The cache folder.
+     * The active requests to build previews by their keys.
      */
     @NotNull
-    private final Path cacheFolder;
+    private final ObjectDictionary<String, PreviewRequest> previewRequests;
 
     private JavaFxImageManager() {
         InitializeManager.valid(getClass());
 
         final Path appFolder = Config.getAppFolderInUserHome();
+        final EditorConfig editorConfig = EditorConfig.getInstance();
+
+        final int memoryCacheSize = editorConfig.getInteger(PREF_PREVIEW_MEMORY_CACHE_SIZE,
+                PREF_DEFAULT_PREVIEW_MEMORY_CACHE_SIZE);
+        final int diskCacheSize = editorConfig.getInteger(PREF_PREVIEW_DISK_CACHE_SIZE,
+                PREF_DEFAULT_PREVIEW_DISK_CACHE_SIZE);
 
-        this.cacheFolder = appFolder.resolve(PREVIEW_CACHE_FOLDER);
-        this.smallImageCache = DictionaryFactory.newIntegerDictionary();
+        this.memoryCache = new ImageMemoryCache("PreviewMemoryCache", memoryCacheSize * MB);
+        this.diskCache = new ImageDiskCache("PreviewDiskCache", appFolder.resolve(PREVIEW_CACHE_FOLDER),
+                diskCacheSize * MB);
+        this.diskCache.load();
+        this.previewExecutor = new WorkStealingEditorTaskExecutor("ImagePreviewBuilder", PREVIEW_BUILDERS);
+        this.previewRequests = DictionaryFactory.newObjectDictionary();
 
         final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.scheduleAtFixedRate(diskCache::saveIfNeed, 10000);
         executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE,
                 event -> processEvent((DeletedFileEvent) event)));
+        executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(FileChangedEvent.EVENT_TYPE,
+                event -> processEvent((FileChangedEvent) event)));
+        executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(RenamedFileEvent.EVENT_TYPE,
+                event -> processEvent((RenamedFileEvent) event)));
+        executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(MovedFileEvent.EVENT_TYPE,
+                event -> processEvent((MovedFileEvent) event)));
         executorManager.addFxTask(() -> FX_EVENT_MANAGER.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE,
                 event -> processEvent((ChangedCurrentAssetFolderEvent) event)));
     }
 
     /**
-     * Get the cache folder.
+     * Get the statistics of the memory cache of previews.
      *
-     * @return the cache folder.
+     * @return the statistics of the memory cache.
      */
     @FromAnyThread
-    private @NotNull Path getCacheFolder() {
-        return cacheFolder;
+    public @NotNull CacheStatistics getMemoryCacheStatistics() {
+        return memoryCache.getStatistics();
+    }
+
+    /**
+     * Get the statistics of the disk cache of previews.
+     *
+     * @return the statistics of the disk cache.
+     */
+    @FromAnyThread
+    public @NotNull CacheStatistics getDiskCacheStatistics() {
+        return diskCache.getStatistics();
+    }
+
+    /**
+     * Save the index of the disk cache of previews.
+     */
+    @FromAnyThread
+    public void save() {
+        diskCache.saveIfNeed();
     }
 
     /**
@@ -175,67 +324,239 @@ public class JavaFxImageManager {
      */
     @FxThread
     public @NotNull Image getImagePreview(@Nullable final Path file, final int width, final int height) {
-        if (file == null || !Files.exists(file)) {
+        if (file == null) {
             return Icons.IMAGE_512;
         }
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            final Image image = getFromCache(file.toString(), width, height);
-            if (image != null) {
-                return image;
-            }
+        final Image cached = memoryCache.get(file.toString(), width, height);
+        if (cached != null) {
+            return cached;
         }
 
-        final URL url = Utils.get(file, f -> f.toUri().toURL());
-        final FileTime lastModFile = Utils.get(file, f -> Files.getLastModifiedTime(f));
+        return buildImagePreview(file, width, height);
+    }
 
-        final Image image = getImagePreview(url, lastModFile, width, height);
+    /**
+     * Show an image preview in the image view. A cached preview is shown immediately, otherwise the image view
+     * shows a placeholder until the preview is built in the background.
+     *
+     * @param file      the image file.
+     * @param width     the required width.
+     * @param height    the required height.
+     * @param imageView the image view.
+     */
+    @FxThread
+    public void loadImagePreview(@Nullable final Path file, final int width, final int height,
+                                 @NotNull final ImageView imageView) {
+
+        cancelImagePreview(imageView);
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            putImageToCache(file.toString(), image, width, height);
+        if (file == null) {
+            imageView.setImage(Icons.IMAGE_512);
+            return;
         }
 
-        return image;
+        final Image cached = memoryCache.get(file.toString(), width, height);
+        if (cached != null) {
+            imageView.setImage(cached);
+            return;
+        }
+
+        requestImagePreview(file.toString(), width, height, imageView, Icons.IMAGE_512,
+                () -> buildImagePreview(file, width, height));
     }
 
     /**
-     * Try to get an image from the cache by path and size.
+     * Show a rendered thumbnail of the model or material file in the image view. A cached thumbnail is shown
+     * immediately, otherwise the image view shows the placeholder until the thumbnail is rendered.
      *
-     * @param path   the path to the image.
-     * @param width  the width.
-     * @param height the height.
-     * @return the image or null.
+     * @param file        the model or material file.
+     * @param width       the required width.
+     * @param height      the required height.
+     * @param imageView   the image view.
+     * @param placeholder the image to show while the thumbnail is rendering or if it can't be rendered.
+     * @see #isThumbnail(Path)
      */
     @FxThread
-    private @Nullable Image getFromCache(@NotNull final String path, final int width, final int height) {
+    public void loadThumbnail(@NotNull final Path file, final int width, final int height,
+                              @NotNull final ImageView imageView, @NotNull final Image placeholder) {
 
-        final IntegerDictionary<ObjectDictionary<String, Image>> heightImages = smallImageCache.get(width);
-        if (heightImages == null) {
-            return null;
+        cancelImagePreview(imageView);
+
+        final Image cached = memoryCache.get(file.toString(), width, height);
+        if (cached != null) {
+            imageView.setImage(cached == Icons.IMAGE_512 ? placeholder : cached);
+            return;
         }
 
-        final ObjectDictionary<String, Image> images = heightImages.get(height);
-        if (images == null) {
-            return null;
+        requestImagePreview(file.toString(), width, height, imageView, placeholder,
+                () -> buildImagePreview(file, width, height));
+    }
+
+    /**
+     * Show an image preview in the image view. A cached preview is shown immediately, otherwise the image view
+     * shows a placeholder until the preview is built in the background.
+     *
+     * @param resourcePath the resource path to an image.
+     * @param width        the required width.
+     * @param height       the required height.
+     * @param imageView    the image view.
+     */
+    @FxThread
+    public void loadImagePreview(@Nullable final String resourcePath, final int width, final int height,
+                                 @NotNull final ImageView imageView) {
+
+        cancelImagePreview(imageView);
+
+        if (resourcePath == null) {
+            imageView.setImage(Icons.IMAGE_512);
+            return;
+        }
+
+        final Image cached = memoryCache.get(resourcePath, width, height);
+        if (cached != null) {
+            imageView.setImage(cached);
+            return;
+        }
+
+        requestImagePreview(resourcePath, width, height, imageView, Icons.IMAGE_512,
+                () -> buildImagePreview(resourcePath, width, height));
+    }
+
+    /**
+     * Cancel waiting a preview for the image view. The building of the preview is cancelled as well if it isn't
+     * started yet and no other image views wait for it.
+     *
+     * @param imageView the image view.
+     */
+    @FxThread
+    public void cancelImagePreview(@NotNull final ImageView imageView) {
+
+        final PreviewRequest request = (PreviewRequest) imageView.getProperties().remove(PREVIEW_REQUEST);
+        if (request == null) {
+            return;
+        }
+
+        request.targets.fastRemove(imageView);
+
+        final TaskHandle handle = request.handle;
+
+        if (request.targets.isEmpty() && handle != null && handle.cancel()) {
+            previewRequests.remove(request.key);
+        }
+    }
+
+    /**
+     * Put the image view to the waiting list of the preview or start building the preview in the background.
+     *
+     * @param source      the source of the image.
+     * @param width       the required width.
+     * @param height      the required height.
+     * @param imageView   the image view.
+     * @param placeholder the image to show while the preview is building or if it can't be built.
+     * @param builder     the builder of the preview.
+     */
+    @FxThread
+    private void requestImagePreview(@NotNull final String source, final int width, final int height,
+                                     @NotNull final ImageView imageView, @NotNull final Image placeholder,
+                                     @NotNull final Supplier<Image> builder) {
+
+        final String key = source + '|' + width + 'x' + height;
+
+        PreviewRequest request = previewRequests.get(key);
+
+        if (request == null) {
+
+            final PreviewRequest newRequest = new PreviewRequest(key, placeholder);
+            newRequest.handle = previewExecutor.execute(() -> {
+
+                Image image;
+                try {
+                    image = builder.get();
+                } catch (final Exception e) {
+                    EditorUtil.handleException(LOGGER, this, e);
+                    image = Icons.IMAGE_512;
+                }
+
+                final Image result = image == Icons.IMAGE_512 ? newRequest.placeholder : image;
+                EXECUTOR_MANAGER.addFxTask(() -> applyImagePreview(newRequest, result));
+
+            }, TaskPriority.INTERACTIVE);
+
+            request = newRequest;
+            previewRequests.put(key, request);
+        }
+
+        request.targets.add(imageView);
+
+        imageView.getProperties().put(PREVIEW_REQUEST, request);
+        imageView.setImage(request.placeholder);
+    }
+
+    /**
+     * Show the built preview in all image views which are still waiting for it.
+     *
+     * @param request the request.
+     * @param image   the built preview.
+     */
+    @FxThread
+    private void applyImagePreview(@NotNull final PreviewRequest request, @NotNull final Image image) {
+
+        if (previewRequests.get(request.key) == request) {
+            previewRequests.remove(request.key);
+        }
+
+        for (final ImageView imageView : request.targets) {
+            if (imageView.getProperties().get(PREVIEW_REQUEST) == request) {
+                imageView.getProperties().remove(PREVIEW_REQUEST);
+                imageView.setImage(image);
+            }
+        }
+
+        request.targets.clear();
+    }
+
+    /**
+     * Build an image preview and put it to the memory cache.
+     *
+     * @param file   the image file.
+     * @param width  the required width.
+     * @param height the required height.
+     * @return the image.
+     */
+    @FromAnyThread
+    private @NotNull Image buildImagePreview(@NotNull final Path file, final int width, final int height) {
+
+        if (!Files.exists(file)) {
+            return Icons.IMAGE_512;
         }
 
-        return images.get(path);
+        final URL url = Utils.get(file, f -> f.toUri().toURL());
+        final FileTime lastModFile = Utils.get(file, f -> Files.getLastModifiedTime(f));
+
+        final Image image = getImagePreview(url, lastModFile, width, height);
+
+        putImageToCache(file.toString(), image, width, height);
+
+        return image;
     }
 
     /**
-     * Put the image to the cache.
+     * Put the image to the memory cache.
      *
-     * @param path   the ath to the image.
+     * @param source the source of the image.
      * @param image  the image.
      * @param width  the width.
      * @param height the height.
      */
-    @FxThread
-    private void putImageToCache(@NotNull final String path, @NotNull final Image image, final int width,
+    @FromAnyThread
+    private void putImageToCache(@NotNull final String source, @NotNull final Image image, final int width,
                                  final int height) {
-        smallImageCache.get(width, DictionaryFactory::newIntegerDictionary)
-                .get(height, DictionaryFactory::newObjectDictionary)
-                .put(path, image);
+
+        // the default image is shared so it doesn't take any additional memory
+        final long size = image == Icons.IMAGE_512 ? 0 : (long) image.getWidth() * (long) image.getHeight() * 4;
+
+        memoryCache.put(source, width, height, image, size);
     }
 
     /**
@@ -248,14 +569,29 @@ public class JavaFxImageManager {
      */
     @FxThread
     public @NotNull Image getImagePreview(@Nullable final String resourcePath, final int width, final int height) {
+        if (resourcePath == null) {
+            return Icons.IMAGE_512;
+        }
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            final Image image = getFromCache(resourcePath, width, height);
-            if (image != null) {
-                return image;
-            }
+        final Image cached = memoryCache.get(resourcePath, width, height);
+        if (cached != null) {
+            return cached;
         }
 
+        return buildImagePreview(resourcePath, width, height);
+    }
+
+    /**
+     * Build an image preview and put it to the memory cache.
+     *
+     * @param resourcePath the resource path to an image.
+     * @param width        the required width.
+     * @param height       the required height.
+     * @return the image.
+     */
+    @FromAnyThread
+    private @NotNull Image buildImagePreview(@NotNull final String resourcePath, final int width, final int height) {
+
         final ResourceManager resourceManager = ResourceManager.getInstance();
         URL url = resourceManager.tryToFindResource(resourcePath);
 
@@ -271,36 +607,45 @@ public class JavaFxImageManager {
 
         final Image image = getImagePreview(url, null, width, height);
 
-        if (width <= CACHED_IMAGES_SIZE && height <= CACHED_IMAGES_SIZE) {
-            putImageToCache(resourcePath, image, width, height);
-        }
+        putImageToCache(resourcePath, image, width, height);
 
         return image;
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull Image getImagePreview(@NotNull URL url, @Nullable final FileTime lastModFile, final int width,
                                            final int height) {
 
         final String externalForm = url.toExternalForm();
-        final String fileHash = StringUtils.toMD5(externalForm) + ".png";
+        final Path cachedFile = diskCache.get(externalForm, width, height);
 
-        final Path cacheFolder = getCacheFolder();
-        final Path imageFolder = cacheFolder.resolve(String.valueOf(width)).resolve(String.valueOf(height));
-        final Path cacheFile = imageFolder.resolve(fileHash);
+        if (cachedFile != null) {
 
-        if (Files.exists(cacheFile)) {
-
-            final FileTime lastModCacheFile = Utils.get(cacheFile, file -> Files.getLastModifiedTime(file));
+            final FileTime lastModCacheFile = Utils.get(cachedFile, file -> Files.getLastModifiedTime(file));
 
             if (lastModFile == null || lastModCacheFile.compareTo(lastModFile) >= 0) {
-                final String pathToCache = Utils.get(cacheFile, first -> first.toUri().toURL().toExternalForm());
+                final String pathToCache = Utils.get(cachedFile, first -> first.toUri().toURL().toExternalForm());
                 return new Image(pathToCache, width, height, false, false);
             }
+
+            diskCache.invalidate(externalForm);
+        }
+
+        final Path cacheFile = diskCache.prepare(externalForm, width, height);
+        final Image image = readImagePreview(url, width, height, cacheFile);
+
+        if (Files.exists(cacheFile)) {
+            diskCache.commit(externalForm, width, height);
         }
 
-        Utils.run(cacheFile, first -> Files.createDirectories(first.getParent()));
+        return image;
+    }
 
+    @FromAnyThread
+    private @NotNull Image readImagePreview(@NotNull final URL url, final int width, final int height,
+                                            @NotNull final Path cacheFile) {
+
+        final String externalForm = url.toExternalForm();
         final String extension = getExtension(externalForm);
 
         if (FX_FORMATS.contains(extension)) {
@@ -311,15 +656,20 @@ public class JavaFxImageManager {
             return readIOImage(url, width, height, cacheFile);
         } else if (FileExtensions.IMAGE_DDS.equals(extension)) {
 
-            final byte[] content = Utils.get(url, first -> IOUtils.toByteArray(first.openStream()));
-            final int[] pixels = DdsReader.read(content, DdsReader.ARGB, 0);
-            final int currentWidth = DdsReader.getWidth(content);
-            final int currentHeight = DdsReader.getHeight(content);
+            BufferedImage read = readDdsMipmap(url, width, height);
 
-            final BufferedImage read = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
-            read.setRGB(0, 0, currentWidth, currentHeight, pixels, 0, currentWidth);
+            if (read == null) {
 
-            return scaleAndWrite(width, height, cacheFile, read, currentWidth, currentHeight);
+                final byte[] content = Utils.get(url, first -> IOUtils.toByteArray(first.openStream()));
+                final int[] pixels = DdsReader.read(content, DdsReader.ARGB, 0);
+                final int currentWidth = DdsReader.getWidth(content);
+                final int currentHeight = DdsReader.getHeight(content);
+
+                read = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_ARGB);
+                read.setRGB(0, 0, currentWidth, currentHeight, pixels, 0, currentWidth);
+            }
+
+            return scaleAndWrite(width, height, cacheFile, read, read.getWidth(), read.getHeight());
 
         } else if (FileExtensions.IMAGE_TGA.equals(extension)) {
 
@@ -337,12 +687,112 @@ public class JavaFxImageManager {
             final int imageHeight = awtImage.getHeight();
 
             return scaleAndWrite(width, height, cacheFile, awtImage, imageWidth, imageHeight);
+
+        } else if (THUMBNAIL_FORMATS.contains(extension)) {
+            return renderThumbnail(url, width, height, cacheFile);
         }
 
         return Icons.IMAGE_512;
     }
 
-    @FxThread
+    /**
+     * Render a thumbnail of the model or material by the thumbnail render state.
+     *
+     * @param url       the url to the model or material file.
+     * @param width     the required width.
+     * @param height    the required height.
+     * @param cacheFile the file to write the thumbnail.
+     * @return the thumbnail.
+     */
+    @FromAnyThread
+    private @NotNull Image renderThumbnail(@NotNull final URL url, final int width, final int height,
+                                           @NotNull final Path cacheFile) {
+
+        if (!"file".equals(url.getProtocol())) {
+            return Icons.IMAGE_512;
+        }
+
+        final Path assetFile = EditorUtil.getAssetFile(Utils.get(url, first -> Paths.get(first.toURI())));
+        if (assetFile == null) {
+            return Icons.IMAGE_512;
+        }
+
+        final String assetPath = EditorUtil.toAssetPath(assetFile);
+        final AssetManager assetManager = EditorUtil.getAssetManager();
+        final Spatial scene;
+
+        try {
+
+            if (FileExtensions.JME_MATERIAL.equals(getExtension(assetPath))) {
+                final Geometry box = new Geometry("Box", new Box(2, 2, 2));
+                box.setMaterial(assetManager.loadMaterial(assetPath));
+                TangentGenerator.useMikktspaceGenerator(box);
+                scene = box;
+            } else {
+                scene = assetManager.loadModel(assetPath);
+            }
+
+        } catch (final AssetNotFoundException | UnsupportedOperationException | IllegalArgumentException e) {
+            LOGGER.warning(e);
+            return Icons.IMAGE_512;
+        }
+
+        final JmeApplication jmeApplication = JmeApplication.getInstance();
+        final CompletableFuture<BufferedImage> result = jmeApplication.getThumbnailRenderState()
+                .render(scene);
+
+        final BufferedImage thumbnail;
+        try {
+            thumbnail = result.get(THUMBNAIL_TIMEOUT, TimeUnit.SECONDS);
+        } catch (final InterruptedException | ExecutionException | TimeoutException e) {
+            result.cancel(false);
+            LOGGER.warning(e);
+            return Icons.IMAGE_512;
+        }
+
+        return scaleAndWrite(width, height, cacheFile, thumbnail, thumbnail.getWidth(), thumbnail.getHeight());
+    }
+
+    /**
+     * Read the smallest mipmap level of the local DDS file which is enough to build the preview.
+     *
+     * @param url    the url to the DDS file.
+     * @param width  the required width.
+     * @param height the required height.
+     * @return the read image or null if the file isn't local or its format isn't supported.
+     */
+    @FromAnyThread
+    private @Nullable BufferedImage readDdsMipmap(@NotNull final URL url, final int width, final int height) {
+
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try (final DdsMipmapReader reader = new DdsMipmapReader(Paths.get(url.toURI()))) {
+
+            if (!reader.isSupported()) {
+                return null;
+            }
+
+            final int level = reader.selectMipmap(width, height);
+            final int levelWidth = reader.getWidth(level);
+            final int levelHeight = reader.getHeight(level);
+            final int[] pixels = new int[levelWidth * levelHeight];
+
+            reader.read(level, pixels);
+
+            final BufferedImage image = new BufferedImage(levelWidth, levelHeight, BufferedImage.TYPE_INT_ARGB);
+            image.setRGB(0, 0, levelWidth, levelHeight, pixels, 0, levelWidth);
+
+            return image;
+
+        } catch (final IOException | URISyntaxException | RuntimeException e) {
+            LOGGER.warning(e);
+            return null;
+        }
+    }
+
+    @FromAnyThread
     private void writeDefaultToCache(@NotNull final Path cacheFile) {
         final BufferedImage bufferedImage = SwingFXUtils.fromFXImage(Icons.IMAGE_512, null);
         try (final OutputStream out = Files.newOutputStream(cacheFile, WRITE, TRUNCATE_EXISTING, CREATE)) {
@@ -352,7 +802,7 @@ public class JavaFxImageManager {
         }
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull Image readIOImage(@NotNull final URL url, final int width, final int height,
                                        @NotNull final Path cacheFile) {
 
@@ -367,7 +817,7 @@ public class JavaFxImageManager {
         return scaleAndWrite(width, height, cacheFile, read, read.getWidth(), read.getHeight());
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull Image readJMETexture(final int width, final int height, @NotNull final String externalForm,
                                           @NotNull final Path cacheFile) {
 
@@ -388,7 +838,7 @@ public class JavaFxImageManager {
         return scaleAndWrite(width, height, cacheFile, textureImage, imageWidth, imageHeight);
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull Image readFxImage(final int width, final int height, @NotNull final String externalForm,
                                        @NotNull final Path cacheFile) {
 
@@ -420,7 +870,7 @@ public class JavaFxImageManager {
         return image;
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull Image scaleAndWrite(final int targetWidth, final int targetHeight, @NotNull final Path cacheFile,
                                          @NotNull final BufferedImage textureImage, final int currentWidth,
                                          final int currentHeight) {
@@ -436,7 +886,7 @@ public class JavaFxImageManager {
         }
     }
 
-    @FxThread
+    @FromAnyThread
     private @NotNull BufferedImage scaleImage(final int width, final int height, @NotNull final BufferedImage read,
                                               final int imageWidth, final int imageHeight) {
 
@@ -463,13 +913,59 @@ public class JavaFxImageManager {
         return bufferedImage;
     }
 
+    /**
+     * Remove all cached previews of the file or of all files in the folder.
+     *
+     * @param file      the file.
+     * @param directory true if the file is a folder.
+     */
+    @FromAnyThread
+    private void invalidate(@NotNull final Path file, final boolean directory) {
+
+        final String externalForm = FileUtils.toUrl(file).toExternalForm();
+        final Path assetFile = EditorUtil.getAssetFile(file);
+
+        if (!directory) {
+            memoryCache.invalidate(file.toString());
+            diskCache.invalidate(externalForm);
+            if (assetFile != null) {
+                memoryCache.invalidate(EditorUtil.toAssetPath(assetFile));
+            }
+            return;
+        }
+
+        memoryCache.invalidateAll(file.toString() + File.separator);
+        diskCache.invalidateAll(externalForm.endsWith("/") ? externalForm : externalForm + "/");
+
+        if (assetFile != null) {
+            memoryCache.invalidateAll(EditorUtil.toAssetPath(assetFile) + "/");
+        }
+    }
+
     @FxThread
     private void processEvent(@NotNull final DeletedFileEvent event) {
-        //TODO need to add remove from cache
+        invalidate(event.getFile(), event.isDirectory());
+    }
+
+    @FxThread
+    private void processEvent(@NotNull final FileChangedEvent event) {
+        invalidate(event.getFile(), false);
+    }
+
+    @FxThread
+    private void processEvent(@NotNull final RenamedFileEvent event) {
+        invalidate(event.getPrevFile(), Files.isDirectory(event.getNewFile()));
+    }
+
+    @FxThread
+    private void processEvent(@NotNull final MovedFileEvent event) {
+        invalidate(event.getPrevFile(), Files.isDirectory(event.getNewFile()));
     }
 
     @FxThread
     private void processEvent(@NotNull final ChangedCurrentAssetFolderEvent event) {
-        smallImageCache.clear();
+        LOGGER.debug(this, memoryCache.getStatistics().toString());
+        LOGGER.debug(this, diskCache.getStatistics().toString());
+        memoryCache.clear();
     }
 }
@@ -6,10 +6,8 @@ import static com.ss.editor.util.EditorUtil.*;
 import static com.ss.rlib.common.util.ArrayUtils.contains;
 import static com.ss.rlib.common.util.FileUtils.getFiles;
 import static com.ss.rlib.common.util.FileUtils.toUrl;
-import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static com.ss.rlib.common.util.Utils.get;
 import static com.ss.rlib.common.util.array.ArrayFactory.toArray;
-import static com.ss.rlib.common.util.ref.ReferenceFactory.newRef;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.file.StandardWatchEventKinds.*;
 import com.jme3.asset.AssetEventListener;
@@ -18,13 +16,15 @@ import com.jme3.asset.AssetManager;
 import com.ss.editor.EditorThread;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.asset.cache.AssetCacheIndex;
 import com.ss.editor.config.EditorConfig;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.index.AssetFileIndex;
+import com.ss.editor.file.watch.FileChangesCollector;
 import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.*;
 import com.ss.editor.util.EditorUtil;
-import com.ss.editor.util.SimpleFileVisitor;
-import com.ss.editor.util.SimpleFolderVisitor;
-import com.ss.rlib.common.concurrent.util.ThreadUtils;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.manager.InitializeManager;
@@ -34,20 +34,22 @@ import com.ss.rlib.common.util.Utils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayComparator;
 import com.ss.rlib.common.util.array.ArrayFactory;
-import com.ss.rlib.common.util.dictionary.DictionaryFactory;
-import com.ss.rlib.common.util.dictionary.ObjectDictionary;
-import com.ss.rlib.common.util.ref.Reference;
-import com.ss.rlib.common.util.ref.ReferenceType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.*;
-import java.nio.file.attribute.FileTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * The class to manage working with resources of an editor.
@@ -68,9 +70,22 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @NotNull
     private static final ArrayComparator<String> STRING_ARRAY_COMPARATOR = StringUtils::compareIgnoreCase;
 
+    @NotNull
+    private static final String FILE_INDEX = "file-index";
+
     @NotNull
     private static final WatchService WATCH_SERVICE;
 
+    /**
+     * The time in ms without new watch events after which collected events are published.
+     */
+    private static final long WATCH_QUIET_PERIOD = 100;
+
+    /**
+     * The max time in ms to collect watch events before publishing them.
+     */
+    private static final long WATCH_MAX_WINDOW = 1000;
+
     static {
         try {
             WATCH_SERVICE = FileSystems.getDefault().newWatchService();
@@ -90,22 +105,16 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * The table with last modify dates.
-     */
-    @NotNull
-    private final ObjectDictionary<String, Reference> assetCacheTable;
-
-    /**
-     * The table with interested resources.
+     * The index of cached assets to invalidate them by file events.
      */
     @NotNull
-    private final ObjectDictionary<String, Array<String>> interestedResources;
+    private final AssetCacheIndex assetCacheIndex;
 
     /**
      * The table with interested resources in the classpath.
      */
     @NotNull
-    private final ObjectDictionary<String, Array<String>> interestedResourcesInClasspath;
+    private final ConcurrentMap<String, Set<String>> interestedResourcesInClasspath;
 
     /**
      * The list of additional ENVs.
@@ -131,18 +140,28 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @NotNull
     private final Array<WatchKey> watchKeys;
 
+    /**
+     * The index of files in the current asset folder.
+     */
+    @Nullable
+    private volatile AssetFileIndex fileIndex;
+
+    /**
+     * True if resources in the classpath were prepared.
+     */
+    private boolean classpathPrepared;
+
     private ResourceManager() {
         InitializeManager.valid(getClass());
 
         final ClasspathManager classpathManager = ClasspathManager.getInstance();
 
-        this.assetCacheTable = DictionaryFactory.newObjectDictionary();
+        this.assetCacheIndex = AssetCacheIndex.getInstance();
         this.additionalEnvs = ArrayFactory.newArray(Path.class);
         this.watchKeys = ArrayFactory.newArray(WatchKey.class);
         this.classLoaders = ArrayFactory.newArray(URLClassLoader.class);
         this.resourcesInClasspath = classpathManager.getAllResources();
-        this.interestedResources = DictionaryFactory.newObjectDictionary();
-        this.interestedResourcesInClasspath = DictionaryFactory.newObjectDictionary();
+        this.interestedResourcesInClasspath = new ConcurrentHashMap<>();
 
         final InitializationManager initializationManager = InitializationManager.getInstance();
         initializationManager.addOnFinishLoading(() -> {
@@ -150,8 +169,6 @@ public class ResourceManager extends EditorThread implements AssetEventListener
             final FxEventManager fxEventManager = FxEventManager.getInstance();
             fxEventManager.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE, event -> processChangeAsset());
             fxEventManager.addEventHandler(RequestedRefreshAssetEvent.EVENT_TYPE, event -> processRefreshAsset());
-            fxEventManager.addEventHandler(CreatedFileEvent.EVENT_TYPE, event -> processEvent((CreatedFileEvent) event));
-            fxEventManager.addEventHandler(DeletedFileEvent.EVENT_TYPE, event -> processEvent((DeletedFileEvent) event));
         });
 
         initializationManager.addOnAfterCreateJmeContext(() -> {
@@ -210,19 +227,19 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * @return the table with interested resources.
+     * @return the table with interested resources in the classpath.
      */
     @FromAnyThread
-    private @NotNull ObjectDictionary<String, Array<String>> getInterestedResources() {
-        return interestedResources;
+    private @NotNull ConcurrentMap<String, Set<String>> getInterestedResourcesInClasspath() {
+        return interestedResourcesInClasspath;
     }
 
     /**
-     * @return the table with interested resources in the classpath.
+     * @return the index of files in the current asset folder or null.
      */
     @FromAnyThread
-    private @NotNull ObjectDictionary<String, Array<String>> getInterestedResourcesInClasspath() {
-        return interestedResourcesInClasspath;
+    private @Nullable AssetFileIndex getFileIndex() {
+        return fileIndex;
     }
 
     /**
@@ -233,75 +250,41 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @FromAnyThread
     public synchronized void registerInterestedFileType(@NotNull final String fileExtension) {
 
-        ObjectDictionary<String, Array<String>> resources = getInterestedResources();
+        final ConcurrentMap<String, Set<String>> resources = getInterestedResourcesInClasspath();
 
-        if(!resources.containsKey(fileExtension)) {
-            resources.put(fileExtension, ArrayFactory.newArray(String.class));
+        if (resources.containsKey(fileExtension)) {
+            return;
         }
 
-        resources = getInterestedResourcesInClasspath();
+        final Set<String> toStore = ConcurrentHashMap.newKeySet();
 
-        if(!resources.containsKey(fileExtension)) {
-            resources.put(fileExtension, ArrayFactory.newArray(String.class));
+        if (classpathPrepared) {
+            getResourcesInClasspath().forEach(resource -> {
+                if (fileExtension.equals(FileUtils.getExtension(resource))) {
+                    toStore.add(resource);
+                }
+            });
         }
+
+        resources.put(fileExtension, toStore);
     }
 
     @Override
     @FromAnyThread
-    public synchronized void assetLoaded(@NotNull final AssetKey key) {
-
-        if (key.getCacheType() == null) {
-            return;
-        }
-
-        final String extension = key.getExtension();
-        if (StringUtils.isEmpty(extension)) {
-            return;
-        }
-
-        final ObjectDictionary<String, Reference> table = getAssetCacheTable();
-        final Reference reference = notNull(table.get(key.getName(), () -> newRef(ReferenceType.LONG)));
-        reference.setLong(currentTimeMillis());
+    public void assetLoaded(@NotNull final AssetKey key) {
+        final AssetCacheIndex cacheIndex = getAssetCacheIndex();
+        cacheIndex.onLoaded(key);
     }
 
     @Override
     @FromAnyThread
-    public synchronized void assetRequested(@NotNull final AssetKey key) {
+    public void assetRequested(@NotNull final AssetKey key) {
 
-        if (key.getCacheType() == null) {
-            return;
-        }
-
-        final String extension = key.getExtension();
-        if (StringUtils.isEmpty(extension)){
-            return;
-        }
-
-        final ObjectDictionary<String, Reference> table = getAssetCacheTable();
-        final Reference reference = table.get(key.getName());
-        if (reference == null) {
-            return;
-        }
-
-        final Path realFile = getRealFile(Paths.get(key.getName()));
-        if (realFile == null || !Files.exists(realFile)) {
-            return;
-        }
-
-        try {
-
-            final long timestamp = reference.getLong();
-
-            final FileTime lastModifiedTime = Files.getLastModifiedTime(realFile);
-            if (lastModifiedTime.to(TimeUnit.MILLISECONDS) <= timestamp) {
-                return;
-            }
+        final AssetCacheIndex cacheIndex = getAssetCacheIndex();
 
+        if (cacheIndex.onRequested(key) && key.getCacheType() != null) {
             final AssetManager assetManager = EditorUtil.getAssetManager();
             assetManager.deleteFromCache(key);
-
-        } catch (final IOException e) {
-            LOGGER.warning(e);
         }
     }
 
@@ -339,36 +322,35 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * @return the table with last modify dates.
+     * @return the index of cached assets.
      */
     @FromAnyThread
-    private @NotNull ObjectDictionary<String, Reference> getAssetCacheTable() {
-        return assetCacheTable;
+    private @NotNull AssetCacheIndex getAssetCacheIndex() {
+        return assetCacheIndex;
     }
 
     /**
-     * Handle a removed file.
+     * Handle a deleted file in an asset folder.
+     *
+     * @param file      the deleted file.
+     * @param directory true if the file was a directory.
      */
     @FromAnyThread
-    private synchronized void processEvent(@NotNull final DeletedFileEvent event) {
+    private synchronized void handleDeletedFile(@NotNull final Path file, final boolean directory) {
+
+        final AssetFileIndex fileIndex = getFileIndex();
 
-        if (event.isDirectory()) {
+        if (fileIndex != null) {
+            fileIndex.remove(file, directory);
+        }
+
+        if (directory) {
+            removeWatchKeysFor(file);
             return;
         }
 
-        final Path file = event.getFile();
         final String extension = FileUtils.getExtension(file);
 
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        final Array<String> resources = interestedResources.get(extension);
-
-        final Path assetFile = notNull(getAssetFile(file), "Not found asset file for " + file);
-        final String assetPath = toAssetPath(assetFile);
-
-        if (resources != null) {
-            resources.fastRemove(assetPath);
-        }
-
         if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
 
             final AssetManager assetManager = EditorUtil.getAssetManager();
@@ -385,15 +367,6 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         }
     }
 
-    /**
-     * Handle a created file.
-     */
-    @FromAnyThread
-    private synchronized void processEvent(@NotNull final CreatedFileEvent event) {
-        if (event.isDirectory()) return;
-        handleFile(event.getFile());
-    }
-
     /**
      * @return the list of resources in the classpath.
      */
@@ -406,17 +379,19 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      * Prepare classpath resources.
      */
     @FromAnyThread
-    private void prepareClasspathResources() {
+    private synchronized void prepareClasspathResources() {
 
-        final ObjectDictionary<String, Array<String>> resources = getInterestedResourcesInClasspath();
+        final ConcurrentMap<String, Set<String>> resources = getInterestedResourcesInClasspath();
         final Array<String> resourcesInClasspath = getResourcesInClasspath();
         resourcesInClasspath.forEach(resource -> {
             final String extension = FileUtils.getExtension(resource);
-            final Array<String> toStore = resources.get(extension);
+            final Set<String> toStore = resources.get(extension);
             if (toStore != null) {
                 toStore.add(resource);
             }
         });
+
+        classpathPrepared = true;
     }
 
     /**
@@ -436,7 +411,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      * @return the list of all available material definitions.
      */
     @FromAnyThread
-    public synchronized @NotNull Array<String> getAvailableResources(@NotNull final String extension) {
+    public @NotNull Array<String> getAvailableResources(@NotNull final String extension) {
         final Array<String> result = ArrayFactory.newArray(String.class);
         addAvailableResources(result, extension);
         return result;
@@ -449,23 +424,20 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      * @param extension the interested extension.
      */
     @FromAnyThread
-    public synchronized void addAvailableResources(@NotNull final Array<String> result,
-                                                   @NotNull final String extension) {
+    public void addAvailableResources(@NotNull final Array<String> result, @NotNull final String extension) {
 
-        final ObjectDictionary<String, Array<String>> resourcesInClasspath = getInterestedResourcesInClasspath();
-        final ObjectDictionary<String, Array<String>> resources = getInterestedResources();
+        final AssetFileIndex fileIndex = getFileIndex();
+        final Set<String> inAsset = fileIndex == null ? Collections.emptySet() : fileIndex.getFiles(extension);
+        final Set<String> inClassPath = getInterestedResourcesInClasspath().get(extension);
 
-        final Array<String> inAsset = resources.get(extension);
-        final Array<String> inClassPath = resourcesInClasspath.get(extension);
-
-        if (inAsset != null) {
-            result.addAll(inAsset);
-        }
+        inAsset.forEach(result::add);
 
         if (inClassPath != null) {
-            inClassPath.forEach(result,
-                    (resource, toStore) -> !toStore.contains(resource),
-                    (resource, toStore) -> toStore.add(resource));
+            for (final String resource : inClassPath) {
+                if (!inAsset.contains(resource)) {
+                    result.add(resource);
+                }
+            }
         }
 
         result.sort(STRING_ARRAY_COMPARATOR);
@@ -477,9 +449,6 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @FromAnyThread
     public synchronized void reload() {
 
-        final ObjectDictionary<String, Reference> lastModifyTable = getAssetCacheTable();
-        lastModifyTable.clear();
-
         final Array<WatchKey> watchKeys = getWatchKeys();
         watchKeys.forEach(WatchKey::cancel);
         watchKeys.clear();
@@ -492,24 +461,55 @@ public class ResourceManager extends EditorThread implements AssetEventListener
 
         assetManager.clearCache();
 
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        interestedResources.forEach((extension, resources) -> resources.clear());
+        final AssetCacheIndex cacheIndex = getAssetCacheIndex();
+        cacheIndex.clear();
+
+        saveFileIndex();
 
         final EditorConfig editorConfig = EditorConfig.getInstance();
         final Path currentAsset = editorConfig.getCurrentAsset();
-        if (currentAsset == null) return;
 
-        try {
-            Files.walkFileTree(currentAsset, (SimpleFileVisitor) (file, attrs) -> handleFile(file));
-        } catch (IOException e) {
-            LOGGER.warning(e);
+        AssetFileIndex fileIndex = getFileIndex();
+
+        if (fileIndex != null && !fileIndex.getAssetFolder().equals(currentAsset)) {
+            fileIndex = null;
         }
 
-        try {
-            watchKeys.add(currentAsset.register(WATCH_SERVICE, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
-            Files.walkFileTree(currentAsset, (SimpleFolderVisitor) (file, attrs) -> registerFiles(watchKeys, file));
-        } catch (final IOException e) {
-            LOGGER.warning(e);
+        if (currentAsset == null) {
+            this.fileIndex = null;
+            return;
+        }
+
+        if (fileIndex == null) {
+            final Path indexFile = currentAsset.resolve(WorkspaceManager.FOLDER_EDITOR).resolve(FILE_INDEX);
+            fileIndex = new AssetFileIndex(currentAsset, indexFile);
+            fileIndex.load();
+        }
+
+        final List<Path> folders = fileIndex.reconcile();
+
+        this.fileIndex = fileIndex;
+
+        fileIndex.getFiles(FileExtensions.JAVA_LIBRARY)
+                .forEach(assetPath -> registerClassLoader(currentAsset.resolve(assetPath)));
+
+        for (final Path folder : folders) {
+            registerFiles(watchKeys, folder);
+        }
+
+        fileIndex.saveIfNeed();
+    }
+
+    /**
+     * Save the index of files in the current asset folder if it was changed.
+     */
+    @FromAnyThread
+    public void saveFileIndex() {
+
+        final AssetFileIndex fileIndex = getFileIndex();
+
+        if (fileIndex != null) {
+            fileIndex.saveIfNeed();
         }
     }
 
@@ -524,33 +524,42 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     @FromAnyThread
     private synchronized void handleFile(@NotNull final Path file) {
 
+        final AssetFileIndex fileIndex = getFileIndex();
+
+        if (fileIndex != null) {
+            fileIndex.update(file);
+        }
+
         if (Files.isDirectory(file)) {
+            registerWatchKeys(file);
             return;
         }
 
         final String extension = FileUtils.getExtension(file);
 
-        final ObjectDictionary<String, Array<String>> interestedResources = getInterestedResources();
-        final Array<String> toStore = interestedResources.get(extension);
-
-        if (toStore != null) {
-            final Path assetFile = notNull(getAssetFile(file), "Not found asset file for " + file);
-            toStore.add(toAssetPath(assetFile));
+        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+            registerClassLoader(file);
         }
+    }
 
-        if (extension.endsWith(FileExtensions.JAVA_LIBRARY)) {
+    /**
+     * Register a class loader for the java library.
+     *
+     * @param file the java library.
+     */
+    @FromAnyThread
+    private synchronized void registerClassLoader(@NotNull final Path file) {
 
-            final AssetManager assetManager = EditorUtil.getAssetManager();
-            final URL url = get(file, FileUtils::toUrl);
+        final AssetManager assetManager = EditorUtil.getAssetManager();
+        final URL url = get(file, FileUtils::toUrl);
 
-            final Array<URLClassLoader> classLoaders = getClassLoaders();
-            final URLClassLoader oldLoader = classLoaders.search(url, (loader, toCheck) -> contains(loader.getURLs(), toCheck));
-            if (oldLoader != null) return;
+        final Array<URLClassLoader> classLoaders = getClassLoaders();
+        final URLClassLoader oldLoader = classLoaders.search(url, (loader, toCheck) -> contains(loader.getURLs(), toCheck));
+        if (oldLoader != null) return;
 
-            final URLClassLoader newLoader = new URLClassLoader(toArray(url), getClass().getClassLoader());
-            classLoaders.add(newLoader);
-            assetManager.addClassLoader(newLoader);
-        }
+        final URLClassLoader newLoader = new URLClassLoader(toArray(url), getClass().getClassLoader());
+        classLoaders.add(newLoader);
+        assetManager.addClassLoader(newLoader);
     }
 
     @Override
@@ -558,65 +567,183 @@ public class ResourceManager extends EditorThread implements AssetEventListener
         super.run();
 
         while (true) {
-            ThreadUtils.sleep(200);
 
-            final Array<WatchKey> watchKeys = getWatchKeys();
+            final FileChangesCollector collector = new FileChangesCollector();
+
+            try {
 
-            List<WatchEvent<?>> watchEvents = null;
-            WatchKey watchKey = null;
+                WatchKey watchKey = WATCH_SERVICE.take();
 
-            synchronized (this) {
-                for (final WatchKey key : watchKeys) {
-                    watchKey = key;
-                    watchEvents = key.pollEvents();
-                    if (!watchEvents.isEmpty()) break;
+                final long deadline = currentTimeMillis() + WATCH_MAX_WINDOW;
+
+                // collect events until a quiet period or the end of the window to publish bursts as one batch
+                while (watchKey != null) {
+
+                    collectEvents(watchKey, collector);
+
+                    final long timeout = Math.min(WATCH_QUIET_PERIOD, deadline - currentTimeMillis());
+                    watchKey = timeout > 0 ? WATCH_SERVICE.poll(timeout, TimeUnit.MILLISECONDS) : null;
                 }
+
+            } catch (final InterruptedException | ClosedWatchServiceException e) {
+                LOGGER.warning(this, e);
+                return;
+            }
+
+            if (!collector.isEmpty()) {
+                handleChanges(collector);
             }
+        }
+    }
+
+    /**
+     * Collect all pending events of the watch key and reset it.
+     *
+     * @param watchKey  the watch key.
+     * @param collector the collector of events.
+     */
+    @FromAnyThread
+    private void collectEvents(@NotNull final WatchKey watchKey, @NotNull final FileChangesCollector collector) {
 
-            if (watchEvents == null || watchEvents.isEmpty()) continue;
+        final Path folder = (Path) watchKey.watchable();
 
-            for (final WatchEvent<?> watchEvent : watchEvents) {
+        for (final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
 
-                final Path file = (Path) watchEvent.context();
-                final Path folder = (Path) watchKey.watchable();
-                final Path realFile = folder.resolve(file);
+            final Object context = watchEvent.context();
 
-                if (watchEvent.kind() == ENTRY_CREATE) {
+            if (context == null) {
+                collector.add(watchEvent.kind(), folder);
+                continue;
+            }
 
-                    final boolean directory = Files.isDirectory(realFile);
+            final Path file = folder.resolve((Path) context);
 
-                    final CreatedFileEvent event = new CreatedFileEvent();
-                    event.setFile(realFile);
-                    event.setNeedSelect(false);
-                    event.setDirectory(directory);
+            // temp files of saving editors are replaced by edited files right after writing
+            if (!EditorUtil.isSaveFile(file)) {
+                collector.add(watchEvent.kind(), file);
+            }
+        }
 
-                    if (directory) {
-                        registerWatchKey(realFile);
-                    }
+        // invalid keys of deleted folders are removed after handling changes to know which files were folders
+        watchKey.reset();
+    }
 
-                    FX_EVENT_MANAGER.notify(event);
+    /**
+     * Update watch keys, the index of files and class loaders by collected changes and notify about them.
+     *
+     * @param collector the collector of events.
+     */
+    @FromAnyThread
+    private void handleChanges(@NotNull final FileChangesCollector collector) {
 
-                } else if (watchEvent.kind() == ENTRY_DELETE) {
+        if (collector.isOverflowed()) {
+            FX_EVENT_MANAGER.notify(new RequestedRefreshAssetEvent());
+            return;
+        }
 
-                    final boolean directory = Files.isDirectory(realFile);
+        collector.finish();
 
-                    final DeletedFileEvent event = new DeletedFileEvent();
-                    event.setFile(realFile);
-                    event.setDirectory(directory);
+        final Array<Path> createdFiles = collector.getCreatedFiles();
+        final Array<Path> deletedFiles = collector.getDeletedFiles();
+        final Array<Path> changedFiles = collector.getChangedFiles();
+        final Map<Path, Path> movedFiles = collector.getMovedFiles();
 
-                    removeWatchKeyFor(realFile);
+        final Array<Path> deletedFolders = ArrayFactory.newArray(Path.class);
 
-                    FX_EVENT_MANAGER.notify(event);
+        getAssetCacheIndex().invalidate(collector, file -> findWatchKey(file) != null);
 
-                } else if (watchEvent.kind() == ENTRY_MODIFY) {
+        for (final Path file : deletedFiles) {
 
-                    final FileChangedEvent event = new FileChangedEvent();
-                    event.setFile(realFile);
+            final boolean directory = findWatchKey(file) != null;
 
-                    FX_EVENT_MANAGER.notify(event);
-                }
+            if (directory) {
+                deletedFolders.add(file);
             }
+
+            handleDeletedFile(file, directory);
+        }
+
+        movedFiles.forEach((prevFile, newFile) -> {
+            handleDeletedFile(prevFile, findWatchKey(prevFile) != null);
+            handleFile(newFile);
+        });
+
+        createdFiles.forEach(this::handleFile);
+        removeInvalidWatchKeys();
+
+        final AssetFileIndex fileIndex = getFileIndex();
+
+        if (fileIndex != null) {
+            changedFiles.forEach(fileIndex::update);
         }
+
+        final ChangedFilesEvent event = new ChangedFilesEvent();
+        event.setCreatedFiles(createdFiles);
+        event.setDeletedFiles(deletedFiles);
+        event.setChangedFiles(changedFiles);
+        event.setMovedFiles(movedFiles);
+
+        EXECUTOR_MANAGER.addFxTask(() -> {
+
+            FX_EVENT_MANAGER.notify(event);
+
+            // the events about single files are still published for handlers which don't support batches
+            deletedFiles.forEach(file -> notifyDeleted(file, deletedFolders.contains(file)));
+            createdFiles.forEach(this::notifyCreated);
+            changedFiles.forEach(this::notifyChanged);
+
+            movedFiles.forEach((prevFile, newFile) -> {
+                notifyDeleted(prevFile, Files.isDirectory(newFile));
+                notifyCreated(newFile);
+            });
+
+        }, TaskPriority.BULK);
+    }
+
+    /**
+     * Notify about a created file.
+     *
+     * @param file the created file.
+     */
+    @FxThread
+    private void notifyCreated(@NotNull final Path file) {
+
+        final CreatedFileEvent event = new CreatedFileEvent();
+        event.setFile(file);
+        event.setNeedSelect(false);
+        event.setDirectory(Files.isDirectory(file));
+
+        FX_EVENT_MANAGER.notify(event);
+    }
+
+    /**
+     * Notify about a deleted file.
+     *
+     * @param file      the deleted file.
+     * @param directory true if the file was a directory.
+     */
+    @FxThread
+    private void notifyDeleted(@NotNull final Path file, final boolean directory) {
+
+        final DeletedFileEvent event = new DeletedFileEvent();
+        event.setFile(file);
+        event.setDirectory(directory);
+
+        FX_EVENT_MANAGER.notify(event);
+    }
+
+    /**
+     * Notify about a changed file.
+     *
+     * @param file the changed file.
+     */
+    @FxThread
+    private void notifyChanged(@NotNull final Path file) {
+
+        final FileChangedEvent event = new FileChangedEvent();
+        event.setFile(file);
+
+        FX_EVENT_MANAGER.notify(event);
     }
 
     /**
@@ -632,23 +759,70 @@ public class ResourceManager extends EditorThread implements AssetEventListener
     }
 
     /**
-     * Remove a watch key for the file.
+     * Remove watch keys for the folder and all its sub-folders.
      *
-     * @param path the file.
+     * @param folder the folder.
      */
     @FromAnyThread
-    private synchronized void removeWatchKeyFor(@NotNull final Path path) {
+    private synchronized void removeWatchKeysFor(@NotNull final Path folder) {
 
-        final WatchKey watchKey = findWatchKey(path);
-        if (watchKey == null) {
-            return;
+        final Array<WatchKey> watchKeys = getWatchKeys();
+        final Array<WatchKey> toRemove = ArrayFactory.newArray(WatchKey.class);
+
+        for (final WatchKey watchKey : watchKeys) {
+            if (((Path) watchKey.watchable()).startsWith(folder)) {
+                toRemove.add(watchKey);
+            }
         }
 
+        toRemove.forEach(this::removeWatchKey);
+    }
+
+    /**
+     * Remove watch keys of folders which don't exist anymore.
+     */
+    @FromAnyThread
+    private synchronized void removeInvalidWatchKeys() {
+
         final Array<WatchKey> watchKeys = getWatchKeys();
-        watchKeys.fastRemove(watchKey);
+        final Array<WatchKey> toRemove = ArrayFactory.newArray(WatchKey.class);
+
+        for (final WatchKey watchKey : watchKeys) {
+            if (!watchKey.isValid()) {
+                toRemove.add(watchKey);
+            }
+        }
+
+        toRemove.forEach(this::removeWatchKey);
+    }
+
+    /**
+     * Remove the watch key.
+     *
+     * @param watchKey the watch key.
+     */
+    @FromAnyThread
+    private synchronized void removeWatchKey(@NotNull final WatchKey watchKey) {
+        getWatchKeys().fastRemove(watchKey);
         watchKey.cancel();
     }
 
+    /**
+     * Register watch keys for the folder and all its sub-folders.
+     *
+     * @param folder the folder.
+     */
+    @FromAnyThread
+    private synchronized void registerWatchKeys(@NotNull final Path folder) {
+        try (final Stream<Path> stream = Files.walk(folder)) {
+            stream.filter(Files::isDirectory)
+                    .filter(path -> findWatchKey(path) == null)
+                    .forEach(this::registerWatchKey);
+        } catch (final IOException | UncheckedIOException e) {
+            LOGGER.warning(this, e);
+        }
+    }
+
     /**
      * Register a watch key for the file.
      *
@@ -664,7 +838,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      */
     @FromAnyThread
     private void processRefreshAsset() {
-        EXECUTOR_MANAGER.addBackgroundTask(this::reload);
+        EXECUTOR_MANAGER.addBackgroundTask(this::reload, TaskPriority.BULK);
     }
 
     /**
@@ -672,7 +846,7 @@ public class ResourceManager extends EditorThread implements AssetEventListener
      */
     @FromAnyThread
     private void processChangeAsset() {
-        EXECUTOR_MANAGER.addBackgroundTask(this::reload);
+        EXECUTOR_MANAGER.addBackgroundTask(this::reload, TaskPriority.BULK);
     }
 
     /**
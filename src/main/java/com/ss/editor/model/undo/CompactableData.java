@@ -0,0 +1,29 @@
+package com.ss.editor.model.undo;
+
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The interface to implement a large payload of an operation which can be compacted while the operation is
+ * in an undo history.
+ *
+ * @author JavaSaBr
+ */
+public interface CompactableData {
+
+    /**
+     * Get the estimated size of this payload in memory.
+     *
+     * @return the estimated size in bytes.
+     */
+    @FromAnyThread
+    long getEstimatedSize();
+
+    /**
+     * Move the data of this payload to the storage, the data should be loaded back on the next access.
+     *
+     * @param storage the storage.
+     */
+    @FromAnyThread
+    void compact(@NotNull UndoHistoryStorage storage);
+}
@@ -1,5 +1,6 @@
 package com.ss.editor.model.undo;
 
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 
 import org.jetbrains.annotations.NotNull;
@@ -11,6 +12,31 @@ import org.jetbrains.annotations.NotNull;
  */
 public interface EditorOperation {
 
+    /**
+     * The estimated size of a simple operation in memory.
+     */
+    long DEFAULT_ESTIMATED_SIZE = 256;
+
+    /**
+     * Get the estimated size of this operation in memory to limit an undo history.
+     *
+     * @return the estimated size in bytes.
+     */
+    @FromAnyThread
+    default long getEstimatedSize() {
+        return DEFAULT_ESTIMATED_SIZE;
+    }
+
+    /**
+     * Reduce the memory footprint of this operation while it stays in an undo history, for example,
+     * by compressing its payload to the storage.
+     *
+     * @param storage the storage of the undo history.
+     */
+    @FromAnyThread
+    default void compact(@NotNull final UndoHistoryStorage storage) {
+    }
+
     /**
      * Redo this operation for the editor.
      *
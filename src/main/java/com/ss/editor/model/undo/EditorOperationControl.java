@@ -2,23 +2,36 @@ package com.ss.editor.model.undo;
 
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.manager.ExecutorManager;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import javafx.application.Platform;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
- * The implementation of controller to support undo/redo operations.
+ * The implementation of controller to support undo/redo operations. The history is limited by the estimated memory
+ * size of its operations, large operations are compacted to the history storage when they aren't the last ones.
  *
  * @author JavaSaBr
  */
 public class EditorOperationControl {
 
+    /**
+     * The default memory budget of the history.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64 * 1024 * 1024;
+
     /**
      * The maximum history size.
      */
-    private static final int HISTORY_SIZE = 20;
+    private static final int HISTORY_SIZE = 1000;
+
+    /**
+     * The min estimated size of an operation to compact it.
+     */
+    private static final long COMPACT_THRESHOLD = 64 * 1024;
 
     /**
      * The list of operations.
@@ -38,10 +51,27 @@ public class EditorOperationControl {
     @NotNull
     private final UndoableEditor editor;
 
+    /**
+     * The storage to compact operations.
+     */
+    @NotNull
+    private final UndoHistoryStorage storage;
+
+    /**
+     * The max estimated size of all operations in bytes.
+     */
+    private final long memoryBudget;
+
     public EditorOperationControl(@NotNull final UndoableEditor editor) {
+        this(editor, DEFAULT_MEMORY_BUDGET);
+    }
+
+    public EditorOperationControl(@NotNull final UndoableEditor editor, final long memoryBudget) {
         this.editor = editor;
+        this.memoryBudget = memoryBudget;
         this.operations = ArrayFactory.newArray(EditorOperation.class);
         this.toRedo = ArrayFactory.newArray(EditorOperation.class);
+        this.storage = new UndoHistoryStorage();
     }
 
     /**
@@ -103,7 +133,9 @@ public class EditorOperationControl {
         editor.incrementChange();
 
         final Array<EditorOperation> operations = getOperations();
+        final EditorOperation prevOperation = operations.last();
         operations.add(operation);
+        compactLater(prevOperation);
 
         if (operations.size() > HISTORY_SIZE) {
             operations.poll();
@@ -111,6 +143,8 @@ public class EditorOperationControl {
 
         final Array<EditorOperation> toRedo = getToRedo();
         toRedo.clear();
+
+        limitHistory();
     }
 
     /**
@@ -143,7 +177,11 @@ public class EditorOperationControl {
         editor.decrementChange();
 
         final Array<EditorOperation> toRedo = getToRedo();
+        final EditorOperation prevOperation = toRedo.last();
         toRedo.add(operation);
+        compactLater(prevOperation);
+
+        limitHistory();
     }
 
     /**
@@ -177,7 +215,57 @@ public class EditorOperationControl {
         editor.incrementChange();
 
         final Array<EditorOperation> operations = getOperations();
+        final EditorOperation prevOperation = operations.last();
         operations.add(operation);
+        compactLater(prevOperation);
+
+        limitHistory();
+    }
+
+    /**
+     * Remove the oldest operations while the history is over the memory budget.
+     */
+    @FxThread
+    private void limitHistory() {
+
+        final Array<EditorOperation> operations = getOperations();
+        final Array<EditorOperation> toRedo = getToRedo();
+
+        long size = 0;
+
+        for (final EditorOperation operation : operations) {
+            size += operation.getEstimatedSize();
+        }
+
+        for (final EditorOperation operation : toRedo) {
+            size += operation.getEstimatedSize();
+        }
+
+        // keep the last operation to undo and the next operation to redo in any case
+        while (size > memoryBudget && operations.size() > 1) {
+            size -= operations.poll().getEstimatedSize();
+        }
+
+        while (size > memoryBudget && toRedo.size() > 1) {
+            size -= toRedo.poll().getEstimatedSize();
+        }
+    }
+
+    /**
+     * Start compacting the operation in background if it is large, it should be called once when the operation
+     * stops being the last one.
+     *
+     * @param operation the operation.
+     */
+    @FxThread
+    private void compactLater(@Nullable final EditorOperation operation) {
+
+        if (operation == null || operation.getEstimatedSize() < COMPACT_THRESHOLD) {
+            return;
+        }
+
+        final ExecutorManager executorManager = ExecutorManager.getInstance();
+        executorManager.addBackgroundTask(() -> operation.compact(storage), TaskPriority.BULK);
     }
 
     /**
@@ -196,6 +284,7 @@ public class EditorOperationControl {
     /**
      * Clear operation history.
      */
+    @FxThread
     private void clearImpl() {
 
         final Array<EditorOperation> operations = getOperations();
@@ -203,6 +292,8 @@ public class EditorOperationControl {
 
         final Array<EditorOperation> toRedo = getToRedo();
         toRedo.clear();
+
+        storage.clear();
     }
 
     @Override
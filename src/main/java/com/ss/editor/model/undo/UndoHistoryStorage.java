@@ -0,0 +1,447 @@
+package com.ss.editor.model.undo;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The storage to keep compressed payloads of operations of an undo history. Small compressed payloads are kept
+ * in memory, large ones are spilled to a temp file of the editor. A block of the temp file is freed when its payload
+ * isn't reachable anymore, free blocks are reused by next payloads and the free tail of the file is truncated.
+ *
+ * @author JavaSaBr
+ */
+public class UndoHistoryStorage {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(UndoHistoryStorage.class);
+
+    /**
+     * The min size of a compressed payload to spill it to the temp file.
+     */
+    private static final int SPILL_THRESHOLD = 16 * 1024;
+
+    /**
+     * The estimated size of a stored payload without its data.
+     */
+    private static final int BLOCK_OVERHEAD = 48;
+
+    @NotNull
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * The task to free a block of the temp file when its payload isn't reachable anymore.
+     */
+    private static class BlockReleaser implements Runnable {
+
+        /**
+         * The storage.
+         */
+        @NotNull
+        private final UndoHistoryStorage storage;
+
+        /**
+         * The generation of the temp file.
+         */
+        private final int generation;
+
+        /**
+         * The position of the block.
+         */
+        private final long position;
+
+        /**
+         * The length of the block.
+         */
+        private final long length;
+
+        private BlockReleaser(@NotNull final UndoHistoryStorage storage, final int generation, final long position,
+                              final long length) {
+            this.storage = storage;
+            this.generation = generation;
+            this.position = position;
+            this.length = length;
+        }
+
+        @Override
+        public void run() {
+            storage.free(generation, position, length);
+        }
+    }
+
+    /**
+     * The stored payload.
+     */
+    public static class StoredData {
+
+        /**
+         * The storage.
+         */
+        @NotNull
+        private final UndoHistoryStorage storage;
+
+        /**
+         * The compressed data or null if it was spilled to the temp file.
+         */
+        @Nullable
+        private final byte[] compressed;
+
+        /**
+         * The position of the compressed data in the temp file.
+         */
+        private final long position;
+
+        /**
+         * The length of the compressed data.
+         */
+        private final int length;
+
+        /**
+         * The length of the original data.
+         */
+        private final int originalLength;
+
+        private StoredData(@NotNull final UndoHistoryStorage storage, @Nullable final byte[] compressed,
+                           final long position, final int length, final int originalLength) {
+            this.storage = storage;
+            this.compressed = compressed;
+            this.position = position;
+            this.length = length;
+            this.originalLength = originalLength;
+        }
+
+        /**
+         * Load the original data.
+         *
+         * @return the original data.
+         */
+        @FromAnyThread
+        public @NotNull byte[] load() {
+            return storage.load(this);
+        }
+
+        /**
+         * Get the estimated size of this payload in memory.
+         *
+         * @return the estimated size in bytes.
+         */
+        @FromAnyThread
+        public long getEstimatedSize() {
+            return compressed == null ? BLOCK_OVERHEAD : BLOCK_OVERHEAD + compressed.length;
+        }
+    }
+
+    /**
+     * The temp file to spill large payloads.
+     */
+    @Nullable
+    private Path file;
+
+    /**
+     * The channel of the temp file.
+     */
+    @Nullable
+    private FileChannel channel;
+
+    /**
+     * The free blocks of the temp file, lengths by positions.
+     */
+    @NotNull
+    private final TreeMap<Long, Long> freeBlocks;
+
+    /**
+     * The position of the end of the temp file.
+     */
+    private long endPosition;
+
+    /**
+     * The generation of the temp file, it's changed on clearing to ignore blocks of previous files.
+     */
+    private int generation;
+
+    public UndoHistoryStorage() {
+        this.freeBlocks = new TreeMap<>();
+    }
+
+    /**
+     * Compress and store the data.
+     *
+     * @param data the data.
+     * @return the stored payload.
+     */
+    @FromAnyThread
+    public @NotNull StoredData store(@NotNull final byte[] data) {
+
+        final byte[] compressed = compress(data);
+
+        if (compressed.length < SPILL_THRESHOLD) {
+            return new StoredData(this, compressed, 0, compressed.length, data.length);
+        }
+
+        synchronized (this) {
+            try {
+
+                final FileChannel channel = getChannel();
+                final long position = allocate(compressed.length);
+
+                try {
+                    write(channel, compressed, position);
+                } catch (final IOException e) {
+                    free(generation, position, compressed.length);
+                    throw e;
+                }
+
+                final StoredData storedData = new StoredData(this, null, position, compressed.length, data.length);
+                CLEANER.register(storedData, new BlockReleaser(this, generation, position, compressed.length));
+
+                return storedData;
+
+            } catch (final IOException e) {
+                LOGGER.warning(e);
+            }
+        }
+
+        return new StoredData(this, compressed, 0, compressed.length, data.length);
+    }
+
+    /**
+     * Delete all spilled payloads, all payloads of this storage become invalid.
+     */
+    @FromAnyThread
+    public synchronized void clear() {
+
+        final FileChannel channel = this.channel;
+        final Path file = this.file;
+
+        this.channel = null;
+        this.file = null;
+        this.endPosition = 0;
+        this.generation++;
+        this.freeBlocks.clear();
+
+        try {
+
+            if (channel != null) {
+                channel.close();
+            }
+
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    /**
+     * Get the size of the temp file.
+     *
+     * @return the size of the temp file in bytes.
+     */
+    @FromAnyThread
+    public synchronized long getFileSize() {
+        return endPosition;
+    }
+
+    /**
+     * Find a free block for the length or append a new block to the end of the temp file.
+     *
+     * @param length the length.
+     * @return the position of the block.
+     */
+    @FromAnyThread
+    private long allocate(final long length) {
+
+        for (final Map.Entry<Long, Long> entry : freeBlocks.entrySet()) {
+
+            final long blockLength = entry.getValue();
+
+            if (blockLength < length) {
+                continue;
+            }
+
+            final long position = entry.getKey();
+            freeBlocks.remove(position);
+
+            if (blockLength > length) {
+                freeBlocks.put(position + length, blockLength - length);
+            }
+
+            return position;
+        }
+
+        final long position = endPosition;
+        endPosition += length;
+
+        return position;
+    }
+
+    /**
+     * Free the block of the temp file, free neighbours are merged and the free tail of the file is truncated.
+     *
+     * @param generation the generation of the temp file of the block.
+     * @param position   the position of the block.
+     * @param length     the length of the block.
+     */
+    @FromAnyThread
+    private synchronized void free(final int generation, long position, long length) {
+
+        if (generation != this.generation) {
+            return;
+        }
+
+        final Map.Entry<Long, Long> prev = freeBlocks.floorEntry(position);
+
+        if (prev != null && prev.getKey() + prev.getValue() == position) {
+            freeBlocks.remove(prev.getKey());
+            position = prev.getKey();
+            length += prev.getValue();
+        }
+
+        final Long nextLength = freeBlocks.remove(position + length);
+
+        if (nextLength != null) {
+            length += nextLength;
+        }
+
+        if (position + length < endPosition) {
+            freeBlocks.put(position, length);
+            return;
+        }
+
+        endPosition = position;
+
+        final FileChannel channel = this.channel;
+
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.truncate(endPosition);
+        } catch (final IOException e) {
+            LOGGER.warning(e);
+        }
+    }
+
+    @FromAnyThread
+    private static void write(@NotNull final FileChannel channel, @NotNull final byte[] data, final long position)
+            throws IOException {
+
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    @FromAnyThread
+    private @NotNull byte[] load(@NotNull final StoredData storedData) {
+
+        byte[] compressed = storedData.compressed;
+
+        if (compressed == null) {
+            compressed = new byte[storedData.length];
+            read(storedData.position, compressed);
+        }
+
+        final Inflater inflater = new Inflater();
+        inflater.setInput(compressed);
+
+        final byte[] result = new byte[storedData.originalLength];
+        try {
+
+            int offset = 0;
+
+            while (offset < result.length && !inflater.finished()) {
+
+                final int count = inflater.inflate(result, offset, result.length - offset);
+
+                if (count == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Unexpected end of the compressed data.");
+                }
+
+                offset += count;
+            }
+
+        } catch (final DataFormatException e) {
+            throw new RuntimeException(e);
+        } finally {
+            inflater.end();
+        }
+
+        return result;
+    }
+
+    @FromAnyThread
+    private synchronized void read(final long position, @NotNull final byte[] store) {
+
+        final FileChannel channel = this.channel;
+
+        if (channel == null) {
+            throw new IllegalStateException("The storage was cleared.");
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(store);
+        try {
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of the file " + file);
+                }
+            }
+
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @FromAnyThread
+    private @NotNull FileChannel getChannel() throws IOException {
+
+        if (channel == null) {
+            file = Files.createTempFile("undo-history", ".bin");
+            file.toFile().deleteOnExit();
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        return channel;
+    }
+
+    @FromAnyThread
+    private static @NotNull byte[] compress(@NotNull final byte[] data) {
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.setInput(data);
+        deflater.finish();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        final byte[] buffer = new byte[8192];
+        try {
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,247 @@
+package com.ss.editor.model.undo.editor;
+
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The batch of changes which were collected during one jME frame to notify the FX side at once.
+ *
+ * @author JavaSaBr
+ */
+public class ChangeBatch {
+
+    public enum ChangeType {
+        PROPERTY,
+        ADDED,
+        REMOVED,
+        MOVED
+    }
+
+    /**
+     * The change of an object.
+     */
+    public static class Change {
+
+        /**
+         * The type of this change.
+         */
+        @NotNull
+        private final ChangeType type;
+
+        /**
+         * The parent or the prev parent for moving.
+         */
+        @Nullable
+        private final Object parent;
+
+        /**
+         * The new parent for moving.
+         */
+        @Nullable
+        private final Object newParent;
+
+        /**
+         * The changed object.
+         */
+        @NotNull
+        private final Object object;
+
+        /**
+         * The name of the changed property.
+         */
+        @Nullable
+        private final String propertyName;
+
+        /**
+         * The index of position.
+         */
+        private final int index;
+
+        /**
+         * True if need to select the object.
+         */
+        private final boolean needSelect;
+
+        Change(
+                @NotNull ChangeType type,
+                @Nullable Object parent,
+                @Nullable Object newParent,
+                @NotNull Object object,
+                @Nullable String propertyName,
+                int index,
+                boolean needSelect
+        ) {
+            this.type = type;
+            this.parent = parent;
+            this.newParent = newParent;
+            this.object = object;
+            this.propertyName = propertyName;
+            this.index = index;
+            this.needSelect = needSelect;
+        }
+
+        /**
+         * Get the type of this change.
+         *
+         * @return the type of this change.
+         */
+        @FromAnyThread
+        public @NotNull ChangeType getType() {
+            return type;
+        }
+
+        /**
+         * Get the parent or the prev parent for moving.
+         *
+         * @return the parent or the prev parent for moving.
+         */
+        @FromAnyThread
+        public @Nullable Object getParent() {
+            return parent;
+        }
+
+        /**
+         * Get the new parent for moving.
+         *
+         * @return the new parent for moving.
+         */
+        @FromAnyThread
+        public @Nullable Object getNewParent() {
+            return newParent;
+        }
+
+        /**
+         * Get the changed object.
+         *
+         * @return the changed object.
+         */
+        @FromAnyThread
+        public @NotNull Object getObject() {
+            return object;
+        }
+
+        /**
+         * Get the name of the changed property.
+         *
+         * @return the name of the changed property.
+         */
+        @FromAnyThread
+        public @Nullable String getPropertyName() {
+            return propertyName;
+        }
+
+        /**
+         * Get the index of position.
+         *
+         * @return the index of position.
+         */
+        @FromAnyThread
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Return true if need to select the object.
+         *
+         * @return true if need to select the object.
+         */
+        @FromAnyThread
+        public boolean isNeedSelect() {
+            return needSelect;
+        }
+    }
+
+    /**
+     * The changes in the order of happening.
+     */
+    @NotNull
+    private final Array<Change> changes;
+
+    /**
+     * The objects with changed properties without duplicates.
+     */
+    @NotNull
+    private final Array<Object> changedObjects;
+
+    ChangeBatch(@NotNull Array<Change> changes, @NotNull Array<Object> changedObjects) {
+        this.changes = changes;
+        this.changedObjects = changedObjects;
+    }
+
+    /**
+     * Get the changes in the order of happening, a property of an object is presented only once.
+     *
+     * @return the changes.
+     */
+    @FxThread
+    public @NotNull Array<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Get the objects with changed properties without duplicates.
+     *
+     * @return the objects with changed properties.
+     */
+    @FxThread
+    public @NotNull Array<Object> getChangedObjects() {
+        return changedObjects;
+    }
+
+    /**
+     * Notify the consumer about each change of this batch separately.
+     *
+     * @param consumer the consumer.
+     */
+    @FxThread
+    public void replay(@NotNull ChangeConsumer consumer) {
+        for (var change : changes) {
+            replay(consumer, change);
+        }
+    }
+
+    /**
+     * Notify the consumer about the change.
+     *
+     * @param consumer the consumer.
+     * @param change   the change.
+     */
+    @FxThread
+    public static void replay(@NotNull ChangeConsumer consumer, @NotNull Change change) {
+
+        var parent = change.getParent();
+        var object = change.getObject();
+
+        switch (change.getType()) {
+            case PROPERTY: {
+
+                var propertyName = notNull(change.getPropertyName());
+
+                if (parent == null) {
+                    consumer.notifyFxChangeProperty(object, propertyName);
+                } else {
+                    consumer.notifyFxChangeProperty(parent, object, propertyName);
+                }
+
+                break;
+            }
+            case ADDED: {
+                consumer.notifyFxAddedChild(notNull(parent), object, change.getIndex(), change.isNeedSelect());
+                break;
+            }
+            case REMOVED: {
+                consumer.notifyFxRemovedChild(notNull(parent), object);
+                break;
+            }
+            case MOVED: {
+                consumer.notifyFxMoved(notNull(parent), notNull(change.getNewParent()), object,
+                        change.getIndex(), change.isNeedSelect());
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.ss.editor.model.undo.editor;
+
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.editor.ChangeBatch.Change;
+import com.ss.editor.model.undo.editor.ChangeBatch.ChangeType;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.common.util.dictionary.DictionaryFactory;
+import com.ss.rlib.common.util.dictionary.ObjectDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The collector of changes which delivers them to a {@link ChangeConsumer} as one {@link ChangeBatch} after the
+ * current jME frame.
+ *
+ * @author JavaSaBr
+ */
+public class ChangeBatcher {
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The consumer of batches.
+     */
+    @NotNull
+    private final ChangeConsumer consumer;
+
+    /**
+     * The names of changed properties by objects to skip duplicated changes.
+     */
+    @NotNull
+    private final ObjectDictionary<Object, Array<String>> changedProperties;
+
+    /**
+     * The collected changes.
+     */
+    @NotNull
+    private Array<Change> changes;
+
+    /**
+     * The objects with changed properties.
+     */
+    @NotNull
+    private Array<Object> changedObjects;
+
+    /**
+     * True if delivering of the collected changes is scheduled.
+     */
+    private boolean scheduled;
+
+    public ChangeBatcher(@NotNull ChangeConsumer consumer) {
+        this.consumer = consumer;
+        this.changedProperties = DictionaryFactory.newObjectDictionary();
+        this.changes = ArrayFactory.newArray(Change.class);
+        this.changedObjects = ArrayFactory.newArray(Object.class);
+    }
+
+    /**
+     * Collect a changed property.
+     *
+     * @param parent       the parent.
+     * @param object       the object.
+     * @param propertyName the property name.
+     */
+    @FromAnyThread
+    public synchronized void changeProperty(
+            @Nullable Object parent,
+            @NotNull Object object,
+            @NotNull String propertyName
+    ) {
+
+        var names = changedProperties.get(object, () -> ArrayFactory.newArray(String.class));
+
+        if (names.isEmpty()) {
+            changedObjects.add(object);
+        } else if (names.contains(propertyName)) {
+            return;
+        }
+
+        names.add(propertyName);
+
+        add(new Change(ChangeType.PROPERTY, parent, null, object, propertyName, -1, false));
+    }
+
+    /**
+     * Collect an added child.
+     *
+     * @param parent     the parent.
+     * @param added      the added child.
+     * @param index      the index of position.
+     * @param needSelect true if need to select the child.
+     */
+    @FromAnyThread
+    public synchronized void addedChild(@NotNull Object parent, @NotNull Object added, int index, boolean needSelect) {
+        add(new Change(ChangeType.ADDED, parent, null, added, null, index, needSelect));
+    }
+
+    /**
+     * Collect a removed child.
+     *
+     * @param parent  the parent.
+     * @param removed the removed child.
+     */
+    @FromAnyThread
+    public synchronized void removedChild(@NotNull Object parent, @NotNull Object removed) {
+        add(new Change(ChangeType.REMOVED, parent, null, removed, null, -1, false));
+    }
+
+    /**
+     * Collect a moved child.
+     *
+     * @param prevParent the prev parent.
+     * @param newParent  the new parent.
+     * @param child      the child.
+     * @param index      the index of position.
+     * @param needSelect true if need to select the child.
+     */
+    @FromAnyThread
+    public synchronized void moved(
+            @NotNull Object prevParent,
+            @NotNull Object newParent,
+            @NotNull Object child,
+            int index,
+            boolean needSelect
+    ) {
+        add(new Change(ChangeType.MOVED, prevParent, newParent, child, null, index, needSelect));
+    }
+
+    @FromAnyThread
+    private void add(@NotNull Change change) {
+
+        changes.add(change);
+
+        if (scheduled) {
+            return;
+        }
+
+        scheduled = true;
+
+        // the FX task is added after all current jME tasks to collect all changes of this frame
+        EXECUTOR_MANAGER.addJmeTask(() -> EXECUTOR_MANAGER.addFxTask(this::deliver));
+    }
+
+    /**
+     * Deliver the collected changes to the consumer.
+     */
+    @FxThread
+    private void deliver() {
+
+        ChangeBatch batch;
+
+        synchronized (this) {
+
+            scheduled = false;
+
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            batch = new ChangeBatch(changes, changedObjects);
+
+            changes = ArrayFactory.newArray(Change.class);
+            changedObjects = ArrayFactory.newArray(Object.class);
+            changedProperties.clear();
+        }
+
+        consumer.notifyFxChanges(batch);
+    }
+}
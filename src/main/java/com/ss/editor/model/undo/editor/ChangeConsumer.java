@@ -3,6 +3,7 @@ package com.ss.editor.model.undo.editor;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.model.undo.EditorOperation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -115,6 +116,73 @@ public interface ChangeConsumer {
                                boolean needSelect) {
     }
 
+    /**
+     * Notify about all changes which were collected during one jME frame.
+     *
+     * @param batch the batch of changes.
+     */
+    @FxThread
+    default void notifyFxChanges(@NotNull ChangeBatch batch) {
+        batch.replay(this);
+    }
+
+    /**
+     * Queue a notification about changed property to the FX thread, notifications can be collected to one batch.
+     *
+     * @param parent       the parent.
+     * @param object       the object.
+     * @param propertyName the property name.
+     */
+    @FromAnyThread
+    default void queueFxChangeProperty(@Nullable Object parent, @NotNull Object object, @NotNull String propertyName) {
+        ExecutorManager.getInstance().addFxTask(() -> {
+            if (parent == null) {
+                notifyFxChangeProperty(object, propertyName);
+            } else {
+                notifyFxChangeProperty(parent, object, propertyName);
+            }
+        });
+    }
+
+    /**
+     * Queue a notification about added child to the FX thread, notifications can be collected to one batch.
+     *
+     * @param parent     the parent.
+     * @param added      the added.
+     * @param index      the index of position.
+     * @param needSelect true if need to select the child.
+     */
+    @FromAnyThread
+    default void queueFxAddedChild(@NotNull Object parent, @NotNull Object added, int index, boolean needSelect) {
+        ExecutorManager.getInstance().addFxTask(() -> notifyFxAddedChild(parent, added, index, needSelect));
+    }
+
+    /**
+     * Queue a notification about removed child to the FX thread, notifications can be collected to one batch.
+     *
+     * @param parent  the parent
+     * @param removed the removed
+     */
+    @FromAnyThread
+    default void queueFxRemovedChild(@NotNull Object parent, @NotNull Object removed) {
+        ExecutorManager.getInstance().addFxTask(() -> notifyFxRemovedChild(parent, removed));
+    }
+
+    /**
+     * Queue a notification about moved child to the FX thread, notifications can be collected to one batch.
+     *
+     * @param prevParent the prev parent.
+     * @param newParent  the new parent.
+     * @param child      the child.
+     * @param index      the index of position.
+     * @param needSelect true if need select this object.
+     */
+    @FromAnyThread
+    default void queueFxMoved(@NotNull Object prevParent, @NotNull Object newParent, @NotNull Object child, int index,
+                              boolean needSelect) {
+        ExecutorManager.getInstance().addFxTask(() -> notifyFxMoved(prevParent, newParent, child, index, needSelect));
+    }
+
     /**
      * Execute the operation.
      *
@@ -53,7 +53,7 @@ public class AddChildOperation extends AbstractEditorOperation<ModelChangeConsum
             final RenderFilterExtension filterExtension = RenderFilterExtension.getInstance();
             filterExtension.refreshFilters();
 
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxAddedChild(parent, newChild, 0, needSelect));
+            editor.queueFxAddedChild(parent, newChild, 0, needSelect);
         });
     }
 
@@ -61,7 +61,7 @@ public class AddChildOperation extends AbstractEditorOperation<ModelChangeConsum
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addJmeTask(() -> {
             parent.detachChild(newChild);
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxRemovedChild(parent, newChild));
+            editor.queueFxRemovedChild(parent, newChild);
         });
     }
 }
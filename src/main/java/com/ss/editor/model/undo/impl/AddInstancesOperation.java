@@ -0,0 +1,55 @@
+package com.ss.editor.model.undo.impl;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.instancing.InstancedNode;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.util.InstancingUtils;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The implementation of the {@link AbstractEditorOperation} to add new instances to an {@link InstancedNode}.
+ *
+ * @author JavaSaBr
+ */
+public class AddInstancesOperation extends AbstractEditorOperation<ModelChangeConsumer> {
+
+    /**
+     * The instanced node.
+     */
+    @NotNull
+    private final InstancedNode node;
+
+    /**
+     * The new instances.
+     */
+    @NotNull
+    private final Array<Geometry> instances;
+
+    public AddInstancesOperation(@NotNull final InstancedNode node, @NotNull final Array<Geometry> instances) {
+        this.node = node;
+        this.instances = instances;
+    }
+
+    @Override
+    protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> {
+
+            InstancingUtils.addInstances(node, instances);
+            node.updateModelBound();
+
+            instances.forEach(instance -> editor.queueFxAddedChild(node, instance, -1, false));
+        });
+    }
+
+    @Override
+    protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> {
+
+            InstancingUtils.removeInstances(node, instances);
+            node.updateModelBound();
+
+            instances.forEach(instance -> editor.queueFxRemovedChild(node, instance));
+        });
+    }
+}
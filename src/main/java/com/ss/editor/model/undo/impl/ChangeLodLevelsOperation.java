@@ -0,0 +1,137 @@
+package com.ss.editor.model.undo.impl;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.ss.editor.Messages;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The implementation of the {@link AbstractEditorOperation} to change levels of details of several meshes at once.
+ *
+ * @author JavaSaBr
+ */
+public class ChangeLodLevelsOperation extends AbstractEditorOperation<ChangeConsumer> {
+
+    /**
+     * The changed meshes.
+     */
+    @NotNull
+    private final Mesh[] meshes;
+
+    /**
+     * The new levels of details of the meshes.
+     */
+    @NotNull
+    private final VertexBuffer[][] newLevels;
+
+    /**
+     * The previous levels of details of the meshes.
+     */
+    @NotNull
+    private final VertexBuffer[][] prevLevels;
+
+    /**
+     * The geometries which use the meshes.
+     */
+    @NotNull
+    private final Array<Geometry> geometries;
+
+    public ChangeLodLevelsOperation(
+            @NotNull Mesh[] meshes,
+            @NotNull VertexBuffer[][] newLevels,
+            @NotNull VertexBuffer[][] prevLevels,
+            @NotNull Array<Geometry> geometries
+    ) {
+        this.meshes = meshes;
+        this.newLevels = newLevels;
+        this.prevLevels = prevLevels;
+        this.geometries = geometries;
+    }
+
+    @Override
+    @FxThread
+    protected void redoImpl(@NotNull ChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> apply(editor, newLevels));
+    }
+
+    @Override
+    @FxThread
+    protected void undoImpl(@NotNull ChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> apply(editor, prevLevels));
+    }
+
+    /**
+     * Apply the levels of details to the meshes.
+     *
+     * @param editor the editor.
+     * @param levels the levels of details.
+     */
+    @JmeThread
+    private void apply(@NotNull ChangeConsumer editor, @NotNull VertexBuffer[][] levels) {
+
+        for (var geometry : geometries) {
+            editor.notifyJmePreChangeProperty(geometry, Messages.MODEL_PROPERTY_LOD);
+        }
+
+        for (int i = 0; i < meshes.length; i++) {
+            meshes[i].setLodLevels(levels[i]);
+        }
+
+        for (var geometry : geometries) {
+            editor.notifyJmeChangedProperty(geometry, Messages.MODEL_PROPERTY_LOD);
+            editor.queueFxChangeProperty(null, geometry, Messages.MODEL_PROPERTY_LOD);
+        }
+    }
+
+    @Override
+    @FromAnyThread
+    public long getEstimatedSize() {
+        return DEFAULT_ESTIMATED_SIZE + getEstimatedSize(newLevels) + getEstimatedSize(prevLevels);
+    }
+
+    /**
+     * Get the estimated size of the levels of details.
+     *
+     * @param levels the levels of details.
+     * @return the estimated size in bytes.
+     */
+    @FromAnyThread
+    private static long getEstimatedSize(@NotNull VertexBuffer[][] levels) {
+
+        long size = 0;
+
+        for (var meshLevels : levels) {
+            size += getEstimatedSize(meshLevels);
+        }
+
+        return size;
+    }
+
+    @FromAnyThread
+    private static long getEstimatedSize(@Nullable VertexBuffer[] levels) {
+
+        if (levels == null) {
+            return 0;
+        }
+
+        long size = 0;
+
+        for (var level : levels) {
+
+            var data = level.getData();
+
+            if (data != null) {
+                size += (long) data.capacity() * level.getFormat().getComponentSize();
+            }
+        }
+
+        return size;
+    }
+}
@@ -43,7 +43,7 @@ public class RemoveChildOperation extends AbstractEditorOperation<ModelChangeCon
     protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addJmeTask(() -> {
             parent.detachChild(child);
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxRemovedChild(parent, child));
+            editor.queueFxRemovedChild(parent, child);
         });
     }
 
@@ -52,7 +52,7 @@ public class RemoveChildOperation extends AbstractEditorOperation<ModelChangeCon
     protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
         EXECUTOR_MANAGER.addJmeTask(() -> {
             parent.attachChildAt(child, childIndex);
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxAddedChild(parent, child, childIndex, false));
+            editor.queueFxAddedChild(parent, child, childIndex, false);
         });
     }
 }
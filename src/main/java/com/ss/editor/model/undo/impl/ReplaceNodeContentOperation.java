@@ -0,0 +1,222 @@
+package com.ss.editor.model.undo.impl;
+
+import com.jme3.light.Light;
+import com.jme3.math.Transform;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.control.Control;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.plugin.api.RenderFilterExtension;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The implementation of the {@link AbstractEditorOperation} to replace the content of a {@link Node} by the
+ * content of its changed copy at once: children, local lights, controls, user data, a name, a transformation and
+ * render hints.
+ *
+ * @author JavaSaBr
+ */
+public class ReplaceNodeContentOperation extends AbstractEditorOperation<ModelChangeConsumer> {
+
+    /**
+     * The content of a node.
+     */
+    private static class State {
+
+        /**
+         * The name.
+         */
+        @Nullable
+        private final String name;
+
+        /**
+         * The children.
+         */
+        @NotNull
+        private final Spatial[] children;
+
+        /**
+         * The local lights.
+         */
+        @NotNull
+        private final Light[] lights;
+
+        /**
+         * The controls.
+         */
+        @NotNull
+        private final Control[] controls;
+
+        /**
+         * The user data.
+         */
+        @NotNull
+        private final Map<String, Object> userData;
+
+        /**
+         * The transformation.
+         */
+        @NotNull
+        private final Transform transform;
+
+        /**
+         * The local cull hint.
+         */
+        @NotNull
+        private final Spatial.CullHint cullHint;
+
+        /**
+         * The local queue bucket.
+         */
+        @NotNull
+        private final RenderQueue.Bucket queueBucket;
+
+        /**
+         * The local shadow mode.
+         */
+        @NotNull
+        private final RenderQueue.ShadowMode shadowMode;
+
+        /**
+         * The batch hint.
+         */
+        @NotNull
+        private final Spatial.BatchHint batchHint;
+
+        private State(@NotNull final Node node) {
+            this.name = node.getName();
+            this.children = node.getChildren().toArray(new Spatial[0]);
+            this.lights = new Light[node.getLocalLightList().size()];
+            this.controls = new Control[node.getNumControls()];
+            this.userData = new LinkedHashMap<>();
+            this.transform = node.getLocalTransform().clone();
+            this.cullHint = node.getLocalCullHint();
+            this.queueBucket = node.getLocalQueueBucket();
+            this.shadowMode = node.getLocalShadowMode();
+            this.batchHint = node.getBatchHint();
+
+            for (int i = 0; i < lights.length; i++) {
+                lights[i] = node.getLocalLightList().get(i);
+            }
+
+            for (int i = 0; i < controls.length; i++) {
+                controls[i] = node.getControl(i);
+            }
+
+            for (final String key : node.getUserDataKeys()) {
+                userData.put(key, node.getUserData(key));
+            }
+        }
+    }
+
+    /**
+     * The changed node.
+     */
+    @NotNull
+    private final Node node;
+
+    /**
+     * The new and the previous content.
+     */
+    @NotNull
+    private final State newState, prevState;
+
+    @JmeThread
+    public ReplaceNodeContentOperation(@NotNull final Node node, @NotNull final Node changed) {
+        this.node = node;
+        this.newState = new State(changed);
+        this.prevState = new State(node);
+
+        // the controls of the copy are bound to it, so they should be released to be added to the node
+        for (final Control control : newState.controls) {
+            changed.removeControl(control);
+        }
+    }
+
+    @Override
+    @FxThread
+    protected void redoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> apply(editor, prevState, newState));
+    }
+
+    @Override
+    @FxThread
+    protected void undoImpl(@NotNull final ModelChangeConsumer editor) {
+        EXECUTOR_MANAGER.addJmeTask(() -> apply(editor, newState, prevState));
+    }
+
+    /**
+     * Replace the content of the node.
+     *
+     * @param editor   the editor.
+     * @param oldState the current content.
+     * @param state    the content to set.
+     */
+    @JmeThread
+    private void apply(
+            @NotNull final ModelChangeConsumer editor,
+            @NotNull final State oldState,
+            @NotNull final State state
+    ) {
+
+        for (final Spatial child : oldState.children) {
+            node.detachChild(child);
+            editor.queueFxRemovedChild(node, child);
+        }
+
+        for (final Light light : oldState.lights) {
+            node.removeLight(light);
+            editor.queueFxRemovedChild(node, light);
+        }
+
+        for (final Control control : oldState.controls) {
+            node.removeControl(control);
+            editor.queueFxRemovedChild(node, control);
+        }
+
+        for (final String key : oldState.userData.keySet()) {
+            node.setUserData(key, null);
+        }
+
+        node.setLocalTransform(state.transform);
+        node.setCullHint(state.cullHint);
+        node.setQueueBucket(state.queueBucket);
+        node.setShadowMode(state.shadowMode);
+        node.setBatchHint(state.batchHint);
+
+        if (!Objects.equals(node.getName(), state.name)) {
+            node.setName(state.name);
+            editor.queueFxChangeProperty(null, node, RenameNodeOperation.PROPERTY_NAME);
+        }
+
+        state.userData.forEach(node::setUserData);
+
+        for (int i = 0; i < state.children.length; i++) {
+            node.attachChildAt(state.children[i], i);
+            editor.queueFxAddedChild(node, state.children[i], i, false);
+        }
+
+        for (final Light light : state.lights) {
+            node.addLight(light);
+            editor.queueFxAddedChild(node, light, -1, false);
+        }
+
+        for (final Control control : state.controls) {
+            node.addControl(control);
+            editor.queueFxAddedChild(node, control, -1, false);
+        }
+
+        EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxChangePropertyCount(node));
+
+        final RenderFilterExtension filterExtension = RenderFilterExtension.getInstance();
+        filterExtension.refreshFilters();
+    }
+}
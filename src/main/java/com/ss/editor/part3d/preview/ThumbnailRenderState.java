@@ -0,0 +1,424 @@
+package com.ss.editor.part3d.preview;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.AbstractAppState;
+import com.jme3.app.state.AppStateManager;
+import com.jme3.asset.AssetNotFoundException;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.light.AmbientLight;
+import com.jme3.light.DirectionalLight;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.RendererException;
+import com.jme3.renderer.ViewPort;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.texture.FrameBuffer;
+import com.jme3.texture.Image;
+import com.jme3.util.BufferUtils;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The state to render thumbnails of models and materials to an off-screen frame buffer. The frame buffer is split to
+ * slots, each slot is rendered by an own view port, so several thumbnails are rendered and read back per one frame.
+ * The state doesn't use any editor's scene, so it can be attached to any application including an off-screen one.
+ *
+ * @author JavaSaBr
+ */
+public class ThumbnailRenderState extends AbstractAppState {
+
+    private static final Logger LOGGER = LoggerManager.getLogger(ThumbnailRenderState.class);
+
+    private static final Vector3f LIGHT_DIRECTION =
+            new Vector3f(0.007654993F, 0.39636374F, 0.9180617F).negate();
+
+    private static final Vector3f VIEW_DIRECTION =
+            new Vector3f(-1F, -0.6F, -1F).normalizeLocal();
+
+    /**
+     * The vertical field of view of thumbnail cameras.
+     */
+    private static final float FIELD_OF_VIEW = 45F;
+
+    /**
+     * The request to render a thumbnail.
+     */
+    private static class Request {
+
+        /**
+         * The scene to render.
+         */
+        @NotNull
+        private final Spatial scene;
+
+        /**
+         * The future of the rendered thumbnail.
+         */
+        @NotNull
+        private final CompletableFuture<BufferedImage> result;
+
+        private Request(@NotNull Spatial scene) {
+            this.scene = scene;
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * The slot of the frame buffer.
+     */
+    private static class Slot {
+
+        /**
+         * The camera which renders to the area of this slot.
+         */
+        @NotNull
+        private final Camera camera;
+
+        /**
+         * The view port of this slot.
+         */
+        @NotNull
+        private final ViewPort viewPort;
+
+        /**
+         * The root node of this slot.
+         */
+        @NotNull
+        private final Node root;
+
+        /**
+         * The current rendered request.
+         */
+        @Nullable
+        private Request request;
+
+        private Slot(@NotNull Camera camera, @NotNull ViewPort viewPort, @NotNull Node root) {
+            this.camera = camera;
+            this.viewPort = viewPort;
+            this.root = root;
+        }
+    }
+
+    /**
+     * The waiting requests.
+     */
+    @NotNull
+    private final Queue<Request> requests;
+
+    /**
+     * The size of a slot in pixels.
+     */
+    private final int slotSize;
+
+    /**
+     * The count of slots in one row of the frame buffer.
+     */
+    private final int slotsPerRow;
+
+    /**
+     * The slots.
+     */
+    @Nullable
+    private Slot[] slots;
+
+    /**
+     * The frame buffer to render thumbnails.
+     */
+    @Nullable
+    private FrameBuffer frameBuffer;
+
+    /**
+     * The buffer to read rendered pixels.
+     */
+    @Nullable
+    private ByteBuffer pixels;
+
+    /**
+     * The render manager.
+     */
+    @Nullable
+    private RenderManager renderManager;
+
+    /**
+     * True if some slots are rendered in the current frame.
+     */
+    private boolean rendering;
+
+    /**
+     * Create a new thumbnail render state.
+     *
+     * @param slotSize    the size of a thumbnail in pixels.
+     * @param slotsPerRow the count of thumbnails in one row of the frame buffer, the total count of thumbnails which
+     *                    can be rendered per one frame is slotsPerRow * slotsPerRow.
+     */
+    public ThumbnailRenderState(int slotSize, int slotsPerRow) {
+        this.slotSize = slotSize;
+        this.slotsPerRow = slotsPerRow;
+        this.requests = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Get the size of a thumbnail in pixels.
+     *
+     * @return the size of a thumbnail in pixels.
+     */
+    @FromAnyThread
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    /**
+     * Request rendering of a thumbnail of the scene. The scene should be loaded already and shouldn't be attached to
+     * any other scene.
+     *
+     * @param scene the scene.
+     * @return the future of the rendered thumbnail.
+     */
+    @FromAnyThread
+    public @NotNull CompletableFuture<BufferedImage> render(@NotNull Spatial scene) {
+        var request = new Request(scene);
+        requests.add(request);
+        return request.result;
+    }
+
+    @Override
+    @JmeThread
+    public void initialize(@NotNull AppStateManager stateManager, @NotNull Application app) {
+        super.initialize(stateManager, app);
+
+        var size = slotSize * slotsPerRow;
+
+        renderManager = app.getRenderManager();
+        frameBuffer = new FrameBuffer(size, size, 1);
+        frameBuffer.setDepthBuffer(Image.Format.Depth);
+        frameBuffer.setColorBuffer(Image.Format.RGBA8);
+        pixels = BufferUtils.createByteBuffer(size * size * 4);
+        slots = new Slot[slotsPerRow * slotsPerRow];
+
+        var step = 1F / slotsPerRow;
+
+        for (int i = 0; i < slots.length; i++) {
+
+            var column = i % slotsPerRow;
+            var row = i / slotsPerRow;
+
+            var camera = new Camera(size, size);
+            camera.setViewPort(column * step, (column + 1) * step, row * step, (row + 1) * step);
+
+            var light = new DirectionalLight();
+            light.setDirection(LIGHT_DIRECTION);
+
+            var ambient = new AmbientLight();
+            ambient.setColor(ColorRGBA.White.mult(0.3F));
+
+            var root = new Node("Thumbnail root " + i);
+            root.addLight(light);
+            root.addLight(ambient);
+
+            var viewPort = renderManager.createPreView("Thumbnail " + i, camera);
+            viewPort.setOutputFrameBuffer(frameBuffer);
+            viewPort.setClearFlags(true, true, true);
+            viewPort.setBackgroundColor(ColorRGBA.BlackNoAlpha);
+            viewPort.attachScene(root);
+            viewPort.setEnabled(false);
+
+            slots[i] = new Slot(camera, viewPort, root);
+        }
+    }
+
+    @Override
+    @JmeThread
+    public void update(float tpf) {
+        super.update(tpf);
+
+        if (slots == null || requests.isEmpty()) {
+            return;
+        }
+
+        for (var slot : slots) {
+
+            var request = nextRequest();
+
+            if (request == null) {
+                break;
+            }
+
+            var root = slot.root;
+            root.attachChild(request.scene);
+            root.updateLogicalState(tpf);
+            root.updateGeometricState();
+
+            try {
+                renderManager.preloadScene(request.scene);
+            } catch (RendererException | AssetNotFoundException | UnsupportedOperationException e) {
+                LOGGER.warning(e);
+                root.detachAllChildren();
+                request.result.completeExceptionally(e);
+                continue;
+            }
+
+            lookAt(slot.camera, request.scene.getWorldBound());
+
+            slot.request = request;
+            slot.viewPort.setEnabled(true);
+            rendering = true;
+        }
+    }
+
+    /**
+     * Get the next request which is still waited.
+     *
+     * @return the next request or null.
+     */
+    @JmeThread
+    private @Nullable Request nextRequest() {
+
+        var request = requests.poll();
+
+        while (request != null && request.result.isDone()) {
+            request = requests.poll();
+        }
+
+        return request;
+    }
+
+    /**
+     * Move the camera to see the whole bound.
+     *
+     * @param camera the camera.
+     * @param bound  the bound.
+     */
+    @JmeThread
+    private void lookAt(@NotNull Camera camera, @Nullable BoundingVolume bound) {
+
+        var center = Vector3f.ZERO;
+        var radius = 1F;
+
+        if (bound instanceof BoundingBox) {
+            center = bound.getCenter();
+            radius = ((BoundingBox) bound).getExtent(null).length();
+        } else if (bound instanceof BoundingSphere) {
+            center = bound.getCenter();
+            radius = ((BoundingSphere) bound).getRadius();
+        }
+
+        radius = Math.max(radius, 0.001F);
+
+        var distance = radius / FastMath.sin(FIELD_OF_VIEW * 0.5F * FastMath.DEG_TO_RAD);
+
+        camera.setFrustumPerspective(FIELD_OF_VIEW, 1F, Math.max(distance - radius, radius * 0.01F),
+                distance + radius);
+        camera.setLocation(center.subtract(VIEW_DIRECTION.mult(distance)));
+        camera.lookAt(center, Vector3f.UNIT_Y);
+    }
+
+    @Override
+    @JmeThread
+    public void postRender() {
+        super.postRender();
+
+        if (!rendering || slots == null) {
+            return;
+        }
+
+        rendering = false;
+
+        var pixels = this.pixels;
+        pixels.clear();
+
+        var renderer = renderManager.getRenderer();
+        renderer.readFrameBuffer(frameBuffer, pixels);
+
+        for (int i = 0; i < slots.length; i++) {
+
+            var slot = slots[i];
+            var request = slot.request;
+
+            if (request == null) {
+                continue;
+            }
+
+            slot.request = null;
+            slot.viewPort.setEnabled(false);
+            slot.root.detachAllChildren();
+
+            request.result.complete(readSlot(pixels, i));
+        }
+    }
+
+    /**
+     * Read the rendered thumbnail of the slot.
+     *
+     * @param pixels the pixels of the whole frame buffer.
+     * @param index  the index of the slot.
+     * @return the rendered thumbnail.
+     */
+    @JmeThread
+    private @NotNull BufferedImage readSlot(@NotNull ByteBuffer pixels, int index) {
+
+        var image = new BufferedImage(slotSize, slotSize, BufferedImage.TYPE_INT_ARGB);
+        var width = slotSize * slotsPerRow;
+        var offsetX = (index % slotsPerRow) * slotSize;
+        var offsetY = (index / slotsPerRow) * slotSize;
+
+        for (int y = 0; y < slotSize; y++) {
+
+            var position = ((offsetY + y) * width + offsetX) * 4;
+
+            for (int x = 0; x < slotSize; x++, position += 4) {
+
+                var red = pixels.get(position) & 0xFF;
+                var green = pixels.get(position + 1) & 0xFF;
+                var blue = pixels.get(position + 2) & 0xFF;
+                var alpha = pixels.get(position + 3) & 0xFF;
+
+                // the rows of the frame buffer go from the bottom to the top
+                image.setRGB(x, slotSize - y - 1, (alpha << 24) | (red << 16) | (green << 8) | blue);
+            }
+        }
+
+        return image;
+    }
+
+    @Override
+    @JmeThread
+    public void cleanup() {
+        super.cleanup();
+
+        if (slots != null) {
+            for (var slot : slots) {
+
+                renderManager.removePreView(slot.viewPort);
+
+                if (slot.request != null) {
+                    slot.request.result.cancel(false);
+                }
+            }
+        }
+
+        for (var request = requests.poll(); request != null; request = requests.poll()) {
+            request.result.cancel(false);
+        }
+
+        slots = null;
+        pixels = null;
+        frameBuffer = null;
+        rendering = false;
+    }
+}
@@ -7,6 +7,7 @@ import com.ss.editor.manager.WorkspaceManager;
 import com.ss.editor.model.undo.EditorOperation;
 import com.ss.editor.model.undo.EditorOperationControl;
 import com.ss.editor.model.undo.UndoableEditor;
+import com.ss.editor.model.undo.editor.ChangeBatcher;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.workspace.Workspace;
 import com.ss.editor.ui.component.editor.impl.AbstractFileEditor;
@@ -37,6 +38,12 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
     @NotNull
     private final EditorOperationControl operationControl;
 
+    /**
+     * The collector of change notifications.
+     */
+    @NotNull
+    private final ChangeBatcher changeBatcher;
+
     /**
      * The changes counter.
      */
@@ -56,6 +63,7 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
 
     protected BaseFileEditor() {
         this.operationControl = createOperationControl();
+        this.changeBatcher = new ChangeBatcher(this);
         this.changeCounter = new AtomicInteger();
     }
 
@@ -75,6 +83,33 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
         operationControl.execute(operation);
     }
 
+    @Override
+    @FromAnyThread
+    public void queueFxChangeProperty(@Nullable final Object parent, @NotNull final Object object,
+                                      @NotNull final String propertyName) {
+        changeBatcher.changeProperty(parent, object, propertyName);
+    }
+
+    @Override
+    @FromAnyThread
+    public void queueFxAddedChild(@NotNull final Object parent, @NotNull final Object added, final int index,
+                                  final boolean needSelect) {
+        changeBatcher.addedChild(parent, added, index, needSelect);
+    }
+
+    @Override
+    @FromAnyThread
+    public void queueFxRemovedChild(@NotNull final Object parent, @NotNull final Object removed) {
+        changeBatcher.removedChild(parent, removed);
+    }
+
+    @Override
+    @FromAnyThread
+    public void queueFxMoved(@NotNull final Object prevParent, @NotNull final Object newParent,
+                             @NotNull final Object child, final int index, final boolean needSelect) {
+        changeBatcher.moved(prevParent, newParent, child, index, needSelect);
+    }
+
     @FxThread
     @Override
     protected boolean handleKeyActionImpl(@NotNull final KeyCode keyCode, final boolean isPressed,
@@ -131,6 +166,13 @@ public abstract class BaseFileEditor<S extends EditorState> extends AbstractFile
         return operationControl;
     }
 
+    @Override
+    @FxThread
+    public void notifyClosed() {
+        super.notifyClosed();
+        operationControl.clear();
+    }
+
     @Override
     @FxThread
     public void openFile(@NotNull final Path file) {
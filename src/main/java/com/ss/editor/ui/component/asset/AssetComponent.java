@@ -71,9 +71,8 @@ public class AssetComponent extends VBox implements ScreenComponent {
         createComponents();
         FX_EVENT_MANAGER.addEventHandler(RequestedRefreshAssetEvent.EVENT_TYPE, event -> refreshAssetFolder());
         FX_EVENT_MANAGER.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE, event -> switchAssetFolder());
-        FX_EVENT_MANAGER.addEventHandler(CreatedFileEvent.EVENT_TYPE, this::handleCreatedFile);
+        FX_EVENT_MANAGER.addEventHandler(ChangedFilesEvent.EVENT_TYPE, this::handleChangedFiles);
         FX_EVENT_MANAGER.addEventHandler(RequestSelectFileEvent.EVENT_TYPE, this::handleRequestToSelectFile);
-        FX_EVENT_MANAGER.addEventHandler(DeletedFileEvent.EVENT_TYPE, this::handleDeletedFile);
     }
 
     /**
@@ -107,44 +106,33 @@ public class AssetComponent extends VBox implements ScreenComponent {
     }
 
     /**
-     * Handle of the created file.
+     * Handle of changed files.
      */
     @FxThread
-    private void handleCreatedFile(@NotNull CreatedFileEvent event) {
+    private void handleChangedFiles(@NotNull ChangedFilesEvent event) {
 
-        var file = event.getFile();
-
-        var waitedFilesToSelect = getWaitedFilesToSelect();
-        var wasWaitedToSelect = waitedFilesToSelect.contains(file);
+        var createdFiles = event.getCreatedFiles();
+        var deletedFiles = event.getDeletedFiles();
+        var movedFiles = event.getMovedFiles();
 
         var resourceTree = getResourceTree();
-        resourceTree.notifyCreated(file);
+        resourceTree.notifyChanged(createdFiles, deletedFiles, movedFiles);
 
-        if (wasWaitedToSelect) {
-            waitedFilesToSelect.fastRemove(file);
-        }
+        var waitedFilesToSelect = getWaitedFilesToSelect();
 
-        if (wasWaitedToSelect || event.isNeedSelect()) {
-            resourceTree.expandTo(file, true);
+        for (var file : createdFiles) {
+            if (waitedFilesToSelect.contains(file)) {
+                waitedFilesToSelect.fastRemove(file);
+                resourceTree.expandTo(file, true);
+            }
         }
-    }
-
-    /**
-     * Handle of the deleted file.
-     */
-    @FxThread
-    private void handleDeletedFile(@NotNull DeletedFileEvent event) {
-
-        var file = event.getFile();
-
-        var resourceTree = getResourceTree();
-        resourceTree.notifyDeleted(file);
 
         var workspaceManager = WorkspaceManager.getInstance();
         var workspace = workspaceManager.getCurrentWorkspace();
 
         if (workspace != null) {
-            workspace.removeEditorState(file);
+            deletedFiles.forEach(workspace::removeEditorState);
+            movedFiles.keySet().forEach(workspace::removeEditorState);
         }
     }
 
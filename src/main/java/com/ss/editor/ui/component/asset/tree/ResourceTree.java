@@ -33,8 +33,12 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -935,6 +939,94 @@ public class ResourceTree extends TreeView<ResourceElement> {
         fillChildren(prevFile, newFile, children);
     }
 
+    /**
+     * Handle a batch of changes of files, children of each changed folder are sorted only once.
+     *
+     * @param createdFiles the created files.
+     * @param deletedFiles the deleted files.
+     * @param movedFiles   the table of new files by previous files.
+     */
+    @FxThread
+    public void notifyChanged(
+            @NotNull Array<Path> createdFiles,
+            @NotNull Array<Path> deletedFiles,
+            @NotNull Map<Path, Path> movedFiles
+    ) {
+
+        var root = getRoot();
+        if (root == null) {
+            return;
+        }
+
+        movedFiles.forEach(this::notifyMoved);
+
+        var items = new HashMap<Path, TreeItem<ResourceElement>>();
+
+        for (var item : UiUtils.getAllItems(root)) {
+            var element = item.getValue();
+            if (!(element instanceof LoadingResourceElement)) {
+                items.put(element.getFile(), item);
+            }
+        }
+
+        var toRemove = new HashMap<TreeItem<ResourceElement>, Set<TreeItem<ResourceElement>>>();
+
+        for (var file : deletedFiles) {
+
+            var item = items.remove(file);
+            var parent = item == null ? null : item.getParent();
+
+            if (parent != null) {
+                toRemove.computeIfAbsent(parent, key -> new HashSet<>()).add(item);
+            }
+        }
+
+        toRemove.forEach((parent, children) -> parent.getChildren().removeAll(children));
+
+        var currentAsset = EditorConfig.getInstance().getCurrentAsset();
+        if (currentAsset == null) {
+            return;
+        }
+
+        var sortedFiles = ArrayFactory.newArray(Path.class, createdFiles.size());
+        sortedFiles.addAll(createdFiles);
+        sortedFiles.sort((first, second) -> first.getNameCount() - second.getNameCount());
+
+        var changedFolders = new HashSet<TreeItem<ResourceElement>>();
+
+        for (var file : sortedFiles) {
+
+            var folder = file.getParent();
+
+            if (!folder.startsWith(currentAsset) || items.containsKey(file)) {
+                continue;
+            }
+
+            var folderItem = items.get(folder);
+
+            if (folderItem == null) {
+                notifyCreated(file);
+                continue;
+            }
+
+            var newItem = new TreeItem<ResourceElement>(createFor(file));
+
+            fill(newItem);
+
+            folderItem.getChildren().add(newItem);
+            changedFolders.add(folderItem);
+
+            for (var item : UiUtils.getAllItems(newItem)) {
+                var element = item.getValue();
+                if (!(element instanceof LoadingResourceElement)) {
+                    items.put(element.getFile(), item);
+                }
+            }
+        }
+
+        changedFolders.forEach(folderItem -> FXCollections.sort(folderItem.getChildren(), ITEM_COMPARATOR));
+    }
+
     /**
      * Handle hotkeys.
      */
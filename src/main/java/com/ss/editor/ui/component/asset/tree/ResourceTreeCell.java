@@ -4,6 +4,7 @@ import static com.ss.editor.manager.FileIconManager.DEFAULT_FILE_ICON_SIZE;
 import static java.util.Collections.singletonList;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.manager.FileIconManager;
+import com.ss.editor.manager.JavaFxImageManager;
 import com.ss.editor.ui.FxConstants;
 import com.ss.editor.ui.component.asset.tree.resource.FolderResourceElement;
 import com.ss.editor.ui.component.asset.tree.resource.LoadingResourceElement;
@@ -35,6 +36,12 @@ public class ResourceTreeCell extends TreeCell<ResourceElement> {
     @NotNull
     private static final FileIconManager ICON_MANAGER = FileIconManager.getInstance();
 
+    /**
+     * The image manager.
+     */
+    @NotNull
+    private static final JavaFxImageManager IMAGE_MANAGER = JavaFxImageManager.getInstance();
+
     /**
      * The icon.
      */
@@ -136,6 +143,7 @@ public class ResourceTreeCell extends TreeCell<ResourceElement> {
         super.updateItem(item, empty);
 
         removeToolTip();
+        IMAGE_MANAGER.cancelImagePreview(icon);
 
         if (item == null) {
             setText(StringUtils.EMPTY);
@@ -151,7 +159,13 @@ public class ResourceTreeCell extends TreeCell<ResourceElement> {
         var fileName = file.getFileName();
         var folder = item instanceof FolderResourceElement;
 
-        icon.setImage(ICON_MANAGER.getIcon(file, folder, true, DEFAULT_FILE_ICON_SIZE));
+        var fileIcon = ICON_MANAGER.getIcon(file, folder, true, DEFAULT_FILE_ICON_SIZE);
+
+        if (!folder && JavaFxImageManager.isThumbnail(file)) {
+            IMAGE_MANAGER.loadThumbnail(file, DEFAULT_FILE_ICON_SIZE, DEFAULT_FILE_ICON_SIZE, icon, fileIcon);
+        } else {
+            icon.setImage(fileIcon);
+        }
 
         setText(fileName == null ? file.toString() : fileName.toString());
         setGraphic(icon);
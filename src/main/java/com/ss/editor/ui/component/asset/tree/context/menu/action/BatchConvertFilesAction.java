@@ -0,0 +1,108 @@
+package com.ss.editor.ui.component.asset.tree.context.menu.action;
+
+import static com.ss.editor.extension.property.EditablePropertyType.BOOLEAN;
+import static com.ss.editor.extension.property.EditablePropertyType.FOLDER_FROM_ASSET_FOLDER;
+import static com.ss.editor.util.EditorUtil.getRealFile;
+import static com.ss.rlib.common.util.array.ArrayCollectors.toArray;
+import com.ss.editor.Messages;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.file.converter.ConversionContext;
+import com.ss.editor.plugin.api.dialog.GenericFactoryDialog;
+import com.ss.editor.plugin.api.property.PropertyDefinition;
+import com.ss.editor.ui.Icons;
+import com.ss.editor.ui.component.asset.tree.resource.ResourceElement;
+import com.ss.editor.ui.dialog.file.converter.BatchConvertDialog;
+import com.ss.rlib.common.util.VarTable;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import javafx.event.ActionEvent;
+import javafx.scene.image.Image;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.nio.file.Path;
+
+/**
+ * The action to convert many files and all convertible files in folders.
+ *
+ * @author JavaSaBr
+ */
+public class BatchConvertFilesAction extends FileAction {
+
+    @NotNull
+    private static final Point DIALOG_SIZE = new Point(500, -1);
+
+    private static final String PROP_SKIP_UNCHANGED = "skipUnchanged";
+    private static final String PROP_EXPORT_MATERIALS = "exportMaterials";
+    private static final String PROP_MATERIALS_FOLDER = "materialsFolder";
+    private static final String PROP_OVERWRITE_MATERIALS = "overwriteMaterials";
+
+    @NotNull
+    private static final Array<String> MATERIAL_DEPS = ArrayFactory.asArray(PROP_EXPORT_MATERIALS);
+
+    public BatchConvertFilesAction(@NotNull Array<ResourceElement> elements) {
+        super(elements);
+    }
+
+    @Override
+    @FxThread
+    protected @NotNull String getName() {
+        return Messages.ASSET_COMPONENT_RESOURCE_TREE_CONTEXT_MENU_BATCH_CONVERT;
+    }
+
+    @Override
+    @FxThread
+    protected @Nullable Image getIcon() {
+        return Icons.TRANSFORMATION_16;
+    }
+
+    @Override
+    @FxThread
+    protected void execute(@Nullable ActionEvent event) {
+        super.execute(event);
+
+        var definitions = ArrayFactory.newArray(PropertyDefinition.class);
+        definitions.add(new PropertyDefinition(BOOLEAN, Messages.BATCH_CONVERT_DIALOG_SKIP_UNCHANGED, PROP_SKIP_UNCHANGED, true));
+        definitions.add(new PropertyDefinition(BOOLEAN, Messages.MODEL_CONVERTER_DIALOG_EXPORT_MATERIALS, PROP_EXPORT_MATERIALS, false));
+        definitions.add(new PropertyDefinition(FOLDER_FROM_ASSET_FOLDER, MATERIAL_DEPS, Messages.MODEL_CONVERTER_DIALOG_MATERIAL_FOLDER, PROP_MATERIALS_FOLDER, null));
+        definitions.add(new PropertyDefinition(BOOLEAN, MATERIAL_DEPS, Messages.MODEL_CONVERTER_DIALOG_OVERWRITE_MATERIALS, PROP_OVERWRITE_MATERIALS, false));
+
+        var dialog = new GenericFactoryDialog(definitions, this::convert, this::validate);
+        dialog.setButtonOkText(Messages.SIMPLE_DIALOG_BUTTON_CONVERT);
+        dialog.setTitle(Messages.BATCH_CONVERT_DIALOG_TITLE);
+        dialog.configureSize(DIALOG_SIZE);
+        dialog.show();
+    }
+
+    /**
+     * Validate the settings.
+     *
+     * @param vars the variables.
+     * @return true if all are ok.
+     */
+    @FxThread
+    private boolean validate(@NotNull VarTable vars) {
+        return !vars.getBoolean(PROP_EXPORT_MATERIALS) || vars.has(PROP_MATERIALS_FOLDER);
+    }
+
+    /**
+     * Start converting using settings from the dialog.
+     *
+     * @param vars the variables.
+     */
+    @FxThread
+    private void convert(@NotNull VarTable vars) {
+
+        var materialsFolder = vars.getBoolean(PROP_EXPORT_MATERIALS) ?
+                getRealFile(vars.get(PROP_MATERIALS_FOLDER, Path.class)) : null;
+
+        var context = new ConversionContext(materialsFolder, vars.getBoolean(PROP_OVERWRITE_MATERIALS));
+        var files = getElements().stream()
+                .map(ResourceElement::getFile)
+                .collect(toArray(Path.class));
+
+        var dialog = new BatchConvertDialog(files, context, vars.getBoolean(PROP_SKIP_UNCHANGED));
+        dialog.show();
+    }
+}
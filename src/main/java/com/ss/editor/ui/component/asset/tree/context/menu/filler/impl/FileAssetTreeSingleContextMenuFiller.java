@@ -7,8 +7,10 @@ import com.ss.editor.ui.component.asset.tree.context.menu.action.*;
 import com.ss.editor.ui.component.asset.tree.context.menu.filler.AssetTreeMultiContextMenuFiller;
 import com.ss.editor.ui.component.asset.tree.context.menu.filler.AssetTreeSingleContextMenuFiller;
 import com.ss.editor.ui.component.asset.tree.resource.FileResourceElement;
+import com.ss.editor.ui.component.asset.tree.resource.FolderResourceElement;
 import com.ss.editor.ui.component.asset.tree.resource.ResourceElement;
 import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
 import javafx.scene.control.MenuItem;
 import org.jetbrains.annotations.NotNull;
 
@@ -56,6 +58,12 @@ public class FileAssetTreeSingleContextMenuFiller implements AssetTreeSingleCont
             if (actionTester.test(OpenFileByExternalEditorAction.class)) {
                 items.add(new OpenFileByExternalEditorAction(element));
             }
+
+        } else if (element instanceof FolderResourceElement) {
+
+            if (actionTester.test(BatchConvertFilesAction.class)) {
+                items.add(new BatchConvertFilesAction(ArrayFactory.asArray(element)));
+            }
         }
     }
 
@@ -63,5 +71,9 @@ public class FileAssetTreeSingleContextMenuFiller implements AssetTreeSingleCont
     @FxThread
     public void fill(@NotNull final Array<ResourceElement> elements, @NotNull final List<MenuItem> items,
                      @NotNull final Predicate<Class<?>> actionTester) {
+
+        if (actionTester.test(BatchConvertFilesAction.class)) {
+            items.add(new BatchConvertFilesAction(elements));
+        }
     }
 }
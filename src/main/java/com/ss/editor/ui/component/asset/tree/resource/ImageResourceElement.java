@@ -9,7 +9,7 @@ import org.jetbrains.annotations.Nullable;
 import java.nio.file.Path;
 
 /**
- * The presentation of an image.
+ * The presentation of an image or a file with a rendered thumbnail.
  *
  * @author JavaSaBr
  */
@@ -24,7 +24,7 @@ public class ResourceElementFactory {
     public static @NotNull ResourceElement createFor(@NotNull final Path file) {
         if (Files.isDirectory(file)) {
             return new FolderResourceElement(file);
-        } else if (JavaFxImageManager.isImage(file)) {
+        } else if (JavaFxImageManager.isImage(file) || JavaFxImageManager.isThumbnail(file)) {
             return new ImageResourceElement(file);
         } else {
             return new FileResourceElement(file);
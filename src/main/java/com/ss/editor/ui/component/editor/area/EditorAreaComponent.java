@@ -106,6 +106,7 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
                 event -> processEvent((RenamedFileEvent) event));
         FX_EVENT_MANAGER.addEventHandler(MovedFileEvent.EVENT_TYPE,
                 event -> processEvent((MovedFileEvent) event));
+        FX_EVENT_MANAGER.addEventHandler(ChangedFilesEvent.EVENT_TYPE, this::processEvent);
         FX_EVENT_MANAGER.addEventHandler(ChangedCurrentAssetFolderEvent.EVENT_TYPE,
                 event -> processEvent((ChangedCurrentAssetFolderEvent) event));
     }
@@ -207,6 +208,14 @@ public class EditorAreaComponent extends TabPane implements ScreenComponent {
         handleMovedFiles(event.getPrevFile(), event.getNewFile());
     }
 
+    /**
+     * Handle the event of externally moved files.
+     */
+    @FxThread
+    private void processEvent(@NotNull ChangedFilesEvent event) {
+        event.getMovedFiles().forEach(this::handleMovedFiles);
+    }
+
     /**
      * Handle a moved/renamed file.
      *
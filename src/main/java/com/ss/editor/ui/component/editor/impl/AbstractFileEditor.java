@@ -1,7 +1,8 @@
 package com.ss.editor.ui.component.editor.impl;
 
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import com.jme3.math.Vector3f;
 import com.ss.editor.JmeApplication;
 import com.ss.editor.Messages;
@@ -20,10 +21,10 @@ import com.ss.editor.ui.event.FxEventManager;
 import com.ss.editor.ui.event.impl.FileChangedEvent;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.ui.util.UiUtils;
+import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.common.logging.Logger;
 import com.ss.rlib.common.logging.LoggerManager;
 import com.ss.rlib.common.util.FileUtils;
-import com.ss.rlib.common.util.Utils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.fx.util.FXUtils;
@@ -44,7 +45,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -77,6 +78,22 @@ public abstract class AbstractFileEditor<R extends Pane> implements FileEditor {
     @NotNull
     protected static final FxEventManager FX_EVENT_MANAGER = FxEventManager.getInstance();
 
+    /**
+     * The task to write a snapshot of an editor's content to a file without the render lock.
+     */
+    @FunctionalInterface
+    protected interface SaveTask {
+
+        /**
+         * Write the snapshot to the file.
+         *
+         * @param toStore the file to store.
+         * @throws IOException if was some problem with writing to the to store file.
+         */
+        @BackgroundThread
+        void save(@NotNull Path toStore) throws IOException;
+    }
+
     /**
      * The array of 3D parts of this editor.
      */
@@ -346,34 +363,79 @@ public abstract class AbstractFileEditor<R extends Pane> implements FileEditor {
 
         EXECUTOR_MANAGER.addBackgroundTask(() -> {
 
-            final EditorDescription description = getDescription();
-            final String editorId = description.getEditorId();
+            final Path editFile = getEditFile();
+
+            // the temp file is next to the edited file to be moved over it atomically,
+            // the file watcher ignores such files
+            final Path tempFile = EditorUtil.getSaveFile(editFile);
 
-            final Path tempFile = Utils.get(editorId, prefix -> Files.createTempFile(prefix, "toSave.tmp"));
             final JmeApplication jmeApplication = JmeApplication.getInstance();
-            final long stamp = jmeApplication.asyncLock();
+
             try {
 
-                final Path editFile = getEditFile();
+                final SaveTask saveTask;
+                final long stamp = jmeApplication.asyncLock();
+                try {
+
+                    saveTask = prepareSave();
+
+                    if (saveTask == null) {
+                        doSave(tempFile);
+                    }
 
-                doSave(tempFile);
-                try (final OutputStream out = Files.newOutputStream(editFile, TRUNCATE_EXISTING)) {
-                    Files.copy(tempFile, out);
                 } finally {
-                    FileUtils.delete(tempFile);
+                    jmeApplication.asyncUnlock(stamp);
                 }
 
-            } catch (final IOException e) {
+                if (saveTask != null) {
+                    saveTask.save(tempFile);
+                }
+
+                replaceFile(tempFile, editFile);
+
+            } catch (final IOException | RuntimeException e) {
                 LOGGER.warning(this, e);
                 EXECUTOR_MANAGER.addFxTask(this::notifyFinishSaving);
             } finally {
-                jmeApplication.asyncUnlock(stamp);
+                if (Files.exists(tempFile)) {
+                    FileUtils.delete(tempFile);
+                }
             }
 
             EXECUTOR_MANAGER.addFxTask(this::postSave);
         });
     }
 
+    /**
+     * Replace the edited file by the saved file, the replacing is atomic when the saved file is on the same file
+     * store and the file system supports it, otherwise the saved file is copied over the edited file.
+     *
+     * @param savedFile the saved file.
+     * @param editFile  the edited file.
+     * @throws IOException if was some problem with replacing the edited file.
+     */
+    @BackgroundThread
+    private void replaceFile(@NotNull final Path savedFile, @NotNull final Path editFile) throws IOException {
+        try {
+            Files.move(savedFile, editFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(savedFile, editFile, REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Prepare saving of new changes under the render lock. An editor can take a snapshot of its content here and
+     * return the task to write the snapshot after releasing the lock, or return null to do all saving by
+     * {@link #doSave(Path)} under the lock.
+     *
+     * @return the task to write the snapshot or null.
+     * @throws IOException if was some problem with preparing.
+     */
+    @BackgroundThread
+    protected @Nullable SaveTask prepareSave() throws IOException {
+        return null;
+    }
+
     /**
      * Save new changes.
      *
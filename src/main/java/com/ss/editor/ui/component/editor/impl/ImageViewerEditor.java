@@ -11,7 +11,6 @@ import com.ss.editor.ui.component.editor.EditorDescription;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.event.impl.FileChangedEvent;
 import com.ss.rlib.fx.util.FXUtils;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
@@ -84,9 +83,7 @@ public class ImageViewerEditor extends AbstractFileEditor<VBox> {
 
     @FxThread
     private void showImage(@NotNull final Path file) {
-        final Image preview = JAVA_FX_IMAGE_MANAGER.getImagePreview(file, IMAGE_SIZE, IMAGE_SIZE);
-        final ImageView imageView = getImageView();
-        imageView.setImage(preview);
+        JAVA_FX_IMAGE_MANAGER.loadImagePreview(file, IMAGE_SIZE, IMAGE_SIZE, getImageView());
     }
 
     @Override
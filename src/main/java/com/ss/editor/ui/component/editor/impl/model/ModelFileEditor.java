@@ -28,6 +28,7 @@ import com.ss.editor.ui.component.editor.state.impl.EditorModelEditorState;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.util.EditorUtil;
+import com.ss.editor.util.InstancingUtils;
 import com.ss.editor.util.MaterialUtils;
 import com.ss.editor.util.NodeUtils;
 import com.ss.rlib.fx.util.FXUtils;
@@ -178,6 +179,7 @@ public class ModelFileEditor extends AbstractSceneFileEditor<Spatial, ModelEdito
         var model = assetManager.loadAsset(modelKey);
 
         MaterialUtils.cleanUpMaterialParams(model);
+        InstancingUtils.restoreAfterLoad(model);
 
         var editor3DPart = getEditor3DPart();
         editor3DPart.openModel(model);
@@ -2,7 +2,7 @@ package com.ss.editor.ui.component.editor.impl.scene;
 
 import static com.ss.editor.part3d.editor.impl.scene.AbstractSceneEditor3DPart.KEY_LOADED_MODEL;
 import static com.ss.editor.util.EditorUtil.*;
-import static com.ss.editor.util.MaterialUtils.saveIfNeedTextures;
+import static com.ss.editor.util.MaterialUtils.copyChangedTextures;
 import static com.ss.editor.util.MaterialUtils.updateMaterialIdNeed;
 import static com.ss.editor.util.NodeUtils.findParent;
 import static com.ss.rlib.common.util.ClassUtils.unsafeCast;
@@ -30,6 +30,7 @@ import com.jme3.scene.Geometry;
 import com.jme3.scene.Node;
 import com.jme3.scene.Spatial;
 import com.jme3.scene.control.Control;
+import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.Messages;
@@ -39,6 +40,7 @@ import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.transform.EditorTransformSupport.TransformType;
 import com.ss.editor.control.transform.EditorTransformSupport.TransformationMode;
+import com.ss.editor.executor.TaskPriority;
 import com.ss.editor.extension.scene.SceneLayer;
 import com.ss.editor.extension.scene.ScenePresentable;
 import com.ss.editor.model.editor.ModelEditingProvider;
@@ -46,6 +48,7 @@ import com.ss.editor.model.scene.EditorAudioNode;
 import com.ss.editor.model.scene.EditorLightNode;
 import com.ss.editor.model.scene.EditorPresentableNode;
 import com.ss.editor.model.scene.WrapperNode;
+import com.ss.editor.model.undo.editor.ChangeBatch;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.model.undo.impl.AddChildOperation;
@@ -92,6 +95,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -150,7 +157,12 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
      */
     @FxThread
     public static void registerPostSaveHandler(@NotNull Consumer<Spatial> handler) {
-        PRE_SAVE_HANDLERS.add(handler);
+        POST_SAVE_HANDLERS.add(handler);
+    }
+
+    static {
+        registerPreSaveHandler(InstancingUtils::prepareToSave);
+        registerPostSaveHandler(InstancingUtils::restoreAfterSave);
     }
 
     /**
@@ -266,6 +278,11 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
      */
     private boolean ignoreCameraMove;
 
+    /**
+     * The flag of processing a batch of changes.
+     */
+    private boolean batchChanging;
+
     public AbstractSceneFileEditor() {
         this.stats3DPart = new Stats3DPart(notNull(statsContainer));
         addEditor3DPart(stats3DPart);
@@ -344,9 +361,9 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         final String extension = FileUtils.getExtension(file);
 
         if (extension.endsWith(FileExtensions.JME_MATERIAL)) {
-            EXECUTOR_MANAGER.addJmeTask(() -> updateMaterial(file));
+            EXECUTOR_MANAGER.addJmeTask(() -> updateMaterial(file), TaskPriority.BULK);
         } else if (MaterialUtils.isShaderFile(file) || MaterialUtils.isTextureFile(file)) {
-            EXECUTOR_MANAGER.addJmeTask(() -> updateMaterials(file));
+            EXECUTOR_MANAGER.addJmeTask(() -> updateMaterials(file), TaskPriority.BULK);
         }
     }
 
@@ -597,11 +614,14 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
     public void notifyFxChangeProperty(@Nullable final Object parent, @NotNull final Object object,
                                        @NotNull final String propertyName) {
 
-        final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
-        modelPropertyEditor.syncFor(object);
-
         final ModelNodeTree modelNodeTree = getModelNodeTree();
-        modelNodeTree.notifyChanged(parent, object);
+
+        // a batch of changes is synced once after all changes
+        if (!isBatchChanging()) {
+            final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
+            modelPropertyEditor.syncFor(object);
+            modelNodeTree.notifyChanged(parent, object);
+        }
 
         if (object instanceof Geometry && Messages.MODEL_PROPERTY_MATERIAL.equals(propertyName)) {
             modelNodeTree.refresh(object);
@@ -611,6 +631,44 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         editingComponentContainer.notifyChangeProperty(object, propertyName);
     }
 
+    @Override
+    @FxThread
+    public void notifyFxChanges(@NotNull final ChangeBatch batch) {
+
+        setBatchChanging(true);
+        try {
+            super.notifyFxChanges(batch);
+        } finally {
+            setBatchChanging(false);
+        }
+
+        final ModelNodeTree modelNodeTree = getModelNodeTree();
+        modelNodeTree.notifyChanged(batch);
+
+        final ModelPropertyEditor modelPropertyEditor = getModelPropertyEditor();
+        modelPropertyEditor.syncFor(batch);
+    }
+
+    /**
+     * Set true if a batch of changes is being processed.
+     *
+     * @param batchChanging true if a batch of changes is being processed.
+     */
+    @FxThread
+    private void setBatchChanging(final boolean batchChanging) {
+        this.batchChanging = batchChanging;
+    }
+
+    /**
+     * Return true if a batch of changes is being processed.
+     *
+     * @return true if a batch of changes is being processed.
+     */
+    @FxThread
+    protected boolean isBatchChanging() {
+        return batchChanging;
+    }
+
     @Override
     public void notifyJmePreChangeProperty(@NotNull final Object object, @NotNull final String propertyName) {
         getEditor3DPart().notifyPropertyPreChanged(object, propertyName);
@@ -929,31 +987,87 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
 
     @Override
     @BackgroundThread
-    public void doSave(@NotNull final Path toStore) throws IOException {
-        super.doSave(toStore);
+    protected @NotNull SaveTask prepareSave() throws IOException {
 
         final M currentModel = getCurrentModel();
+        final Map<Path, Image> changedTextures = new HashMap<>();
+        final Map<Path, Image> originalTextures = new HashMap<>();
 
         try {
-            NodeUtils.visitGeometry(currentModel, geometry -> saveIfNeedTextures(geometry.getMaterial()));
+            NodeUtils.visitGeometry(currentModel, geometry ->
+                    copyChangedTextures(geometry.getMaterial(), changedTextures, originalTextures));
         } catch (final Exception e) {
             EditorUtil.handleException(LOGGER, this, e);
-            return;
+            throw new IOException(e);
         }
 
+        final Spatial snapshot;
+
         PRE_SAVE_HANDLERS.forEach(currentModel, Consumer::accept);
+        try {
+            // the structure and materials are copied, but meshes are shared to not copy all buffers under the lock,
+            // so a mesh changed in place during writing (e.g. by sculpting) can be saved partly changed
+            snapshot = currentModel.clone(true);
+        } finally {
+            POST_SAVE_HANDLERS.forEach(currentModel, Consumer::accept);
+        }
+
+        return toStore -> saveSnapshot(snapshot, changedTextures, originalTextures, toStore);
+    }
+
+    /**
+     * Save the snapshot of the current model and its changed textures, the textures are encoded in parallel with
+     * exporting the model.
+     *
+     * @param snapshot        the snapshot of the current model.
+     * @param changedTextures  the copied images of changed textures by their files.
+     * @param originalTextures the original images of changed textures by their files.
+     * @param toStore          the file to store the model.
+     * @throws IOException if was some problem with writing to the to store file.
+     */
+    @BackgroundThread
+    private void saveSnapshot(
+            @NotNull final Spatial snapshot,
+            @NotNull final Map<Path, Image> changedTextures,
+            @NotNull final Map<Path, Image> originalTextures,
+            @NotNull final Path toStore
+    ) throws IOException {
+
+        final ForkJoinTask<?> texturesTask = ForkJoinPool.commonPool().submit(() ->
+                changedTextures.entrySet().parallelStream()
+                        .forEach(entry -> saveTexture(entry.getKey(), entry.getValue(),
+                                notNull(originalTextures.get(entry.getKey())))));
+
         try {
 
             final BinaryExporter exporter = BinaryExporter.getInstance();
 
             try (final OutputStream out = Files.newOutputStream(toStore)) {
-                exporter.save(currentModel, out);
+                exporter.save(snapshot, out);
             }
 
-        } catch (final Exception e) {
+        } catch (final IOException | RuntimeException e) {
             EditorUtil.handleException(LOGGER, this, e);
+            throw e;
         } finally {
-            POST_SAVE_HANDLERS.forEach(currentModel, Consumer::accept);
+            texturesTask.join();
+        }
+    }
+
+    /**
+     * Save the copied image of a changed texture, the original image is marked as changed again if saving fails.
+     *
+     * @param file     the texture file.
+     * @param image    the copied image.
+     * @param original the original image.
+     */
+    @BackgroundThread
+    private void saveTexture(@NotNull final Path file, @NotNull final Image image, @NotNull final Image original) {
+        try {
+            MaterialUtils.saveTexture(file, image);
+        } catch (final IOException | RuntimeException e) {
+            EXECUTOR_MANAGER.addJmeTask(original::incrementChange);
+            EditorUtil.handleException(LOGGER, this, e);
         }
     }
 
@@ -1131,7 +1245,7 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
 
         paintingComponentContainer = new PaintingComponentContainer(this, this);
 
-        scriptingComponent = new EditorScriptingComponent(this::refreshTree);
+        scriptingComponent = new EditorScriptingComponent(this, this::refreshTree);
         scriptingComponent.prefHeightProperty().bind(root.heightProperty());
 
         super.createContent(root);
@@ -1143,6 +1257,7 @@ public abstract class AbstractSceneFileEditor<M extends Spatial, MA extends Abst
         statsContainer.prefHeightProperty().bind(editorAreaPane.heightProperty());
 
         modelNodeTree = new ModelNodeTree(selectionNodeHandler, this);
+        modelNodeTree.setLazyMode(true);
         modelNodeTree.prefHeightProperty().bind(root.heightProperty());
 
         modelPropertyEditor = new ModelPropertyEditor(this);
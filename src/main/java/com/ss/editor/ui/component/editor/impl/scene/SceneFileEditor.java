@@ -36,6 +36,7 @@ import com.ss.editor.ui.control.tree.node.TreeNode;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.util.DynamicIconSupport;
 import com.ss.editor.util.EditorUtil;
+import com.ss.editor.util.InstancingUtils;
 import com.ss.editor.util.MaterialUtils;
 import com.ss.rlib.fx.util.FXUtils;
 import com.ss.rlib.common.util.array.Array;
@@ -163,6 +164,7 @@ public class SceneFileEditor extends AbstractSceneFileEditor<SceneNode, SceneEdi
         model.depthFirstTraversal(this::updateVisibility);
 
         MaterialUtils.cleanUpMaterialParams(model);
+        InstancingUtils.restoreAfterLoad(model);
 
         final SceneEditor3DPart editor3DState = getEditor3DPart();
         editor3DState.openModel(model);
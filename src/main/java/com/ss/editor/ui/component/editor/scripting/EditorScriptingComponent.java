@@ -1,6 +1,20 @@
 package com.ss.editor.ui.component.editor.scripting;
 
+import com.jme3.light.Light;
+import com.jme3.material.Material;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
 import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.editor.ModelChangeConsumer;
+import com.ss.editor.model.undo.impl.ReplaceNodeContentOperation;
 import com.ss.editor.ui.component.scripting.GroovyEditorComponent;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.util.EditorUtil;
@@ -9,11 +23,19 @@ import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.common.util.dictionary.DictionaryFactory;
 import com.ss.rlib.common.util.dictionary.ObjectDictionary;
-import groovy.lang.GroovyShell;
+import groovy.lang.Binding;
+import groovy.lang.Script;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * The component to work with scripts in an editor.
@@ -22,6 +44,101 @@ import org.jetbrains.annotations.NotNull;
  */
 public class EditorScriptingComponent extends GridPane {
 
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The max count of cached compiled scripts.
+     */
+    private static final int SCRIPT_CACHE_SIZE = 32;
+
+    /**
+     * The max time of executing a script in seconds.
+     */
+    private static final long SCRIPT_TIME_BUDGET = 60;
+
+    /**
+     * The cache of compiled scripts.
+     */
+    @NotNull
+    private static final ScriptCache SCRIPT_CACHE = new ScriptCache(SCRIPT_CACHE_SIZE, SCRIPT_TIME_BUDGET);
+
+    /**
+     * The state of an executing script.
+     */
+    private static final class ScriptExecution {
+
+        /**
+         * The thread which executes the script if it can be interrupted.
+         */
+        @Nullable
+        private Thread thread;
+
+        /**
+         * The handle of the background task.
+         */
+        @Nullable
+        private volatile TaskHandle handle;
+
+        /**
+         * The flag of cancelling the execution.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Start executing the script in the current thread.
+         *
+         * @param interruptible true if the current thread can be interrupted to cancel the execution.
+         * @return false if the execution was already cancelled.
+         */
+        @FromAnyThread
+        private synchronized boolean start(final boolean interruptible) {
+
+            if (cancelled) {
+                return false;
+            }
+
+            if (interruptible) {
+                thread = Thread.currentThread();
+            }
+
+            return true;
+        }
+
+        /**
+         * Finish executing the script in the current thread.
+         */
+        @FromAnyThread
+        private synchronized void finish() {
+            if (thread != null) {
+                thread = null;
+                // clear the flag if the execution was cancelled after finishing the script
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Cancel the execution.
+         *
+         * @return true if the current background task was cancelled before starting, so nothing will finish the
+         * execution.
+         */
+        @FromAnyThread
+        private synchronized boolean cancel() {
+
+            cancelled = true;
+
+            final TaskHandle handle = this.handle;
+            final boolean dropped = handle != null && handle.cancel();
+
+            if (thread != null) {
+                thread.interrupt();
+            }
+
+            return dropped;
+        }
+    }
+
     /**
      * The table of variables.
      */
@@ -35,10 +152,10 @@ public class EditorScriptingComponent extends GridPane {
     private final Array<String> imports;
 
     /**
-     * The shell.
+     * The change consumer.
      */
     @NotNull
-    private final GroovyShell shell;
+    private final ModelChangeConsumer changeConsumer;
 
     /**
      * The header component.
@@ -58,12 +175,29 @@ public class EditorScriptingComponent extends GridPane {
     @NotNull
     private final Runnable applyHandler;
 
+    /**
+     * The run button.
+     */
+    @NotNull
+    private final Button runButton;
+
+    /**
+     * The current execution of a script.
+     */
+    @Nullable
+    private ScriptExecution execution;
+
     /**
      * Instantiates a new Editor scripting component.
      *
-     * @param applyHandler the apply handler
+     * @param changeConsumer the change consumer.
+     * @param applyHandler   the apply handler
      */
-    public EditorScriptingComponent(@NotNull final Runnable applyHandler) {
+    public EditorScriptingComponent(
+            @NotNull final ModelChangeConsumer changeConsumer,
+            @NotNull final Runnable applyHandler
+    ) {
+        this.changeConsumer = changeConsumer;
         this.applyHandler = applyHandler;
 
         this.editorComponent = new GroovyEditorComponent(true);
@@ -73,14 +207,13 @@ public class EditorScriptingComponent extends GridPane {
         this.headerComponent = new GroovyEditorComponent(false);
         this.headerComponent.prefHeightProperty().bind(heightProperty().multiply(0.4));
         this.headerComponent.prefWidthProperty().bind(widthProperty());
-        this.shell = new GroovyShell();
         this.variables = DictionaryFactory.newObjectDictionary();
         this.imports = ArrayFactory.newArray(String.class);
 
         final Label headersLabel = new Label(Messages.EDITOR_SCRIPTING_COMPONENT_HEADERS + ":");
         final Label scriptBodyLabel = new Label(Messages.EDITOR_SCRIPTING_COMPONENT_BODY + ":");
 
-        final Button runButton = new Button(Messages.EDITOR_SCRIPTING_COMPONENT_RUN);
+        runButton = new Button(Messages.EDITOR_SCRIPTING_COMPONENT_RUN);
         runButton.setOnAction(event -> run());
 
         add(headersLabel, 0, 0, 1, 1);
@@ -144,10 +277,26 @@ public class EditorScriptingComponent extends GridPane {
     }
 
     /**
-     * Run the current script.
+     * Run the current script or cancel the running script.
      */
+    @FxThread
     private void run() {
 
+        final ScriptExecution current = this.execution;
+
+        if (current != null) {
+
+            // a script which is executed in the JME thread can't be interrupted, so the execution is finished
+            // only when the script returns
+            runButton.setDisable(true);
+
+            if (current.cancel()) {
+                finishExecution(current);
+            }
+
+            return;
+        }
+
         String code = editorComponent.getCode();
 
         for (final String type : imports) {
@@ -162,15 +311,278 @@ public class EditorScriptingComponent extends GridPane {
         imports.forEach(result, (type, stringBuilder) -> stringBuilder.append("import ").append(type).append('\n'));
         result.append(code);
 
-        variables.forEach(shell, GroovyShell::setVariable);
+        final Map<String, Object> values = new LinkedHashMap<>();
+        variables.forEach(values::put);
+
+        final ScriptExecution execution = new ScriptExecution();
+        final String script = result.toString();
+
+        this.execution = execution;
+        this.runButton.setText(Messages.SIMPLE_DIALOG_BUTTON_CANCEL);
+
+        execution.handle = EXECUTOR_MANAGER.addBackgroundTask(() -> compile(execution, script, values),
+                TaskPriority.INTERACTIVE);
+    }
+
+    /**
+     * Compile the script in background to not block the JME thread.
+     *
+     * @param execution the execution.
+     * @param script    the script code.
+     * @param values    the values of variables.
+     */
+    @BackgroundThread
+    private void compile(
+            @NotNull final ScriptExecution execution,
+            @NotNull final String script,
+            @NotNull final Map<String, Object> values
+    ) {
+
+        final Class<? extends Script> scriptClass;
 
         try {
-            shell.evaluate(result.toString());
+            scriptClass = SCRIPT_CACHE.getScriptClass(script);
         } catch (final Exception e) {
-            EditorUtil.handleException(null, this, e);
+            if (!execution.cancelled) {
+                EditorUtil.handleException(null, this, e);
+            }
+            EXECUTOR_MANAGER.addFxTask(() -> finishExecution(execution));
+            return;
+        }
+
+        EXECUTOR_MANAGER.addJmeTask(() -> prepareExecution(execution, scriptClass, values));
+    }
+
+    /**
+     * Prepare copies of scene nodes to execute the script in background.
+     *
+     * @param execution   the execution.
+     * @param scriptClass the compiled script.
+     * @param values      the values of variables.
+     */
+    @JmeThread
+    private void prepareExecution(
+            @NotNull final ScriptExecution execution,
+            @NotNull final Class<? extends Script> scriptClass,
+            @NotNull final Map<String, Object> values
+    ) {
+
+        if (execution.cancelled) {
+            EXECUTOR_MANAGER.addFxTask(() -> finishExecution(execution));
+            return;
+        }
+
+        final Binding binding = new Binding();
+        final Map<Node, Node> copies = new LinkedHashMap<>();
+
+        boolean inPlace = false;
+
+        for (final Map.Entry<String, Object> entry : values.entrySet()) {
+
+            final Object value = entry.getValue();
+
+            if (value instanceof Node) {
+                final Node copy = ((Node) value).clone();
+                copies.put((Node) value, copy);
+                binding.setVariable(entry.getKey(), copy);
+            } else {
+                inPlace = inPlace || value instanceof Spatial;
+                binding.setVariable(entry.getKey(), value);
+            }
+        }
+
+        // a spatial which isn't a node can't be replaced by a copy, so such scripts change the scene directly
+        if (inPlace) {
+            executeInPlace(execution, scriptClass, binding);
+            return;
+        }
+
+        final TaskHandle handle = EXECUTOR_MANAGER.addBackgroundTask(() ->
+                executeInBackground(execution, scriptClass, binding, copies), TaskPriority.INTERACTIVE);
+
+        execution.handle = handle;
+    }
+
+    /**
+     * Execute the script in the current JME thread.
+     *
+     * @param execution   the execution.
+     * @param scriptClass the compiled script.
+     * @param binding     the variables.
+     */
+    @JmeThread
+    private void executeInPlace(
+            @NotNull final ScriptExecution execution,
+            @NotNull final Class<? extends Script> scriptClass,
+            @NotNull final Binding binding
+    ) {
+
+        final boolean executed = execute(execution, scriptClass, binding, false);
+
+        EXECUTOR_MANAGER.addFxTask(() -> {
+
+            if (executed) {
+                applyHandler.run();
+            }
+
+            finishExecution(execution);
+        });
+    }
+
+    /**
+     * Execute the script against copies of scene nodes in background.
+     *
+     * @param execution   the execution.
+     * @param scriptClass the compiled script.
+     * @param binding     the variables.
+     * @param copies      the copies of scene nodes.
+     */
+    @BackgroundThread
+    private void executeInBackground(
+            @NotNull final ScriptExecution execution,
+            @NotNull final Class<? extends Script> scriptClass,
+            @NotNull final Binding binding,
+            @NotNull final Map<Node, Node> copies
+    ) {
+
+        final Map<Node, Long> prevStates = new LinkedHashMap<>();
+        copies.forEach((node, copy) -> prevStates.put(node, getStateHash(copy)));
+
+        if (!execute(execution, scriptClass, binding, true)) {
+            EXECUTOR_MANAGER.addFxTask(() -> finishExecution(execution));
+            return;
+        }
+
+        // read-only scripts shouldn't replace the content of nodes and add operations to the history
+        copies.entrySet().removeIf(entry -> prevStates.get(entry.getKey()) == getStateHash(entry.getValue()));
+
+        if (copies.isEmpty()) {
+            EXECUTOR_MANAGER.addFxTask(() -> finishExecution(execution));
+            return;
+        }
+
+        EXECUTOR_MANAGER.addJmeTask(() -> {
+
+            final Array<ReplaceNodeContentOperation> operations = ArrayFactory.newArray(ReplaceNodeContentOperation.class);
+            copies.forEach((node, copy) -> operations.add(new ReplaceNodeContentOperation(node, copy)));
+
+            EXECUTOR_MANAGER.addFxTask(() -> {
+
+                if (!execution.cancelled) {
+                    operations.forEach(changeConsumer, (operation, consumer) -> consumer.execute(operation));
+                    applyHandler.run();
+                }
+
+                finishExecution(execution);
+            });
+        });
+    }
+
+    /**
+     * Calculate the hash of the state of the spatial and all its children which can be changed by a script:
+     * the structure, names, transforms, render settings, user data, controls, local lights, meshes and materials.
+     *
+     * @param spatial the spatial.
+     * @return the hash of the state.
+     */
+    @FromAnyThread
+    private static long getStateHash(@NotNull final Spatial spatial) {
+
+        long hash = spatial.getClass().hashCode();
+        hash = 31 * hash + Objects.hashCode(spatial.getName());
+        hash = 31 * hash + spatial.getLocalTransform().hashCode();
+        hash = 31 * hash + spatial.getLocalCullHint().hashCode();
+        hash = 31 * hash + spatial.getLocalQueueBucket().hashCode();
+        hash = 31 * hash + spatial.getLocalShadowMode().hashCode();
+        hash = 31 * hash + spatial.getBatchHint().hashCode();
+
+        for (final String key : spatial.getUserDataKeys()) {
+            hash = 31 * hash + key.hashCode();
+            hash = 31 * hash + Objects.hashCode(spatial.getUserData(key));
+        }
+
+        for (int i = 0; i < spatial.getNumControls(); i++) {
+            hash = 31 * hash + System.identityHashCode(spatial.getControl(i));
+        }
+
+        for (final Light light : spatial.getLocalLightList()) {
+            hash = 31 * hash + System.identityHashCode(light);
+            hash = 31 * hash + Objects.hashCode(light.getColor());
+            hash = 31 * hash + Boolean.hashCode(light.isEnabled());
+        }
+
+        if (spatial instanceof Geometry) {
+
+            final Geometry geometry = (Geometry) spatial;
+            final Material material = geometry.getMaterial();
+
+            hash = 31 * hash + System.identityHashCode(geometry.getMesh());
+            hash = 31 * hash + System.identityHashCode(material);
+            hash = 31 * hash + (material == null ? 0 : material.contentHashCode());
+            hash = 31 * hash + geometry.getLodLevel();
+
+        } else if (spatial instanceof Node) {
+
+            final List<Spatial> children = ((Node) spatial).getChildren();
+            hash = 31 * hash + children.size();
+
+            for (final Spatial child : children) {
+                hash = 31 * hash + getStateHash(child);
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Execute the script in the current thread.
+     *
+     * @param execution     the execution.
+     * @param scriptClass   the compiled script.
+     * @param binding       the variables.
+     * @param interruptible true if the current thread can be interrupted to cancel the execution.
+     * @return true if the script was executed successfully.
+     */
+    @FromAnyThread
+    private boolean execute(
+            @NotNull final ScriptExecution execution,
+            @NotNull final Class<? extends Script> scriptClass,
+            @NotNull final Binding binding,
+            final boolean interruptible
+    ) {
+
+        if (!execution.start(interruptible)) {
+            return false;
+        }
+
+        try {
+            InvokerHelper.createScript(scriptClass, binding).run();
+        } catch (final Exception e) {
+            if (!execution.cancelled) {
+                EditorUtil.handleException(null, this, e);
+            }
+            return false;
+        } finally {
+            execution.finish();
+        }
+
+        return !execution.cancelled;
+    }
+
+    /**
+     * Finish the execution of a script.
+     *
+     * @param execution the execution.
+     */
+    @FxThread
+    private void finishExecution(@NotNull final ScriptExecution execution) {
+
+        if (this.execution != execution) {
             return;
         }
 
-        applyHandler.run();
+        this.execution = null;
+        this.runButton.setText(Messages.EDITOR_SCRIPTING_COMPONENT_RUN);
+        this.runButton.setDisable(false);
     }
 }
@@ -0,0 +1,121 @@
+package com.ss.editor.ui.component.editor.scripting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.Script;
+import groovy.transform.ThreadInterrupt;
+import groovy.transform.TimedInterrupt;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.jetbrains.annotations.NotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The cache of compiled groovy scripts by hashes of their code. Each script is compiled by own class loader, so
+ * classes of scripts which are evicted from the cache can be unloaded.
+ *
+ * @author JavaSaBr
+ */
+public class ScriptCache {
+
+    /**
+     * The cached classes of scripts by hashes of code.
+     */
+    @NotNull
+    private final Map<String, Class<? extends Script>> scripts;
+
+    /**
+     * The configuration of the compiler.
+     */
+    @NotNull
+    private final CompilerConfiguration configuration;
+
+    /**
+     * @param maxSize    the max count of cached scripts.
+     * @param timeBudget the max time of executing a script in seconds.
+     */
+    public ScriptCache(int maxSize, long timeBudget) {
+        this.scripts = new LinkedHashMap<>(maxSize, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(@NotNull Map.Entry<String, Class<? extends Script>> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        // scripts check the thread interruption to be cancellable and throw an exception when the time is over
+        this.configuration = new CompilerConfiguration();
+        this.configuration.addCompilationCustomizers(
+                new ASTTransformationCustomizer(ThreadInterrupt.class),
+                new ASTTransformationCustomizer(Collections.singletonMap("value", timeBudget), TimedInterrupt.class)
+        );
+    }
+
+    /**
+     * Get a compiled class of the script code, the code is compiled only if it isn't in the cache yet.
+     *
+     * @param code the script code.
+     * @return the class of the script.
+     * @throws IllegalArgumentException if the code isn't a script.
+     */
+    @BackgroundThread
+    public @NotNull Class<? extends Script> getScriptClass(@NotNull String code) {
+
+        var hash = toHash(code);
+
+        synchronized (scripts) {
+            var scriptClass = scripts.get(hash);
+            if (scriptClass != null) {
+                return scriptClass;
+            }
+        }
+
+        var classLoader = new GroovyClassLoader(getClass().getClassLoader(), configuration);
+        var type = classLoader.parseClass(code, "EditorScript_" + hash.substring(0, 16) + ".groovy");
+
+        if (!Script.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("The code " + type + " isn't a script.");
+        }
+
+        var scriptClass = type.asSubclass(Script.class);
+
+        synchronized (scripts) {
+            scripts.put(hash, scriptClass);
+        }
+
+        return scriptClass;
+    }
+
+    /**
+     * Calculate a hash of the code.
+     *
+     * @param code the code.
+     * @return the hex string of the hash.
+     */
+    @FromAnyThread
+    private static @NotNull String toHash(@NotNull String code) {
+
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes(UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+
+        var result = new StringBuilder(digest.length * 2);
+
+        for (var value : digest) {
+            result.append(Character.forDigit((value >> 4) & 0xF, 16))
+                    .append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return result.toString();
+    }
+}
@@ -11,6 +11,7 @@ import com.ss.editor.annotation.FxThread;
 import com.ss.editor.annotation.JmeThread;
 import com.ss.editor.control.painting.spawn.SpawnToolControl;
 import com.ss.editor.control.painting.spawn.SpawnToolControl.SpawnMethod;
+import com.ss.editor.control.painting.spawn.SpawnToolControl.SpawnPlacement;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.component.painting.PaintingComponentContainer;
 import com.ss.editor.ui.component.painting.property.PaintingPropertyDefinition;
@@ -35,11 +36,13 @@ public class SpawnPaintingComponent extends
         PropertiesBasedPaintingComponent<Node, SpawnPaintingStateWithEditorTool, SpawnToolControl> {
 
     private static final SpawnMethod[] SPAWN_METHODS = SpawnMethod.values();
+    private static final SpawnPlacement[] SPAWN_PLACEMENTS = SpawnPlacement.values();
 
     private static final String CATEGORY_DEFAULT = "Default";
 
     private static final String PROPERTY_MODEL = "model";
     private static final String PROPERTY_METHOD = "method";
+    private static final String PROPERTY_PLACEMENT = "placement";
     private static final String PROPERTY_MIN_SCALE = "minScale";
     private static final String PROPERTY_MAX_SCALE = "maxScale";
     private static final String PROPERTY_PADDING = "padding";
@@ -59,6 +62,8 @@ public class SpawnPaintingComponent extends
         var result = ArrayFactory.<PaintingPropertyDefinition>newArray(PaintingPropertyDefinition.class);
         result.add(new PaintingPropertyDefinition(CATEGORY_DEFAULT, ENUM,
                 Messages.MODEL_PROPERTY_METHOD, PROPERTY_METHOD, SpawnMethod.BATCH));
+        result.add(new PaintingPropertyDefinition(CATEGORY_DEFAULT, ENUM,
+                Messages.MODEL_PROPERTY_PLACEMENT, PROPERTY_PLACEMENT, SpawnPlacement.POISSON_DISK));
         result.add(new PaintingPropertyDefinition(CATEGORY_DEFAULT, VECTOR_3F,
                 Messages.MODEL_PROPERTY_MIN_SCALE, PROPERTY_MIN_SCALE, new Vector3f(1F, 1F, 1F)));
         result.add(new PaintingPropertyDefinition(CATEGORY_DEFAULT, VECTOR_3F,
@@ -100,11 +105,13 @@ public class SpawnPaintingComponent extends
         }
 
         var method = vars.getEnum(PROPERTY_METHOD, SpawnMethod.class);
+        var placement = vars.getEnum(PROPERTY_PLACEMENT, SpawnPlacement.class);
         var minScale = vars.get(PROPERTY_MIN_SCALE, Vector3f.class);
         var maxScale = vars.get(PROPERTY_MAX_SCALE, Vector3f.class);
         var padding = vars.get(PROPERTY_PADDING, Vector3f.class);
 
         state.setMethod(method.ordinal());
+        state.setPlacement(placement.ordinal());
         state.setMinScale(minScale);
         state.setMaxScale(maxScale);
         state.setPadding(padding);
@@ -121,6 +128,7 @@ public class SpawnPaintingComponent extends
     protected void syncValues(@NotNull SpawnPaintingStateWithEditorTool state, @NotNull SpawnToolControl toolControl) {
         super.syncValues(state, toolControl);
         toolControl.setMethod(SpawnMethod.valueOf(state.getMethod()));
+        toolControl.setPlacement(SpawnPlacement.valueOf(state.getPlacement()));
         toolControl.setMinScale(state.getMinScale());
         toolControl.setMaxScale(state.getMaxScale());
         toolControl.setPadding(state.getPadding());
@@ -134,6 +142,7 @@ public class SpawnPaintingComponent extends
         var selectedModels = state.getSelectedModels();
 
         vars.set(PROPERTY_METHOD, SPAWN_METHODS[method]);
+        vars.set(PROPERTY_PLACEMENT, SPAWN_PLACEMENTS[state.getPlacement()]);
         vars.set(PROPERTY_MIN_SCALE, state.getMinScale());
         vars.set(PROPERTY_MAX_SCALE, state.getMaxScale());
         vars.set(PROPERTY_PADDING, state.getPadding());
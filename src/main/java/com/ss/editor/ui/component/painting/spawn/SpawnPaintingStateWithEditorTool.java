@@ -3,6 +3,7 @@ package com.ss.editor.ui.component.painting.spawn;
 import com.jme3.math.Vector3f;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.control.painting.spawn.SpawnToolControl.SpawnMethod;
+import com.ss.editor.control.painting.spawn.SpawnToolControl.SpawnPlacement;
 import com.ss.editor.ui.component.painting.impl.AbstractPaintingStateWithEditorTool;
 import org.jetbrains.annotations.NotNull;
 
@@ -49,8 +50,14 @@ public class SpawnPaintingStateWithEditorTool extends AbstractPaintingStateWithE
      */
     private int method;
 
+    /**
+     * The placement of models.
+     */
+    private int placement;
+
     public SpawnPaintingStateWithEditorTool() {
         this.method = SpawnMethod.BATCH.ordinal();
+        this.placement = SpawnPlacement.POISSON_DISK.ordinal();
         this.selectedModels = new String[SpawnPaintingComponent.AVAILABLE_MODELS];
         this.minScale = Vector3f.UNIT_XYZ.clone();
         this.maxScale = Vector3f.UNIT_XYZ.clone();
@@ -79,6 +86,28 @@ public class SpawnPaintingStateWithEditorTool extends AbstractPaintingStateWithE
         return method;
     }
 
+    /**
+     * Set the placement of models.
+     *
+     * @param placement the placement of models.
+     */
+    @FxThread
+    public void setPlacement(int placement) {
+        final boolean changed = getPlacement() != placement;
+        this.placement = placement;
+        if (changed) notifyChange();
+    }
+
+    /**
+     * Get the placement of models.
+     *
+     * @return the placement of models.
+     */
+    @FxThread
+    public int getPlacement() {
+        return placement;
+    }
+
     /**
      * Set the models min scale.
      *
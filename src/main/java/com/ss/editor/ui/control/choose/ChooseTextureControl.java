@@ -262,6 +262,7 @@ public class ChooseTextureControl extends HBox {
 
         if (textureFile == null) {
             textureLabel.setText(Messages.MATERIAL_MODEL_PROPERTY_CONTROL_NO_TEXTURE);
+            IMAGE_MANAGER.cancelImagePreview(preview);
             preview.setImage(null);
             textureTooltip.clean();
             return;
@@ -270,7 +271,7 @@ public class ChooseTextureControl extends HBox {
         final Path assetFile = notNull(getAssetFile(textureFile));
 
         textureLabel.setText(assetFile.toString());
-        preview.setImage(IMAGE_MANAGER.getImagePreview(textureFile, 28, 28));
+        IMAGE_MANAGER.loadImagePreview(textureFile, 28, 28, preview);
         textureTooltip.showImage(textureFile);
     }
 }
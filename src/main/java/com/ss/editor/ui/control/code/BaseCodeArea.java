@@ -1,16 +1,27 @@
 package com.ss.editor.ui.control.code;
 
 import static java.util.Collections.singleton;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.manager.ExecutorManager;
 import com.ss.rlib.common.util.StringUtils;
 import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.PlainTextChange;
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
 import org.fxmisc.undo.UndoManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -21,6 +32,15 @@ import java.util.regex.Pattern;
  */
 public class BaseCodeArea extends CodeArea {
 
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The delay after the last change before updating highlighting.
+     */
+    @NotNull
+    private static final Duration HIGHLIGHTING_DELAY = Duration.ofMillis(150);
+
     protected static final String CSS_KEYWORD = "keyword";
     protected static final String CSS_VALUE_TYPE = "value-type";
     protected static final String CSS_VALUE_VALUE = "value-value";
@@ -61,16 +81,106 @@ public class BaseCodeArea extends CodeArea {
     protected static final String STRING_PATTERN = "\"([^\"\\\\]|\\\\.)*\"";
     protected static final String COMMENT_PATTERN = "//[^\n]*" + "|" + "/\\*(.|\\R)*?\\*/";
 
+    protected static final String CSS_PLAIN_CODE = "plain-code";
+
+    /**
+     * The pattern which doesn't match anything to not highlight code.
+     */
+    @NotNull
+    private static final Pattern NO_HIGHLIGHTING_PATTERN = Pattern.compile("(?!)");
+
+    /**
+     * The result of highlighting a range of paragraphs.
+     */
+    private static class HighlightingResult {
+
+        /**
+         * The new style spans.
+         */
+        @NotNull
+        private final StyleSpans<Collection<String>> styleSpans;
+
+        /**
+         * The new lexer states at the end of highlighted paragraphs.
+         */
+        @NotNull
+        private final boolean[] exitStates;
+
+        /**
+         * The version of the text.
+         */
+        private final int version;
+
+        /**
+         * The first highlighted paragraph.
+         */
+        private final int paragraph;
+
+        /**
+         * The offset of the first highlighted paragraph.
+         */
+        private final int offset;
+
+        private HighlightingResult(
+                @NotNull final StyleSpans<Collection<String>> styleSpans,
+                @NotNull final boolean[] exitStates,
+                final int version,
+                final int paragraph,
+                final int offset
+        ) {
+            this.styleSpans = styleSpans;
+            this.exitStates = exitStates;
+            this.version = version;
+            this.paragraph = paragraph;
+            this.offset = offset;
+        }
+    }
+
     /**
      * The list of available classes.
      */
     @NotNull
     protected final String[][] availableClasses;
 
+    /**
+     * The lexer states at the end of each paragraph, true if the paragraph ends inside a block comment and null if
+     * the state is unknown yet.
+     */
+    @NotNull
+    private final List<Boolean> exitStates;
+
+    /**
+     * The current highlighting task.
+     */
+    @Nullable
+    private TaskHandle highlightingTask;
+
+    /**
+     * The version of the text.
+     */
+    private int version;
+
+    /**
+     * The range of paragraphs which need to be highlighted again.
+     */
+    private int dirtyFrom, dirtyTo;
+
+    /**
+     * True if a subclass overrides the deprecated {@link #calculateStyleSpans(String)}, such code areas are
+     * highlighted fully in the FX thread as before.
+     */
+    private final boolean legacyHighlighting;
+
     public BaseCodeArea() {
         this.availableClasses = createAvailableClasses();
-        richChanges().filter(ch -> !ch.getInserted().equals(ch.getRemoved()))
-                .subscribe(change -> setStyleSpans(0, calculateStyleSpans(getText())));
+        this.exitStates = new ArrayList<>();
+        this.exitStates.add(Boolean.FALSE);
+        this.dirtyFrom = Integer.MAX_VALUE;
+        this.dirtyTo = -1;
+        this.legacyHighlighting = isOverridden(getClass());
+        plainTextChanges().subscribe(this::markDirty);
+        plainTextChanges().successionEnds(HIGHLIGHTING_DELAY)
+                .subscribe(change -> requestHighlighting());
     }
 
     @Override
@@ -98,7 +208,7 @@ public class BaseCodeArea extends CodeArea {
      *
      * @return the list of available classes.
      */
-    @FxThread
+    @FromAnyThread
     protected @NotNull String[][] getAvailableClasses() {
         return AVAILABLE_CLASSES;
     }
@@ -110,7 +220,7 @@ public class BaseCodeArea extends CodeArea {
      * @param text    the text.
      * @return the highlight styles.
      */
-    @FxThread
+    @FromAnyThread
     protected @NotNull StyleSpans<Collection<String>> computeHighlighting(@NotNull final Pattern pattern,
                                                                           @NotNull final String text) {
 
@@ -121,32 +231,56 @@ public class BaseCodeArea extends CodeArea {
 
         while (matcher.find()) {
 
-            String styleClass = null;
+            final String styleClass = getStyleClass(matcher);
 
-            for (final String[] availableClass : getAvailableClasses()) {
+            spansBuilder.add(singleton(CSS_PLAIN_CODE), matcher.start() - lastKwEnd);
+            spansBuilder.add(singleton(styleClass), matcher.end() - matcher.start());
 
-                try {
-                    styleClass = matcher.group(availableClass[0]) != null ? availableClass[1] : null;
-                } catch (final IllegalArgumentException e) {
-                    continue;
-                }
+            lastKwEnd = matcher.end();
+        }
 
-                if(styleClass != null) {
-                    break;
-                }
-            }
+        spansBuilder.add(singleton(CSS_PLAIN_CODE), text.length() - lastKwEnd);
 
-            assert styleClass != null;
+        return spansBuilder.create();
+    }
 
-            spansBuilder.add(singleton("plain-code"), matcher.start() - lastKwEnd);
-            spansBuilder.add(singleton(styleClass), matcher.end() - matcher.start());
+    /**
+     * Get a style class of the found token.
+     *
+     * @param matcher the matcher.
+     * @return the style class.
+     */
+    @FromAnyThread
+    private @NotNull String getStyleClass(@NotNull final Matcher matcher) {
 
-            lastKwEnd = matcher.end();
+        String styleClass = null;
+
+        for (final String[] availableClass : getAvailableClasses()) {
+
+            try {
+                styleClass = matcher.group(availableClass[0]) != null ? availableClass[1] : null;
+            } catch (final IllegalArgumentException e) {
+                continue;
+            }
+
+            if (styleClass != null) {
+                break;
+            }
         }
 
-        spansBuilder.add(singleton("plain-code"), text.length() - lastKwEnd);
+        assert styleClass != null;
 
-        return spansBuilder.create();
+        return styleClass;
+    }
+
+    /**
+     * Get the pattern to highlight code.
+     *
+     * @return the pattern to highlight code.
+     */
+    @FromAnyThread
+    protected @NotNull Pattern getHighlightingPattern() {
+        return NO_HIGHLIGHTING_PATTERN;
     }
 
     /**
@@ -154,10 +288,290 @@ public class BaseCodeArea extends CodeArea {
      *
      * @param text the text
      * @return the style spans
+     * @deprecated override {@link #getHighlightingPattern()} to highlight only changed paragraphs in background.
      */
     @FxThread
+    @Deprecated
     protected @NotNull StyleSpans<? extends Collection<String>> calculateStyleSpans(@NotNull final String text) {
-        throw new RuntimeException("unsupported");
+        return computeHighlighting(getHighlightingPattern(), text);
+    }
+
+    /**
+     * Check the type of code area overrides the deprecated {@link #calculateStyleSpans(String)}.
+     *
+     * @param type the type of code area.
+     * @return true if the method is overridden.
+     */
+    @FromAnyThread
+    private static boolean isOverridden(@NotNull final Class<?> type) {
+
+        for (Class<?> current = type; current != BaseCodeArea.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("calculateStyleSpans", String.class);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // check the next super class
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Update the range of paragraphs which need to be highlighted again.
+     *
+     * @param change the change of the text.
+     */
+    @FxThread
+    private void markDirty(@NotNull final PlainTextChange change) {
+
+        version++;
+
+        final int paragraph = offsetToPosition(change.getPosition(), Bias.Forward).getMajor();
+        final int removed = countLines(change.getRemoved());
+        final int inserted = countLines(change.getInserted());
+
+        for (int i = 0; i < removed; i++) {
+            exitStates.remove(paragraph + 1);
+        }
+
+        for (int i = 0; i < inserted; i++) {
+            exitStates.add(paragraph + 1, null);
+        }
+
+        exitStates.set(paragraph, null);
+
+        // move the previous dirty range to new positions of the paragraphs
+        if (dirtyFrom > paragraph + removed) {
+            dirtyFrom += inserted - removed;
+        }
+
+        if (dirtyTo > paragraph + removed) {
+            dirtyTo += inserted - removed;
+        }
+
+        dirtyFrom = Math.min(dirtyFrom, paragraph);
+        dirtyTo = Math.max(dirtyTo, paragraph + inserted);
+    }
+
+    /**
+     * Start highlighting of changed paragraphs in background.
+     */
+    @FxThread
+    private void requestHighlighting() {
+
+        if (dirtyFrom > dirtyTo) {
+            return;
+        }
+
+        if (legacyHighlighting) {
+            dirtyFrom = Integer.MAX_VALUE;
+            dirtyTo = -1;
+            setStyleSpans(0, calculateStyleSpans(getText()));
+            return;
+        }
+
+        // the states can be out of sync only if the text was changed before the subscription
+        final int paragraphs = getParagraphs().size();
+        if (exitStates.size() != paragraphs) {
+            exitStates.clear();
+            for (int i = 0; i < paragraphs; i++) {
+                exitStates.add(null);
+            }
+            dirtyFrom = 0;
+            dirtyTo = paragraphs - 1;
+        }
+
+        final TaskHandle prevTask = this.highlightingTask;
+
+        if (prevTask != null) {
+            prevTask.cancel();
+        }
+
+        final String text = getText();
+        final Boolean[] states = exitStates.toArray(new Boolean[exitStates.size()]);
+        final int version = this.version;
+        final int from = dirtyFrom;
+        final int to = Math.min(dirtyTo, paragraphs - 1);
+
+        highlightingTask = EXECUTOR_MANAGER.addBackgroundTask(() -> {
+            final HighlightingResult result = highlight(text, states, version, from, to);
+            EXECUTOR_MANAGER.addFxTask(() -> applyHighlighting(result));
+        }, TaskPriority.INTERACTIVE);
+    }
+
+    /**
+     * Highlight the range of paragraphs and following paragraphs which lexer states were changed.
+     *
+     * @param text    the text.
+     * @param states  the current lexer states at the end of paragraphs.
+     * @param version the version of the text.
+     * @param from    the first paragraph to highlight.
+     * @param to      the last paragraph to highlight.
+     * @return the result of highlighting.
+     */
+    @BackgroundThread
+    private @NotNull HighlightingResult highlight(
+            @NotNull final String text,
+            @NotNull final Boolean[] states,
+            final int version,
+            final int from,
+            final int to
+    ) {
+
+        final Pattern pattern = getHighlightingPattern();
+        final StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+        final boolean[] exitStates = new boolean[states.length - from];
+
+        int start = 0;
+
+        for (int i = 0; i < from; i++) {
+            start = text.indexOf('\n', start) + 1;
+        }
+
+        final int offset = start;
+
+        boolean inComment = from > 0 && Boolean.TRUE.equals(states[from - 1]);
+        int count = 0;
+
+        for (int i = from; i < states.length; i++) {
+
+            int end = text.indexOf('\n', start);
+
+            if (end < 0) {
+                end = text.length();
+            }
+
+            if (i > from) {
+                spansBuilder.add(singleton(CSS_PLAIN_CODE), 1);
+            }
+
+            inComment = highlightLine(spansBuilder, pattern, text.substring(start, end), inComment);
+            exitStates[count++] = inComment;
+            start = end + 1;
+
+            // the next paragraphs don't depend on the changes anymore
+            if (i >= to && Objects.equals(states[i], inComment)) {
+                break;
+            }
+        }
+
+        final boolean[] result = new boolean[count];
+        System.arraycopy(exitStates, 0, result, 0, count);
+
+        return new HighlightingResult(spansBuilder.create(), result, version, from, offset);
+    }
+
+    /**
+     * Highlight a line of code.
+     *
+     * @param spansBuilder the builder of style spans.
+     * @param pattern      the pattern.
+     * @param line         the line.
+     * @param inComment    true if the line starts inside a block comment.
+     * @return true if the line ends inside a block comment.
+     */
+    @BackgroundThread
+    private boolean highlightLine(
+            @NotNull final StyleSpansBuilder<Collection<String>> spansBuilder,
+            @NotNull final Pattern pattern,
+            @NotNull final String line,
+            final boolean inComment
+    ) {
+
+        int lastKwEnd = 0;
+
+        if (inComment) {
+
+            final int commentEnd = line.indexOf("*/");
+
+            if (commentEnd < 0) {
+                spansBuilder.add(singleton(CSS_COMMENT), line.length());
+                return true;
+            }
+
+            lastKwEnd = commentEnd + 2;
+            spansBuilder.add(singleton(CSS_COMMENT), lastKwEnd);
+        }
+
+        final Matcher matcher = pattern.matcher(line);
+        matcher.useTransparentBounds(true);
+        matcher.useAnchoringBounds(false);
+        matcher.region(lastKwEnd, line.length());
+
+        while (matcher.find()) {
+
+            // a block comment which isn't closed on this line isn't matched by the pattern
+            final int commentStart = line.indexOf("/*", lastKwEnd);
+
+            if (commentStart >= 0 && commentStart < matcher.start()) {
+                break;
+            }
+
+            final String styleClass = getStyleClass(matcher);
+
+            spansBuilder.add(singleton(CSS_PLAIN_CODE), matcher.start() - lastKwEnd);
+            spansBuilder.add(singleton(styleClass), matcher.end() - matcher.start());
+
+            lastKwEnd = matcher.end();
+        }
+
+        final int commentStart = line.indexOf("/*", lastKwEnd);
+
+        if (commentStart >= 0) {
+            spansBuilder.add(singleton(CSS_PLAIN_CODE), commentStart - lastKwEnd);
+            spansBuilder.add(singleton(CSS_COMMENT), line.length() - commentStart);
+            return true;
+        }
+
+        spansBuilder.add(singleton(CSS_PLAIN_CODE), line.length() - lastKwEnd);
+        return false;
+    }
+
+    /**
+     * Apply the result of highlighting if the text wasn't changed since starting highlighting.
+     *
+     * @param result the result of highlighting.
+     */
+    @FxThread
+    private void applyHighlighting(@NotNull final HighlightingResult result) {
+
+        // the newer changes will request highlighting again
+        if (result.version != version) {
+            return;
+        }
+
+        setStyleSpans(result.offset, result.styleSpans);
+
+        final boolean[] states = result.exitStates;
+
+        for (int i = 0; i < states.length; i++) {
+            exitStates.set(result.paragraph + i, states[i]);
+        }
+
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = -1;
+        highlightingTask = null;
+    }
+
+    /**
+     * Count line breaks in the text.
+     *
+     * @param text the text.
+     * @return the count of line breaks.
+     */
+    @FromAnyThread
+    private static int countLines(@NotNull final String text) {
+
+        int count = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+
+        return count;
     }
 
     /**
@@ -1,14 +1,13 @@
 package com.ss.editor.ui.control.code;
 
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.util.GlslType;
-import org.fxmisc.richtext.model.StyleSpans;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -97,8 +96,8 @@ public class GLSLCodeArea extends BaseCodeArea {
     }
 
     @Override
-    @FxThread
-    protected @NotNull StyleSpans<? extends Collection<String>> calculateStyleSpans(@NotNull final String text) {
-        return computeHighlighting(pattern, text);
+    @FromAnyThread
+    protected @NotNull Pattern getHighlightingPattern() {
+        return pattern;
     }
 }
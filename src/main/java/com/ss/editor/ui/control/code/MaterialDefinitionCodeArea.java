@@ -1,10 +1,8 @@
 package com.ss.editor.ui.control.code;
 
-import com.ss.editor.annotation.FxThread;
-import org.fxmisc.richtext.model.StyleSpans;
+import com.ss.editor.annotation.FromAnyThread;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
 import java.util.regex.Pattern;
 
 /**
@@ -68,8 +66,8 @@ public class MaterialDefinitionCodeArea extends BaseCodeArea {
     );
 
     @Override
-    @FxThread
-    protected @NotNull StyleSpans<? extends Collection<String>> calculateStyleSpans(@NotNull final String text) {
-        return computeHighlighting(PATTERN, text);
+    @FromAnyThread
+    protected @NotNull Pattern getHighlightingPattern() {
+        return PATTERN;
     }
 }
@@ -1,6 +1,5 @@
 package com.ss.editor.ui.control.layer;
 
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import com.jme3.scene.Spatial;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.extension.scene.SceneLayer;
@@ -47,8 +46,8 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
                 return;
             }
 
-            final TreeItem<TreeNode<?>> newLayerItem = findItemForValue(getTreeView(), layer);
-            final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), child);
+            final TreeItem<TreeNode<?>> newLayerItem = findItem(layer);
+            final TreeItem<TreeNode<?>> treeItem = findItem(child);
 
             if (newLayerItem != null && treeItem == null) {
                 final TreeNode<?> objectNode = FACTORY_REGISTRY.createFor(child);
@@ -72,8 +71,8 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
                 return;
             }
 
-            final TreeItem<TreeNode<?>> newLayerItem = findItemForValue(getTreeView(), layer);
-            final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), child);
+            final TreeItem<TreeNode<?>> newLayerItem = findItem(layer);
+            final TreeItem<TreeNode<?>> treeItem = findItem(child);
 
             if (newLayerItem != null && treeItem != null) {
                 newLayerItem.getChildren().remove(treeItem);
@@ -92,7 +91,7 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
     public void notifyChangedLayer(@NotNull final Spatial object, @Nullable final SceneLayer newLayer) {
 
         final TreeNode<?> objectNode = FACTORY_REGISTRY.createFor(object);
-        TreeItem<TreeNode<?>> objectItem = findItemForValue(getTreeView(), objectNode);
+        TreeItem<TreeNode<?>> objectItem = findItem(objectNode);
 
         if (objectItem == null && newLayer != null) {
             objectItem = new TreeItem<>(objectNode);
@@ -102,7 +101,7 @@ public class LayerNodeTree extends NodeTree<SceneChangeConsumer> {
         }
 
         final TreeItem<TreeNode<?>> newLayerItem =
-                newLayer == null ? null : findItemForValue(getTreeView(), FACTORY_REGISTRY.createFor(newLayer));
+                newLayer == null ? null : findItem(FACTORY_REGISTRY.createFor(newLayer));
 
         if (newLayerItem != null) {
             newLayerItem.getChildren().add(objectItem);
@@ -3,6 +3,7 @@ package com.ss.editor.ui.control.property;
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.extension.property.EditableProperty;
+import com.ss.editor.model.undo.editor.ChangeBatch;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.FxConstants;
 import com.ss.editor.ui.control.UpdatableControl;
@@ -103,6 +104,22 @@ public class PropertyEditor<C extends ChangeConsumer> extends ScrollPane {
         });
     }
 
+    /**
+     * Sync all property controls once if the current object was changed in the batch.
+     *
+     * @param batch the batch of changes.
+     */
+    @FxThread
+    public void syncFor(@NotNull ChangeBatch batch) {
+
+        for (var object : batch.getChangedObjects()) {
+            if (isNeedUpdate(object)) {
+                syncFor(object);
+                return;
+            }
+        }
+    }
+
     /**
      * Sync all property controls.
      */
@@ -384,6 +384,7 @@ public class Texture2dPropertyControl<C extends ChangeConsumer, D> extends Prope
         var preview = getTexturePreview();
 
         if (key == null) {
+            IMAGE_MANAGER.cancelImagePreview(preview);
             preview.setImage(null);
             textureTooltip.clean();
             preview.setDisable(true);
@@ -396,10 +397,10 @@ public class Texture2dPropertyControl<C extends ChangeConsumer, D> extends Prope
             var realFile = notNull(getRealFile(key.getName()));
 
             if (Files.exists(realFile)) {
-                preview.setImage(IMAGE_MANAGER.getImagePreview(realFile, 24, 24));
+                IMAGE_MANAGER.loadImagePreview(realFile, 24, 24, preview);
                 textureTooltip.showImage(realFile);
             } else {
-                preview.setImage(IMAGE_MANAGER.getImagePreview(key.getName(), 24, 24));
+                IMAGE_MANAGER.loadImagePreview(key.getName(), 24, 24, preview);
                 textureTooltip.showImage(key.getName());
             }
         }
@@ -1,6 +1,9 @@
 package com.ss.editor.ui.control.property.operation;
 
+import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
+import com.ss.editor.model.undo.CompactableData;
+import com.ss.editor.model.undo.UndoHistoryStorage;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.impl.AbstractEditorOperation;
 import com.ss.editor.util.EditorUtil;
@@ -62,7 +65,7 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
             editor.notifyJmePreChangeProperty(target, propertyName);
             apply(target, newValue);
             editor.notifyJmeChangedProperty(target, propertyName);
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxChangeProperty(target, propertyName));
+            editor.queueFxChangeProperty(null, target, propertyName);
         });
     }
 
@@ -73,10 +76,69 @@ public class PropertyOperation<C extends ChangeConsumer, D, T> extends AbstractE
             editor.notifyJmePreChangeProperty(target, propertyName);
             apply(target, oldValue);
             editor.notifyJmeChangedProperty(target, propertyName);
-            EXECUTOR_MANAGER.addFxTask(() -> editor.notifyFxChangeProperty(target, propertyName));
+            editor.queueFxChangeProperty(null, target, propertyName);
         });
     }
 
+    @Override
+    @FromAnyThread
+    public long getEstimatedSize() {
+        return DEFAULT_ESTIMATED_SIZE + getEstimatedSize(newValue) + getEstimatedSize(oldValue);
+    }
+
+    @Override
+    @FromAnyThread
+    public void compact(@NotNull final UndoHistoryStorage storage) {
+        compact(newValue, storage);
+        compact(oldValue, storage);
+    }
+
+    /**
+     * Get the estimated size of the value, only compactable payloads and collections of them are counted.
+     *
+     * @param value the value.
+     * @return the estimated size in bytes.
+     */
+    @FromAnyThread
+    private static long getEstimatedSize(@Nullable final Object value) {
+
+        if (value instanceof CompactableData) {
+            return ((CompactableData) value).getEstimatedSize();
+        } else if (!(value instanceof Iterable)) {
+            return 0;
+        }
+
+        long size = 0;
+
+        for (final Object element : (Iterable<?>) value) {
+            if (element instanceof CompactableData) {
+                size += ((CompactableData) element).getEstimatedSize();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Compact the value if it's a compactable payload or a collection of them.
+     *
+     * @param value   the value.
+     * @param storage the storage.
+     */
+    @FromAnyThread
+    private static void compact(@Nullable final Object value, @NotNull final UndoHistoryStorage storage) {
+
+        if (value instanceof CompactableData) {
+            ((CompactableData) value).compact(storage);
+        } else if (value instanceof Iterable) {
+            for (final Object element : (Iterable<?>) value) {
+                if (element instanceof CompactableData) {
+                    ((CompactableData) element).compact(storage);
+                }
+            }
+        }
+    }
+
     /**
      * Sets apply handler.
      *
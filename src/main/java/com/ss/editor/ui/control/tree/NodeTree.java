@@ -1,9 +1,9 @@
 package com.ss.editor.ui.control.tree;
 
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.editor.ChangeBatch;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.ui.control.tree.node.TreeNode;
 import com.ss.editor.ui.control.tree.node.factory.TreeNodeFactoryRegistry;
@@ -14,13 +14,18 @@ import com.ss.rlib.fx.util.FXUtils;
 import com.ss.rlib.common.util.array.Array;
 import com.ss.rlib.common.util.array.ArrayCollectors;
 import com.ss.rlib.common.util.array.ArrayFactory;
+import com.ss.rlib.common.util.dictionary.DictionaryFactory;
+import com.ss.rlib.common.util.dictionary.ObjectDictionary;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
 import javafx.scene.control.*;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
 import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -62,6 +67,37 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         MULTI_ITEMS_ACTION_FILLERS.add(actionFiller);
     }
 
+    /**
+     * The tree item which creates its children during the first expanding in the lazy mode.
+     */
+    private class LazyTreeItem extends TreeItem<TreeNode<?>> {
+
+        /**
+         * True if children of this item were created.
+         */
+        private boolean loaded;
+
+        private LazyTreeItem(@NotNull TreeNode<?> treeNode) {
+            super(treeNode);
+            expandedProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue && !loaded) {
+                    loadChildren(this, false, -1);
+                }
+            });
+        }
+
+        @Override
+        public boolean isLeaf() {
+
+            if (loaded) {
+                return super.isLeaf();
+            }
+
+            var treeNode = getValue();
+            return treeNode == null || !treeNode.hasChildren(NodeTree.this);
+        }
+    }
+
     /**
      * The handler of selected objects.
      */
@@ -80,12 +116,46 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @NotNull
     private final SelectionMode selectionMode;
 
+    /**
+     * The index of tree items by their elements.
+     */
+    @NotNull
+    private final ObjectDictionary<Object, Array<TreeItem<TreeNode<?>>>> itemIndex;
+
+    /**
+     * The changed objects with their parents which are waiting for refreshing.
+     */
+    @NotNull
+    private final ObjectDictionary<Object, Object> changedObjects;
+
+    /**
+     * The handler of changes of children of tree items.
+     */
+    @NotNull
+    private final EventHandler<TreeModificationEvent<TreeNode<?>>> childrenChangeHandler;
+
+    /**
+     * The handler of changes of values of tree items.
+     */
+    @NotNull
+    private final EventHandler<TreeModificationEvent<TreeNode<?>>> valueChangeHandler;
+
     /**
      * The tree with structure of the model.
      */
     @Nullable
     private TreeView<TreeNode<?>> treeView;
 
+    /**
+     * The flag of using lazy mode.
+     */
+    private boolean lazyMode;
+
+    /**
+     * The flag of scheduled refreshing of changed objects.
+     */
+    private boolean changesScheduled;
+
     public NodeTree(@NotNull final Consumer<Array<Object>> selectionHandler, @Nullable final C consumer) {
         this(selectionHandler, consumer, SelectionMode.SINGLE);
     }
@@ -95,6 +165,10 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         this.selectionHandler = selectionHandler;
         this.changeConsumer = consumer;
         this.selectionMode = selectionMode;
+        this.itemIndex = DictionaryFactory.newObjectDictionary();
+        this.changedObjects = DictionaryFactory.newObjectDictionary();
+        this.childrenChangeHandler = this::processChildrenChange;
+        this.valueChangeHandler = this::processValueChange;
         createComponents();
         FXUtils.addClassTo(this, CssClasses.ABSTRACT_NODE_TREE_CONTAINER);
     }
@@ -112,6 +186,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         treeView.setFocusTraversable(true);
         treeView.prefHeightProperty().bind(heightProperty());
         treeView.prefWidthProperty().bind(widthProperty());
+        treeView.rootProperty().addListener((observable, oldValue, newValue) -> changeRoot(oldValue, newValue));
 
         final MultipleSelectionModel<TreeItem<TreeNode<?>>> selectionModel = treeView.getSelectionModel();
         selectionModel.setSelectionMode(selectionMode);
@@ -130,6 +205,296 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         return new NodeTreeCell<>(this);
     }
 
+    /**
+     * Set true if need to create children of tree items only during their expanding.
+     *
+     * @param lazyMode true if need to use lazy mode.
+     */
+    @FxThread
+    public void setLazyMode(boolean lazyMode) {
+        this.lazyMode = lazyMode;
+    }
+
+    /**
+     * Return true if children of tree items are created only during their expanding.
+     *
+     * @return true if need to use lazy mode.
+     */
+    @FxThread
+    public boolean isLazyMode() {
+        return lazyMode;
+    }
+
+    /**
+     * Rebuild the index of tree items for the new root.
+     */
+    @FxThread
+    private void changeRoot(@Nullable TreeItem<TreeNode<?>> oldRoot, @Nullable TreeItem<TreeNode<?>> newRoot) {
+
+        if (oldRoot != null) {
+            oldRoot.removeEventHandler(TreeItem.childrenModificationEvent(), childrenChangeHandler);
+            oldRoot.removeEventHandler(TreeItem.valueChangedEvent(), valueChangeHandler);
+        }
+
+        itemIndex.clear();
+
+        if (newRoot != null) {
+            newRoot.addEventHandler(TreeItem.childrenModificationEvent(), childrenChangeHandler);
+            newRoot.addEventHandler(TreeItem.valueChangedEvent(), valueChangeHandler);
+            indexItem(newRoot);
+        }
+    }
+
+    /**
+     * Update the index of tree items after changing children of some tree item.
+     */
+    @FxThread
+    private void processChildrenChange(@NotNull TreeModificationEvent<TreeNode<?>> event) {
+
+        if (event.wasRemoved()) {
+            event.getRemovedChildren().forEach(this::unindexItem);
+        }
+
+        if (event.wasAdded()) {
+            event.getAddedChildren().forEach(this::indexItem);
+        }
+    }
+
+    /**
+     * Update the index of tree items after changing a value of some tree item.
+     */
+    @FxThread
+    private void processValueChange(@NotNull TreeModificationEvent<TreeNode<?>> event) {
+        if (event.getNewValue() != null) {
+            addToIndex(event.getTreeItem());
+        }
+    }
+
+    /**
+     * Add the tree item and all its children to the index.
+     */
+    @FxThread
+    private void indexItem(@NotNull TreeItem<TreeNode<?>> treeItem) {
+        addToIndex(treeItem);
+        treeItem.getChildren().forEach(this::indexItem);
+    }
+
+    /**
+     * Remove the tree item and all its children from the index.
+     */
+    @FxThread
+    private void unindexItem(@NotNull TreeItem<TreeNode<?>> treeItem) {
+
+        var treeNode = treeItem.getValue();
+
+        if (treeNode != null) {
+
+            var element = treeNode.getElement();
+            var items = itemIndex.get(element);
+
+            if (items != null) {
+
+                items.fastRemove(treeItem);
+
+                if (items.isEmpty()) {
+                    itemIndex.remove(element);
+                }
+            }
+        }
+
+        treeItem.getChildren().forEach(this::unindexItem);
+    }
+
+    /**
+     * Add only the tree item to the index.
+     */
+    @FxThread
+    private void addToIndex(@NotNull TreeItem<TreeNode<?>> treeItem) {
+
+        var treeNode = treeItem.getValue();
+
+        if (treeNode == null) {
+            return;
+        }
+
+        var items = itemIndex.get(treeNode.getElement(), () -> ArrayFactory.newArray(TreeItem.class));
+
+        if (!items.contains(treeItem)) {
+            items.add(treeItem);
+        }
+    }
+
+    /**
+     * Find a tree item for the object.
+     *
+     * @param object the object or its tree node.
+     * @return the tree item or null.
+     */
+    @FxThread
+    public @Nullable TreeItem<TreeNode<?>> findItem(@Nullable Object object) {
+        return findItem(null, object);
+    }
+
+    /**
+     * Find a tree item for the object inside the parent item.
+     *
+     * @param parentItem the parent item or null to search in the whole tree.
+     * @param object     the object or its tree node.
+     * @return the tree item or null.
+     */
+    @FxThread
+    private @Nullable TreeItem<TreeNode<?>> findItem(@Nullable TreeItem<TreeNode<?>> parentItem,
+                                                     @Nullable Object object) {
+
+        if (object == null) {
+            return null;
+        }
+
+        var element = object instanceof TreeNode ? ((TreeNode<?>) object).getElement() : object;
+        var items = itemIndex.get(element);
+
+        if (items == null) {
+            return null;
+        }
+
+        var root = getTreeView().getRoot();
+
+        TreeItem<TreeNode<?>> result = null;
+
+        for (int i = items.size() - 1; i >= 0; i--) {
+
+            var treeItem = items.get(i);
+
+            // the item can be stale if its value was changed
+            if (!Objects.equals(treeItem.getValue(), object)) {
+                items.fastRemove(i);
+                continue;
+            }
+
+            var inParent = parentItem == null;
+            var current = treeItem;
+
+            while (current.getParent() != null) {
+                inParent = inParent || current == parentItem;
+                current = current.getParent();
+            }
+
+            if (current == root && (inParent || current == parentItem)) {
+                result = treeItem;
+            }
+        }
+
+        if (items.isEmpty()) {
+            itemIndex.remove(element);
+        }
+
+        return result;
+    }
+
+    /**
+     * Find a tree item for the object and create all tree items on the path to it if need.
+     *
+     * @param object the object or its tree node.
+     * @return the tree item or null.
+     */
+    @FxThread
+    private @Nullable TreeItem<TreeNode<?>> findOrLoadItem(@Nullable Object object) {
+
+        var treeItem = findItem(object);
+
+        if (treeItem != null || object == null || !isLazyMode()) {
+            return treeItem;
+        }
+
+        var root = getTreeView().getRoot();
+        return root == null ? null : loadItem(root, object);
+    }
+
+    /**
+     * Create tree items on the path from the tree item to the object.
+     */
+    @FxThread
+    private @Nullable TreeItem<TreeNode<?>> loadItem(@NotNull TreeItem<TreeNode<?>> treeItem, @NotNull Object object) {
+
+        if (!isNotLoaded(treeItem)) {
+
+            for (var child : treeItem.getChildren()) {
+
+                var result = loadItem(child, object);
+
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            return null;
+        }
+
+        var path = ArrayFactory.<TreeNode<?>>newArray(TreeNode.class);
+
+        if (!findPath(treeItem.getValue(), object, path)) {
+            return null;
+        }
+
+        var current = treeItem;
+
+        // the path is from the object to the first child of the tree item
+        for (int i = path.size() - 1; i >= 0 && current != null; i--) {
+
+            if (isNotLoaded(current)) {
+                loadChildren(current, false, -1);
+            }
+
+            var treeNode = path.get(i);
+
+            current = current.getChildren().stream()
+                    .filter(child -> Objects.equals(child.getValue(), treeNode))
+                    .findAny().orElse(null);
+        }
+
+        return current;
+    }
+
+    /**
+     * Find the path from the tree node to the object in not created tree items.
+     */
+    @FxThread
+    private boolean findPath(@NotNull TreeNode<?> treeNode, @NotNull Object object,
+                             @NotNull Array<TreeNode<?>> path) {
+
+        if (!treeNode.hasChildren(this)) {
+            return false;
+        }
+
+        for (var child : treeNode.getChildren(this)) {
+            if (Objects.equals(child, object) || findPath(child, object, path)) {
+                path.add(child);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Return true if children of the tree item weren't created yet.
+     */
+    @FxThread
+    private boolean isNotLoaded(@NotNull TreeItem<TreeNode<?>> treeItem) {
+        return treeItem instanceof LazyTreeItem && !((LazyTreeItem) treeItem).loaded;
+    }
+
+    /**
+     * Create a new tree item for the tree node.
+     *
+     * @param treeNode the tree node.
+     * @return the new tree item.
+     */
+    @FxThread
+    protected @NotNull TreeItem<TreeNode<?>> createItem(@NotNull TreeNode<?> treeNode) {
+        return new LazyTreeItem(treeNode);
+    }
+
     /**
      * Select the item.
      */
@@ -179,7 +544,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         }
 
         var rootElement = FACTORY_REGISTRY.createFor(object);
-        var newRoot = new TreeItem<TreeNode<?>>(rootElement);
+        var newRoot = createItem(notNull(rootElement));
         newRoot.setExpanded(true);
 
         fill(newRoot, false, 1);
@@ -192,22 +557,55 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     @FxThread
     private void fill(@NotNull TreeItem<TreeNode<?>> treeItem, boolean expanded, int level) {
-        treeItem.setExpanded(expanded || level == 1);
+
+        var needExpand = expanded || level == 1;
+
+        if (isLazyMode() && !needExpand && treeItem instanceof LazyTreeItem) {
+            // the children will be created during the first expanding
+            ((LazyTreeItem) treeItem).loaded = false;
+            treeItem.setExpanded(false);
+            return;
+        }
+
+        if (treeItem instanceof LazyTreeItem) {
+            ((LazyTreeItem) treeItem).loaded = true;
+        }
+
+        treeItem.setExpanded(needExpand);
+
+        loadChildren(treeItem, expanded, level);
+    }
+
+    /**
+     * Create and fill children of the item.
+     */
+    @FxThread
+    private void loadChildren(@NotNull TreeItem<TreeNode<?>> treeItem, boolean expanded, int level) {
+
+        if (treeItem instanceof LazyTreeItem) {
+            ((LazyTreeItem) treeItem).loaded = true;
+        }
 
         var element = treeItem.getValue();
         if (!element.hasChildren(this)) {
             return;
         }
 
-        var items = treeItem.getChildren();
         var children = element.getChildren(this);
-        children.forEach(child -> {
-            element.notifyChildPreAdd(child);
-            items.add(new TreeItem<>(child));
-            element.notifyChildAdded(child);
-        });
+        var newItems = new ArrayList<TreeItem<TreeNode<?>>>(children.size());
+
+        children.forEach(child -> newItems.add(createItem(child)));
+        children.forEach(element::notifyChildPreAdd);
+
+        // add all children in one modification
+        var items = treeItem.getChildren();
+        items.addAll(newItems);
+
+        children.forEach(element::notifyChildAdded);
 
-        items.forEach(item -> fill(item, expanded, level == -1 ? -1 : level + 1));
+        for (var item : items) {
+            fill(item, expanded, level == -1 ? -1 : level + 1);
+        }
     }
 
     /**
@@ -241,7 +639,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void refresh(@NotNull final Object object) {
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), object);
+        final TreeItem<TreeNode<?>> treeItem = findItem(object);
         if (treeItem == null) {
             return;
         }
@@ -253,15 +651,12 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final boolean expanded = treeItem.isExpanded();
         final TreeNode<?> selected = getSelected();
 
-        final TreeNode<?> element = treeItem.getValue();
-        if (!element.hasChildren(this)) {
+        if (isLazyMode() && !expanded && treeItem instanceof LazyTreeItem) {
+            ((LazyTreeItem) treeItem).loaded = false;
             return;
         }
 
-        final Array<TreeNode<?>> children = element.getChildren(this);
-        children.forEach(child -> items.add(new TreeItem<>(child)));
-
-        items.forEach(modelNodeTreeItem -> fill(modelNodeTreeItem, false, -1));
+        loadChildren(treeItem, false, -1);
         treeItem.setExpanded(expanded);
 
         if (selected == treeNode) {
@@ -277,7 +672,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void update(@NotNull final TreeNode<?> treeNode) {
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findItem(treeNode);
         if (treeItem == null) {
             return;
         }
@@ -355,30 +750,46 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     private void notifyMoved(@Nullable final TreeNode<?> prevParent, @Nullable final TreeNode<?> newParent,
                              @Nullable final TreeNode<?> node, final int index) {
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> prevParentItem = findItemForValue(treeView, prevParent);
-        final TreeItem<TreeNode<?>> newParentItem = findItemForValue(treeView, newParent);
-        final TreeItem<TreeNode<?>> nodeItem = findItemForValue(treeView, node);
-
-        if (prevParentItem == null || newParentItem == null || nodeItem == null) {
+        if (node == null) {
             return;
         }
 
-        final TreeNode<?> prevParenTreeNode = prevParentItem.getValue();
-        prevParenTreeNode.notifyChildPreRemove(node);
-        prevParentItem.getChildren().remove(nodeItem);
-        prevParenTreeNode.notifyChildRemoved(node);
+        final TreeItem<TreeNode<?>> prevParentItem = findItem(prevParent);
+        final TreeItem<TreeNode<?>> newParentItem = findItem(newParent);
 
-        final TreeNode<?> newParentTreeNode = newParentItem.getValue();
-        newParentTreeNode.notifyChildAdded(node);
+        if (prevParentItem == null || newParentItem == null) {
+            return;
+        }
 
-        if (index >= 0) {
-            newParentItem.getChildren().add(index, nodeItem);
-        } else {
-            newParentItem.getChildren().add(nodeItem);
+        // the item of the node doesn't exist if children of the prev parent weren't created yet
+        TreeItem<TreeNode<?>> nodeItem = findItem(prevParentItem, node);
+
+        if (nodeItem != null) {
+            final TreeNode<?> prevParenTreeNode = prevParentItem.getValue();
+            prevParenTreeNode.notifyChildPreRemove(node);
+            prevParentItem.getChildren().remove(nodeItem);
+            prevParenTreeNode.notifyChildRemoved(node);
         }
 
-        newParentTreeNode.notifyChildAdded(node);
+        // the node will be created with other children of the new parent during its expanding
+        if (!isNotLoaded(newParentItem)) {
+
+            if (nodeItem == null) {
+                nodeItem = createItem(node);
+                fill(nodeItem, false, -1);
+            }
+
+            final TreeNode<?> newParentTreeNode = newParentItem.getValue();
+            newParentTreeNode.notifyChildPreAdd(node);
+
+            if (index >= 0) {
+                newParentItem.getChildren().add(index, nodeItem);
+            } else {
+                newParentItem.getChildren().add(nodeItem);
+            }
+
+            newParentTreeNode.notifyChildAdded(node);
+        }
 
         EXECUTOR_MANAGER.addFxTask(() -> selectSingle(node.getElement()));
     }
@@ -392,6 +803,47 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void notifyChanged(@Nullable Object parent, @NotNull final Object object) {
 
+        changedObjects.put(object, parent);
+
+        if (!changesScheduled) {
+            changesScheduled = true;
+            EXECUTOR_MANAGER.addFxTask(this::applyChanges);
+        }
+    }
+
+    /**
+     * Notify about changed properties of objects from the batch.
+     *
+     * @param batch the batch of changes.
+     */
+    @FxThread
+    public void notifyChanged(@NotNull ChangeBatch batch) {
+        for (var change : batch.getChanges()) {
+            if (change.getType() == ChangeBatch.ChangeType.PROPERTY) {
+                notifyChanged(change.getParent(), change.getObject());
+            }
+        }
+    }
+
+    /**
+     * Refresh all changed objects in one pass.
+     */
+    @FxThread
+    private void applyChanges() {
+        changesScheduled = false;
+        changedObjects.forEach(this::applyChanged);
+        changedObjects.clear();
+    }
+
+    /**
+     * Refresh the changed object.
+     *
+     * @param object the object.
+     * @param parent the parent.
+     */
+    @FxThread
+    private void applyChanged(@NotNull Object object, @Nullable Object parent) {
+
         final TreeItem<TreeNode<?>> treeItem = tryToFindItem(parent, object);
         if (treeItem == null) {
             return;
@@ -430,11 +882,11 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
                               @Nullable final Object newChild, final boolean needExpand, final boolean needDeepExpand) {
 
         final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
+        final TreeItem<TreeNode<?>> parentItem = findItem(parent);
 
         if (parentItem == null) {
             if (newChild == null) return;
-            final TreeItem<TreeNode<?>> childItem = new TreeItem<>(FACTORY_REGISTRY.createFor(newChild));
+            final TreeItem<TreeNode<?>> childItem = createItem(notNull(FACTORY_REGISTRY.createFor(newChild)));
             fill(childItem, needDeepExpand, -1);
             childItem.setExpanded(needExpand);
             treeView.setRoot(childItem);
@@ -446,7 +898,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final TreeNode<?> parentNode = parentItem.getValue();
         final MultipleSelectionModel<TreeItem<TreeNode<?>>> selectionModel = treeView.getSelectionModel();
         final ObservableList<TreeItem<TreeNode<?>>> children = parentItem.getChildren();
-        final TreeItem<TreeNode<?>> oldChildItem = oldChild == null ? null : findItemForValue(treeView, oldChild);
+        final TreeItem<TreeNode<?>> oldChildItem = oldChild == null ? null : findItem(parentItem, oldChild);
         final TreeItem<TreeNode<?>> selectedItem = selectionModel.getSelectedItem();
 
         final boolean needSelect = selectedItem == oldChildItem;
@@ -459,11 +911,11 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
             parentNode.notifyChildRemoved(oldChildNode);
         }
 
-        if (newChild == null) {
+        if (newChild == null || isNotLoaded(parentItem)) {
             return;
         }
 
-        final TreeItem<TreeNode<?>> childItem = new TreeItem<>(FACTORY_REGISTRY.createFor(newChild));
+        final TreeItem<TreeNode<?>> childItem = createItem(notNull(FACTORY_REGISTRY.createFor(newChild)));
         final TreeNode<?> newChildNode = childItem.getValue();
         fill(childItem, needExpand, -1);
         childItem.setExpanded(needExpand);
@@ -491,9 +943,14 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
             return;
         }
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
-        if (parentItem == null || findItemForValue(parentItem, child) != null) {
+        final TreeItem<TreeNode<?>> parentItem = findItem(parent);
+        if (parentItem == null) {
+            return;
+        } else if (isNotLoaded(parentItem)) {
+            // the new child will be created with other children during expanding
+            parentItem.setExpanded(true);
+            return;
+        } else if (findItem(parentItem, child) != null) {
             return;
         }
 
@@ -505,7 +962,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         final TreeNode<?> parentNode = parentItem.getValue();
         parentNode.notifyChildPreAdd(childNode);
 
-        final TreeItem<TreeNode<?>> childItem = new TreeItem<>(childNode);
+        final TreeItem<TreeNode<?>> childItem = createItem(childNode);
         final ObservableList<TreeItem<TreeNode<?>>> children = parentItem.getChildren();
 
         if (index == -1) {
@@ -557,18 +1014,13 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
      */
     private @Nullable TreeItem<TreeNode<?>> tryToFindItem(@Nullable final Object parent, @NotNull final Object child) {
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem;
-
         if (parent != null) {
-            final TreeItem<TreeNode<?>> parentItem = findItemForValue(treeView, parent);
+            final TreeItem<TreeNode<?>> parentItem = findItem(parent);
             if (parentItem == null) return null;
-            treeItem = findItemForValue(parentItem, child);
+            return findItem(parentItem, child);
         } else {
-            treeItem = findItemForValue(treeView, child);
+            return findItem(child);
         }
-
-        return treeItem;
     }
 
     /**
@@ -580,7 +1032,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public @Nullable TreeNode<?> findParent(@NotNull final TreeNode<?> treeNode) {
 
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(getTreeView(), treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findItem(treeNode);
         if (treeItem == null) {
             return null;
         }
@@ -597,13 +1049,12 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
     @FxThread
     public void startEdit(@NotNull final TreeNode<?> treeNode) {
 
-        final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findItem(treeNode);
         if (treeItem == null) {
             return;
         }
 
-        treeView.edit(treeItem);
+        getTreeView().edit(treeItem);
     }
 
     /**
@@ -623,7 +1074,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
         }
 
         final TreeNode<Object> treeNode = FACTORY_REGISTRY.createFor(object);
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, treeNode);
+        final TreeItem<TreeNode<?>> treeItem = findOrLoadItem(treeNode);
 
         if (treeItem == null) {
             selectionModel.clearSelection();
@@ -648,7 +1099,7 @@ public class NodeTree<C extends ChangeConsumer> extends VBox {
 
         objects.stream().map(FACTORY_REGISTRY::createFor)
             .filter(Objects::nonNull)
-            .map(node -> findItemForValue(treeView, node))
+            .map(this::findOrLoadItem)
             .filter(Objects::nonNull)
             .forEach(selectionModel::select);
     }
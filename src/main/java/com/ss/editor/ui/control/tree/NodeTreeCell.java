@@ -1,7 +1,6 @@
 package com.ss.editor.ui.control.tree;
 
 import static com.ss.editor.ui.util.UiUtils.findItem;
-import static com.ss.editor.ui.util.UiUtils.findItemForValue;
 import static com.ss.rlib.common.util.ClassUtils.unsafeCast;
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.ss.editor.annotation.FxThread;
@@ -410,7 +409,7 @@ public class NodeTreeCell<C extends ChangeConsumer, M extends NodeTree<C>> exten
         }
 
         final TreeView<TreeNode<?>> treeView = getTreeView();
-        final TreeItem<TreeNode<?>> treeItem = findItemForValue(treeView, item);
+        final TreeItem<TreeNode<?>> treeItem = getNodeTree().findItem(item);
         if (treeView.getRoot() == treeItem) {
             return;
         }
@@ -462,7 +461,7 @@ public class NodeTreeCell<C extends ChangeConsumer, M extends NodeTree<C>> exten
                 return;
             }
 
-            final TreeItem<TreeNode<?>> newParentItem = findItemForValue(treeView, item);
+            final TreeItem<TreeNode<?>> newParentItem = nodeTree.findItem(item);
             if (newParentItem == null) {
                 return;
             }
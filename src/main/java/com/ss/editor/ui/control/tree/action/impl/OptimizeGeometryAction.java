@@ -1,18 +1,15 @@
 package com.ss.editor.ui.control.tree.action.impl;
 
-import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import com.jme3.scene.Node;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FxThread;
-import com.ss.editor.model.undo.editor.ChangeConsumer;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.Icons;
 import com.ss.editor.ui.control.tree.NodeTree;
 import com.ss.editor.ui.control.tree.action.AbstractNodeAction;
-import com.ss.editor.model.undo.impl.OptimizeGeometryOperation;
 import com.ss.editor.ui.control.tree.node.TreeNode;
+import com.ss.editor.ui.dialog.geometry.optimize.OptimizeGeometryDialog;
 import javafx.scene.image.Image;
-import jme3tools.optimize.GeometryBatchFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -46,12 +43,8 @@ public class OptimizeGeometryAction extends AbstractNodeAction<ModelChangeConsum
 
         final NodeTree<?> nodeTree = getNodeTree();
         final TreeNode<?> node = getNode();
-        final Node oldElement = (Node) node.getElement();
-        final Node newElement = (Node) oldElement.clone();
 
-        GeometryBatchFactory.optimize(newElement);
-
-        final ChangeConsumer changeConsumer = notNull(nodeTree.getChangeConsumer());
-        changeConsumer.execute(new OptimizeGeometryOperation(newElement, oldElement, oldElement.getParent()));
+        final OptimizeGeometryDialog dialog = new OptimizeGeometryDialog(nodeTree, (Node) node.getElement());
+        dialog.show();
     }
 }
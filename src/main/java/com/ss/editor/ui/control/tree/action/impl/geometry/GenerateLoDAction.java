@@ -1,11 +1,11 @@
 package com.ss.editor.ui.control.tree.action.impl.geometry;
 
-import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.model.undo.editor.ModelChangeConsumer;
 import com.ss.editor.ui.Icons;
-import com.ss.editor.ui.control.tree.node.impl.spatial.GeometryTreeNode;
+import com.ss.editor.ui.control.tree.node.impl.spatial.SpatialTreeNode;
 import com.ss.editor.ui.control.tree.action.AbstractNodeAction;
 import com.ss.editor.ui.dialog.geometry.lod.GenerateLodLevelsDialog;
 import com.ss.editor.ui.control.tree.NodeTree;
@@ -16,7 +16,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * The action to generate levels of details for the geometry.
+ * The action to generate levels of details for the geometry or for all geometries of the node.
  *
  * @author JavaSaBr
  */
@@ -41,9 +41,9 @@ public class GenerateLoDAction extends AbstractNodeAction<ModelChangeConsumer> {
     @Override
     @FxThread
     protected void process() {
-        final GeometryTreeNode<Geometry> modelNode = ClassUtils.unsafeCast(getNode());
-        final Geometry geometry = modelNode.getElement();
-        final GenerateLodLevelsDialog dialog = new GenerateLodLevelsDialog(getNodeTree(), geometry);
+        final SpatialTreeNode<Spatial> modelNode = ClassUtils.unsafeCast(getNode());
+        final Spatial spatial = modelNode.getElement();
+        final GenerateLodLevelsDialog dialog = new GenerateLodLevelsDialog(getNodeTree(), spatial);
         dialog.show();
     }
 }
@@ -21,6 +21,7 @@ import com.ss.editor.ui.control.tree.action.impl.audio.CreateAudioNodeAction;
 import com.ss.editor.ui.control.tree.action.impl.geometry.CreateBoxAction;
 import com.ss.editor.ui.control.tree.action.impl.geometry.CreateQuadAction;
 import com.ss.editor.ui.control.tree.action.impl.geometry.CreateSphereAction;
+import com.ss.editor.ui.control.tree.action.impl.geometry.GenerateLoDAction;
 import com.ss.editor.ui.control.tree.action.impl.light.CreateAmbientLightAction;
 import com.ss.editor.ui.control.tree.action.impl.light.CreateDirectionLightAction;
 import com.ss.editor.ui.control.tree.action.impl.light.CreatePointLightAction;
@@ -101,7 +102,8 @@ public class NodeTreeNode<T extends Node> extends SpatialTreeNode<T> {
     @FxThread
     protected @Nullable Menu createToolMenu(@NotNull final NodeTree<?> nodeTree) {
         final Menu toolMenu = new Menu(Messages.MODEL_NODE_TREE_ACTION_TOOLS, new ImageView(Icons.INFLUENCER_16));
-        toolMenu.getItems().addAll(new OptimizeGeometryAction(nodeTree, this));
+        toolMenu.getItems().addAll(new OptimizeGeometryAction(nodeTree, this),
+                new GenerateLoDAction(nodeTree, this));
         return toolMenu;
     }
 
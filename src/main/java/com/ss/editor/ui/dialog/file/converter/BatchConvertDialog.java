@@ -0,0 +1,229 @@
+package com.ss.editor.ui.dialog.file.converter;
+
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.file.converter.ConversionContext;
+import com.ss.editor.file.converter.batch.BatchConversionReport;
+import com.ss.editor.file.converter.batch.BatchConverter;
+import com.ss.editor.ui.css.CssClasses;
+import com.ss.editor.ui.dialog.AbstractSimpleEditorDialog;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.fx.util.FXUtils;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.GridPane;
+import javafx.stage.Window;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * The implementation of a dialog to convert many files with the progress and the report of converting.
+ *
+ * @author JavaSaBr
+ */
+public class BatchConvertDialog extends AbstractSimpleEditorDialog {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(BatchConvertDialog.class);
+
+    @NotNull
+    private static final Point DIALOG_SIZE = new Point(600, 400);
+
+    /**
+     * The files and folders to convert.
+     */
+    @NotNull
+    private final Array<Path> files;
+
+    /**
+     * The converter.
+     */
+    @NotNull
+    private final BatchConverter converter;
+
+    /**
+     * The flag of waiting for updating the report.
+     */
+    @NotNull
+    private final AtomicBoolean updateQueued;
+
+    /**
+     * The progress bar.
+     */
+    @Nullable
+    private ProgressBar progressBar;
+
+    /**
+     * The labels of the report.
+     */
+    @Nullable
+    private Label progressLabel, convertedLabel, skippedLabel, failedLabel, throughputLabel;
+
+    /**
+     * The area with failed sources.
+     */
+    @Nullable
+    private TextArea failuresArea;
+
+    public BatchConvertDialog(
+            @NotNull final Array<Path> files,
+            @NotNull final ConversionContext context,
+            final boolean skipUnchanged
+    ) {
+        this.files = files;
+        this.updateQueued = new AtomicBoolean();
+        this.converter = new BatchConverter(context, skipUnchanged, this::requestUpdate);
+    }
+
+    @Override
+    @FromAnyThread
+    protected @NotNull String getTitleText() {
+        return Messages.BATCH_CONVERT_DIALOG_TITLE;
+    }
+
+    @Override
+    @FxThread
+    protected void createContent(@NotNull final GridPane root) {
+        super.createContent(root);
+
+        final Label progressTitle = new Label(Messages.BATCH_CONVERT_DIALOG_PROGRESS + ":");
+        final Label convertedTitle = new Label(Messages.BATCH_CONVERT_DIALOG_CONVERTED + ":");
+        final Label skippedTitle = new Label(Messages.BATCH_CONVERT_DIALOG_SKIPPED + ":");
+        final Label failedTitle = new Label(Messages.BATCH_CONVERT_DIALOG_FAILED + ":");
+        final Label throughputTitle = new Label(Messages.BATCH_CONVERT_DIALOG_THROUGHPUT + ":");
+
+        progressBar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        progressBar.prefWidthProperty().bind(root.widthProperty());
+
+        progressLabel = new Label();
+        convertedLabel = new Label();
+        skippedLabel = new Label();
+        failedLabel = new Label();
+        throughputLabel = new Label();
+
+        failuresArea = new TextArea();
+        failuresArea.setEditable(false);
+        failuresArea.prefWidthProperty().bind(root.widthProperty());
+
+        root.add(progressBar, 0, 0, 2, 1);
+        root.add(progressTitle, 0, 1);
+        root.add(progressLabel, 1, 1);
+        root.add(convertedTitle, 0, 2);
+        root.add(convertedLabel, 1, 2);
+        root.add(skippedTitle, 0, 3);
+        root.add(skippedLabel, 1, 3);
+        root.add(failedTitle, 0, 4);
+        root.add(failedLabel, 1, 4);
+        root.add(throughputTitle, 0, 5);
+        root.add(throughputLabel, 1, 5);
+        root.add(failuresArea, 0, 6, 2, 1);
+
+        FXUtils.addClassTo(progressTitle, convertedTitle, skippedTitle, failedTitle, throughputTitle,
+                CssClasses.DIALOG_DYNAMIC_LABEL);
+        FXUtils.addClassTo(progressLabel, convertedLabel, skippedLabel, failedLabel, throughputLabel,
+                CssClasses.DIALOG_FIELD);
+    }
+
+    @Override
+    @FromAnyThread
+    protected boolean isGridStructure() {
+        return true;
+    }
+
+    @Override
+    @FromAnyThread
+    protected boolean needOkButton() {
+        return false;
+    }
+
+    @Override
+    @FxThread
+    public void show(@NotNull final Window owner) {
+        super.show(owner);
+        EXECUTOR_MANAGER.addBackgroundTask(this::start, TaskPriority.INTERACTIVE);
+    }
+
+    @Override
+    @FxThread
+    public void hide() {
+        converter.cancel();
+        super.hide();
+    }
+
+    /**
+     * Collect sources from the files and folders and start converting.
+     */
+    @BackgroundThread
+    private void start() {
+
+        for (final Path file : files) {
+
+            if (!Files.isDirectory(file)) {
+                converter.add(file);
+                continue;
+            }
+
+            try (final Stream<Path> stream = Files.walk(file)) {
+                stream.filter(Files::isRegularFile)
+                        .forEach(converter::add);
+            } catch (final IOException e) {
+                EditorUtil.handleException(LOGGER, this, e);
+            }
+        }
+
+        converter.start();
+        requestUpdate();
+    }
+
+    /**
+     * Request updating of the report in the FX thread.
+     */
+    @FromAnyThread
+    private void requestUpdate() {
+        if (updateQueued.compareAndSet(false, true)) {
+            EXECUTOR_MANAGER.addFxTask(this::updateReport);
+        }
+    }
+
+    /**
+     * Update the progress and the report.
+     */
+    @FxThread
+    private void updateReport() {
+        updateQueued.set(false);
+
+        final BatchConversionReport report = converter.getReport();
+        final int total = report.getTotal();
+        final int processed = report.getProcessed();
+
+        notNull(progressBar).setProgress(report.isFinished() ? 1 : total > 0 ? (double) processed / total : 0);
+        notNull(progressLabel).setText(processed + " / " + total);
+        notNull(convertedLabel).setText(String.valueOf(report.getConverted()));
+        notNull(skippedLabel).setText(String.valueOf(report.getSkipped()));
+        notNull(failedLabel).setText(String.valueOf(report.getFailed()));
+        notNull(throughputLabel).setText(String.format("%.2f files/s, %.2f MB/s, %.1f s",
+                report.getFilesPerSecond(), report.getMegabytesPerSecond(), report.getElapsedSeconds()));
+        notNull(failuresArea).setText(String.join("\n", report.getFailures()));
+    }
+
+    @Override
+    @FromAnyThread
+    protected @NotNull Point getSize() {
+        return DIALOG_SIZE;
+    }
+}
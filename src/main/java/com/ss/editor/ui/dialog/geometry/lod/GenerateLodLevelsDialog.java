@@ -4,21 +4,21 @@ import static com.ss.editor.ui.FxConstants.DIALOG_LIST_WIDTH_PERCENT;
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static javafx.collections.FXCollections.observableArrayList;
 import com.jme3.scene.Geometry;
-import com.jme3.scene.Mesh;
-import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.Spatial;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.FxThread;
-import com.ss.editor.manager.ExecutorManager;
 import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.editor.model.undo.impl.ChangeLodLevelsOperation;
 import com.ss.editor.ui.FxConstants;
 import com.ss.editor.ui.Icons;
-import com.ss.editor.ui.control.property.operation.PropertyOperation;
 import com.ss.editor.ui.control.tree.NodeTree;
 import com.ss.editor.ui.css.CssClasses;
 import com.ss.editor.ui.dialog.AbstractSimpleEditorDialog;
 import com.ss.editor.ui.util.DynamicIconSupport;
-import com.ss.editor.ui.util.UiUtils;
+import com.ss.editor.util.NodeUtils;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
 import com.ss.rlib.fx.util.FXUtils;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -29,7 +29,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
-import jme3tools.optimize.LodGenerator;
 import jme3tools.optimize.LodGenerator.TriangleReductionMethod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -37,7 +36,7 @@ import org.jetbrains.annotations.Nullable;
 import java.awt.*;
 
 /**
- * The implementation of a dialog for generating lod levels.
+ * The implementation of a dialog for generating lod levels for all geometries of a spatial.
  *
  * @author JavaSaBr
  */
@@ -49,9 +48,6 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     @NotNull
     private static final Point DIALOG_SIZE = new Point(360, -1);
 
-    @NotNull
-    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
-
     /**
      * The enum Reduction method.
      */
@@ -78,16 +74,10 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     private final NodeTree<?> nodeTree;
 
     /**
-     * The geometry.
+     * The task to generate levels for unique meshes of the geometries.
      */
     @NotNull
-    private final Geometry geometry;
-
-    /**
-     * The mesh.
-     */
-    @NotNull
-    private final Mesh mesh;
+    private final LodGenerationTask task;
 
     /**
      * The list of reduction methods.
@@ -101,10 +91,24 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     @Nullable
     private ListView<Number> levelsList;
 
-    public GenerateLodLevelsDialog(@NotNull final NodeTree<?> nodeTree, final @NotNull Geometry geometry) {
+    /**
+     * The progress of generating.
+     */
+    @Nullable
+    private ProgressBar progressBar;
+
+    /**
+     * True if generating is running.
+     */
+    private boolean running;
+
+    public GenerateLodLevelsDialog(@NotNull final NodeTree<?> nodeTree, final @NotNull Spatial spatial) {
         this.nodeTree = nodeTree;
-        this.geometry = geometry;
-        this.mesh = geometry.getMesh();
+
+        final Array<Geometry> geometries = ArrayFactory.newArray(Geometry.class);
+        NodeUtils.visitSpatial(spatial, Geometry.class, geometries::add);
+
+        this.task = new LodGenerationTask(geometries);
         updateButtonOk();
     }
 
@@ -119,23 +123,13 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     }
 
     /**
-     * Get the mesh.
-     *
-     * @return the mesh.
-     */
-    @FxThread
-    public @NotNull Mesh getMesh() {
-        return mesh;
-    }
-
-    /**
-     * Get the geometry.
+     * Get the max count of triangles of the meshes.
      *
-     * @return the geometry.
+     * @return the max count of triangles.
      */
     @FxThread
-    private @NotNull Geometry getGeometry() {
-        return geometry;
+    public int getMaxTriangleCount() {
+        return task.getMaxTriangleCount();
     }
 
     /**
@@ -160,6 +154,16 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         return notNull(levelsList);
     }
 
+    /**
+     * Get the progress of generating.
+     *
+     * @return the progress of generating.
+     */
+    @FxThread
+    private @NotNull ProgressBar getProgressBar() {
+        return notNull(progressBar);
+    }
+
     @Override
     @FromAnyThread
     protected @NotNull String getTitleText() {
@@ -214,6 +218,13 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         FXUtils.addToPane(removeButton, buttonContainer);
         FXUtils.addToPane(buttonContainer, root);
 
+        progressBar = new ProgressBar(0);
+        progressBar.prefWidthProperty().bind(widthProperty().multiply(DIALOG_LIST_WIDTH_PERCENT));
+        progressBar.maxWidthProperty().bind(widthProperty().multiply(DIALOG_LIST_WIDTH_PERCENT));
+        progressBar.setVisible(false);
+
+        FXUtils.addToPane(progressBar, root);
+
         FXUtils.addClassTo(buttonContainer, CssClasses.DEF_HBOX);
         FXUtils.addClassTo(reductionMethodLabel, CssClasses.DIALOG_DYNAMIC_LABEL);
         FXUtils.addClassTo(reductionMethodComboBox, CssClasses.DIALOG_FIELD);
@@ -234,7 +245,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         final ObservableList<Number> items = levelsList.getItems();
 
         final Button okButton = getOkButton();
-        okButton.setDisable(items.isEmpty());
+        okButton.setDisable(items.isEmpty() || running || task.getMeshCount() < 1);
     }
 
     /**
@@ -272,8 +283,7 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
         if (getMethod() == ReductionMethod.PROPORTIONAL) {
             items.add(0.1F);
         } else {
-            final Mesh mesh = getMesh();
-            items.add(mesh.getTriangleCount());
+            items.add(getMaxTriangleCount());
         }
     }
 
@@ -295,27 +305,27 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
     @Override
     @FxThread
     protected void processOk() {
-        UiUtils.incrementLoading();
-        EXECUTOR_MANAGER.addBackgroundTask(this::processGenerate);
-        super.processOk();
+
+        if (running) {
+            return;
+        }
+
+        running = true;
+        updateButtonOk();
+
+        getReductionMethodComboBox().setDisable(true);
+        getLevelsList().setDisable(true);
+        getProgressBar().setVisible(true);
+
+        processGenerate();
     }
 
     /**
-     * Process of generating.
+     * Start generating of levels for all unique meshes.
      */
     @FxThread
     private void processGenerate() {
 
-        final Geometry geometry = getGeometry();
-        final Mesh mesh = getMesh();
-        final int currentLevels = mesh.getNumLodLevels();
-
-        final VertexBuffer[] prevLodLevels = new VertexBuffer[currentLevels];
-
-        for (int i = 0; i < currentLevels; i++) {
-            prevLodLevels[i] = mesh.getLodLevel(i);
-        }
-
         final ReductionMethod method = getMethod();
         final TriangleReductionMethod resultMethod =
                 method == ReductionMethod.CONSTANT ? TriangleReductionMethod.CONSTANT :
@@ -329,23 +339,39 @@ public class GenerateLodLevelsDialog extends AbstractSimpleEditorDialog {
             values[i] = items.get(i).floatValue();
         }
 
-        final LodGenerator generator = new LodGenerator(geometry);
-        final VertexBuffer[] newLodLevels = generator.computeLods(resultMethod, values);
+        final int meshCount = task.getMeshCount();
+
+        task.start(resultMethod, values,
+                processed -> getProgressBar().setProgress(processed / (double) meshCount),
+                this::applyGenerated);
+    }
 
-        EXECUTOR_MANAGER.addFxTask(() -> {
+    /**
+     * Apply generated levels as one operation.
+     *
+     * @param operation the operation.
+     */
+    @FxThread
+    private void applyGenerated(@NotNull final ChangeLodLevelsOperation operation) {
 
-            final NodeTree<?> nodeTree = getNodeTree();
-            final ChangeConsumer consumer = notNull(nodeTree.getChangeConsumer());
+        final NodeTree<?> nodeTree = getNodeTree();
+        final ChangeConsumer consumer = notNull(nodeTree.getChangeConsumer());
+        consumer.execute(operation);
 
-            final PropertyOperation<ChangeConsumer, Geometry, VertexBuffer[]> operation =
-                    new PropertyOperation<>(geometry, Messages.MODEL_PROPERTY_LOD, newLodLevels, prevLodLevels);
+        running = false;
+        hide();
+    }
 
-            operation.setApplyHandler((geom, buffers) -> geom.getMesh().setLodLevels(buffers));
+    @Override
+    @FxThread
+    public void hide() {
 
-            consumer.execute(operation);
+        if (running) {
+            running = false;
+            task.cancel();
+        }
 
-            UiUtils.decrementLoading();
-        });
+        super.hide();
     }
 
     @Override
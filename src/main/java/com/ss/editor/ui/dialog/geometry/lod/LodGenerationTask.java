@@ -0,0 +1,236 @@
+package com.ss.editor.ui.dialog.geometry.lod;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.VertexBuffer;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.executor.TaskHandle;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.manager.ExecutorManager;
+import com.ss.editor.model.undo.impl.ChangeLodLevelsOperation;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import jme3tools.optimize.LodGenerator;
+import jme3tools.optimize.LodGenerator.TriangleReductionMethod;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The task to generate levels of details for all unique meshes of geometries in parallel. The reductions are
+ * executed as bulk background tasks by a limited count of workers, so the background executor stays available for
+ * other tasks.
+ *
+ * @author JavaSaBr
+ */
+public class LodGenerationTask {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(LodGenerationTask.class);
+
+    @NotNull
+    private static final ExecutorManager EXECUTOR_MANAGER = ExecutorManager.getInstance();
+
+    /**
+     * The max count of workers.
+     */
+    private static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * The geometries.
+     */
+    @NotNull
+    private final Array<Geometry> geometries;
+
+    /**
+     * The unique meshes of the geometries.
+     */
+    @NotNull
+    private final Mesh[] meshes;
+
+    /**
+     * The handles of started workers.
+     */
+    @NotNull
+    private final Array<TaskHandle> workers;
+
+    /**
+     * The index of the next mesh to process.
+     */
+    @NotNull
+    private final AtomicInteger nextMesh;
+
+    /**
+     * The count of processed meshes.
+     */
+    @NotNull
+    private final AtomicInteger processedMeshes;
+
+    /**
+     * True if this task was cancelled.
+     */
+    private volatile boolean cancelled;
+
+    public LodGenerationTask(@NotNull Array<Geometry> geometries) {
+        this.geometries = ArrayFactory.newArray(Geometry.class);
+        this.workers = ArrayFactory.newArray(TaskHandle.class);
+        this.nextMesh = new AtomicInteger();
+        this.processedMeshes = new AtomicInteger();
+
+        Map<Mesh, Boolean> uniqueMeshes = new IdentityHashMap<>();
+        var meshes = ArrayFactory.<Mesh>newArray(Mesh.class);
+
+        for (var geometry : geometries) {
+
+            var mesh = geometry.getMesh();
+
+            if (mesh == null || mesh.getTriangleCount() < 1 || mesh.getBuffer(VertexBuffer.Type.Position) == null) {
+                continue;
+            }
+
+            this.geometries.add(geometry);
+
+            if (uniqueMeshes.put(mesh, Boolean.TRUE) == null) {
+                meshes.add(mesh);
+            }
+        }
+
+        this.meshes = meshes.toArray(Mesh.class);
+    }
+
+    /**
+     * Get the count of unique meshes.
+     *
+     * @return the count of unique meshes.
+     */
+    @FromAnyThread
+    public int getMeshCount() {
+        return meshes.length;
+    }
+
+    /**
+     * Get the max count of triangles of the meshes.
+     *
+     * @return the max count of triangles.
+     */
+    @FromAnyThread
+    public int getMaxTriangleCount() {
+
+        var result = 0;
+
+        for (var mesh : meshes) {
+            result = Math.max(result, mesh.getTriangleCount());
+        }
+
+        return result;
+    }
+
+    /**
+     * Start generating levels of details.
+     *
+     * @param method     the reduction method.
+     * @param values     the reduction values.
+     * @param onProgress the handler of count of processed meshes, it's called in the FX thread.
+     * @param onFinish   the handler of the operation to apply the result, it's called in the FX thread if this task
+     *                   wasn't cancelled.
+     */
+    @FxThread
+    public void start(
+            @NotNull TriangleReductionMethod method,
+            @NotNull float[] values,
+            @NotNull IntConsumer onProgress,
+            @NotNull Consumer<ChangeLodLevelsOperation> onFinish
+    ) {
+
+        var prevLevels = new VertexBuffer[meshes.length][];
+        var newLevels = new VertexBuffer[meshes.length][];
+
+        for (int i = 0; i < meshes.length; i++) {
+            prevLevels[i] = getLodLevels(meshes[i]);
+            newLevels[i] = prevLevels[i];
+        }
+
+        Runnable finish = () -> {
+            if (!cancelled) {
+                onFinish.accept(new ChangeLodLevelsOperation(meshes, newLevels, prevLevels, geometries));
+            }
+        };
+
+        if (meshes.length == 0) {
+            finish.run();
+            return;
+        }
+
+        Runnable worker = () -> process(method, values, newLevels, onProgress, finish);
+
+        for (int i = 0, count = Math.min(MAX_WORKERS, meshes.length); i < count; i++) {
+            workers.add(EXECUTOR_MANAGER.addBackgroundTask(worker, TaskPriority.BULK));
+        }
+    }
+
+    /**
+     * Process meshes until all meshes are processed or this task is cancelled.
+     */
+    @BackgroundThread
+    private void process(
+            @NotNull TriangleReductionMethod method,
+            @NotNull float[] values,
+            @NotNull VertexBuffer[][] newLevels,
+            @NotNull IntConsumer onProgress,
+            @NotNull Runnable finish
+    ) {
+
+        for (var index = nextMesh.getAndIncrement(); index < meshes.length && !cancelled;
+             index = nextMesh.getAndIncrement()) {
+
+            try {
+                var generator = new LodGenerator(meshes[index]);
+                newLevels[index] = generator.computeLods(method, values);
+            } catch (RuntimeException e) {
+                LOGGER.warning(e);
+            }
+
+            var processed = processedMeshes.incrementAndGet();
+
+            EXECUTOR_MANAGER.addFxTask(() -> {
+                if (!cancelled) {
+                    onProgress.accept(processed);
+                }
+            });
+
+            // the last processed mesh publishes the results of all workers
+            if (processed == meshes.length) {
+                EXECUTOR_MANAGER.addFxTask(finish);
+            }
+        }
+    }
+
+    /**
+     * Cancel this task, reductions which are already running are finished, but their results are dropped.
+     */
+    @FxThread
+    public void cancel() {
+        cancelled = true;
+        workers.forEach(TaskHandle::cancel);
+    }
+
+    @FromAnyThread
+    private static @NotNull VertexBuffer[] getLodLevels(@NotNull Mesh mesh) {
+
+        var levels = new VertexBuffer[mesh.getNumLodLevels()];
+
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = mesh.getLodLevel(i);
+        }
+
+        return levels;
+    }
+}
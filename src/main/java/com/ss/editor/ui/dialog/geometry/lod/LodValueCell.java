@@ -1,6 +1,5 @@
 package com.ss.editor.ui.dialog.geometry.lod;
 
-import com.jme3.scene.Mesh;
 import com.ss.editor.annotation.FxThread;
 import com.ss.editor.ui.dialog.geometry.lod.GenerateLodLevelsDialog.ReductionMethod;
 import com.ss.editor.ui.util.UiUtils;
@@ -27,13 +26,13 @@ public class LodValueCell extends TextFieldListCell<Number> {
         public Number fromString(final String string) {
 
             final ReductionMethod method = dialog.getMethod();
-            final Mesh mesh = dialog.getMesh();
+            final int maxTriangleCount = dialog.getMaxTriangleCount();
 
             if (method == ReductionMethod.CONSTANT) {
 
                 final int value = Integer.parseInt(string);
                 if (value < 1) return 1;
-                if (value > mesh.getTriangleCount()) return mesh.getTriangleCount();
+                if (value > maxTriangleCount) return maxTriangleCount;
 
                 return value;
 
@@ -0,0 +1,440 @@
+package com.ss.editor.ui.dialog.geometry.optimize;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.material.Material;
+import com.jme3.math.Transform;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.util.NodeUtils;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import jme3tools.optimize.GeometryBatchFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The configurable optimizer which batches geometries of a node using {@link GeometryBatchFactory}. Geometries are
+ * always grouped by material and additionally by the batch mode, each group is split to batches with a limited count
+ * of vertices. The optimizer works only with a detached node, so it can be used from any background thread.
+ *
+ * @author JavaSaBr
+ */
+public class GeometryOptimizer {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(GeometryOptimizer.class);
+
+    /**
+     * The enum Batch mode.
+     */
+    public enum BatchMode {
+        /**
+         * Batch all geometries with the same material.
+         */
+        MATERIAL,
+        /**
+         * Batch geometries with the same material in the same cell of a spatial grid.
+         */
+        GRID,
+        /**
+         * Batch geometries with the same material and the same count of levels of details, levels are kept.
+         */
+        LOD_GROUP;
+
+        /**
+         * The constant VALUES.
+         */
+        public static final BatchMode[] VALUES = values();
+    }
+
+    /**
+     * The batch mode.
+     */
+    @NotNull
+    private final BatchMode batchMode;
+
+    /**
+     * The size of a grid cell.
+     */
+    private final float cellSize;
+
+    /**
+     * The max count of vertices in one batch.
+     */
+    private final int maxVertices;
+
+    /**
+     * True if tangents of batched geometries should be kept.
+     */
+    private final boolean keepTangents;
+
+    public GeometryOptimizer(@NotNull BatchMode batchMode, float cellSize, int maxVertices, boolean keepTangents) {
+        this.batchMode = batchMode;
+        this.cellSize = Math.max(cellSize, 0.001F);
+        this.maxVertices = Math.max(maxVertices, 1);
+        this.keepTangents = keepTangents;
+    }
+
+    /**
+     * Optimize the node. The node shouldn't be attached to any scene and its geometric state should be updated.
+     *
+     * @param node the node.
+     */
+    @BackgroundThread
+    public void optimize(@NotNull Node node) {
+
+        var geometries = ArrayFactory.<Geometry>newArray(Geometry.class);
+
+        NodeUtils.visitSpatial(node, Geometry.class, geometry -> {
+            if (geometry.getBatchHint() != Spatial.BatchHint.Never && geometry.getMesh() != null) {
+                geometries.add(geometry);
+            }
+        });
+
+        var batches = new ArrayList<Geometry>();
+        var merged = new ArrayList<Geometry>();
+
+        for (var group : groupGeometries(geometries).values()) {
+            for (var chunk : splitByVertices(group)) {
+
+                List<Geometry> result;
+                try {
+                    result = GeometryBatchFactory.makeBatches(chunk, batchMode == BatchMode.LOD_GROUP);
+                } catch (UnsupportedOperationException e) {
+                    LOGGER.warning(e);
+                    continue;
+                }
+
+                batches.addAll(result);
+                merged.addAll(chunk);
+            }
+        }
+
+        for (var geometry : merged) {
+            geometry.removeFromParent();
+        }
+
+        // the batched meshes are in the world space of the node, so the transform of the node is baked into
+        // the children which weren't batched
+        var transform = node.getLocalTransform().clone();
+
+        for (var child : node.getChildren()) {
+            child.setLocalTransform(child.getLocalTransform().clone().combineWithParent(transform));
+        }
+
+        node.setLocalTransform(Transform.IDENTITY);
+
+        for (int i = 0; i < batches.size(); i++) {
+
+            var batch = batches.get(i);
+            batch.setName("batch[" + i + "]");
+
+            if (!keepTangents) {
+                removeTangents(batch.getMesh());
+            }
+
+            node.attachChild(batch);
+        }
+
+        node.updateGeometricState();
+    }
+
+    /**
+     * Group the geometries by material and the batch mode.
+     *
+     * @param geometries the geometries.
+     * @return the groups of geometries.
+     */
+    @BackgroundThread
+    private @NotNull Map<String, List<Geometry>> groupGeometries(@NotNull Array<Geometry> geometries) {
+
+        var materials = new ArrayList<Material>();
+        var groups = new LinkedHashMap<String, List<Geometry>>();
+
+        for (var geometry : geometries) {
+            var key = getMaterialIndex(materials, geometry.getMaterial()) + ":" + getGroupKey(geometry);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(geometry);
+        }
+
+        return groups;
+    }
+
+    /**
+     * Get the index of the same material in the list or add the material to the list.
+     *
+     * @param materials the list of materials.
+     * @param material  the material.
+     * @return the index of the material.
+     */
+    @BackgroundThread
+    private int getMaterialIndex(@NotNull List<Material> materials, @NotNull Material material) {
+
+        for (int i = 0; i < materials.size(); i++) {
+            var other = materials.get(i);
+            if (other == material || other.contentEquals(material)) {
+                return i;
+            }
+        }
+
+        materials.add(material);
+        return materials.size() - 1;
+    }
+
+    /**
+     * Get the key of the group of the geometry according to the batch mode.
+     *
+     * @param geometry the geometry.
+     * @return the key of the group.
+     */
+    @BackgroundThread
+    private @NotNull String getGroupKey(@NotNull Geometry geometry) {
+        switch (batchMode) {
+            case GRID: {
+
+                var bound = geometry.getWorldBound();
+                var center = bound == null ? geometry.getWorldTranslation() : bound.getCenter();
+
+                return getCell(center.getX()) + ":" + getCell(center.getY()) + ":" + getCell(center.getZ());
+            }
+            case LOD_GROUP: {
+                return String.valueOf(geometry.getMesh().getNumLodLevels());
+            }
+            default: {
+                return "";
+            }
+        }
+    }
+
+    @FromAnyThread
+    private int getCell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Split the group of geometries to chunks with the limited count of vertices. A geometry which has more vertices
+     * than the limit is put to its own chunk.
+     *
+     * @param group the group of geometries.
+     * @return the chunks.
+     */
+    @BackgroundThread
+    private @NotNull List<List<Geometry>> splitByVertices(@NotNull List<Geometry> group) {
+
+        var chunks = new ArrayList<List<Geometry>>();
+        var chunk = new ArrayList<Geometry>();
+        var vertices = 0;
+
+        for (var geometry : group) {
+
+            var count = geometry.getVertexCount();
+
+            if (!chunk.isEmpty() && vertices + count > maxVertices) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                vertices = 0;
+            }
+
+            chunk.add(geometry);
+            vertices += count;
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Remove tangents and binormals from the mesh.
+     *
+     * @param mesh the mesh.
+     */
+    @BackgroundThread
+    private static void removeTangents(@NotNull Mesh mesh) {
+        mesh.clearBuffer(VertexBuffer.Type.Tangent);
+        mesh.clearBuffer(VertexBuffer.Type.Binormal);
+    }
+
+    /**
+     * Collect statistics of the spatial.
+     *
+     * @param spatial the spatial with the updated geometric state.
+     * @return the statistics.
+     */
+    @FromAnyThread
+    public static @NotNull Statistics collectStatistics(@NotNull Spatial spatial) {
+
+        var statistics = new Statistics();
+
+        NodeUtils.visitSpatial(spatial, Geometry.class, geometry -> {
+
+            statistics.geometries++;
+
+            var mesh = geometry.getMesh();
+
+            if (mesh == null || mesh.getVertexCount() < 1) {
+                return;
+            }
+
+            // each geometry is rendered by its own draw call
+            statistics.drawCalls++;
+
+            for (var buffer : mesh.getBufferList()) {
+
+                var data = buffer.getData();
+
+                if (data == null) {
+                    continue;
+                }
+
+                var size = (long) data.limit() * buffer.getFormat().getComponentSize();
+
+                if (buffer.getBufferType() == VertexBuffer.Type.Index) {
+                    statistics.indexMemory += size;
+                } else {
+                    statistics.vertexMemory += size;
+                }
+            }
+        });
+
+        var bound = spatial.getWorldBound();
+
+        if (bound != null) {
+            statistics.center.set(bound.getCenter());
+            statistics.extent.set(getExtent(bound));
+        }
+
+        return statistics;
+    }
+
+    @FromAnyThread
+    private static @NotNull Vector3f getExtent(@NotNull BoundingVolume bound) {
+
+        if (bound instanceof BoundingBox) {
+            return ((BoundingBox) bound).getExtent(null);
+        } else if (bound instanceof BoundingSphere) {
+            var radius = ((BoundingSphere) bound).getRadius();
+            return new Vector3f(radius, radius, radius);
+        }
+
+        return Vector3f.ZERO;
+    }
+
+    /**
+     * The statistics of a spatial.
+     */
+    public static class Statistics {
+
+        /**
+         * The center of the bounds.
+         */
+        @NotNull
+        private final Vector3f center;
+
+        /**
+         * The extent of the bounds.
+         */
+        @NotNull
+        private final Vector3f extent;
+
+        /**
+         * The count of geometries.
+         */
+        private int geometries;
+
+        /**
+         * The estimated count of draw calls.
+         */
+        private int drawCalls;
+
+        /**
+         * The size of vertex buffers in bytes.
+         */
+        private long vertexMemory;
+
+        /**
+         * The size of index buffers in bytes.
+         */
+        private long indexMemory;
+
+        private Statistics() {
+            this.center = new Vector3f();
+            this.extent = new Vector3f();
+        }
+
+        /**
+         * Get the count of geometries.
+         *
+         * @return the count of geometries.
+         */
+        @FromAnyThread
+        public int getGeometries() {
+            return geometries;
+        }
+
+        /**
+         * Get the estimated count of draw calls.
+         *
+         * @return the estimated count of draw calls.
+         */
+        @FromAnyThread
+        public int getDrawCalls() {
+            return drawCalls;
+        }
+
+        /**
+         * Get the size of vertex buffers.
+         *
+         * @return the size of vertex buffers in bytes.
+         */
+        @FromAnyThread
+        public long getVertexMemory() {
+            return vertexMemory;
+        }
+
+        /**
+         * Get the size of index buffers.
+         *
+         * @return the size of index buffers in bytes.
+         */
+        @FromAnyThread
+        public long getIndexMemory() {
+            return indexMemory;
+        }
+
+        /**
+         * Get the center of the bounds.
+         *
+         * @return the center of the bounds.
+         */
+        @FromAnyThread
+        public @NotNull Vector3f getCenter() {
+            return center;
+        }
+
+        /**
+         * Get the extent of the bounds.
+         *
+         * @return the extent of the bounds.
+         */
+        @FromAnyThread
+        public @NotNull Vector3f getExtent() {
+            return extent;
+        }
+    }
+}
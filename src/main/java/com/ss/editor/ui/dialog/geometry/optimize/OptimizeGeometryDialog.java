@@ -0,0 +1,379 @@
+package com.ss.editor.ui.dialog.geometry.optimize;
+
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import static javafx.collections.FXCollections.observableArrayList;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Node;
+import com.ss.editor.Messages;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.FxThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.editor.executor.TaskPriority;
+import com.ss.editor.model.undo.editor.ChangeConsumer;
+import com.ss.editor.model.undo.impl.OptimizeGeometryOperation;
+import com.ss.editor.ui.control.tree.NodeTree;
+import com.ss.editor.ui.css.CssClasses;
+import com.ss.editor.ui.dialog.AbstractSimpleEditorDialog;
+import com.ss.editor.ui.dialog.geometry.optimize.GeometryOptimizer.BatchMode;
+import com.ss.editor.ui.dialog.geometry.optimize.GeometryOptimizer.Statistics;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.common.logging.Logger;
+import com.ss.rlib.common.logging.LoggerManager;
+import com.ss.rlib.fx.control.input.FloatTextField;
+import com.ss.rlib.fx.control.input.IntegerTextField;
+import com.ss.rlib.fx.util.FXUtils;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.SingleSelectionModel;
+import javafx.scene.layout.GridPane;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+
+/**
+ * The implementation of a dialog to optimize geometries of a node in background with a report about the result.
+ *
+ * @author JavaSaBr
+ */
+public class OptimizeGeometryDialog extends AbstractSimpleEditorDialog {
+
+    @NotNull
+    private static final Logger LOGGER = LoggerManager.getLogger(OptimizeGeometryDialog.class);
+
+    @NotNull
+    private static final ObservableList<BatchMode> BATCH_MODES = observableArrayList(BatchMode.VALUES);
+
+    @NotNull
+    private static final Point DIALOG_SIZE = new Point(530, -1);
+
+    /**
+     * The node tree component.
+     */
+    @NotNull
+    private final NodeTree<?> nodeTree;
+
+    /**
+     * The node to optimize.
+     */
+    @NotNull
+    private final Node node;
+
+    /**
+     * The list of batch modes.
+     */
+    @Nullable
+    private ComboBox<BatchMode> batchModeComboBox;
+
+    /**
+     * The field of grid cell size.
+     */
+    @Nullable
+    private FloatTextField cellSizeField;
+
+    /**
+     * The check box about keeping tangents.
+     */
+    @Nullable
+    private CheckBox keepTangentsCheckBox;
+
+    /**
+     * The field of max vertices per batch.
+     */
+    @Nullable
+    private IntegerTextField maxVerticesField;
+
+    /**
+     * The labels of the report.
+     */
+    @Nullable
+    private Label geometriesLabel, drawCallsLabel, vertexMemoryLabel, indexMemoryLabel, boundsLabel;
+
+    /**
+     * True if optimizing is running.
+     */
+    private boolean running;
+
+    /**
+     * True if the node was optimized.
+     */
+    private boolean finished;
+
+    public OptimizeGeometryDialog(@NotNull final NodeTree<?> nodeTree, @NotNull final Node node) {
+        this.nodeTree = nodeTree;
+        this.node = node;
+    }
+
+    @Override
+    @FromAnyThread
+    protected @NotNull String getTitleText() {
+        return Messages.OPTIMIZE_GEOMETRY_DIALOG_TITLE;
+    }
+
+    @Override
+    @FxThread
+    protected void createContent(@NotNull final GridPane root) {
+        super.createContent(root);
+
+        final Label batchModeLabel = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_BATCH_MODE + ":");
+        batchModeLabel.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_LABEL_W_PERCENT3));
+
+        batchModeComboBox = new ComboBox<>(BATCH_MODES);
+        batchModeComboBox.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_FIELD_W_PERCENT3));
+
+        final SingleSelectionModel<BatchMode> selectionModel = batchModeComboBox.getSelectionModel();
+        selectionModel.select(BatchMode.MATERIAL);
+
+        final Label cellSizeLabel = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_CELL_SIZE + ":");
+        cellSizeLabel.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_LABEL_W_PERCENT3));
+
+        cellSizeField = new FloatTextField();
+        cellSizeField.setMinMax(0.01F, Integer.MAX_VALUE);
+        cellSizeField.setValue(64F);
+        cellSizeField.disableProperty().bind(selectionModel.selectedItemProperty().isNotEqualTo(BatchMode.GRID));
+        cellSizeField.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_FIELD_W_PERCENT3));
+
+        final Label keepTangentsLabel = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_KEEP_TANGENTS + ":");
+        keepTangentsLabel.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_LABEL_W_PERCENT3));
+
+        keepTangentsCheckBox = new CheckBox();
+        keepTangentsCheckBox.setSelected(true);
+        keepTangentsCheckBox.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_FIELD_W_PERCENT3));
+
+        final Label maxVerticesLabel = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_MAX_VERTICES + ":");
+        maxVerticesLabel.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_LABEL_W_PERCENT3));
+
+        maxVerticesField = new IntegerTextField();
+        maxVerticesField.setMinMax(1, Integer.MAX_VALUE);
+        maxVerticesField.setValue(65535);
+        maxVerticesField.prefWidthProperty().bind(root.widthProperty().multiply(DEFAULT_FIELD_W_PERCENT3));
+
+        final Label geometriesTitle = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_GEOMETRIES + ":");
+        final Label drawCallsTitle = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_DRAW_CALLS + ":");
+        final Label vertexMemoryTitle = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_VERTEX_MEMORY + ":");
+        final Label indexMemoryTitle = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_INDEX_MEMORY + ":");
+        final Label boundsTitle = new Label(Messages.OPTIMIZE_GEOMETRY_DIALOG_BOUNDS + ":");
+
+        geometriesLabel = new Label();
+        drawCallsLabel = new Label();
+        vertexMemoryLabel = new Label();
+        indexMemoryLabel = new Label();
+        boundsLabel = new Label();
+
+        root.add(batchModeLabel, 0, 0);
+        root.add(batchModeComboBox, 1, 0);
+        root.add(cellSizeLabel, 0, 1);
+        root.add(cellSizeField, 1, 1);
+        root.add(keepTangentsLabel, 0, 2);
+        root.add(keepTangentsCheckBox, 1, 2);
+        root.add(maxVerticesLabel, 0, 3);
+        root.add(maxVerticesField, 1, 3);
+        root.add(geometriesTitle, 0, 4);
+        root.add(geometriesLabel, 1, 4);
+        root.add(drawCallsTitle, 0, 5);
+        root.add(drawCallsLabel, 1, 5);
+        root.add(vertexMemoryTitle, 0, 6);
+        root.add(vertexMemoryLabel, 1, 6);
+        root.add(indexMemoryTitle, 0, 7);
+        root.add(indexMemoryLabel, 1, 7);
+        root.add(boundsTitle, 0, 8);
+        root.add(boundsLabel, 1, 8);
+
+        FXUtils.addClassTo(batchModeLabel, cellSizeLabel, keepTangentsLabel, maxVerticesLabel, geometriesTitle,
+                drawCallsTitle, vertexMemoryTitle, indexMemoryTitle, boundsTitle, CssClasses.DIALOG_DYNAMIC_LABEL);
+        FXUtils.addClassTo(batchModeComboBox, cellSizeField, keepTangentsCheckBox, maxVerticesField, geometriesLabel,
+                drawCallsLabel, vertexMemoryLabel, indexMemoryLabel, boundsLabel, CssClasses.DIALOG_FIELD);
+    }
+
+    @Override
+    @FromAnyThread
+    protected boolean isGridStructure() {
+        return true;
+    }
+
+    /**
+     * @return the list of batch modes.
+     */
+    @FxThread
+    private @NotNull ComboBox<BatchMode> getBatchModeComboBox() {
+        return notNull(batchModeComboBox);
+    }
+
+    /**
+     * @return the field of grid cell size.
+     */
+    @FxThread
+    private @NotNull FloatTextField getCellSizeField() {
+        return notNull(cellSizeField);
+    }
+
+    /**
+     * @return the check box about keeping tangents.
+     */
+    @FxThread
+    private @NotNull CheckBox getKeepTangentsCheckBox() {
+        return notNull(keepTangentsCheckBox);
+    }
+
+    /**
+     * @return the field of max vertices per batch.
+     */
+    @FxThread
+    private @NotNull IntegerTextField getMaxVerticesField() {
+        return notNull(maxVerticesField);
+    }
+
+    @Override
+    @FxThread
+    protected void processOk() {
+
+        if (running || finished) {
+            return;
+        }
+
+        final BatchMode batchMode = getBatchModeComboBox().getSelectionModel().getSelectedItem();
+        final GeometryOptimizer optimizer = new GeometryOptimizer(batchMode, getCellSizeField().getValue(),
+                getMaxVerticesField().getValue(), getKeepTangentsCheckBox().isSelected());
+
+        running = true;
+        updateControls();
+
+        EXECUTOR_MANAGER.addJmeTask(() -> prepareOptimizing(optimizer));
+    }
+
+    /**
+     * Clone the node in the jME thread to get the consistent state of the scene.
+     *
+     * @param optimizer the optimizer.
+     */
+    @JmeThread
+    private void prepareOptimizing(@NotNull final GeometryOptimizer optimizer) {
+
+        final Node newNode = (Node) node.clone();
+        newNode.updateGeometricState();
+
+        EXECUTOR_MANAGER.addBackgroundTask(() -> optimize(optimizer, newNode), TaskPriority.BULK);
+    }
+
+    /**
+     * Optimize the cloned node.
+     *
+     * @param optimizer the optimizer.
+     * @param newNode   the cloned node.
+     */
+    @BackgroundThread
+    private void optimize(@NotNull final GeometryOptimizer optimizer, @NotNull final Node newNode) {
+
+        final Statistics before = GeometryOptimizer.collectStatistics(newNode);
+        final Statistics after;
+
+        try {
+            optimizer.optimize(newNode);
+            after = GeometryOptimizer.collectStatistics(newNode);
+        } catch (final RuntimeException e) {
+            EditorUtil.handleException(LOGGER, this, e);
+            EXECUTOR_MANAGER.addFxTask(this::finishOptimizing);
+            return;
+        }
+
+        EXECUTOR_MANAGER.addFxTask(() -> applyOptimized(newNode, before, after));
+    }
+
+    /**
+     * Apply the optimized node and show the report.
+     *
+     * @param newNode the optimized node.
+     * @param before  the statistics before optimizing.
+     * @param after   the statistics after optimizing.
+     */
+    @FxThread
+    private void applyOptimized(
+            @NotNull final Node newNode,
+            @NotNull final Statistics before,
+            @NotNull final Statistics after
+    ) {
+
+        if (!running) {
+            return;
+        }
+
+        final Node parent = node.getParent();
+
+        if (parent != null) {
+            final ChangeConsumer changeConsumer = notNull(nodeTree.getChangeConsumer());
+            changeConsumer.execute(new OptimizeGeometryOperation(newNode, node, parent));
+            finished = true;
+        }
+
+        notNull(geometriesLabel).setText(before.getGeometries() + " -> " + after.getGeometries());
+        notNull(drawCallsLabel).setText(before.getDrawCalls() + " -> " + after.getDrawCalls());
+        notNull(vertexMemoryLabel).setText(toKilobytes(before.getVertexMemory()) + " -> " +
+                toKilobytes(after.getVertexMemory()));
+        notNull(indexMemoryLabel).setText(toKilobytes(before.getIndexMemory()) + " -> " +
+                toKilobytes(after.getIndexMemory()));
+        notNull(boundsLabel).setText(toString(before.getExtent()) + " -> " + toString(after.getExtent()));
+
+        finishOptimizing();
+    }
+
+    /**
+     * Finish optimizing.
+     */
+    @FxThread
+    private void finishOptimizing() {
+        running = false;
+        updateControls();
+    }
+
+    /**
+     * Update disabling of controls.
+     */
+    @FxThread
+    private void updateControls() {
+
+        final boolean disable = running || finished;
+
+        getBatchModeComboBox().setDisable(disable);
+        getKeepTangentsCheckBox().setDisable(disable);
+        getMaxVerticesField().setDisable(disable);
+
+        final Button okButton = getOkButton();
+
+        if (okButton != null) {
+            okButton.setDisable(disable);
+        }
+    }
+
+    @FromAnyThread
+    private static @NotNull String toKilobytes(final long bytes) {
+        return String.format("%.1f KB", bytes / 1024F);
+    }
+
+    @FromAnyThread
+    private static @NotNull String toString(@NotNull final Vector3f extent) {
+        return String.format("%.2f x %.2f x %.2f", extent.getX() * 2, extent.getY() * 2, extent.getZ() * 2);
+    }
+
+    @Override
+    @FxThread
+    public void hide() {
+        running = false;
+        super.hide();
+    }
+
+    @Override
+    @FromAnyThread
+    protected @NotNull String getButtonOkText() {
+        return Messages.MODEL_NODE_TREE_ACTION_OPTIMIZE_GEOMETRY;
+    }
+
+    @Override
+    @FromAnyThread
+    protected @NotNull Point getSize() {
+        return DIALOG_SIZE;
+    }
+}
@@ -0,0 +1,277 @@
+package com.ss.editor.ui.dialog.terrain;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The writer of terrain alpha maps which streams rows of pixels directly to a file, so it doesn't need to keep the
+ * whole image in memory.
+ *
+ * @author JavaSaBr
+ */
+public class AlphaMapWriter {
+
+    @NotNull
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * The max size of one IDAT chunk.
+     */
+    private static final int PNG_CHUNK_SIZE = 64 * 1024;
+
+    private static final int DDS_HEADER_SIZE = 124;
+    private static final int DDS_PIXEL_FORMAT_SIZE = 32;
+
+    private static final int DDSD_CAPS = 0x1;
+    private static final int DDSD_HEIGHT = 0x2;
+    private static final int DDSD_WIDTH = 0x4;
+    private static final int DDSD_PITCH = 0x8;
+    private static final int DDSD_PIXELFORMAT = 0x1000;
+
+    private static final int DDPF_ALPHAPIXELS = 0x1;
+    private static final int DDPF_RGB = 0x40;
+
+    private static final int DDSCAPS_TEXTURE = 0x1000;
+
+    /**
+     * The format of alpha maps.
+     */
+    public enum Format {
+        /**
+         * Compressed PNG format.
+         */
+        PNG("png"),
+        /**
+         * Uncompressed DDS format.
+         */
+        DDS("dds");
+
+        public static final Format[] VALUES = values();
+
+        /**
+         * The file extension.
+         */
+        @NotNull
+        private final String extension;
+
+        Format(@NotNull String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Get the file extension.
+         *
+         * @return the file extension.
+         */
+        @FromAnyThread
+        public @NotNull String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * The stream which splits written data to PNG chunks.
+     */
+    private static class PngChunkOutputStream extends FilterOutputStream {
+
+        /**
+         * The type of chunks.
+         */
+        @NotNull
+        private final byte[] type;
+
+        /**
+         * The buffer of the current chunk.
+         */
+        @NotNull
+        private final ByteBuffer buffer;
+
+        private PngChunkOutputStream(@NotNull OutputStream out, @NotNull String type) {
+            super(out);
+            this.type = type.getBytes(US_ASCII);
+            this.buffer = ByteBuffer.allocate(PNG_CHUNK_SIZE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+
+                var count = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            if (buffer.position() > 0) {
+                writeChunk(out, type, buffer.array(), buffer.position());
+                buffer.clear();
+            }
+
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the underlying stream is still used to write next chunks
+            flush();
+        }
+    }
+
+    /**
+     * Write an alpha map with the same color of all pixels.
+     *
+     * @param file   the file.
+     * @param format the format.
+     * @param size   the size of the alpha map.
+     * @param argb   the color of pixels.
+     * @throws IOException if the file can't be written.
+     */
+    @BackgroundThread
+    public static void write(@NotNull Path file, @NotNull Format format, int size, int argb) throws IOException {
+        try (var out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            switch (format) {
+                case PNG: {
+                    writePng(out, size, argb);
+                    break;
+                }
+                case DDS: {
+                    writeDds(out, size, argb);
+                    break;
+                }
+            }
+        }
+    }
+
+    @BackgroundThread
+    private static void writePng(@NotNull OutputStream out, int size, int argb) throws IOException {
+
+        var header = ByteBuffer.allocate(13)
+                .putInt(size)
+                .putInt(size)
+                .put((byte) 8) // bit depth
+                .put((byte) 6) // RGBA
+                .put((byte) 0) // deflate
+                .put((byte) 0) // adaptive filtering
+                .put((byte) 0); // no interlace
+
+        out.write(PNG_SIGNATURE);
+        writeChunk(out, "IHDR".getBytes(US_ASCII), header.array(), header.capacity());
+
+        // each row starts with the type of filter
+        var row = new byte[size * 4 + 1];
+
+        for (int i = 1; i < row.length; i += 4) {
+            row[i] = (byte) (argb >> 16);
+            row[i + 1] = (byte) (argb >> 8);
+            row[i + 2] = (byte) argb;
+            row[i + 3] = (byte) (argb >> 24);
+        }
+
+        var deflater = new Deflater(Deflater.BEST_SPEED);
+        try (var idat = new DeflaterOutputStream(new PngChunkOutputStream(out, "IDAT"), deflater, PNG_CHUNK_SIZE)) {
+            for (int i = 0; i < size; i++) {
+                idat.write(row);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(out, "IEND".getBytes(US_ASCII), new byte[0], 0);
+    }
+
+    @BackgroundThread
+    private static void writeChunk(
+            @NotNull OutputStream out,
+            @NotNull byte[] type,
+            @NotNull byte[] data,
+            int length
+    ) throws IOException {
+
+        var crc = new CRC32();
+        crc.update(type);
+        crc.update(data, 0, length);
+
+        var stream = new DataOutputStream(out);
+        stream.writeInt(length);
+        stream.write(type);
+        stream.write(data, 0, length);
+        stream.writeInt((int) crc.getValue());
+    }
+
+    @BackgroundThread
+    private static void writeDds(@NotNull OutputStream out, int size, int argb) throws IOException {
+
+        var header = ByteBuffer.allocate(DDS_HEADER_SIZE + 4)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .put("DDS ".getBytes(US_ASCII))
+                .putInt(DDS_HEADER_SIZE)
+                .putInt(DDSD_CAPS | DDSD_HEIGHT | DDSD_WIDTH | DDSD_PITCH | DDSD_PIXELFORMAT)
+                .putInt(size)
+                .putInt(size)
+                .putInt(size * 4)
+                .putInt(0) // depth
+                .putInt(0); // mipmaps
+
+        // reserved
+        header.position(header.position() + 11 * 4);
+
+        header.putInt(DDS_PIXEL_FORMAT_SIZE)
+                .putInt(DDPF_RGB | DDPF_ALPHAPIXELS)
+                .putInt(0) // four CC
+                .putInt(32)
+                .putInt(0x00FF0000)
+                .putInt(0x0000FF00)
+                .putInt(0x000000FF)
+                .putInt(0xFF000000)
+                .putInt(DDSCAPS_TEXTURE);
+
+        out.write(header.array());
+
+        // pixels are stored as BGRA
+        var row = new byte[size * 4];
+
+        for (int i = 0; i < row.length; i += 4) {
+            row[i] = (byte) argb;
+            row[i + 1] = (byte) (argb >> 8);
+            row[i + 2] = (byte) (argb >> 16);
+            row[i + 3] = (byte) (argb >> 24);
+        }
+
+        for (int i = 0; i < size; i++) {
+            out.write(row);
+        }
+    }
+}
@@ -1,22 +1,11 @@
 package com.ss.editor.ui.dialog.terrain;
 
-import static com.ss.editor.part3d.editor.impl.scene.AbstractSceneEditor3DPart.KEY_LOADED_MODEL;
 import static com.ss.editor.util.EditorUtil.getAssetFile;
 import static com.ss.editor.util.EditorUtil.toAssetPath;
 import static com.ss.rlib.common.util.ObjectUtils.notNull;
 import static javafx.collections.FXCollections.observableArrayList;
 import com.jme3.asset.AssetManager;
-import com.jme3.asset.TextureKey;
-import com.jme3.bounding.BoundingBox;
-import com.jme3.material.Material;
-import com.jme3.terrain.FlatHeightmap;
-import com.jme3.terrain.Terrain;
-import com.jme3.terrain.geomipmap.TerrainLodControl;
-import com.jme3.terrain.geomipmap.TerrainQuad;
-import com.jme3.terrain.geomipmap.lodcalc.DistanceLodCalculator;
-import com.jme3.terrain.heightmap.AbstractHeightMap;
-import com.jme3.terrain.heightmap.HillHeightMap;
-import com.jme3.terrain.heightmap.ImageBasedHeightMap;
+import com.jme3.scene.Spatial;
 import com.jme3.texture.Texture;
 import com.ss.editor.Messages;
 import com.ss.editor.annotation.BackgroundThread;
@@ -36,7 +25,6 @@ import com.ss.editor.util.EditorUtil;
 import com.ss.rlib.fx.control.input.FloatTextField;
 import com.ss.rlib.fx.control.input.IntegerTextField;
 import com.ss.rlib.fx.util.FXUtils;
-import com.ss.rlib.common.util.FileUtils;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
@@ -48,11 +36,9 @@ import javafx.scene.layout.VBox;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Random;
 
 /**
  * The dialog to create terrain.
@@ -60,9 +46,7 @@ import java.nio.file.Paths;
  * @author JavaSaBr
  */
 public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
-    
-    private static final int NUM_ALPHA_TEXTURES = 3;
-    
+
     @NotNull
     private static final Integer DEFAULT_BLEND_TEXTURE_SIZE = 256;
 
@@ -122,6 +106,13 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
     @NotNull
     private static final ObservableList<Integer> TOTAL_SIZE_VARIANTS = observableArrayList();
 
+    @NotNull
+    private static final ObservableList<Integer> CHUNKS_VARIANTS = observableArrayList(1, 2, 4, 8);
+
+    @NotNull
+    private static final ObservableList<AlphaMapWriter.Format> ALPHA_MAP_FORMATS =
+            observableArrayList(AlphaMapWriter.Format.VALUES);
+
     static {
         SIZE_VARIANTS.add(16);
         SIZE_VARIANTS.add(32);
@@ -132,6 +123,7 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         SIZE_VARIANTS.add(1024);
         SIZE_VARIANTS.add(2048);
         SIZE_VARIANTS.add(4096);
+        SIZE_VARIANTS.add(8192);
         PATCH_SIZE_VARIANTS.addAll(SIZE_VARIANTS);
         TOTAL_SIZE_VARIANTS.addAll(SIZE_VARIANTS);
         TOTAL_SIZE_VARIANTS.remove(0);
@@ -198,6 +190,18 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
     @Nullable
     private ComboBox<Integer> patchSizeComboBox;
 
+    /**
+     * The chunks per side combo box.
+     */
+    @Nullable
+    private ComboBox<Integer> chunksComboBox;
+
+    /**
+     * The alpha map format combo box.
+     */
+    @Nullable
+    private ComboBox<AlphaMapWriter.Format> alphaMapFormatComboBox;
+
     /**
      * The type of height map.
      */
@@ -265,6 +269,12 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         final ComboBox<Integer> alphaBlendTextureSizeComboBox = getAlphaBlendTextureSizeComboBox();
         alphaBlendTextureSizeComboBox.getSelectionModel().select(DEFAULT_BLEND_TEXTURE_SIZE);
 
+        final ComboBox<Integer> chunksComboBox = getChunksComboBox();
+        chunksComboBox.getSelectionModel().select(0);
+
+        final ComboBox<AlphaMapWriter.Format> alphaMapFormatComboBox = getAlphaMapFormatComboBox();
+        alphaMapFormatComboBox.getSelectionModel().select(AlphaMapWriter.Format.PNG);
+
         final ComboBox<HeightMapType> heightMapTypeComboBox = getHeightMapTypeComboBox();
         heightMapTypeComboBox.getSelectionModel().select(HeightMapType.FLAT);
 
@@ -311,6 +321,18 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         alphaBlendTextureSizeComboBox = new ComboBox<>(SIZE_VARIANTS);
         alphaBlendTextureSizeComboBox.prefWidthProperty().bind(baseTextureControl.widthProperty());
 
+        final Label chunksLabel = new Label(Messages.CREATE_TERRAIN_DIALOG_CHUNKS + ":");
+        chunksLabel.prefWidthProperty().bind(baseTextureLabel.widthProperty());
+
+        chunksComboBox = new ComboBox<>(CHUNKS_VARIANTS);
+        chunksComboBox.prefWidthProperty().bind(baseTextureControl.widthProperty());
+
+        final Label alphaMapFormatLabel = new Label(Messages.CREATE_TERRAIN_DIALOG_ALPHA_MAP_FORMAT + ":");
+        alphaMapFormatLabel.prefWidthProperty().bind(baseTextureLabel.widthProperty());
+
+        alphaMapFormatComboBox = new ComboBox<>(ALPHA_MAP_FORMATS);
+        alphaMapFormatComboBox.prefWidthProperty().bind(baseTextureControl.widthProperty());
+
         final Label heightMapTypeLabel = new Label(Messages.CREATE_TERRAIN_DIALOG_TERRAIN_TYPE + ":");
         heightMapTypeLabel.prefWidthProperty().bind(baseTextureLabel.widthProperty());
 
@@ -327,12 +349,16 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         baseSettings.add(patchSizeComboBox, 1, 1);
         baseSettings.add(alphaBlendTextureSizeLabel, 0, 2);
         baseSettings.add(alphaBlendTextureSizeComboBox, 1, 2);
-        baseSettings.add(heightMapTypeLabel, 0, 3);
-        baseSettings.add(heightMapTypeComboBox, 1, 3);
-        baseSettings.add(alphaTextureFolderLabel, 0, 4);
-        baseSettings.add(alphaTextureFolderControl, 1, 4);
-        baseSettings.add(baseTextureLabel, 0, 5);
-        baseSettings.add(baseTextureControl, 1, 5);
+        baseSettings.add(chunksLabel, 0, 3);
+        baseSettings.add(chunksComboBox, 1, 3);
+        baseSettings.add(alphaMapFormatLabel, 0, 4);
+        baseSettings.add(alphaMapFormatComboBox, 1, 4);
+        baseSettings.add(heightMapTypeLabel, 0, 5);
+        baseSettings.add(heightMapTypeComboBox, 1, 5);
+        baseSettings.add(alphaTextureFolderLabel, 0, 6);
+        baseSettings.add(alphaTextureFolderControl, 1, 6);
+        baseSettings.add(baseTextureLabel, 0, 7);
+        baseSettings.add(baseTextureControl, 1, 7);
 
         flatSettings = new GridPane();
 
@@ -411,12 +437,13 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         hillSettings.add(hillMaxRadiusLabel, 0, 3);
         hillSettings.add(hillMaxRadiusField, 1, 3);
 
-        FXUtils.addClassesTo(baseTextureLabel, totalSizeLabel, pathSizeLabel, heightMapTypeLabel,
-                alphaBlendTextureSizeLabel, alphaTextureFolderLabel, heightMapImageControlLabel, heightMapSmoothLabel,
+        FXUtils.addClassesTo(baseTextureLabel, totalSizeLabel, pathSizeLabel, chunksLabel, alphaMapFormatLabel,
+                heightMapTypeLabel, alphaBlendTextureSizeLabel, alphaTextureFolderLabel, heightMapImageControlLabel, heightMapSmoothLabel,
                 heightMapScaleLabel, hillIterationsLabel, hillFlatteningLabel, hillMinRadiusLabel, hillMaxRadiusLabel,
                 CssClasses.DIALOG_DYNAMIC_LABEL);
 
-        FXUtils.addClassesTo(totalSizeComboBox, patchSizeComboBox, alphaBlendTextureSizeComboBox, heightMapTypeComboBox,
+        FXUtils.addClassesTo(totalSizeComboBox, patchSizeComboBox, alphaBlendTextureSizeComboBox, chunksComboBox,
+                alphaMapFormatComboBox, heightMapTypeComboBox,
                 heightMapSmoothField, heightMapScaleField, hillIterationsField, hillFlatteningField,
                 hillMinRadiusField, hillMaxRadiusField, hillFlatteningLabel, hillMinRadiusLabel, hillMaxRadiusLabel,
                 CssClasses.DIALOG_FIELD);
@@ -477,6 +504,26 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         return notNull(patchSizeComboBox);
     }
 
+    /**
+     * Get the chunks per side combo box.
+     *
+     * @return the chunks per side combo box.
+     */
+    @FxThread
+    private @NotNull ComboBox<Integer> getChunksComboBox() {
+        return notNull(chunksComboBox);
+    }
+
+    /**
+     * Get the alpha map format combo box.
+     *
+     * @return the alpha map format combo box.
+     */
+    @FxThread
+    private @NotNull ComboBox<AlphaMapWriter.Format> getAlphaMapFormatComboBox() {
+        return notNull(alphaMapFormatComboBox);
+    }
+
     /**
      * Get the alpha blend texture size combo box.
      *
@@ -665,26 +712,7 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
     @FxThread
     protected void processOk() {
         super.processOk();
-        UiUtils.incrementLoading();
-        EXECUTOR_MANAGER.addBackgroundTask(() -> {
-
-            try {
-                createTerrainInBackground();
-            } catch (final Exception e) {
-                EditorUtil.handleException(LOGGER, this, e);
-            }
-
-            EXECUTOR_MANAGER.addFxTask(UiUtils::decrementLoading);
-        });
-    }
 
-    /**
-     * Create terrain in background.
-     */
-    @BackgroundThread
-    private void createTerrainInBackground() throws Exception {
-
-        final AssetManager assetManager = EditorUtil.getAssetManager();
         final ComboBox<HeightMapType> heightMapTypeComboBox = getHeightMapTypeComboBox();
         final HeightMapType heightMapType = heightMapTypeComboBox.getSelectionModel().getSelectedItem();
 
@@ -694,139 +722,96 @@ public class CreateTerrainDialog extends AbstractSimpleEditorDialog {
         final ComboBox<Integer> patchSizeComboBox = getPatchSizeComboBox();
         final int patchSize = patchSizeComboBox.getSelectionModel().getSelectedItem();
 
-        final ChooseTextureControl heightMapImageControl = getHeightMapImageControl();
-        final FloatTextField heightMapScaleField = getHeightMapScaleField();
-        final FloatTextField heightMapSmoothField = getHeightMapSmoothField();
-
-        final FloatTextField hillMinRadiusField = getHillMinRadiusField();
-        final FloatTextField hillMaxRadiusField = getHillMaxRadiusField();
-        final IntegerTextField hillIterationsField = getHillIterationsField();
-        final IntegerTextField hillFlatteningField = getHillFlatteningField();
-
-        AbstractHeightMap heightmap = null;
-
-        switch (heightMapType) {
-            case FLAT: {
-                heightmap = new FlatHeightmap(totalSize);
-                break;
-            }
-            case IMAGE_BASED: {
-
-                final Path heightMapTextureFile = notNull(heightMapImageControl.getTextureFile());
-                final Path assetFile = notNull(getAssetFile(heightMapTextureFile));
-                final Texture texture = assetManager.loadTexture(toAssetPath(assetFile));
-
-                heightmap = new ImageBasedHeightMap(texture.getImage(), heightMapScaleField.getValue());
-                break;
-            }
-            case HILL: {
-
-                final int iterations = hillIterationsField.getValue();
-                final float minRadius = hillMinRadiusField.getValue();
-                final float maxRadius = hillMaxRadiusField.getValue();
-
-                final int flattening = hillFlatteningField.getValue();
-
-                heightmap = new HillHeightMap(totalSize, iterations, minRadius, maxRadius, (byte) flattening);
-                break;
-            }
-        }
-
-        heightmap.load();
-
-        if (heightmap instanceof ImageBasedHeightMap) {
-            heightmap.smooth(heightMapSmoothField.getValue());
-        }
-
-        final float[] heightMap = heightmap.getHeightMap();
-
-        final Terrain terrain = new TerrainQuad("New terrain", patchSize, totalSize, heightMap);
-        final Material terrainMaterial = new Material(assetManager, "Common/MatDefs/Terrain/TerrainLighting.j3md");
+        final ComboBox<Integer> chunksComboBox = getChunksComboBox();
+        final int chunks = chunksComboBox.getSelectionModel().getSelectedItem();
 
         final ComboBox<Integer> alphaBlendTextureSizeComboBox = getAlphaBlendTextureSizeComboBox();
         final int textureAlphaSize = alphaBlendTextureSizeComboBox.getSelectionModel().getSelectedItem();
 
-        final ChooseFolderControl alphaTextureFolderControl = getAlphaTextureFolderControl();
-        final Path folder = notNull(alphaTextureFolderControl.getFolder());
+        final ComboBox<AlphaMapWriter.Format> alphaMapFormatComboBox = getAlphaMapFormatComboBox();
+        final AlphaMapWriter.Format alphaMapFormat = alphaMapFormatComboBox.getSelectionModel().getSelectedItem();
 
-        // write out 3 alpha blend images
-        for (int i = 0; i < NUM_ALPHA_TEXTURES; i++) {
+        final Path heightMapTexture = getHeightMapImageControl().getTextureFile();
+        final float heightMapScale = getHeightMapScaleField().getValue();
+        final float heightMapSmooth = getHeightMapSmoothField().getValue();
 
-            final BufferedImage alphaBlend = new BufferedImage(textureAlphaSize, textureAlphaSize,
-                    BufferedImage.TYPE_INT_ARGB);
+        final int hillIterations = getHillIterationsField().getValue();
+        final int hillFlattening = getHillFlatteningField().getValue();
+        final float hillMinRadius = getHillMinRadiusField().getValue();
+        final float hillMaxRadius = getHillMaxRadiusField().getValue();
 
-            if (i == 0) {
-                // the first alpha level should be opaque so we see the first texture over the whole terrain
-                for (int h = 0; h < textureAlphaSize; h++) {
-                    for (int w = 0; w < textureAlphaSize; w++) {
-                        alphaBlend.setRGB(w, h, 0x00FF0000); //argb
-                    }
-                }
-            }
+        final Path alphaFolder = notNull(getAlphaTextureFolderControl().getFolder());
+        final Path baseTexture = notNull(getBaseTextureControl().getTextureFile());
 
-            final String fileName = FileUtils.getFirstFreeName(folder, Paths.get(
-                    "terrain-alpha-blend-" + (i + 1) + ".png"));
+        final int worldSize = TerrainBuilder.getWorldSize(totalSize, chunks);
 
-            final Path textureFile = folder.resolve(fileName);
+        UiUtils.incrementLoading();
+        EXECUTOR_MANAGER.addBackgroundTask(() -> {
 
-            ImageIO.write(alphaBlend, "png", textureFile.toFile());
+            try {
 
-            final Path assetFile = notNull(getAssetFile(textureFile));
-            final Texture texture = assetManager.loadAsset(new TextureKey(toAssetPath(assetFile), false));
+                TerrainHeightGenerator heightGenerator;
 
-            switch (i) {
-                case 0: {
-                    terrainMaterial.setTexture("AlphaMap", texture);
-                    break;
-                }
-                case 1: {
-                    terrainMaterial.setTexture("AlphaMap_1", texture);
-                    break;
-                }
-                case 2: {
-                    terrainMaterial.setTexture("AlphaMap_2", texture);
-                    break;
-                }
-                default: {
-                    break;
+                switch (heightMapType) {
+                    case IMAGE_BASED: {
+                        heightGenerator = TerrainHeightGenerator.imageBased(worldSize,
+                                loadHeightMapImage(notNull(heightMapTexture)), heightMapScale, heightMapSmooth);
+                        break;
+                    }
+                    case HILL: {
+                        heightGenerator = TerrainHeightGenerator.hill(worldSize, hillIterations, hillMinRadius,
+                                hillMaxRadius, hillFlattening, new Random().nextLong());
+                        break;
+                    }
+                    default: {
+                        heightGenerator = TerrainHeightGenerator.flat(worldSize);
+                        break;
+                    }
                 }
-            }
 
-        }
+                final TerrainBuilder builder = new TerrainBuilder(heightGenerator, alphaFolder, baseTexture,
+                        alphaMapFormat, totalSize, patchSize, chunks, textureAlphaSize);
 
-        final ChooseTextureControl baseTextureControl = getBaseTextureControl();
-        final Path baseTextureFile = notNull(baseTextureControl.getTextureFile());
+                final Spatial terrain = builder.build();
 
-        // give the first layer default texture
-        final Texture baseTexture = assetManager.loadTexture(toAssetPath(notNull(getAssetFile(baseTextureFile))));
-        baseTexture.setWrap(Texture.WrapMode.Repeat);
+                EXECUTOR_MANAGER.addFxTask(() -> addTerrain(terrain));
 
-        terrainMaterial.setTexture("DiffuseMap", baseTexture);
-        terrainMaterial.setFloat("DiffuseMap_0_scale", 1);
-        terrainMaterial.setFloat("Shininess", 0.01f);
-        terrainMaterial.setBoolean("WardIso", true);
+            } catch (final Exception e) {
+                EditorUtil.handleException(LOGGER, this, e);
+            }
 
-        final com.jme3.scene.Node terrainNode = (com.jme3.scene.Node) terrain;
-        terrainNode.setUserData(KEY_LOADED_MODEL, true);
-        terrainNode.setMaterial(terrainMaterial);
-        terrainNode.setModelBound(new BoundingBox());
-        terrainNode.updateModelBound();
-        terrainNode.setLocalTranslation(0, 0, 0);
-        terrainNode.setLocalScale(1f, 1f, 1f);
+            EXECUTOR_MANAGER.addFxTask(UiUtils::decrementLoading);
+        });
+    }
 
-        // add the lod control
-        final TerrainLodControl control = new TerrainLodControl(terrain);
-        control.setLodCalculator(new DistanceLodCalculator(patchSize, 2.7f));
-        control.setUseRenderCamera(true);
+    /**
+     * Load the image of a height map.
+     *
+     * @param file the file of the image.
+     * @return the loaded image.
+     */
+    @BackgroundThread
+    private @NotNull com.jme3.texture.Image loadHeightMapImage(@NotNull final Path file) {
+        final AssetManager assetManager = EditorUtil.getAssetManager();
+        final Path assetFile = notNull(getAssetFile(file));
+        final Texture texture = assetManager.loadTexture(toAssetPath(assetFile));
+        return texture.getImage();
+    }
 
-        terrainNode.addControl(control);
+    /**
+     * Add the created terrain to the parent node.
+     *
+     * @param terrain the created terrain.
+     */
+    @FxThread
+    private void addTerrain(@NotNull final Spatial terrain) {
 
         final TreeNode<?> parentNode = getParentNode();
         final com.jme3.scene.Node parent = (com.jme3.scene.Node) parentNode.getElement();
 
         final NodeTree<?> nodeTree = getNodeTree();
         final ChangeConsumer changeConsumer = notNull(nodeTree.getChangeConsumer());
-        changeConsumer.execute(new AddChildOperation(terrainNode, parent));
+        changeConsumer.execute(new AddChildOperation(terrain, parent));
     }
 
     @Override
@@ -0,0 +1,257 @@
+package com.ss.editor.ui.dialog.terrain;
+
+import static com.ss.editor.part3d.editor.impl.scene.AbstractSceneEditor3DPart.KEY_LOADED_MODEL;
+import static com.ss.editor.util.EditorUtil.getAssetFile;
+import static com.ss.editor.util.EditorUtil.toAssetPath;
+import static com.ss.rlib.common.util.ObjectUtils.notNull;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.TextureKey;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.material.Material;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.terrain.geomipmap.TerrainLodControl;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.jme3.terrain.geomipmap.lodcalc.DistanceLodCalculator;
+import com.jme3.texture.Texture;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.util.EditorUtil;
+import com.ss.rlib.common.util.FileUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The builder of a new terrain. A terrain can be split to a grid of chunks, each chunk is a separated {@link
+ * TerrainQuad} with own alpha maps, so the world can be bigger than a size which can be handled by one quad.
+ * Heights of each chunk are generated in parallel tiles and chunks are built in parallel as well.
+ *
+ * @author JavaSaBr
+ */
+public class TerrainBuilder {
+
+    private static final int NUM_ALPHA_TEXTURES = 3;
+
+    @NotNull
+    private static final String[] ALPHA_MAP_PARAMS = {"AlphaMap", "AlphaMap_1", "AlphaMap_2"};
+
+    /**
+     * The generator of heights.
+     */
+    @NotNull
+    private final TerrainHeightGenerator heightGenerator;
+
+    /**
+     * The folder to store alpha maps.
+     */
+    @NotNull
+    private final Path alphaFolder;
+
+    /**
+     * The base texture.
+     */
+    @NotNull
+    private final Path baseTexture;
+
+    /**
+     * The format of alpha maps.
+     */
+    @NotNull
+    private final AlphaMapWriter.Format alphaFormat;
+
+    /**
+     * The size of a chunk in vertices.
+     */
+    private final int chunkSize;
+
+    /**
+     * The size of patches.
+     */
+    private final int patchSize;
+
+    /**
+     * The count of chunks per side.
+     */
+    private final int chunks;
+
+    /**
+     * The size of alpha maps.
+     */
+    private final int alphaSize;
+
+    public TerrainBuilder(
+            @NotNull TerrainHeightGenerator heightGenerator,
+            @NotNull Path alphaFolder,
+            @NotNull Path baseTexture,
+            @NotNull AlphaMapWriter.Format alphaFormat,
+            int chunkSize,
+            int patchSize,
+            int chunks,
+            int alphaSize
+    ) {
+        this.heightGenerator = heightGenerator;
+        this.alphaFolder = alphaFolder;
+        this.baseTexture = baseTexture;
+        this.alphaFormat = alphaFormat;
+        this.chunkSize = chunkSize;
+        this.patchSize = patchSize;
+        this.chunks = chunks;
+        this.alphaSize = alphaSize;
+    }
+
+    /**
+     * Get the size of the world in vertices for the size and the count of chunks.
+     *
+     * @param chunkSize the size of a chunk in vertices.
+     * @param chunks    the count of chunks per side.
+     * @return the size of the world.
+     */
+    @FromAnyThread
+    public static int getWorldSize(int chunkSize, int chunks) {
+        // neighbour chunks share their edge vertices
+        return (chunkSize - 1) * chunks + 1;
+    }
+
+    /**
+     * Build a new terrain.
+     *
+     * @return the terrain quad or the node with terrain chunks.
+     * @throws IOException if alpha maps can't be written.
+     */
+    @BackgroundThread
+    public @NotNull Spatial build() throws IOException {
+
+        var assetManager = EditorUtil.getAssetManager();
+
+        // give the first layer default texture
+        var baseTexture = assetManager.loadTexture(toAssetPath(notNull(getAssetFile(this.baseTexture))));
+        baseTexture.setWrap(Texture.WrapMode.Repeat);
+
+        var baseMaterial = new Material(assetManager, "Common/MatDefs/Terrain/TerrainLighting.j3md");
+        baseMaterial.setTexture("DiffuseMap", baseTexture);
+        baseMaterial.setFloat("DiffuseMap_0_scale", 1);
+        baseMaterial.setFloat("Shininess", 0.01f);
+        baseMaterial.setBoolean("WardIso", true);
+
+        // the alpha maps are written before building chunks to get unique file names
+        var materials = new Material[chunks * chunks];
+
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = createMaterial(assetManager, baseMaterial, chunks > 1 ? (i + 1) + "-" : "");
+        }
+
+        heightGenerator.prepare();
+
+        if (chunks == 1) {
+            var terrain = buildChunk("New terrain", 0, 0, materials[0]);
+            terrain.setUserData(KEY_LOADED_MODEL, true);
+            return terrain;
+        }
+
+        var tasks = new ArrayList<ForkJoinTask<TerrainQuad>>(materials.length);
+
+        for (int z = 0; z < chunks; z++) {
+            for (int x = 0; x < chunks; x++) {
+
+                var chunkX = x;
+                var chunkZ = z;
+                var material = materials[z * chunks + x];
+
+                tasks.add(ForkJoinTask.adapt(() ->
+                        buildChunk("Terrain chunk " + chunkX + "x" + chunkZ, chunkX, chunkZ, material)));
+            }
+        }
+
+        ForkJoinPool.commonPool()
+                .invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        var terrainNode = new Node("New terrain");
+        terrainNode.setUserData(KEY_LOADED_MODEL, true);
+
+        var center = (chunks - 1) / 2F;
+        var step = chunkSize - 1;
+
+        for (int i = 0; i < tasks.size(); i++) {
+            var chunk = tasks.get(i).join();
+            chunk.setLocalTranslation((i % chunks - center) * step, 0, (i / chunks - center) * step);
+            terrainNode.attachChild(chunk);
+        }
+
+        return terrainNode;
+    }
+
+    /**
+     * Create a material of a chunk with new alpha maps.
+     *
+     * @param assetManager the asset manager.
+     * @param baseMaterial the base material.
+     * @param prefix       the prefix of alpha map names.
+     * @return the new material.
+     * @throws IOException if alpha maps can't be written.
+     */
+    @BackgroundThread
+    private @NotNull Material createMaterial(
+            @NotNull AssetManager assetManager,
+            @NotNull Material baseMaterial,
+            @NotNull String prefix
+    ) throws IOException {
+
+        var material = baseMaterial.clone();
+
+        for (int i = 0; i < NUM_ALPHA_TEXTURES; i++) {
+
+            var fileName = FileUtils.getFirstFreeName(alphaFolder, Paths.get("terrain-alpha-blend-" + prefix +
+                    (i + 1) + "." + alphaFormat.getExtension()));
+
+            var textureFile = alphaFolder.resolve(fileName);
+
+            // the first alpha level should be opaque so we see the first texture over the whole terrain
+            AlphaMapWriter.write(textureFile, alphaFormat, alphaSize, i == 0 ? 0x00FF0000 : 0);
+
+            var assetFile = notNull(getAssetFile(textureFile));
+            var texture = assetManager.loadAsset(new TextureKey(toAssetPath(assetFile), false));
+
+            material.setTexture(ALPHA_MAP_PARAMS[i], texture);
+        }
+
+        return material;
+    }
+
+    /**
+     * Build a terrain chunk.
+     *
+     * @param name     the name of the chunk.
+     * @param chunkX   the x index of the chunk.
+     * @param chunkZ   the z index of the chunk.
+     * @param material the material of the chunk.
+     * @return the terrain chunk.
+     */
+    @BackgroundThread
+    private @NotNull TerrainQuad buildChunk(@NotNull String name, int chunkX, int chunkZ, @NotNull Material material) {
+
+        var step = chunkSize - 1;
+        var heights = heightGenerator.generate(chunkX * step, chunkZ * step, chunkSize);
+
+        var terrain = new TerrainQuad(name, patchSize, chunkSize, heights);
+        terrain.setMaterial(material);
+        terrain.setModelBound(new BoundingBox());
+        terrain.updateModelBound();
+        terrain.setLocalTranslation(0, 0, 0);
+        terrain.setLocalScale(1f, 1f, 1f);
+
+        // add the lod control
+        var control = new TerrainLodControl(terrain);
+        control.setLodCalculator(new DistanceLodCalculator(patchSize, 2.7f));
+        control.setUseRenderCamera(true);
+
+        terrain.addControl(control);
+
+        return terrain;
+    }
+}
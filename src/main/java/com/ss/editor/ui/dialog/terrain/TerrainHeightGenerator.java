@@ -0,0 +1,467 @@
+package com.ss.editor.ui.dialog.terrain;
+
+import com.jme3.math.ColorRGBA;
+import com.jme3.terrain.heightmap.AbstractHeightMap;
+import com.jme3.texture.Image;
+import com.jme3.texture.image.ImageRaster;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The generator of terrain heights which fills heights by tiles in parallel. Heights are calculated by world
+ * coordinates, so any square part of the world can be generated separately and the parts have the same heights on
+ * their shared edges.
+ *
+ * @author JavaSaBr
+ */
+public abstract class TerrainHeightGenerator {
+
+    /**
+     * The max size of a tile which is filled by one task.
+     */
+    private static final int TILE_SIZE = 128;
+
+    /**
+     * The handler of a tile.
+     */
+    @FunctionalInterface
+    private interface TileHandler {
+
+        /**
+         * Handle the tile.
+         *
+         * @param x      the x coordinate of the tile.
+         * @param z      the z coordinate of the tile.
+         * @param width  the width of the tile.
+         * @param height the height of the tile.
+         */
+        @BackgroundThread
+        void handle(int x, int z, int width, int height);
+    }
+
+    /**
+     * The task to split an area to tiles.
+     */
+    private static class TileTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The handler of tiles.
+         */
+        @NotNull
+        private final TileHandler handler;
+
+        /**
+         * The area.
+         */
+        private final int x, z, width, height;
+
+        private TileTask(@NotNull TileHandler handler, int x, int z, int width, int height) {
+            this.handler = handler;
+            this.x = x;
+            this.z = z;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        @BackgroundThread
+        protected void compute() {
+
+            if (width <= TILE_SIZE && height <= TILE_SIZE) {
+                handler.handle(x, z, width, height);
+            } else if (width >= height) {
+                var half = width / 2;
+                invokeAll(new TileTask(handler, x, z, half, height),
+                        new TileTask(handler, x + half, z, width - half, height));
+            } else {
+                var half = height / 2;
+                invokeAll(new TileTask(handler, x, z, width, half),
+                        new TileTask(handler, x, z + half, width, height - half));
+            }
+        }
+    }
+
+    /**
+     * Create a generator of a flat terrain.
+     *
+     * @param worldSize the size of the world in vertices.
+     * @return the generator.
+     */
+    @FromAnyThread
+    public static @NotNull TerrainHeightGenerator flat(int worldSize) {
+        return new TerrainHeightGenerator(worldSize) {
+
+            @Override
+            @BackgroundThread
+            protected void fillTile(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                                    int width, int height) {
+                // the new array is already filled by zeros
+            }
+        };
+    }
+
+    /**
+     * Create a generator of a hill terrain, it's the same algorithm as {@link
+     * com.jme3.terrain.heightmap.HillHeightMap} but hills are generated once and are applied to each tile.
+     *
+     * @param worldSize  the size of the world in vertices.
+     * @param iterations the count of hills.
+     * @param minRadius  the min radius of a hill.
+     * @param maxRadius  the max radius of a hill.
+     * @param flattening the power of flattening.
+     * @param seed       the seed to generate hills.
+     * @return the generator.
+     */
+    @FromAnyThread
+    public static @NotNull TerrainHeightGenerator hill(
+            int worldSize,
+            int iterations,
+            float minRadius,
+            float maxRadius,
+            int flattening,
+            long seed
+    ) {
+        return new HillHeightGenerator(worldSize, iterations, minRadius, maxRadius, flattening, seed);
+    }
+
+    /**
+     * Create a generator of a terrain by an image, the image is stretched to the size of the world.
+     *
+     * @param worldSize the size of the world in vertices.
+     * @param image     the height map image.
+     * @param scale     the height scale.
+     * @param smooth    the smooth factor from 0 to 1.
+     * @return the generator.
+     */
+    @FromAnyThread
+    public static @NotNull TerrainHeightGenerator imageBased(
+            int worldSize,
+            @NotNull Image image,
+            float scale,
+            float smooth
+    ) {
+        return new ImageHeightGenerator(worldSize, image, scale, smooth);
+    }
+
+    /**
+     * The size of the world in vertices.
+     */
+    protected final int worldSize;
+
+    protected TerrainHeightGenerator(int worldSize) {
+        this.worldSize = worldSize;
+    }
+
+    /**
+     * Prepare this generator before generating any part of the world.
+     */
+    @BackgroundThread
+    public void prepare() {
+    }
+
+    /**
+     * Generate heights of a square part of the world.
+     *
+     * @param offsetX the x coordinate of the part in the world.
+     * @param offsetZ the z coordinate of the part in the world.
+     * @param size    the size of the part in vertices.
+     * @return the heights of the part by rows.
+     */
+    @BackgroundThread
+    public @NotNull float[] generate(int offsetX, int offsetZ, int size) {
+
+        var heights = new float[size * size];
+
+        forEachTile(size, size, (x, z, width, height) ->
+                fillTile(heights, size, x, z, offsetX + x, offsetZ + z, width, height));
+
+        return heights;
+    }
+
+    /**
+     * Handle all tiles of the area in parallel.
+     *
+     * @param width   the width of the area.
+     * @param height  the height of the area.
+     * @param handler the handler of tiles.
+     */
+    @BackgroundThread
+    private static void forEachTile(int width, int height, @NotNull TileHandler handler) {
+        ForkJoinPool.commonPool()
+                .invoke(new TileTask(handler, 0, 0, width, height));
+    }
+
+    /**
+     * Fill heights of the tile.
+     *
+     * @param target     the target heights.
+     * @param targetSize the row size of the target heights.
+     * @param targetX    the x coordinate of the tile in the target heights.
+     * @param targetZ    the z coordinate of the tile in the target heights.
+     * @param x          the x coordinate of the tile in the world.
+     * @param z          the z coordinate of the tile in the world.
+     * @param width      the width of the tile.
+     * @param height     the height of the tile.
+     */
+    @BackgroundThread
+    protected abstract void fillTile(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                                     int width, int height);
+
+    /**
+     * The generator of hills.
+     */
+    private static class HillHeightGenerator extends TerrainHeightGenerator {
+
+        /**
+         * The coordinates and radiuses of hills.
+         */
+        @NotNull
+        private final float[] hillX, hillZ, hillRadius;
+
+        /**
+         * The power of flattening.
+         */
+        private final int flattening;
+
+        /**
+         * The min and max raw heights of the world.
+         */
+        private volatile float minHeight, maxHeight;
+
+        private HillHeightGenerator(
+                int worldSize,
+                int iterations,
+                float minRadius,
+                float maxRadius,
+                int flattening,
+                long seed
+        ) {
+            super(worldSize);
+            this.flattening = flattening;
+            this.hillX = new float[iterations];
+            this.hillZ = new float[iterations];
+            this.hillRadius = new float[iterations];
+
+            var random = new Random(seed);
+
+            for (int i = 0; i < iterations; i++) {
+                var radius = randomRange(random, minRadius, maxRadius);
+                hillRadius[i] = radius;
+                hillX[i] = randomRange(random, -radius, worldSize + radius);
+                hillZ[i] = randomRange(random, -radius, worldSize + radius);
+            }
+        }
+
+        @FromAnyThread
+        private static float randomRange(@NotNull Random random, float min, float max) {
+            return (random.nextInt() * (max - min) / Integer.MAX_VALUE) + min;
+        }
+
+        @Override
+        @BackgroundThread
+        public void prepare() {
+
+            var result = new float[] {Float.MAX_VALUE, -Float.MAX_VALUE};
+
+            // the heights are normalized by the whole world, so we need to find its min and max heights at first
+            forEachTile(worldSize, worldSize, (x, z, width, height) -> {
+
+                var buffer = new float[width * height];
+                fillRaw(buffer, width, 0, 0, x, z, width, height);
+
+                var min = Float.MAX_VALUE;
+                var max = -Float.MAX_VALUE;
+
+                for (var value : buffer) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+
+                synchronized (result) {
+                    result[0] = Math.min(result[0], min);
+                    result[1] = Math.max(result[1], max);
+                }
+            });
+
+            minHeight = result[0];
+            maxHeight = result[1];
+        }
+
+        @Override
+        @BackgroundThread
+        protected void fillTile(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                                int width, int height) {
+
+            fillRaw(target, targetSize, targetX, targetZ, x, z, width, height);
+
+            var range = maxHeight - minHeight;
+
+            if (range <= 0) {
+                return;
+            }
+
+            for (int row = 0; row < height; row++) {
+                for (int i = 0, index = (targetZ + row) * targetSize + targetX; i < width; i++, index++) {
+
+                    var normalized = (target[index] - minHeight) / range;
+
+                    if (flattening > 1) {
+                        normalized = (float) Math.pow(normalized, flattening);
+                    }
+
+                    target[index] = normalized * AbstractHeightMap.NORMALIZE_RANGE;
+                }
+            }
+        }
+
+        /**
+         * Fill raw heights of the tile as a sum of hills.
+         */
+        @BackgroundThread
+        private void fillRaw(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                             int width, int height) {
+
+            for (int hill = 0; hill < hillRadius.length; hill++) {
+
+                var radius = hillRadius[hill];
+                var centerX = hillX[hill];
+                var centerZ = hillZ[hill];
+
+                var minX = Math.max(x, (int) Math.floor(centerX - radius));
+                var maxX = Math.min(x + width - 1, (int) Math.ceil(centerX + radius));
+                var minZ = Math.max(z, (int) Math.floor(centerZ - radius));
+                var maxZ = Math.min(z + height - 1, (int) Math.ceil(centerZ + radius));
+
+                if (minX > maxX || minZ > maxZ) {
+                    continue;
+                }
+
+                var radiusSq = radius * radius;
+
+                for (int worldZ = minZ; worldZ <= maxZ; worldZ++) {
+
+                    var row = (targetZ + worldZ - z) * targetSize + targetX - x;
+                    var distZ = (centerZ - worldZ) * (centerZ - worldZ);
+
+                    for (int worldX = minX; worldX <= maxX; worldX++) {
+
+                        var value = radiusSq - distZ - (centerX - worldX) * (centerX - worldX);
+
+                        if (value > 0) {
+                            target[row + worldX] += value;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The generator of heights by an image.
+     */
+    private static class ImageHeightGenerator extends TerrainHeightGenerator {
+
+        /**
+         * The height map image.
+         */
+        @NotNull
+        private final Image image;
+
+        /**
+         * The height scale.
+         */
+        private final float scale;
+
+        /**
+         * The smooth factor.
+         */
+        private final float smooth;
+
+        private ImageHeightGenerator(int worldSize, @NotNull Image image, float scale, float smooth) {
+            super(worldSize);
+            this.image = image;
+            this.scale = scale;
+            this.smooth = smooth;
+        }
+
+        @Override
+        @BackgroundThread
+        protected void fillTile(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                                int width, int height) {
+
+            if (smooth <= 0F || smooth > 1F) {
+                fillRaw(target, targetSize, targetX, targetZ, x, z, width, height);
+                return;
+            }
+
+            // the smoothing needs raw heights of neighbours, so we read the tile with a border of one vertex
+            var rawX = Math.max(x - 1, 0);
+            var rawZ = Math.max(z - 1, 0);
+            var rawWidth = Math.min(x + width + 1, worldSize) - rawX;
+            var rawHeight = Math.min(z + height + 1, worldSize) - rawZ;
+            var raw = new float[rawWidth * rawHeight];
+
+            fillRaw(raw, rawWidth, 0, 0, rawX, rawZ, rawWidth, rawHeight);
+
+            for (int row = 0; row < height; row++) {
+                for (int i = 0; i < width; i++) {
+
+                    var localX = x + i - rawX;
+                    var localZ = z + row - rawZ;
+
+                    var count = 0;
+                    var sum = 0F;
+
+                    for (int nz = Math.max(localZ - 1, 0); nz <= Math.min(localZ + 1, rawHeight - 1); nz++) {
+                        for (int nx = Math.max(localX - 1, 0); nx <= Math.min(localX + 1, rawWidth - 1); nx++) {
+                            sum += raw[nz * rawWidth + nx];
+                            count++;
+                        }
+                    }
+
+                    var value = raw[localZ * rawWidth + localX];
+
+                    target[(targetZ + row) * targetSize + targetX + i] =
+                            (sum / count) * smooth + value * (1F - smooth);
+                }
+            }
+        }
+
+        /**
+         * Fill raw heights of the tile from the image.
+         */
+        @BackgroundThread
+        private void fillRaw(@NotNull float[] target, int targetSize, int targetX, int targetZ, int x, int z,
+                             int width, int height) {
+
+            // the raster isn't thread safe, so each tile uses its own one
+            var raster = ImageRaster.create(image);
+            var color = new ColorRGBA();
+
+            var imageWidth = image.getWidth();
+            var imageHeight = image.getHeight();
+            var factorX = worldSize > 1 ? (imageWidth - 1) / (float) (worldSize - 1) : 0F;
+            var factorZ = worldSize > 1 ? (imageHeight - 1) / (float) (worldSize - 1) : 0F;
+
+            for (int row = 0; row < height; row++) {
+
+                // the first row of the height map is the last row of the image
+                var imageY = imageHeight - 1 - Math.round((z + row) * factorZ);
+                var index = (targetZ + row) * targetSize + targetX;
+
+                for (int i = 0; i < width; i++, index++) {
+                    raster.getPixel(Math.round((x + i) * factorX), imageY, color);
+                    target[index] = (0.299F * color.r + 0.587F * color.g + 0.114F * color.b) * scale *
+                            AbstractHeightMap.NORMALIZE_RANGE;
+                }
+            }
+        }
+    }
+}
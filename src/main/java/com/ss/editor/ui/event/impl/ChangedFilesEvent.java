@@ -0,0 +1,116 @@
+package com.ss.editor.ui.event.impl;
+
+import com.ss.editor.ui.event.SceneEvent;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import javafx.event.Event;
+import javafx.event.EventType;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The event about all changes of files in an asset folder which were collected during a short time window.
+ *
+ * @author JavaSaBr
+ */
+public class ChangedFilesEvent extends SceneEvent {
+
+    public static final EventType<ChangedFilesEvent> EVENT_TYPE;
+
+    static {
+        synchronized (Event.class) {
+            EVENT_TYPE = new EventType<>(SceneEvent.EVENT_TYPE, ChangedFilesEvent.class.getSimpleName());
+        }
+    }
+
+    @NotNull
+    private static final Array<Path> EMPTY_FILES = ArrayFactory.newArray(Path.class);
+
+    private static final String CREATED_FILES = "created_files";
+    private static final String DELETED_FILES = "deleted_files";
+    private static final String CHANGED_FILES = "changed_files";
+    private static final String MOVED_FILES = "moved_files";
+
+    public ChangedFilesEvent() {
+        super(EVENT_TYPE);
+    }
+
+    /**
+     * Get the created files.
+     *
+     * @return the created files.
+     */
+    public @NotNull Array<Path> getCreatedFiles() {
+        final Array<Path> files = get(CREATED_FILES);
+        return files == null ? EMPTY_FILES : files;
+    }
+
+    /**
+     * Set the created files.
+     *
+     * @param files the created files.
+     */
+    public void setCreatedFiles(@NotNull final Array<Path> files) {
+        set(CREATED_FILES, files);
+    }
+
+    /**
+     * Get the deleted files.
+     *
+     * @return the deleted files.
+     */
+    public @NotNull Array<Path> getDeletedFiles() {
+        final Array<Path> files = get(DELETED_FILES);
+        return files == null ? EMPTY_FILES : files;
+    }
+
+    /**
+     * Set the deleted files.
+     *
+     * @param files the deleted files.
+     */
+    public void setDeletedFiles(@NotNull final Array<Path> files) {
+        set(DELETED_FILES, files);
+    }
+
+    /**
+     * Get the changed files.
+     *
+     * @return the changed files.
+     */
+    public @NotNull Array<Path> getChangedFiles() {
+        final Array<Path> files = get(CHANGED_FILES);
+        return files == null ? EMPTY_FILES : files;
+    }
+
+    /**
+     * Set the changed files.
+     *
+     * @param files the changed files.
+     */
+    public void setChangedFiles(@NotNull final Array<Path> files) {
+        set(CHANGED_FILES, files);
+    }
+
+    /**
+     * Get the moved files.
+     *
+     * @return the table of new files by previous files.
+     */
+    public @NotNull Map<Path, Path> getMovedFiles() {
+        final Map<Path, Path> files = get(MOVED_FILES);
+        return files == null ? Collections.emptyMap() : files;
+    }
+
+    /**
+     * Set the moved files.
+     *
+     * @param files the table of new files by previous files.
+     */
+    public void setMovedFiles(@NotNull final Map<Path, Path> files) {
+        set(MOVED_FILES, files);
+    }
+}
@@ -40,7 +40,10 @@ public class ImageFilePreview extends AbstractFilePreview<ImageView> {
     @FxThread
     public void hide() {
         super.hide();
-        getGraphicsNode().setImage(null);
+
+        final ImageView imageView = getGraphicsNode();
+        JAVA_FX_IMAGE_MANAGER.cancelImagePreview(imageView);
+        imageView.setImage(null);
     }
 
     @Override
@@ -52,7 +55,7 @@ public class ImageFilePreview extends AbstractFilePreview<ImageView> {
         final int width = (int) imageView.getFitWidth();
         final int height = (int) imageView.getFitHeight();
 
-        imageView.setImage(JAVA_FX_IMAGE_MANAGER.getImagePreview(file, width, height));
+        JAVA_FX_IMAGE_MANAGER.loadImagePreview(file, width, height, imageView);
     }
 
     @Override
@@ -64,7 +67,7 @@ public class ImageFilePreview extends AbstractFilePreview<ImageView> {
         final int width = (int) imageView.getFitWidth();
         final int height = (int) imageView.getFitHeight();
 
-        imageView.setImage(JAVA_FX_IMAGE_MANAGER.getImagePreview(resource, width, height));
+        JAVA_FX_IMAGE_MANAGER.loadImagePreview(resource, width, height, imageView);
     }
 
     @Override
@@ -70,6 +70,12 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
     @Nullable
     private ImageView alphaView;
 
+    /**
+     * The hidden image view to load the source image in background.
+     */
+    @Nullable
+    private ImageView sourceView;
+
     /**
      * The file.
      */
@@ -93,9 +99,16 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
     private boolean needToBuildResource;
 
     /**
-     * @return the alpha image.
+     * @return the hidden image view to load the source image in background.
      */
     @FxThread
+    private @NotNull ImageView getSourceView() {
+        return notNull(sourceView);
+    }
+
+    /**
+     * @return the alpha image.
+    @FxThread
     private @NotNull WritableImage getAlphaImage() {
         return notNull(alphaImage);
     }
@@ -278,6 +291,10 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
             blueView = new ImageView();
             alphaView = new ImageView();
 
+            // the preview is built again when the loaded source image replaces the placeholder
+            sourceView = new ImageView();
+            sourceView.imageProperty().addListener((observable, oldValue, newValue) -> buildPreview(newValue));
+
             final GridPane root = getRoot();
             root.add(redView, 0, 0);
             root.add(greenView, 1, 0);
@@ -286,12 +303,10 @@ public class ImageChannelPreview extends CustomTooltip<GridPane> {
         }
 
         if (isNeedToBuildFile()) {
-            final Path file = getFile();
-            buildPreview(file == null ? null : IMAGE_MANAGER.getImagePreview(file, 120, 120));
+            IMAGE_MANAGER.loadImagePreview(getFile(), 120, 120, getSourceView());
             setNeedToBuildFile(false);
         } else if (isNeedToBuildResource()) {
-            final String resourcePath = getResourcePath();
-            buildPreview(IMAGE_MANAGER.getImagePreview(resourcePath, 120, 120));
+            IMAGE_MANAGER.loadImagePreview(getResourcePath(), 120, 120, getSourceView());
             setNeedToBuildResource(false);
         }
     }
@@ -92,6 +92,6 @@ public class ImagePreview extends CustomTooltip<BorderPane> {
      */
     @FxThread
     public void showImage(@Nullable final Path file) {
-        getImageView().setImage(IMAGE_MANAGER.getImagePreview(file, 200, 200));
+        IMAGE_MANAGER.loadImagePreview(file, 200, 200, getImageView());
     }
 }
@@ -78,6 +78,11 @@ public abstract class EditorUtil {
 
     private static final Logger LOGGER = LoggerManager.getLogger(EditorUtil.class);
 
+    /**
+     * The suffix of hidden files to save new content of edited files.
+     */
+    private static final String SAVE_FILE_SUFFIX = ".jmbsave";
+
     public static final DataFormat JAVA_PARAM = new DataFormat("jMB.javaParam");
     public static final DataFormat GNOME_FILES = new DataFormat("x-special/gnome-copied-files");
 
@@ -611,6 +616,36 @@ public abstract class EditorUtil {
         return path.toString().replace("\\", "/");
     }
 
+    /**
+     * Get the hidden file next to the file to write new content before replacing the file by it. The file is on
+     * the same file store as the edited file, so it can be moved over the edited file atomically.
+     *
+     * @param file the edited file.
+     * @return the file to save new content.
+     */
+    @FromAnyThread
+    public static @NotNull Path getSaveFile(@NotNull Path file) {
+        return file.resolveSibling("." + file.getFileName() + SAVE_FILE_SUFFIX);
+    }
+
+    /**
+     * Return true if the file is a hidden file to save new content of an edited file.
+     *
+     * @param file the file.
+     * @return true if the file is a file to save new content.
+     */
+    @FromAnyThread
+    public static boolean isSaveFile(@NotNull Path file) {
+
+        var fileName = file.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+
+        var name = fileName.toString();
+        return name.startsWith(".") && name.endsWith(SAVE_FILE_SUFFIX);
+    }
+
     /**
      * Handle exception.
      *
@@ -0,0 +1,296 @@
+package com.ss.editor.util;
+
+import com.jme3.material.Material;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.control.Control;
+import com.jme3.scene.instancing.InstancedGeometry;
+import com.jme3.scene.instancing.InstancedNode;
+import com.ss.editor.annotation.BackgroundThread;
+import com.ss.editor.annotation.FromAnyThread;
+import com.ss.editor.annotation.JmeThread;
+import com.ss.rlib.common.util.array.Array;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The class with utility methods for working with {@link InstancedNode}.
+ * <p>
+ * jME doesn't serialize the runtime state of an instanced node: the control to render instances isn't restored by
+ * loading and the instanced geometries aren't bound to the node, so a saved model contains only the source geometries
+ * and the {@link #USE_INSTANCING} parameter of their materials is saved disabled. An application which loads such
+ * model by {@code AssetManager.loadModel} gets plain geometries which are rendered correctly, but each of them is
+ * a separated draw call. To rebuild instancing of a loaded instanced node the application can do the same as
+ * {@link #restoreAfterLoad(Spatial)} does:
+ * <pre>{@code
+ * instancedNode.depthFirstTraversal(spatial -> {
+ *     if (spatial instanceof Geometry) {
+ *         ((Geometry) spatial).getMaterial().setBoolean("UseInstancing", true);
+ *     }
+ * });
+ * var restored = instancedNode.clone(false);
+ * var parent = instancedNode.getParent();
+ * parent.attachChildAt(restored, parent.detachChild(instancedNode));
+ * }</pre>
+ * The clone creates a new control, groups all source geometries to instanced geometries and keeps draw calls constant.
+ *
+ * @author JavaSaBr
+ */
+public class InstancingUtils {
+
+    /**
+     * The name of the material parameter to enable instancing.
+     */
+    @NotNull
+    public static final String USE_INSTANCING = "UseInstancing";
+
+    /**
+     * The runtime state of an instanced node which is removed during saving.
+     */
+    private static class RuntimeState {
+
+        /**
+         * The instanced geometries with their indexes.
+         */
+        @NotNull
+        private final Array<InstancedGeometry> geometries;
+
+        /**
+         * The indexes of the instanced geometries.
+         */
+        @NotNull
+        private final int[] indexes;
+
+        /**
+         * The materials of the source geometries with enabled instancing.
+         */
+        @NotNull
+        private final Array<Material> materials;
+
+        /**
+         * The control to render instances.
+         */
+        @Nullable
+        private final Control control;
+
+        private RuntimeState(@NotNull Array<InstancedGeometry> geometries, @NotNull int[] indexes,
+                             @NotNull Array<Material> materials, @Nullable Control control) {
+            this.geometries = geometries;
+            this.indexes = indexes;
+            this.materials = materials;
+            this.control = control;
+        }
+    }
+
+    /**
+     * The runtime states of instanced nodes which are being saved.
+     */
+    @NotNull
+    private static final Map<InstancedNode, RuntimeState> SAVING_STATES = new IdentityHashMap<>();
+
+    /**
+     * Return true if the material supports instancing.
+     *
+     * @param material the material.
+     * @return true if the material supports instancing.
+     */
+    @FromAnyThread
+    public static boolean isSupportInstancing(@NotNull Material material) {
+        return material.getMaterialDef().getMaterialParam(USE_INSTANCING) != null;
+    }
+
+    /**
+     * Remove all runtime instanced geometries and instance controls from instanced nodes of the model and disable
+     * instancing in materials of the source geometries, so the model is saved only with plain source geometries.
+     * The saved instanced nodes should be rebuilt after loading, see the description of this class.
+     *
+     * @param model the model.
+     */
+    @BackgroundThread
+    public static void prepareToSave(@NotNull Spatial model) {
+        NodeUtils.visitSpatial(model, InstancedNode.class, node -> {
+
+            var geometries = ArrayFactory.<InstancedGeometry>newArray(InstancedGeometry.class);
+            var children = node.getChildren();
+            var indexes = new int[children.size()];
+
+            for (int i = 0; i < children.size(); i++) {
+                var child = children.get(i);
+                if (child instanceof InstancedGeometry) {
+                    indexes[geometries.size()] = i;
+                    geometries.add((InstancedGeometry) child);
+                }
+            }
+
+            var control = findInstancingControl(node);
+
+            for (var geometry : geometries) {
+                node.detachChild(geometry);
+            }
+
+            if (control != null) {
+                node.removeControl(control);
+            }
+
+            var materials = ArrayFactory.<Material>newArray(Material.class);
+
+            NodeUtils.visitGeometry(node, geometry -> {
+
+                var material = geometry.getMaterial();
+
+                // a shared material is disabled once, so it isn't collected again
+                if (material != null && isInstancingEnabled(material)) {
+                    material.setBoolean(USE_INSTANCING, false);
+                    materials.add(material);
+                }
+            });
+
+            synchronized (SAVING_STATES) {
+                SAVING_STATES.put(node, new RuntimeState(geometries, indexes, materials, control));
+            }
+        });
+    }
+
+    /**
+     * Restore runtime instanced geometries and instance controls of instanced nodes of the model after saving.
+     *
+     * @param model the model.
+     */
+    @BackgroundThread
+    public static void restoreAfterSave(@NotNull Spatial model) {
+        NodeUtils.visitSpatial(model, InstancedNode.class, node -> {
+
+            RuntimeState state;
+
+            synchronized (SAVING_STATES) {
+                state = SAVING_STATES.remove(node);
+            }
+
+            if (state == null) {
+                return;
+            }
+
+            for (var material : state.materials) {
+                material.setBoolean(USE_INSTANCING, true);
+            }
+
+            for (int i = 0; i < state.geometries.size(); i++) {
+                node.attachChildAt(state.geometries.get(i), state.indexes[i]);
+            }
+
+            if (state.control != null) {
+                node.addControl(state.control);
+            }
+        });
+    }
+
+    /**
+     * Rebuild instanced nodes of the loaded model which were loaded without runtime instancing state and enable
+     * instancing in materials of their geometries. Nodes are rebuilt only by jME API, so applications can do the same
+     * after loading saved models.
+     *
+     * @param model the loaded model.
+     */
+    @FromAnyThread
+    public static void restoreAfterLoad(@NotNull Spatial model) {
+
+        var toRestore = ArrayFactory.<InstancedNode>newArray(InstancedNode.class);
+
+        NodeUtils.visitSpatial(model, InstancedNode.class, node -> {
+            if (node != model && node.getParent() != null && findInstancingControl(node) == null) {
+                toRestore.add(node);
+            }
+        });
+
+        for (var node : toRestore) {
+
+            var parent = node.getParent();
+            var index = parent.getChildIndex(node);
+
+            NodeUtils.visitGeometry(node, geometry -> {
+
+                var material = geometry.getMaterial();
+
+                if (material != null && isSupportInstancing(material)) {
+                    material.setBoolean(USE_INSTANCING, true);
+                }
+            });
+
+            // the clone of an instanced node creates new instancing state and groups all geometries
+            var restored = node.clone(false);
+
+            parent.detachChildAt(index);
+            parent.attachChildAt(restored, index);
+        }
+    }
+
+    /**
+     * Return true if the material supports instancing and it's enabled.
+     *
+     * @param material the material.
+     * @return true if instancing is enabled.
+     */
+    @FromAnyThread
+    private static boolean isInstancingEnabled(@NotNull Material material) {
+
+        if (!isSupportInstancing(material)) {
+            return false;
+        }
+
+        var param = material.getParam(USE_INSTANCING);
+        return param != null && Boolean.TRUE.equals(param.getValue());
+    }
+
+    /**
+     * Find the control to render instances of the instanced node.
+     *
+     * @param node the instanced node.
+     * @return the control or null.
+     */
+    @FromAnyThread
+    private static @Nullable Control findInstancingControl(@NotNull InstancedNode node) {
+
+        for (int i = 0; i < node.getNumControls(); i++) {
+            var control = node.getControl(i);
+            if (control.getClass().getEnclosingClass() == InstancedNode.class) {
+                return control;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Add the geometries to the instanced node and group them to instances.
+     *
+     * @param node       the instanced node.
+     * @param geometries the geometries.
+     */
+    @JmeThread
+    public static void addInstances(@NotNull InstancedNode node, @NotNull Array<Geometry> geometries) {
+
+        for (var geometry : geometries) {
+            node.attachChild(geometry);
+        }
+
+        node.instance();
+    }
+
+    /**
+     * Remove the geometries from the instanced node.
+     *
+     * @param node       the instanced node.
+     * @param geometries the geometries.
+     */
+    @JmeThread
+    public static void removeInstances(@NotNull Node node, @NotNull Array<Geometry> geometries) {
+        for (var geometry : geometries) {
+            node.detachChild(geometry);
+        }
+    }
+}
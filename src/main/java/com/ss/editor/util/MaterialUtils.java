@@ -12,7 +12,9 @@ import com.jme3.material.Material;
 import com.jme3.material.MaterialDef;
 import com.jme3.scene.Spatial;
 import com.jme3.shader.VarType;
+import com.jme3.texture.Image;
 import com.jme3.texture.Texture;
+import com.jme3.util.BufferUtils;
 import com.ss.editor.FileExtensions;
 import com.ss.editor.annotation.FromAnyThread;
 import com.ss.editor.annotation.JmeThread;
@@ -27,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * The class with utility methods for working with {@link Material}.
@@ -435,6 +438,63 @@ public class MaterialUtils {
         image.clearChanges();
     }
 
+    /**
+     * Copy changed images of textures of the material and clear their changes, so the copies can be saved later by
+     * {@link #saveTexture(Path, Image)} without locking. If saving of a copy fails, the changes of its original image
+     * should be restored by {@link Image#incrementChange()}.
+     *
+     * @param material  the material.
+     * @param result    the result map of the copied images by their texture files.
+     * @param originals the result map of the original images by their texture files.
+     */
+    @FromAnyThread
+    public static void copyChangedTextures(
+            @NotNull Material material,
+            @NotNull Map<Path, Image> result,
+            @NotNull Map<Path, Image> originals
+    ) {
+        for (var matParam : material.getParams()) {
+
+            if (matParam.getVarType() != VarType.Texture2D) {
+                continue;
+            }
+
+            var texture = (Texture) matParam.getValue();
+            var image = texture.getImage();
+
+            if (!image.isChanged()) {
+                continue;
+            }
+
+            var copy = image.clone();
+            copy.setData(0, BufferUtils.clone(image.getData(0)));
+
+            var file = notNull(getRealFile(texture.getKey().getName()));
+
+            result.put(file, copy);
+            originals.put(file, image);
+
+            image.clearChanges();
+        }
+    }
+
+    /**
+     * Save the image of a texture to the file as PNG.
+     *
+     * @param file  the texture file.
+     * @param image the image.
+     * @throws IOException if was some problem with writing to the file.
+     */
+    @FromAnyThread
+    public static void saveTexture(@NotNull Path file, @NotNull Image image) throws IOException {
+
+        var bufferedImage = ImageToAwt.convert(image, false, true, 0);
+
+        try (var out = Files.newOutputStream(file, WRITE, TRUNCATE_EXISTING, CREATE)) {
+            ImageIO.write(bufferedImage, "png", out);
+        }
+    }
+
     /**
      * Set the material parameter with check of existing this parameter in the material's definition.
      *
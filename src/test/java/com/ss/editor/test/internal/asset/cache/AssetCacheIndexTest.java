@@ -0,0 +1,111 @@
+package com.ss.editor.test.internal.asset.cache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.jme3.asset.AssetKey;
+import com.ss.editor.asset.cache.AssetCacheIndex;
+import com.ss.editor.file.watch.FileChangesCollector;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The test to check invalidating of cached assets by file events.
+ *
+ * @author JavaSaBr
+ */
+public class AssetCacheIndexTest {
+
+    @NotNull
+    private static final AssetCacheIndex CACHE_INDEX = AssetCacheIndex.getInstance();
+
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() throws IOException {
+        CACHE_INDEX.clear();
+        folder = Files.createTempDirectory("asset");
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        CACHE_INDEX.clear();
+        try (var files = Files.list(folder)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(folder);
+    }
+
+    @Test
+    public void invalidateFileReplacedByRenaming() throws IOException {
+
+        var file = write(folder.resolve("Test.j3m"), "old");
+        var key = new AssetKey<>("Test.j3m");
+
+        CACHE_INDEX.onLocated(key, file);
+        CACHE_INDEX.onLoaded(key);
+
+        assertFalse(CACHE_INDEX.onRequested(key));
+
+        replaceByRenaming(file, "new");
+        assertTrue(CACHE_INDEX.onRequested(key));
+        assertFalse(CACHE_INDEX.onRequested(key));
+    }
+
+    @Test
+    public void invalidateDependentsOfFileReplacedByRenaming() throws IOException {
+
+        var modelFile = write(folder.resolve("Test.j3o"), "model");
+        var materialFile = write(folder.resolve("Test.j3m"), "old");
+        var modelKey = new AssetKey<>("Test.j3o");
+        var materialKey = new AssetKey<>("Test.j3m");
+
+        CACHE_INDEX.onRequested(modelKey);
+        CACHE_INDEX.onLocated(modelKey, modelFile);
+        CACHE_INDEX.onRequested(materialKey);
+        CACHE_INDEX.onLocated(materialKey, materialFile);
+        CACHE_INDEX.onLoaded(materialKey);
+        CACHE_INDEX.onLoaded(modelKey);
+
+        replaceByRenaming(materialFile, "new");
+
+        assertTrue(CACHE_INDEX.onRequested(modelKey));
+        assertTrue(CACHE_INDEX.onRequested(materialKey));
+    }
+
+    /**
+     * Replace the file by renaming a new file over it and handle the event which the watcher of the folder gets.
+     *
+     * @param file    the file.
+     * @param content the new content.
+     * @throws IOException if was some problem with writing.
+     */
+    private void replaceByRenaming(@NotNull Path file, @NotNull String content) throws IOException {
+
+        var tempFile = write(Files.createTempFile(folder.getParent(), "test", ".tmp"), content);
+
+        Files.move(tempFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+        // the temp file is outside of the watched folder, so the watcher gets only the create event
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_CREATE, file);
+        collector.finish();
+
+        CACHE_INDEX.invalidate(collector, path -> false);
+    }
+
+    private static @NotNull Path write(@NotNull Path file, @NotNull String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
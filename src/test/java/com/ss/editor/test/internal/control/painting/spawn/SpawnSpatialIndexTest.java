@@ -0,0 +1,102 @@
+package com.ss.editor.test.internal.control.painting.spawn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingSphere;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.shape.Box;
+import com.ss.editor.control.painting.spawn.SpawnSpatialIndex;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+/**
+ * The test to check overlaps of spawned models by {@link SpawnSpatialIndex}.
+ *
+ * @author JavaSaBr
+ */
+public class SpawnSpatialIndexTest {
+
+    @NotNull
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    public void intersectsNearbyModels() {
+
+        var index = new SpawnSpatialIndex();
+        index.reset(1F);
+        index.add(new BoundingBox(new Vector3f(10, 0, 10), 1, 1, 1));
+
+        assertTrue(index.intersects(new BoundingBox(new Vector3f(11.5F, 0, 10), 1, 1, 1)));
+        assertFalse(index.intersects(new BoundingBox(new Vector3f(-10, 0, -10), 1, 1, 1)));
+        assertTrue(index.hasCloser(10.5F, 10, 1F));
+        assertFalse(index.hasCloser(0, 0, 1F));
+    }
+
+    @Test
+    public void addInfiniteBounds() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+
+            var index = new SpawnSpatialIndex();
+            index.reset(1F);
+
+            // skies have infinite bounds and shouldn't block spawning
+            index.add(createSky(Spatial.CullHint.Never));
+            index.add(createSky(Spatial.CullHint.Inherit));
+            index.add(new BoundingBox(new Vector3f(10, 0, 10), 1, 1, 1));
+            index.add(new BoundingBox(new Vector3f(), Float.MAX_VALUE, 1, Float.MAX_VALUE));
+
+            assertTrue(index.intersects(new BoundingBox(new Vector3f(10, 0, 10), 1, 1, 1)));
+            assertTrue(index.intersects(new BoundingBox(new Vector3f(-50, 0, 70), 1, 1, 1)));
+        });
+    }
+
+    @Test
+    public void addSkyGeometry() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+
+            var index = new SpawnSpatialIndex();
+            index.reset(1F);
+            index.add(createSky(Spatial.CullHint.Never));
+            index.add(createSky(Spatial.CullHint.Inherit));
+
+            assertFalse(index.intersects(new BoundingBox(new Vector3f(50, 0, 50), 1, 1, 1)));
+            assertTrue(index.intersects(new BoundingBox(new Vector3f(0, 0, 0), 2, 2, 2)));
+        });
+    }
+
+    @Test
+    public void queryInfiniteBounds() {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+
+            var index = new SpawnSpatialIndex();
+            index.reset(1F);
+            index.add(new BoundingBox(new Vector3f(10, 0, 10), 1, 1, 1));
+
+            assertTrue(index.intersects(new BoundingSphere(Float.POSITIVE_INFINITY, new Vector3f())));
+            assertTrue(index.intersects(new BoundingBox(new Vector3f(), 1e30F, 1, 1e30F)));
+            assertTrue(index.hasCloser(0, 0, Float.POSITIVE_INFINITY));
+            assertTrue(index.hasCloser(0, 0, 1e30F));
+            assertFalse(index.hasCloser(-1e30F, -1e30F, 1F));
+        });
+    }
+
+    /**
+     * Create a geometry with an infinite bound like skies created by the sky factory.
+     *
+     * @param cullHint the cull hint.
+     * @return the geometry.
+     */
+    private static @NotNull Geometry createSky(@NotNull Spatial.CullHint cullHint) {
+
+        var sky = new Geometry("Sky", new Box(1, 1, 1));
+        sky.setModelBound(new BoundingSphere(Float.POSITIVE_INFINITY, Vector3f.ZERO));
+        sky.setCullHint(cullHint);
+        sky.updateGeometricState();
+
+        return sky;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ss.editor.test.internal.control.painting.terrain;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.jme3.math.Vector2f;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.terrain.geomipmap.TerrainPatch;
+import com.jme3.terrain.geomipmap.TerrainQuad;
+import com.ss.editor.control.painting.terrain.HeightmapEditBuffer;
+import com.ss.editor.model.undo.UndoHistoryStorage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The test to check writing heights to terrain patches by {@link HeightmapEditBuffer}.
+ *
+ * @author JavaSaBr
+ */
+public class HeightmapEditBufferTest {
+
+    private static final int PATCH_SIZE = 17;
+    private static final int TOTAL_SIZE = 65;
+    private static final int HALF_SIZE = TOTAL_SIZE / 2;
+
+    @Test
+    public void writeLikeTerrain() {
+
+        var terrain = createTerrain();
+        var expected = createTerrain();
+        var buffer = new HeightmapEditBuffer(terrain);
+
+        var locations = new ArrayList<Vector2f>();
+        var heights = new ArrayList<Float>();
+
+        // the points on edges and corners of patches are shared with neighbour patches
+        for (int z = -HALF_SIZE; z <= HALF_SIZE; z += 4) {
+            for (int x = -HALF_SIZE; x <= HALF_SIZE; x += 8) {
+                var location = new Vector2f(x, z);
+                var height = x * 0.5F - z;
+                buffer.add(location, height);
+                locations.add(location);
+                heights.add(height);
+            }
+        }
+
+        buffer.apply();
+        expected.setHeight(locations, heights);
+
+        assertTerrainsEquals(expected, terrain);
+    }
+
+    @Test
+    public void ignoreOutsideLocations() {
+
+        var terrain = createTerrain();
+        var buffer = new HeightmapEditBuffer(terrain);
+
+        buffer.add(new Vector2f(TOTAL_SIZE, 0), 10F);
+        buffer.add(new Vector2f(0, -TOTAL_SIZE), 10F);
+        buffer.apply();
+
+        assertFalse(buffer.isChanged());
+        assertTerrainsEquals(createTerrain(), terrain);
+    }
+
+    @Test
+    public void restoreOriginalHeights() {
+
+        var terrain = createTerrain();
+        var buffer = new HeightmapEditBuffer(terrain);
+
+        // all points to rehash the table of original heights a few times
+        for (int i = 0; i < 3; i++) {
+            for (int z = -HALF_SIZE; z <= HALF_SIZE; z++) {
+                for (int x = -HALF_SIZE; x <= HALF_SIZE; x++) {
+                    buffer.add(new Vector2f(x, z), 100F + i);
+                }
+            }
+            buffer.apply();
+        }
+
+        var original = buffer.getOriginalHeights();
+        var current = buffer.getCurrentHeights();
+
+        assertTrue(buffer.isChanged());
+        assertEquals(TOTAL_SIZE * TOTAL_SIZE, original.size());
+        assertEquals(102F, terrain.getHeightmapHeight(new Vector2f(3, -5)));
+
+        buffer.write(original);
+        assertTerrainsEquals(createTerrain(), terrain);
+
+        buffer.write(current);
+        assertEquals(102F, terrain.getHeightmapHeight(new Vector2f(3, -5)));
+    }
+
+    @Test
+    public void writeCompactedHeights() {
+
+        var terrain = createTerrain();
+        var storage = new UndoHistoryStorage();
+        var buffer = new HeightmapEditBuffer(terrain);
+
+        for (int z = -HALF_SIZE; z <= HALF_SIZE; z++) {
+            for (int x = -HALF_SIZE; x <= HALF_SIZE; x++) {
+                buffer.add(new Vector2f(x, z), 5F);
+            }
+        }
+
+        buffer.apply();
+
+        var original = buffer.getOriginalHeights();
+        var size = original.getEstimatedSize();
+
+        original.compact(storage);
+
+        assertTrue(original.getEstimatedSize() < size);
+
+        buffer.write(original);
+        assertTerrainsEquals(createTerrain(), terrain);
+
+        storage.clear();
+    }
+
+    private static @NotNull TerrainQuad createTerrain() {
+
+        var heightMap = new float[TOTAL_SIZE * TOTAL_SIZE];
+
+        for (int i = 0; i < heightMap.length; i++) {
+            heightMap[i] = (i % 7) * 0.25F;
+        }
+
+        return new TerrainQuad("terrain", PATCH_SIZE, TOTAL_SIZE, heightMap);
+    }
+
+    private static void assertTerrainsEquals(@NotNull TerrainQuad expected, @NotNull TerrainQuad actual) {
+
+        assertArrayEquals(expected.getHeightMap(), actual.getHeightMap());
+
+        var expectedPatches = getPatches(expected);
+        var actualPatches = getPatches(actual);
+
+        assertEquals(expectedPatches.size(), actualPatches.size());
+
+        for (int i = 0; i < expectedPatches.size(); i++) {
+
+            var expectedPatch = expectedPatches.get(i);
+            var actualPatch = actualPatches.get(i);
+
+            assertArrayEquals(expectedPatch.getHeightMap(), actualPatch.getHeightMap(), actualPatch.getName());
+            assertArrayEquals(getPositions(expectedPatch), getPositions(actualPatch), actualPatch.getName());
+        }
+    }
+
+    private static @NotNull List<TerrainPatch> getPatches(@NotNull TerrainQuad terrain) {
+        var result = new ArrayList<TerrainPatch>();
+        terrain.depthFirstTraversal(spatial -> {
+            if (spatial instanceof TerrainPatch) {
+                result.add((TerrainPatch) spatial);
+            }
+        });
+        return result;
+    }
+
+    private static @NotNull float[] getPositions(@NotNull TerrainPatch patch) {
+        var buffer = patch.getMesh().getFloatBuffer(VertexBuffer.Type.Position);
+        var result = new float[buffer.limit()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = buffer.get(i);
+        }
+        return result;
+    }
+}
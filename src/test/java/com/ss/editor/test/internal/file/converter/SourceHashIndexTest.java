@@ -0,0 +1,111 @@
+package com.ss.editor.test.internal.file.converter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import com.ss.editor.file.converter.batch.SourceHashIndex;
+import com.ss.rlib.common.util.array.ArrayFactory;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The test to check that hashes of converted sources cover their dependencies and settings of converting.
+ *
+ * @author JavaSaBr
+ */
+public class SourceHashIndexTest {
+
+    private static final String SETTINGS = "tangents=true, materials=null, overwrite=false";
+
+    private Path folder;
+
+    @BeforeEach
+    public void createFolder() throws IOException {
+        folder = Files.createTempDirectory("converter");
+    }
+
+    @AfterEach
+    public void deleteFolder() throws IOException {
+        try (var files = Files.list(folder)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(folder);
+    }
+
+    @Test
+    public void hashChangedDependency() throws IOException {
+
+        var source = write(folder.resolve("Model.obj"), "mtllib Model.mtl");
+        var library = write(folder.resolve("Model.mtl"), "map_Kd Texture.png");
+        var dependencies = ArrayFactory.asArray(library);
+
+        var hash = SourceHashIndex.hash(source, dependencies, SETTINGS);
+
+        assertEquals(hash, SourceHashIndex.hash(source, dependencies, SETTINGS));
+
+        write(library, "map_Kd Other.png");
+
+        assertNotEquals(hash, SourceHashIndex.hash(source, dependencies, SETTINGS));
+    }
+
+    @Test
+    public void hashCreatedDependency() throws IOException {
+
+        var source = write(folder.resolve("Model.gltf"), "{\"buffers\":[{\"uri\":\"Model.bin\"}]}");
+        var buffer = folder.resolve("Model.bin");
+        var dependencies = ArrayFactory.asArray(buffer);
+
+        var hash = SourceHashIndex.hash(source, dependencies, SETTINGS);
+
+        write(buffer, "data");
+
+        assertNotEquals(hash, SourceHashIndex.hash(source, dependencies, SETTINGS));
+    }
+
+    @Test
+    public void hashChangedSettings() throws IOException {
+
+        var source = write(folder.resolve("Model.obj"), "o Model");
+        var dependencies = ArrayFactory.<Path>newArray(Path.class);
+
+        var hash = SourceHashIndex.hash(source, dependencies, SETTINGS);
+        var otherHash = SourceHashIndex.hash(source, dependencies, "tangents=false, materials=null, overwrite=false");
+
+        assertNotEquals(hash, otherHash);
+    }
+
+    @Test
+    public void skipUnchangedSource() throws IOException {
+
+        var source = write(folder.resolve("Model.obj"), "o Model");
+        var destination = write(folder.resolve("Model.j3o"), "converted");
+        var index = new SourceHashIndex(folder.resolve("index"));
+        var hash = SourceHashIndex.hash(source, ArrayFactory.newArray(Path.class), SETTINGS);
+
+        assertFalse(index.isUnchanged(source, destination, hash));
+
+        index.put(source, destination, hash);
+        index.save();
+
+        var loaded = new SourceHashIndex(folder.resolve("index"));
+        loaded.load();
+
+        assertTrue(loaded.isUnchanged(source, destination, hash));
+        assertFalse(loaded.isUnchanged(source, destination, SourceHashIndex.hash(source,
+                ArrayFactory.newArray(Path.class), "tangents=false, materials=null, overwrite=false")));
+    }
+
+    private static @NotNull Path write(@NotNull Path file, @NotNull String content) throws IOException {
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,318 @@
+package com.ss.editor.test.internal.file.reader;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.ss.editor.file.reader.DdsMipmapReader;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The test to check reading mipmap levels of DDS files by {@link DdsMipmapReader}.
+ *
+ * @author JavaSaBr
+ */
+public class DdsMipmapReaderTest {
+
+    private static final int DDPF_ALPHA_PIXELS = 0x01;
+    private static final int DDPF_FOUR_CC = 0x04;
+    private static final int DDPF_RGB = 0x40;
+
+    private static final int DXGI_R8G8B8A8_UNORM = 28;
+
+    private static final int RED = 0xFFFF0000;
+    private static final int BLUE = 0xFF0000FF;
+
+    private Path file;
+
+    @BeforeEach
+    public void createFile() throws IOException {
+        file = Files.createTempFile("test", ".dds");
+    }
+
+    @AfterEach
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void readUncompressedMipmaps() throws IOException {
+
+        var header = createHeader(4, 2, 3);
+        setRgbFormat(header, 32, 0x00FF0000, 0xFF000000);
+
+        var out = new ByteArrayOutputStream();
+        out.write(header.array());
+
+        // BGRA pixels of the levels 4x2, 2x1 and 1x1
+        for (int i = 0; i < 8; i++) {
+            out.write(new byte[] {1, 2, 3, 4});
+        }
+
+        out.write(new byte[] {10, 20, 30, 40, 50, 60, 70, (byte) 0x80});
+        out.write(new byte[] {(byte) 0xFF, 0, 0, 0x7F});
+
+        Files.write(file, out.toByteArray());
+
+        try (var reader = new DdsMipmapReader(file)) {
+
+            assertTrue(reader.isSupported());
+            assertEquals(3, reader.getMipmapCount());
+            assertEquals(2, reader.getWidth(1));
+            assertEquals(1, reader.getHeight(1));
+            assertEquals(1, reader.getWidth(5));
+
+            var pixels = new int[2];
+            reader.read(1, pixels);
+            assertArrayEquals(new int[] {0x281E140A, 0x80463C32}, pixels);
+
+            reader.read(2, pixels);
+            assertEquals(0x7F0000FF, pixels[0]);
+        }
+    }
+
+    @Test
+    public void readUncompressedBgr() throws IOException {
+
+        var header = createHeader(2, 1, 1);
+        setRgbFormat(header, 24, 0x00FF0000, 0);
+
+        write(header, new byte[] {1, 2, 3, 4, 5, 6});
+
+        try (var reader = new DdsMipmapReader(file)) {
+            var pixels = new int[2];
+            reader.read(0, pixels);
+            assertArrayEquals(new int[] {0xFF030201, 0xFF060504}, pixels);
+        }
+    }
+
+    @Test
+    public void readDx10Rgba() throws IOException {
+
+        var header = createHeader(1, 1, 1);
+        header.putInt(80, DDPF_FOUR_CC);
+        header.putInt(84, fourCC("DX10"));
+
+        var dx10Header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        dx10Header.putInt(0, DXGI_R8G8B8A8_UNORM);
+
+        var out = new ByteArrayOutputStream();
+        out.write(header.array());
+        out.write(dx10Header.array());
+        out.write(new byte[] {1, 2, 3, 4});
+
+        Files.write(file, out.toByteArray());
+
+        try (var reader = new DdsMipmapReader(file)) {
+            var pixels = new int[1];
+            reader.read(0, pixels);
+            assertEquals(0x04010203, pixels[0]);
+        }
+    }
+
+    @Test
+    public void readBc1WithClipping() throws IOException {
+
+        var header = createHeader(6, 2, 1);
+        setFourCC(header, "DXT1");
+
+        // the first block has 4 colors, the second block has 3 colors and transparent
+        var blocks = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        blocks.putShort((short) 0xF800).putShort((short) 0x001F).putInt(0xE4E4E4E4);
+        blocks.putShort((short) 0x001F).putShort((short) 0xF800).putInt(0xE4E4E4E4);
+
+        write(header, blocks.array());
+
+        try (var reader = new DdsMipmapReader(file)) {
+
+            var pixels = new int[12];
+            reader.read(0, pixels);
+
+            assertArrayEquals(new int[] {
+                    RED, BLUE, 0xFFAA0055, 0xFF5500AA, BLUE, RED,
+                    RED, BLUE, 0xFFAA0055, 0xFF5500AA, BLUE, RED
+            }, pixels);
+        }
+
+        header = createHeader(4, 1, 1);
+        setFourCC(header, "DXT1");
+        write(header, new byte[] {0x1F, 0, 0, (byte) 0xF8, (byte) 0xE4, 0, 0, 0});
+
+        try (var reader = new DdsMipmapReader(file)) {
+            var pixels = new int[4];
+            reader.read(0, pixels);
+            assertArrayEquals(new int[] {BLUE, RED, 0xFF7F007F, 0}, pixels);
+        }
+    }
+
+    @Test
+    public void readBc3Alpha() throws IOException {
+
+        var header = createHeader(4, 1, 1);
+        setFourCC(header, "DXT5");
+
+        var block = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+
+        // the alpha indexes of the first row are 0, 1, 7, 2
+        block.put((byte) 0xFF).put((byte) 0).put(new byte[] {(byte) 0xC8, 0x05, 0, 0, 0, 0});
+        block.putShort((short) 0xF800).putShort((short) 0xF800).putInt(0);
+
+        write(header, block.array());
+
+        try (var reader = new DdsMipmapReader(file)) {
+            var pixels = new int[4];
+            reader.read(0, pixels);
+            assertArrayEquals(new int[] {0xFFFF0000, 0x00FF0000, 0x24FF0000, 0xDAFF0000}, pixels);
+        }
+    }
+
+    @Test
+    public void readBc7Mode6() throws IOException {
+
+        var header = createHeader(4, 1, 1);
+        setFourCC(header, "DX10");
+
+        var dx10Header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        dx10Header.putInt(0, 98);
+
+        var bits = new long[2];
+        var position = 0;
+
+        position = putBits(bits, position, 1 << 6, 7);
+
+        // RGBA endpoints: the first is black, the second is white, both with set p-bits
+        for (int channel = 0; channel < 4; channel++) {
+            position = putBits(bits, position, channel == 3 ? 0x7F : 0, 7);
+            position = putBits(bits, position, 0x7F, 7);
+        }
+
+        position = putBits(bits, position, 1, 1);
+        position = putBits(bits, position, 1, 1);
+
+        // the first index is the anchor with 3 bits
+        position = putBits(bits, position, 0, 3);
+
+        for (int i = 1; i < 16; i++) {
+            position = putBits(bits, position, 15, 4);
+        }
+
+        assertEquals(128, position);
+
+        var block = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        block.putLong(bits[0]).putLong(bits[1]);
+
+        var out = new ByteArrayOutputStream();
+        out.write(header.array());
+        out.write(dx10Header.array());
+        out.write(block.array());
+
+        Files.write(file, out.toByteArray());
+
+        try (var reader = new DdsMipmapReader(file)) {
+            var pixels = new int[4];
+            reader.read(0, pixels);
+            assertArrayEquals(new int[] {0xFF010101, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF}, pixels);
+        }
+    }
+
+    @Test
+    public void selectMipmap() throws IOException {
+
+        var header = createHeader(256, 128, 9);
+        setFourCC(header, "DXT1");
+
+        write(header, new byte[0]);
+
+        try (var reader = new DdsMipmapReader(file)) {
+            assertEquals(0, reader.selectMipmap(256, 256));
+            assertEquals(2, reader.selectMipmap(60, 20));
+            assertEquals(3, reader.selectMipmap(32, 1));
+            assertEquals(8, reader.selectMipmap(1, 1));
+        }
+    }
+
+    @Test
+    public void readBadFiles() throws IOException {
+
+        var header = createHeader(4, 4, 1);
+        setFourCC(header, "DXT1");
+        write(header, new byte[4]);
+
+        try (var reader = new DdsMipmapReader(file)) {
+            assertThrows(IOException.class, () -> reader.read(0, new int[16]));
+            assertThrows(IllegalArgumentException.class, () -> reader.read(1, new int[16]));
+            assertThrows(IllegalArgumentException.class, () -> reader.read(0, new int[4]));
+        }
+
+        header = createHeader(4, 4, 1);
+        setFourCC(header, "ABCD");
+        write(header, new byte[8]);
+
+        try (var reader = new DdsMipmapReader(file)) {
+            assertFalse(reader.isSupported());
+            assertThrows(IOException.class, () -> reader.read(0, new int[16]));
+        }
+
+        header = createHeader(4, 4, 1);
+        header.putInt(0, 0);
+        write(header, new byte[8]);
+
+        assertThrows(IOException.class, () -> new DdsMipmapReader(file));
+
+        Files.write(file, new byte[16]);
+
+        assertThrows(IOException.class, () -> new DdsMipmapReader(file));
+    }
+
+    private static @NotNull ByteBuffer createHeader(int width, int height, int mipmapCount) {
+
+        var header = ByteBuffer.allocate(128).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, fourCC("DDS "));
+        header.putInt(4, 124);
+        header.putInt(12, height);
+        header.putInt(16, width);
+        header.putInt(28, mipmapCount);
+        header.putInt(76, 32);
+
+        return header;
+    }
+
+    private static void setFourCC(@NotNull ByteBuffer header, @NotNull String code) {
+        header.putInt(80, DDPF_FOUR_CC);
+        header.putInt(84, fourCC(code));
+    }
+
+    private static void setRgbFormat(@NotNull ByteBuffer header, int bitCount, int redMask, int alphaMask) {
+        header.putInt(80, alphaMask == 0 ? DDPF_RGB : DDPF_RGB | DDPF_ALPHA_PIXELS);
+        header.putInt(88, bitCount);
+        header.putInt(92, redMask);
+        header.putInt(104, alphaMask);
+    }
+
+    private void write(@NotNull ByteBuffer header, @NotNull byte[] data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        out.write(header.array());
+        out.write(data);
+        Files.write(file, out.toByteArray());
+    }
+
+    private static int putBits(@NotNull long[] bits, int position, long value, int count) {
+        for (int i = 0; i < count; i++, position++) {
+            if ((value >>> i & 1) != 0) {
+                bits[position / 64] |= 1L << (position % 64);
+            }
+        }
+        return position;
+    }
+
+    private static int fourCC(@NotNull String code) {
+        return code.charAt(0) | code.charAt(1) << 8 | code.charAt(2) << 16 | code.charAt(3) << 24;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ss.editor.test.internal.file.watch;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static org.junit.jupiter.api.Assertions.*;
+import com.ss.editor.file.watch.FileChangesCollector;
+import com.ss.rlib.common.util.array.Array;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * The test to check folding of raw watch events.
+ *
+ * @author JavaSaBr
+ */
+public class FileChangesCollectorTest {
+
+    @NotNull
+    private static final Path FOLDER = Paths.get("assets");
+
+    @NotNull
+    private static final Path FILE = FOLDER.resolve("Test.j3o");
+
+    @NotNull
+    private static final Path OTHER_FOLDER = FOLDER.resolve("Models");
+
+    @Test
+    public void createModify() {
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_CREATE, FILE);
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.finish();
+
+        assertFiles(collector.getCreatedFiles(), FILE);
+        assertFiles(collector.getDeletedFiles());
+        assertFiles(collector.getChangedFiles());
+    }
+
+    @Test
+    public void createModifyDelete() {
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_CREATE, FILE);
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.add(ENTRY_DELETE, FILE);
+        collector.finish();
+
+        assertFiles(collector.getCreatedFiles());
+        assertFiles(collector.getDeletedFiles());
+        assertFiles(collector.getChangedFiles());
+        assertTrue(collector.getMovedFiles().isEmpty());
+    }
+
+    @Test
+    public void manyModifies() {
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.finish();
+
+        assertFiles(collector.getChangedFiles(), FILE);
+        assertFiles(collector.getCreatedFiles());
+    }
+
+    @Test
+    public void deleteCreate() {
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_DELETE, FILE);
+        collector.add(ENTRY_CREATE, FILE);
+        collector.finish();
+
+        assertFiles(collector.getChangedFiles(), FILE);
+        assertFiles(collector.getCreatedFiles());
+        assertFiles(collector.getDeletedFiles());
+    }
+
+    @Test
+    public void modifyDelete() {
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_MODIFY, FILE);
+        collector.add(ENTRY_DELETE, FILE);
+        collector.finish();
+
+        assertFiles(collector.getDeletedFiles(), FILE);
+        assertFiles(collector.getChangedFiles());
+    }
+
+    @Test
+    public void createOverExistingFile() {
+
+        // renaming a file over an existing file produces only a create event of the existing file
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_CREATE, FILE);
+        collector.finish();
+
+        assertFiles(collector.getCreatedFiles(), FILE);
+        assertFiles(collector.getChangedFiles());
+        assertFiles(collector.getDeletedFiles());
+    }
+
+    @Test
+    public void move() {
+
+        var newFile = OTHER_FOLDER.resolve(FILE.getFileName());
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_DELETE, FILE);
+        collector.add(ENTRY_CREATE, newFile);
+        collector.finish();
+
+        assertEquals(Map.of(FILE, newFile), collector.getMovedFiles());
+        assertFiles(collector.getCreatedFiles());
+        assertFiles(collector.getDeletedFiles());
+    }
+
+    @Test
+    public void ambiguousMove() {
+
+        var newFile = OTHER_FOLDER.resolve(FILE.getFileName());
+        var otherNewFile = FOLDER.resolve("Textures").resolve(FILE.getFileName());
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_DELETE, FILE);
+        collector.add(ENTRY_CREATE, newFile);
+        collector.add(ENTRY_CREATE, otherNewFile);
+        collector.finish();
+
+        assertTrue(collector.getMovedFiles().isEmpty());
+        assertFiles(collector.getDeletedFiles(), FILE);
+        assertFiles(collector.getCreatedFiles(), newFile, otherNewFile);
+    }
+
+    @Test
+    public void renameInSameFolder() {
+
+        var newFile = FOLDER.resolve("Renamed.j3o");
+
+        var collector = new FileChangesCollector();
+        collector.add(ENTRY_DELETE, FILE);
+        collector.add(ENTRY_CREATE, newFile);
+        collector.finish();
+
+        assertTrue(collector.getMovedFiles().isEmpty());
+        assertFiles(collector.getDeletedFiles(), FILE);
+        assertFiles(collector.getCreatedFiles(), newFile);
+    }
+
+    @Test
+    public void overflow() {
+
+        var collector = new FileChangesCollector();
+
+        assertTrue(collector.isEmpty());
+
+        collector.add(OVERFLOW, FOLDER);
+
+        assertTrue(collector.isOverflowed());
+        assertFalse(collector.isEmpty());
+    }
+
+    private static void assertFiles(@NotNull Array<Path> files, @NotNull Path... expected) {
+        assertEquals(expected.length, files.size(), files::toString);
+        for (var file : expected) {
+            assertTrue(files.contains(file), () -> files + " doesn't contain " + file);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ss.editor.test.internal.model.undo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import com.ss.editor.model.undo.UndoHistoryStorage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+/**
+ * The test to check storing of payloads by {@link UndoHistoryStorage}.
+ *
+ * @author JavaSaBr
+ */
+public class UndoHistoryStorageTest {
+
+    /**
+     * The size of random payloads which are spilled to the temp file.
+     */
+    private static final int SPILLED_SIZE = 64 * 1024;
+
+    /**
+     * The max time to wait for freeing of blocks by GC in ms.
+     */
+    private static final long GC_TIMEOUT = 10000;
+
+    private UndoHistoryStorage storage;
+
+    @BeforeEach
+    public void createStorage() {
+        storage = new UndoHistoryStorage();
+    }
+
+    @AfterEach
+    public void clearStorage() {
+        storage.clear();
+    }
+
+    @Test
+    public void storeInMemory() {
+
+        var data = new byte[SPILLED_SIZE];
+        Arrays.fill(data, (byte) 7);
+
+        var storedData = storage.store(data);
+
+        assertArrayEquals(data, storedData.load());
+        assertTrue(storedData.getEstimatedSize() < data.length);
+        assertEquals(0, storage.getFileSize());
+    }
+
+    @Test
+    public void storeSpilled() {
+
+        var first = randomData(1);
+        var second = randomData(2);
+
+        var firstStored = storage.store(first);
+        var secondStored = storage.store(second);
+
+        assertTrue(storage.getFileSize() >= first.length + second.length);
+        assertTrue(firstStored.getEstimatedSize() < 1024);
+        assertArrayEquals(first, firstStored.load());
+        assertArrayEquals(second, secondStored.load());
+    }
+
+    @Test
+    public void loadAfterClear() {
+
+        var storedData = storage.store(randomData(1));
+
+        storage.clear();
+
+        assertEquals(0, storage.getFileSize());
+        assertThrows(IllegalStateException.class, storedData::load);
+    }
+
+    @Test
+    public void truncateFreeTail() throws InterruptedException {
+
+        var first = storage.store(randomData(1));
+        var sizeWithFirst = storage.getFileSize();
+
+        storeAndDrop(randomData(2));
+        waitForFileSize(size -> size == sizeWithFirst);
+
+        assertArrayEquals(randomData(1), first.load());
+
+        first = null;
+        waitForFileSize(size -> size == 0);
+    }
+
+    @Test
+    public void reuseFreeBlocks() throws InterruptedException {
+
+        var first = storage.store(randomData(1));
+
+        // the middle payload is larger to be sure that its block fits the next payload
+        var middle = new byte[SPILLED_SIZE * 2];
+        new Random(2).nextBytes(middle);
+        storeAndDrop(middle);
+
+        var third = storage.store(randomData(3));
+        var deadline = System.currentTimeMillis() + GC_TIMEOUT;
+
+        while (System.currentTimeMillis() < deadline) {
+
+            System.gc();
+            Thread.sleep(50);
+
+            var fileSize = storage.getFileSize();
+            var data = randomData(4);
+            var fourth = storage.store(data);
+
+            if (storage.getFileSize() == fileSize) {
+                assertArrayEquals(data, fourth.load());
+                assertArrayEquals(randomData(1), first.load());
+                assertArrayEquals(randomData(3), third.load());
+                return;
+            }
+        }
+
+        fail("The free block wasn't reused.");
+    }
+
+    /**
+     * Store the payload and drop the reference to it.
+     *
+     * @param data the payload.
+     */
+    private void storeAndDrop(@NotNull byte[] data) {
+        assertNotNull(storage.store(data));
+    }
+
+    private void waitForFileSize(@NotNull LongPredicate condition) throws InterruptedException {
+
+        var deadline = System.currentTimeMillis() + GC_TIMEOUT;
+
+        while (!condition.test(storage.getFileSize())) {
+
+            if (System.currentTimeMillis() > deadline) {
+                fail("Unexpected size of the temp file " + storage.getFileSize());
+            }
+
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    private static @NotNull byte[] randomData(long seed) {
+        var data = new byte[SPILLED_SIZE];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}